@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+
+@State(Scope.Benchmark)
+public class EquivalenceBenchmark {
+
+    private static final String FIRST = "HTTP://www.Example.com:80/articles/2024/./05/some%2darticle.html?page=2&sort=recent#comments";
+    private static final String SECOND = "http://www.example.com/articles/2024/05/some-article.html?page=2&sort=recent#comments";
+    private static final UrinReference<String, HttpQuery, Fragment<String>> FIRST_URIN = parse(FIRST);
+    private static final UrinReference<String, HttpQuery, Fragment<String>> SECOND_URIN = parse(SECOND);
+    private static final UrinReference<String, HttpQuery, Fragment<String>> DIFFERENT_HOST_URIN = parse("http://www.example.org/articles/2024/05/some-article.html?page=2&sort=recent#comments");
+
+    private static UrinReference<String, HttpQuery, Fragment<String>> parse(final String uriReference) {
+        try {
+            return HTTP.parseUrinReference(uriReference);
+        } catch (final ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public void equivalentStringsByParsing(final Blackhole blackhole) throws ParseException {
+        blackhole.consume(HTTP.parseUrinReference(FIRST).asString().equals(HTTP.parseUrinReference(SECOND).asString()));
+    }
+
+    @Benchmark
+    public void equivalentStringsBySchemeEquivalent(final Blackhole blackhole) {
+        blackhole.consume(Scheme.equivalent(FIRST, SECOND));
+    }
+
+    @Benchmark
+    public void equivalentUrinReferencesByAsString(final Blackhole blackhole) {
+        blackhole.consume(FIRST_URIN.asString().equals(SECOND_URIN.asString()));
+    }
+
+    @Benchmark
+    public void equivalentUrinReferencesByIsEquivalentTo(final Blackhole blackhole) {
+        blackhole.consume(FIRST_URIN.isEquivalentTo(SECOND_URIN));
+    }
+
+    @Benchmark
+    public void compareUrinReferencesByAsString(final Blackhole blackhole) {
+        blackhole.consume(SECOND_URIN.asString().compareTo(DIFFERENT_HOST_URIN.asString()));
+    }
+
+    @Benchmark
+    public void compareUrinReferencesByCanonicalOrder(final Blackhole blackhole) {
+        blackhole.consume(UrinReference.canonicalOrder().compare(SECOND_URIN, DIFFERENT_HOST_URIN));
+    }
+
+}
@@ -10,15 +10,22 @@
 
 package net.sourceforge.urin;
 
+import net.sourceforge.urin.scheme.http.HttpQuery;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static net.sourceforge.urin.Authority.authority;
 import static net.sourceforge.urin.Fragment.fragment;
 import static net.sourceforge.urin.Host.registeredName;
 import static net.sourceforge.urin.Path.path;
+import static net.sourceforge.urin.Segment.segment;
 import static net.sourceforge.urin.scheme.http.Http.http;
 import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameter;
 import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameters;
@@ -26,6 +33,37 @@ import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameters;
 @State(Scope.Benchmark)
 public class GeneratorBenchmark {
 
+    private static final List<Segment<String>> LONG_PATH_SEGMENTS = longPathSegments();
+    private static final List<HttpQuery.QueryParameter> LONG_QUERY_PARAMETERS = longQueryParameters();
+    private static final Urin<String, HttpQuery, Fragment<String>> LONG_URIN = longHttpUri();
+
+    private final ByteBuffer byteBuffer = ByteBuffer.allocate(4096);
+
+    private static List<Segment<String>> longPathSegments() {
+        final List<Segment<String>> segments = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            segments.add(segment("segment-" + i));
+        }
+        return segments;
+    }
+
+    private static List<HttpQuery.QueryParameter> longQueryParameters() {
+        final List<HttpQuery.QueryParameter> queryParameters = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            queryParameters.add(queryParameter("parameter" + i, "value " + i));
+        }
+        return queryParameters;
+    }
+
+    private static Urin<String, HttpQuery, Fragment<String>> longHttpUri() {
+        return http(
+                authority(registeredName("example.com")),
+                path(LONG_PATH_SEGMENTS),
+                queryParameters(LONG_QUERY_PARAMETERS),
+                fragment("d")
+        );
+    }
+
     @Benchmark
     public void httpUriGenerate(final Blackhole blackhole) {
         blackhole.consume(http(
@@ -39,4 +77,45 @@ public class GeneratorBenchmark {
         ).asString());
     }
 
+    @Benchmark
+    public void longHttpUriGenerate(final Blackhole blackhole) {
+        blackhole.consume(longHttpUri().asString());
+    }
+
+    @Benchmark
+    public void longHttpUriAsString(final Blackhole blackhole) {
+        blackhole.consume(LONG_URIN.asString());
+    }
+
+    @Benchmark
+    public void longHttpUriFingerprint64(final Blackhole blackhole) {
+        blackhole.consume(longHttpUri().fingerprint64());
+    }
+
+    @Benchmark
+    public void longHttpUriFingerprint128(final Blackhole blackhole) {
+        blackhole.consume(longHttpUri().fingerprint128());
+    }
+
+    @Benchmark
+    public void longHttpUriAsStringGetBytes(final Blackhole blackhole) {
+        byteBuffer.clear();
+        byteBuffer.put(LONG_URIN.asString().getBytes(US_ASCII));
+        blackhole.consume(byteBuffer);
+    }
+
+    @Benchmark
+    public void longHttpUriWriteToByteBuffer(final Blackhole blackhole) {
+        byteBuffer.clear();
+        LONG_URIN.writeTo(byteBuffer);
+        blackhole.consume(byteBuffer);
+    }
+
+    @Benchmark
+    public void longHttpUriWritePathAndQueryToByteBuffer(final Blackhole blackhole) {
+        byteBuffer.clear();
+        LONG_URIN.writePathAndQueryTo(byteBuffer);
+        blackhole.consume(byteBuffer);
+    }
+
 }
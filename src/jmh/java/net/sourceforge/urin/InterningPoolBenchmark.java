@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import static net.sourceforge.urin.Fragment.STRING_FRAGMENT_MAKING_DECODER;
+import static net.sourceforge.urin.InterningPool.interningPool;
+import static net.sourceforge.urin.Segment.STRING_SEGMENT_MAKING_DECODER;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+import static net.sourceforge.urin.scheme.http.HttpQuery.httpQueryMakingDecoder;
+
+@State(Scope.Benchmark)
+public class InterningPoolBenchmark {
+
+    private static final String URL = "http://example.com/articles/2024/some%20article.html?page=2&sort=date";
+    private static final Scheme<String, HttpQuery, Fragment<String>> INTERNING_HTTP = new Scheme.GenericScheme<>(
+            "http",
+            STRING_SEGMENT_MAKING_DECODER.interning(interningPool(1024)),
+            httpQueryMakingDecoder(interningPool(1024)),
+            STRING_FRAGMENT_MAKING_DECODER
+    );
+
+    @Benchmark
+    public String parseAndGetQueryParameterName() throws ParseException {
+        return HTTP.parseUrin(URL).query().iterator().next().name();
+    }
+
+    @Benchmark
+    public String parseAndGetQueryParameterNameInterning() throws ParseException {
+        return INTERNING_HTTP.parseUrin(URL).query().iterator().next().name();
+    }
+
+}
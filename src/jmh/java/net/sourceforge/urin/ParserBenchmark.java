@@ -19,6 +19,9 @@ import org.openjdk.jmh.infra.Blackhole;
 @State(Scope.Benchmark)
 public class ParserBenchmark {
 
+    private static final Scheme<Long, Query<String>, Fragment<String>> LONG_SEGMENT_SCHEME = new Scheme.GenericScheme<>("ids", Segment.LONG_SEGMENT_MAKING_DECODER, Query.STRING_QUERY_MAKING_DECODER, Fragment.STRING_FRAGMENT_MAKING_DECODER);
+    private static final Scheme<String, Query<String>, Fragment<String>> STRING_SEGMENT_SCHEME = Scheme.scheme("ids");
+
     @Benchmark
     public void httpUriParse(final Blackhole blackhole) throws ParseException {
         blackhole.consume(Http.parseHttpUrin("http://example.com/foo/bar/baz/qux?a=b;c#d"));
@@ -30,4 +33,18 @@ public class ParserBenchmark {
         blackhole.consume(Http.parseHttpUrinReference("://example.com/foo/bar/baz/qux?a=b;c#d"));
     }
 
+    @Benchmark
+    public void numericPathParseViaStringSegments(final Blackhole blackhole) throws ParseException {
+        for (final Segment<String> segment : STRING_SEGMENT_SCHEME.parseUrin("ids:/1234567/89012345/-678").path()) {
+            blackhole.consume(Long.parseLong(segment.value()));
+        }
+    }
+
+    @Benchmark
+    public void numericPathParseViaLongSegments(final Blackhole blackhole) throws ParseException {
+        for (final Segment<Long> segment : LONG_SEGMENT_SCHEME.parseUrin("ids:/1234567/89012345/-678").path()) {
+            blackhole.consume(segment.value());
+        }
+    }
+
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import net.sourceforge.urin.scheme.http.QueryCanonicalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static net.sourceforge.urin.scheme.http.Http.parseHttpUrin;
+import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameters;
+import static net.sourceforge.urin.scheme.http.QueryCanonicalizer.queryCanonicalizer;
+
+@State(Scope.Benchmark)
+public class QueryCanonicalizerBenchmark {
+
+    private static final QueryCanonicalizer QUERY_CANONICALIZER = queryCanonicalizer("utm_source", "utm_medium", "utm_campaign", "fbclid", "gclid");
+    private static final Comparator<HttpQuery.QueryParameter> NAME_THEN_VALUE = Comparator.<HttpQuery.QueryParameter, String>comparing(HttpQuery.QueryParameter::name)
+            .thenComparing(queryParameter -> queryParameter.hasValue() ? queryParameter.value() : "");
+
+    @Param({"1", "10", "50", "200"})
+    public int parameterCount;
+
+    private Urin<String, HttpQuery, Fragment<String>> urin;
+
+    @Setup
+    public void setUp() throws ParseException {
+        final Random random = new Random(parameterCount);
+        final StringBuilder uri = new StringBuilder("http://example.com/search?");
+        for (int i = 0; i < parameterCount; i++) {
+            if (i > 0) {
+                uri.append('&');
+            }
+            if (i % 10 == 3) {
+                uri.append("utm_source=newsletter");
+            } else {
+                uri.append("p").append(random.nextInt(parameterCount * 2)).append('=').append(Long.toHexString(random.nextLong()));
+            }
+        }
+        urin = parseHttpUrin(uri.toString());
+    }
+
+    @Benchmark
+    public void canonicalizeByRebuildingQuery(final Blackhole blackhole) {
+        final List<HttpQuery.QueryParameter> kept = new ArrayList<>();
+        for (final HttpQuery.QueryParameter queryParameter : urin.query()) {
+            if (!queryParameter.name().startsWith("utm_") && !"fbclid".equals(queryParameter.name()) && !"gclid".equals(queryParameter.name())) {
+                kept.add(queryParameter);
+            }
+        }
+        kept.sort(NAME_THEN_VALUE);
+        blackhole.consume(urin.withQuery(queryParameters(kept)).asString());
+    }
+
+    @Benchmark
+    public void canonicalizeUrinWithQueryCanonicalizer(final Blackhole blackhole) {
+        blackhole.consume(QUERY_CANONICALIZER.canonicalize(urin).asString());
+    }
+
+    @Benchmark
+    public void canonicalizeQueryToBufferWithQueryCanonicalizer(final Blackhole blackhole) {
+        final StringBuilder stringBuilder = new StringBuilder();
+        QUERY_CANONICALIZER.canonicalizeTo(urin.query(), stringBuilder);
+        blackhole.consume(stringBuilder);
+    }
+
+    @Benchmark
+    public void canonicalHashCodeWithQueryCanonicalizer(final Blackhole blackhole) {
+        blackhole.consume(QUERY_CANONICALIZER.canonicalHashCode(urin.query()));
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.sourceforge.urin.ResolvedBase.resolvedBase;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+
+@State(Scope.Benchmark)
+public class ResolvedBaseBenchmark {
+
+    private static final int LINKS_PER_PAGE = 500;
+    private static final Urin<String, HttpQuery, Fragment<String>> BASE_URI = parseBaseUri();
+    private static final List<String> LINKS = links();
+
+    private static Urin<String, HttpQuery, Fragment<String>> parseBaseUri() {
+        try {
+            return HTTP.parseUrin("http://example.com/articles/2024/05/some-article.html?page=2");
+        } catch (final ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> links() {
+        final List<String> links = new ArrayList<>(LINKS_PER_PAGE);
+        for (int i = 0; i < LINKS_PER_PAGE; i++) {
+            switch (i % 5) {
+                case 0:
+                    links.add("related-article-" + i + ".html");
+                    break;
+                case 1:
+                    links.add("../../" + i + "/index.html");
+                    break;
+                case 2:
+                    links.add("/tags/tag-" + i + "?sort=recent");
+                    break;
+                case 3:
+                    links.add("./images/figure-" + i + ".png#caption");
+                    break;
+                default:
+                    links.add("https://cdn.example.net/assets/" + i + ".js");
+                    break;
+            }
+        }
+        return links;
+    }
+
+    @Benchmark
+    public void resolvePageOfLinksWithUrinResolve(final Blackhole blackhole) throws ParseException {
+        for (final String link : LINKS) {
+            blackhole.consume(BASE_URI.resolve(HTTP.parseUrinReference(link)));
+        }
+    }
+
+    @Benchmark
+    public void resolvePageOfLinksWithResolvedBase(final Blackhole blackhole) throws ParseException {
+        blackhole.consume(resolvedBase(HTTP, BASE_URI).resolveAll(LINKS));
+    }
+
+}
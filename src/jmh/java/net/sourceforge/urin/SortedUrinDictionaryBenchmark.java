@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static net.sourceforge.urin.SortedUrinDictionary.sortedUrinDictionary;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+
+@State(Scope.Benchmark)
+public class SortedUrinDictionaryBenchmark {
+
+    private static final int URL_COUNT = 10_000;
+    private static final List<UrinReference<String, HttpQuery, Fragment<String>>> URLS = urls();
+    private static final TreeSet<String> TREE_SET = new TreeSet<>(asStrings(URLS));
+    private static final SortedUrinDictionary<String, HttpQuery, Fragment<String>> DICTIONARY = sortedUrinDictionary(HTTP, URLS);
+    private static final String PRESENT_URL = "http://host-5.example.com/articles/0005/some-article.html";
+
+    private static List<UrinReference<String, HttpQuery, Fragment<String>>> urls() {
+        final List<UrinReference<String, HttpQuery, Fragment<String>>> urls = new ArrayList<>(URL_COUNT);
+        final TreeSet<String> sorted = new TreeSet<>();
+        for (int i = 0; i < URL_COUNT; i++) {
+            sorted.add(String.format("http://host-%d.example.com/articles/%04d/some-article.html", i % 100, i));
+        }
+        for (final String url : sorted) {
+            try {
+                urls.add(HTTP.parseUrinReference(url));
+            } catch (final ParseException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return urls;
+    }
+
+    private static List<String> asStrings(final List<UrinReference<String, HttpQuery, Fragment<String>>> urinReferences) {
+        final List<String> strings = new ArrayList<>(urinReferences.size());
+        for (final UrinReference<String, HttpQuery, Fragment<String>> urinReference : urinReferences) {
+            strings.add(urinReference.asString());
+        }
+        return strings;
+    }
+
+    @Benchmark
+    public boolean treeSetOfStringsContains() {
+        return TREE_SET.contains(PRESENT_URL);
+    }
+
+    @Benchmark
+    public boolean sortedUrinDictionaryContains() {
+        return DICTIONARY.contains(PRESENT_URL);
+    }
+
+    @Benchmark
+    public int sortedUrinDictionaryRank() {
+        return DICTIONARY.rank(PRESENT_URL);
+    }
+
+}
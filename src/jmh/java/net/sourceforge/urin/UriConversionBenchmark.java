@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.URI;
+
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+
+@State(Scope.Benchmark)
+public class UriConversionBenchmark {
+
+    private static final URI JAVA_URI = URI.create("http://example.com/foo/bar/baz/qux?a=b&c=d%20e#f");
+    private static final Urin<String, HttpQuery, Fragment<String>> URIN = parseUrin();
+
+    private static Urin<String, HttpQuery, Fragment<String>> parseUrin() {
+        try {
+            return HTTP.parseUrin(JAVA_URI);
+        } catch (final ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public void uriToUrinFromRawComponents(final Blackhole blackhole) throws ParseException {
+        blackhole.consume(HTTP.parseUrin(JAVA_URI));
+    }
+
+    @Benchmark
+    public void uriToUrinFromAsciiString(final Blackhole blackhole) throws ParseException {
+        blackhole.consume(HTTP.parseUrin(JAVA_URI.toASCIIString()));
+    }
+
+    @Benchmark
+    public void urinToUriCached(final Blackhole blackhole) {
+        blackhole.consume(URIN.asUri());
+    }
+
+    @Benchmark
+    public void urinToUriFromString(final Blackhole blackhole) {
+        blackhole.consume(URI.create(URIN.asString()));
+    }
+
+}
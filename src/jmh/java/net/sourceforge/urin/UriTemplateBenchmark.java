@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static net.sourceforge.urin.Authority.authority;
+import static net.sourceforge.urin.Host.registeredName;
+import static net.sourceforge.urin.Path.path;
+import static net.sourceforge.urin.UriTemplate.uriTemplate;
+import static net.sourceforge.urin.scheme.http.Https.HTTPS;
+import static net.sourceforge.urin.scheme.http.Https.https;
+import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameter;
+import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameters;
+
+@State(Scope.Benchmark)
+public class UriTemplateBenchmark {
+
+    private static final UriTemplate URI_TEMPLATE = uriTemplate("https://{host}/search{?q,lang,page}");
+    private static final Map<String, Object> VARIABLES = new HashMap<>();
+
+    static {
+        VARIABLES.put("host", "example.com");
+        VARIABLES.put("q", "urin uri template");
+        VARIABLES.put("lang", "en");
+        VARIABLES.put("page", "2");
+    }
+
+    @Benchmark
+    public void httpsUriFactoryGenerate(final Blackhole blackhole) {
+        blackhole.consume(https(
+                authority(registeredName((String) VARIABLES.get("host"))),
+                path("search"),
+                queryParameters(
+                        queryParameter("q", (String) VARIABLES.get("q")),
+                        queryParameter("lang", (String) VARIABLES.get("lang")),
+                        queryParameter("page", (String) VARIABLES.get("page"))
+                )
+        ).asString());
+    }
+
+    @Benchmark
+    public void httpsUriTemplateExpand(final Blackhole blackhole) {
+        blackhole.consume(URI_TEMPLATE.expand(VARIABLES));
+    }
+
+    @Benchmark
+    public void httpsUriTemplateExpandToUrin(final Blackhole blackhole) throws ParseException {
+        blackhole.consume(URI_TEMPLATE.expandToUrin(HTTPS, VARIABLES));
+    }
+
+}
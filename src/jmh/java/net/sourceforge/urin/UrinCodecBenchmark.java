@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static net.sourceforge.urin.UrinCodec.urinCodec;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+
+@State(Scope.Benchmark)
+public class UrinCodecBenchmark {
+
+    private static final UrinCodec<String, HttpQuery, Fragment<String>> URIN_CODEC = urinCodec(HTTP);
+    private static final Urin<String, HttpQuery, Fragment<String>> URL = url();
+    private static final byte[] TEXT = URL.asString().getBytes(US_ASCII);
+    private static final byte[] BINARY = URIN_CODEC.encode(URL);
+
+    private static Urin<String, HttpQuery, Fragment<String>> url() {
+        try {
+            return HTTP.parseUrin("http://user@[2001:db8::7]:8080/articles/2024/some-article.html?page=2&sort=date#comments");
+        } catch (final ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeAsText() {
+        return URL.asString().getBytes(US_ASCII);
+    }
+
+    @Benchmark
+    public byte[] encodeAsBinary() {
+        return URIN_CODEC.encode(URL);
+    }
+
+    @Benchmark
+    public UrinReference<String, HttpQuery, Fragment<String>> decodeText() throws ParseException {
+        return HTTP.parseUrinReference(new String(TEXT, US_ASCII));
+    }
+
+    @Benchmark
+    public UrinReference<String, HttpQuery, Fragment<String>> decodeBinary() throws ParseException {
+        return URIN_CODEC.decode(BINARY);
+    }
+
+    @Benchmark
+    public UrinReference<String, HttpQuery, Fragment<String>> decodeBinaryChecked() throws ParseException {
+        return URIN_CODEC.decodeChecked(BINARY);
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static net.sourceforge.urin.UrinBloomFilter.urinBloomFilter;
+import static net.sourceforge.urin.UrinSet.urinSet;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+
+@State(Scope.Benchmark)
+public class UrinSetBenchmark {
+
+    private static final int URLS_PER_BATCH = 10_000;
+    private static final List<String> URLS = urls();
+
+    private static List<String> urls() {
+        final List<String> urls = new ArrayList<>(URLS_PER_BATCH);
+        for (int i = 0; i < URLS_PER_BATCH; i++) {
+            urls.add("http://host-" + i % 100 + ".example.com/articles/" + i + "/some-article.html?page=" + i % 7);
+        }
+        return urls;
+    }
+
+    @Benchmark
+    public void addBatchToHashSetOfParsedUrinReferences(final Blackhole blackhole) throws ParseException {
+        final Set<UrinReference<String, HttpQuery, Fragment<String>>> set = new HashSet<>();
+        for (final String url : URLS) {
+            set.add(HTTP.parseUrinReference(url));
+        }
+        blackhole.consume(set);
+    }
+
+    @Benchmark
+    public void addBatchToUrinSet(final Blackhole blackhole) {
+        final UrinSet<String, HttpQuery, Fragment<String>> set = urinSet(HTTP);
+        for (final String url : URLS) {
+            set.add(url);
+        }
+        blackhole.consume(set);
+    }
+
+    @Benchmark
+    public void addBatchToUrinBloomFilter(final Blackhole blackhole) {
+        final UrinBloomFilter bloomFilter = urinBloomFilter(URLS_PER_BATCH, 0.01);
+        for (final String url : URLS) {
+            bloomFilter.put(url);
+        }
+        blackhole.consume(bloomFilter);
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static net.sourceforge.urin.UrinStore.urinStore;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+
+@State(Scope.Benchmark)
+public class UrinStoreBenchmark {
+
+    private static final int URLS_IN_STORE = 100_000;
+
+    private java.nio.file.Path directory;
+    private UrinStore<String, HttpQuery, Fragment<String>> urinStore;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void createStore() throws IOException, ParseException {
+        directory = Files.createTempDirectory("urin-store-benchmark");
+        urinStore = urinStore(HTTP, directory);
+        for (int i = 0; i < URLS_IN_STORE; i++) {
+            urinStore.append(HTTP.parseUrinReference("http://host-" + i % 100 + ".example.com/articles/" + i + "/some-article.html?page=" + i % 7));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() throws IOException {
+        urinStore.close();
+        Files.delete(directory.resolve("urins.log"));
+        Files.delete(directory.resolve("urins.index"));
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void getAsString(final Blackhole blackhole) throws IOException {
+        blackhole.consume(urinStore.get(nextId++ % URLS_IN_STORE).asString());
+    }
+
+    @Benchmark
+    public void getPath(final Blackhole blackhole) throws IOException {
+        blackhole.consume(urinStore.get(nextId++ % URLS_IN_STORE).path());
+    }
+
+}
@@ -12,36 +12,171 @@ package net.sourceforge.urin;
 
 import java.util.*;
 
-import static java.util.Collections.emptyList;
-import static net.sourceforge.urin.PathHelper.appendSegmentsTo;
+import static java.util.Collections.singletonList;
+import static java.util.Objects.requireNonNull;
 import static net.sourceforge.urin.Segment.dot;
 import static net.sourceforge.urin.Segment.dotDot;
+import static net.sourceforge.urin.Segment.empty;
 
 /**
  * A path that begins with a '/' - typically representing a path relative to root.
  * <p>
+ * {@code AbsolutePath}s are persistent: a path made by {@link #child(Segment)} shares all of its parent's segments with its parent,
+ * and {@link #parent()} and {@link #ancestors()} return existing paths rather than copying segments.
+ * <p>
  * To create instances, see {@link Path}.
  */
 public final class AbsolutePath<T> extends Path<T> {
 
-    private final Collection<Segment<T>> segments;
+    private final AbsolutePath<T> parent;
+    private final Segment<T> lastSegment;
+    private final int depth;
+    private final int hashCode;
+    private int encodedLengthWithoutPrefix;
+
+    private AbsolutePath(final AbsolutePath<T> parent, final Segment<T> lastSegment, final int depth, final int hashCode) {
+        this.parent = parent;
+        this.lastSegment = lastSegment;
+        this.depth = depth;
+        this.hashCode = hashCode;
+    }
+
+    static <T> AbsolutePath<T> absolutePath(final Iterable<Segment<T>> segments) {
+        return new AbsolutePath<T>(null, null, 0, 1).appendNormalised(segments);
+    }
+
+    AbsolutePath<T> appendNormalised(final Iterable<Segment<T>> segments) {
+        AbsolutePath<T> result = this;
+        boolean endsWithDotSegment = false;
+        for (final Segment<T> segment : segments) {
+            if (dot().equals(segment)) {
+                endsWithDotSegment = true;
+            } else if (dotDot().equals(segment)) {
+                endsWithDotSegment = !result.isRoot();
+                if (endsWithDotSegment) {
+                    result = result.parent;
+                }
+            } else {
+                endsWithDotSegment = false;
+                result = result.appending(requireNonNull(segment, "Cannot instantiate AbsolutePath with null segment"));
+            }
+        }
+        if (endsWithDotSegment && !result.isRoot()) {
+            result = result.appending(empty());
+        }
+        return result.withoutSingleEmptySegment();
+    }
+
+    private AbsolutePath<T> appending(final Segment<T> segment) {
+        return new AbsolutePath<>(this, segment, depth + 1, 31 * hashCode + segment.hashCode());
+    }
+
+    private boolean isRoot() {
+        return parent == null;
+    }
+
+    private AbsolutePath<T> withoutSingleEmptySegment() {
+        return depth == 1 && lastSegment.isEmpty() ? parent : this;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns the path made by appending the given {@code Segment} to this path.
+     * The returned path shares this path's segments, so this takes constant time regardless of the depth of this path.
+     * <p>
+     * Dot segments are normalised in the same way as for {@link Path#path(Iterable)}, so appending {@link Segment#dot()}
+     * gives a path with a trailing empty segment, and appending {@link Segment#dotDot()} gives the parent of this path
+     * with a trailing empty segment.
+     *
+     * @param segment the {@code Segment} to append.
+     * @return the path made by appending the given {@code Segment} to this path.
+     */
+    public AbsolutePath<T> child(final Segment<T> segment) {
+        return appendNormalised(singletonList(requireNonNull(segment, "Cannot make child of AbsolutePath with null segment")));
+    }
+
+    /**
+     * Indicates whether this path has a parent, which is the case for every path except the root path, "{@code /}".
+     *
+     * @return whether this path has a parent.
+     */
+    public boolean hasParent() {
+        return !isRoot();
+    }
+
+    /**
+     * Returns the path made by removing the last {@code Segment} of this path.
+     * This takes constant time, and the returned path is shared with this path rather than copied.
+     *
+     * @return the path made by removing the last {@code Segment} of this path.
+     * @throws UnsupportedOperationException if this is the root path, which has no parent.
+     */
+    public AbsolutePath<T> parent() {
+        if (isRoot()) {
+            throw new UnsupportedOperationException("Attempt to get parent of the root path.");
+        }
+        return parent.withoutSingleEmptySegment();
+    }
+
+    /**
+     * Returns the ancestors of this path, nearest first, ending with the root path, "{@code /}".
+     * Each step of iteration takes constant time.
+     *
+     * @return the ancestors of this path, nearest first.
+     */
+    public Iterable<AbsolutePath<T>> ancestors() {
+        return () -> new Iterator<AbsolutePath<T>>() {
+            private AbsolutePath<T> current = AbsolutePath.this;
+
+            @Override
+            public boolean hasNext() {
+                return current.hasParent();
+            }
+
+            @Override
+            public AbsolutePath<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("Root path has no further ancestors.");
+                }
+                current = current.parent();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Gets the segments of this path as a fixed size {@code List} backed by an array, filled by a single walk up from
+     * this path.
+     */
+    List<Segment<T>> segmentList() {
+        @SuppressWarnings("unchecked") final Segment<T>[] result = (Segment<T>[]) new Segment<?>[depth];
+        AbsolutePath<T> current = this;
+        while (!current.isRoot()) {
+            result[current.depth - 1] = current.lastSegment;
+            current = current.parent;
+        }
+        return Arrays.asList(result);
+    }
 
-    AbsolutePath(final Iterable<Segment<T>> segments) {
-        final Deque<Segment<T>> normalisedSegments = normaliseRootless(segments);
-        while (!normalisedSegments.isEmpty() && (dot().equals(normalisedSegments.getFirst()) || dotDot().equals(normalisedSegments.getFirst()))) {
-            normalisedSegments.removeFirst();
+    private Segment<T> firstSegment() {
+        AbsolutePath<T> current = this;
+        while (current.depth > 1) {
+            current = current.parent;
         }
-        this.segments = normalisedSegments.size() == 1 && normalisedSegments.getFirst().isEmpty() ? emptyList() : normalisedSegments;
+        return current.lastSegment;
     }
 
     @Override
     boolean firstPartIsSuppliedButIsEmpty() {
-        return !segments.isEmpty() && segments.iterator().next().isEmpty();
+        return !isRoot() && firstSegment().isEmpty();
     }
 
     @Override
     boolean firstPartIsSuppliedButContainsColon() {
-        return !segments.isEmpty() && segments.iterator().next().containsColon();
+        return !isRoot() && firstSegment().containsColon();
     }
 
     @Override
@@ -49,9 +184,13 @@ public final class AbsolutePath<T> extends Path<T> {
         return this;
     }
 
+    AbsolutePath<T> withoutLastSegment() {
+        return isRoot() ? this : parent;
+    }
+
     @Override
     Path<T> replaceLastSegmentWith(final Iterable<Segment<T>> segments) {
-        return new AbsolutePath<>(appendSegmentsTo(this.segments, segments));
+        return withoutLastSegment().appendNormalised(segments);
     }
 
     @Override
@@ -61,26 +200,45 @@ public final class AbsolutePath<T> extends Path<T> {
 
     @Override
     public List<Segment<T>> segments() {
-        return new ArrayList<>(segments);
+        return new ArrayList<>(segmentList());
     }
 
     @Override
-    String asString(final PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria) {
-        final StringBuilder result = new StringBuilder("/");
+    int encodedLength(final PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria) {
+        return prefixWithDotSegmentCriteria.matches(this) ? lengthWithoutPrefix() + 2 : lengthWithoutPrefix();
+    }
+
+    private int lengthWithoutPrefix() {
+        int result = encodedLengthWithoutPrefix;
+        if (result == 0) {
+            result = Math.max(depth, 1);
+            AbsolutePath<T> current = this;
+            while (!current.isRoot()) {
+                result += current.lastSegment.encodedLength();
+                current = current.parent;
+            }
+            encodedLengthWithoutPrefix = result;
+        }
+        return result;
+    }
+
+    @Override
+    void appendTo(final AsciiOutput output, final PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria) {
+        output.append('/');
         if (prefixWithDotSegmentCriteria.matches(this)) {
-            result.append("./");
+            output.append("./");
         }
-        final Iterator<Segment<T>> segmentIterator = segments.iterator();
+        final Iterator<Segment<T>> segmentIterator = iterator();
         while (segmentIterator.hasNext()) {
-            result.append(segmentIterator.next().asString());
+            output.append(segmentIterator.next().asString());
             if (segmentIterator.hasNext()) {
-                result.append('/');
+                output.append('/');
             }
         }
-        return result.toString();
     }
 
     @Override
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
     public boolean equals(final Object object) {
         if (this == object) {
             return true;
@@ -89,27 +247,39 @@ public final class AbsolutePath<T> extends Path<T> {
         }
 
         final AbsolutePath<?> that = (AbsolutePath<?>) object;
-        return segments.equals(that.segments);
+        if (depth != that.depth || hashCode != that.hashCode) {
+            return false;
+        }
+        AbsolutePath<?> thisCurrent = this;
+        AbsolutePath<?> thatCurrent = that;
+        while (thisCurrent != thatCurrent && !thisCurrent.isRoot()) {
+            if (!thisCurrent.lastSegment.equals(thatCurrent.lastSegment)) {
+                return false;
+            }
+            thisCurrent = thisCurrent.parent;
+            thatCurrent = thatCurrent.parent;
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return segments.hashCode();
+        return hashCode;
     }
 
     @Override
     boolean isEmpty() {
-        return segments.isEmpty();
+        return isRoot();
     }
 
     @Override
     public String toString() {
-        return segments.toString();
+        return segmentList().toString();
     }
 
     @Override
     @SuppressWarnings("NullableProblems")
     public Iterator<Segment<T>> iterator() {
-        return segments.iterator();
+        return Collections.unmodifiableList(segmentList()).iterator();
     }
 }
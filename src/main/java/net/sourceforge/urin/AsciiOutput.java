@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Somewhere to write the encoded form of URI components to.  Encoded URI components are made up entirely of US-ASCII
+ * characters, so each character can be written as a single byte.
+ */
+abstract class AsciiOutput {
+
+    static AsciiOutput stringBuilderOutput(final StringBuilder stringBuilder) {
+        return new StringBuilderAsciiOutput(stringBuilder);
+    }
+
+    static AsciiOutput byteBufferOutput(final ByteBuffer byteBuffer) {
+        return new ByteBufferAsciiOutput(byteBuffer);
+    }
+
+    static AsciiOutput byteArrayOutput(final byte[] bytes, final int offset) {
+        return new ByteArrayAsciiOutput(bytes, offset);
+    }
+
+    static Fnv1a64AsciiOutput fnv1a64Output() {
+        return new Fnv1a64AsciiOutput();
+    }
+
+    static Fnv1a128AsciiOutput fnv1a128Output() {
+        return new Fnv1a128AsciiOutput();
+    }
+
+    abstract AsciiOutput append(char character);
+
+    abstract AsciiOutput append(String string);
+
+    private static final class StringBuilderAsciiOutput extends AsciiOutput {
+        private final StringBuilder stringBuilder;
+
+        StringBuilderAsciiOutput(final StringBuilder stringBuilder) {
+            this.stringBuilder = stringBuilder;
+        }
+
+        @Override
+        AsciiOutput append(final char character) {
+            stringBuilder.append(character);
+            return this;
+        }
+
+        @Override
+        AsciiOutput append(final String string) {
+            stringBuilder.append(string);
+            return this;
+        }
+    }
+
+    private static final class ByteBufferAsciiOutput extends AsciiOutput {
+        private final ByteBuffer byteBuffer;
+
+        ByteBufferAsciiOutput(final ByteBuffer byteBuffer) {
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        AsciiOutput append(final char character) {
+            byteBuffer.put((byte) character);
+            return this;
+        }
+
+        @Override
+        AsciiOutput append(final String string) {
+            for (int i = 0; i < string.length(); i++) {
+                byteBuffer.put((byte) string.charAt(i));
+            }
+            return this;
+        }
+    }
+
+    private static final class ByteArrayAsciiOutput extends AsciiOutput {
+        private final byte[] bytes;
+        private int index;
+
+        ByteArrayAsciiOutput(final byte[] bytes, final int offset) {
+            this.bytes = bytes;
+            this.index = offset;
+        }
+
+        @Override
+        AsciiOutput append(final char character) {
+            bytes[index++] = (byte) character;
+            return this;
+        }
+
+        @Override
+        AsciiOutput append(final String string) {
+            for (int i = 0; i < string.length(); i++) {
+                bytes[index++] = (byte) string.charAt(i);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Calculates the 64 bit FNV-1a hash of the bytes written.
+     *
+     * @see <a href="https://datatracker.ietf.org/doc/html/draft-eastlake-fnv">The FNV Non-Cryptographic Hash Algorithm</a>
+     */
+    static final class Fnv1a64AsciiOutput extends AsciiOutput {
+        private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+        private static final long PRIME = 0x100000001b3L;
+
+        private long hash = OFFSET_BASIS;
+
+        @Override
+        AsciiOutput append(final char character) {
+            hash = (hash ^ (character & 0xff)) * PRIME;
+            return this;
+        }
+
+        @Override
+        AsciiOutput append(final String string) {
+            for (int i = 0; i < string.length(); i++) {
+                append(string.charAt(i));
+            }
+            return this;
+        }
+
+        long hash() {
+            return hash;
+        }
+    }
+
+    /**
+     * Calculates the 128 bit FNV-1a hash of the bytes written.  The FNV prime for 128 bits is 2<sup>88</sup> + 0x13b, so
+     * multiplying by it is a shift plus a multiplication by a small number, which can be done in two {@code long}s.
+     *
+     * @see <a href="https://datatracker.ietf.org/doc/html/draft-eastlake-fnv">The FNV Non-Cryptographic Hash Algorithm</a>
+     */
+    static final class Fnv1a128AsciiOutput extends AsciiOutput {
+        private static final long OFFSET_BASIS_HIGH = 0x6c62272e07bb0142L;
+        private static final long OFFSET_BASIS_LOW = 0x62b821756295c58dL;
+        private static final long PRIME_LOW = 0x13bL;
+
+        private long high = OFFSET_BASIS_HIGH;
+        private long low = OFFSET_BASIS_LOW;
+
+        @Override
+        AsciiOutput append(final char character) {
+            final long xoredLow = low ^ (character & 0xff);
+            final long carry = ((xoredLow >>> 32) * PRIME_LOW + ((xoredLow & 0xffffffffL) * PRIME_LOW >>> 32)) >>> 32;
+            high = high * PRIME_LOW + carry + (xoredLow << 24);
+            low = xoredLow * PRIME_LOW;
+            return this;
+        }
+
+        @Override
+        AsciiOutput append(final String string) {
+            for (int i = 0; i < string.length(); i++) {
+                append(string.charAt(i));
+            }
+            return this;
+        }
+
+        long high() {
+            return high;
+        }
+
+        long low() {
+            return low;
+        }
+    }
+}
@@ -105,10 +105,28 @@ public abstract class Authority {
         }
     }
 
-    abstract String asString();
+    final String asString() {
+        final StringBuilder result = new StringBuilder(encodedLength());
+        appendTo(AsciiOutput.stringBuilderOutput(result));
+        return result.toString();
+    }
+
+    abstract int encodedLength();
+
+    abstract void appendTo(AsciiOutput output);
 
     abstract Authority removePort(Port port);
 
+    /**
+     * Gets the encoded user info, or null if there is none.
+     */
+    abstract String encodedUserInfo();
+
+    /**
+     * Gets the encoded port, or null if there is none.
+     */
+    abstract String encodedPort();
+
     public abstract Host host();
 
     private static class AuthorityWithHost extends Authority {
@@ -119,8 +137,13 @@ public abstract class Authority {
         }
 
         @Override
-        String asString() {
-            return host.asString();
+        int encodedLength() {
+            return host.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(host.asString());
         }
 
         @Override
@@ -128,6 +151,16 @@ public abstract class Authority {
             return this;
         }
 
+        @Override
+        String encodedUserInfo() {
+            return null;
+        }
+
+        @Override
+        String encodedPort() {
+            return null;
+        }
+
         @Override
         public Host host() {
             return host;
@@ -168,8 +201,13 @@ public abstract class Authority {
         }
 
         @Override
-        String asString() {
-            return userInfo.asString() + '@' + host.asString();
+        int encodedLength() {
+            return userInfo.encodedLength() + 1 + host.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(userInfo.asString()).append('@').append(host.asString());
         }
 
         @Override
@@ -177,6 +215,16 @@ public abstract class Authority {
             return this;
         }
 
+        @Override
+        String encodedUserInfo() {
+            return userInfo.asString();
+        }
+
+        @Override
+        String encodedPort() {
+            return null;
+        }
+
         @Override
         public Host host() {
             return host;
@@ -223,8 +271,13 @@ public abstract class Authority {
         }
 
         @Override
-        String asString() {
-            return host.asString() + ':' + port.asString();
+        int encodedLength() {
+            return host.encodedLength() + 1 + port.asString().length();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(host.asString()).append(':').append(port.asString());
         }
 
         @Override
@@ -232,6 +285,16 @@ public abstract class Authority {
             return this.port.equals(port) ? authority(host) : this;
         }
 
+        @Override
+        String encodedUserInfo() {
+            return null;
+        }
+
+        @Override
+        String encodedPort() {
+            return port.asString();
+        }
+
         @Override
         public Host host() {
             return host;
@@ -278,8 +341,13 @@ public abstract class Authority {
         }
 
         @Override
-        String asString() {
-            return userInfo.asString() + '@' + host.asString() + ':' + port.asString();
+        int encodedLength() {
+            return userInfo.encodedLength() + 1 + host.encodedLength() + 1 + port.asString().length();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(userInfo.asString()).append('@').append(host.asString()).append(':').append(port.asString());
         }
 
         @Override
@@ -287,6 +355,16 @@ public abstract class Authority {
             return this.port.equals(port) ? authority(userInfo, host) : this;
         }
 
+        @Override
+        String encodedUserInfo() {
+            return userInfo.asString();
+        }
+
+        @Override
+        String encodedPort() {
+            return port.asString();
+        }
+
         @Override
         public Host host() {
             return host;
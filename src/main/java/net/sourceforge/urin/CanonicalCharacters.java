@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.util.Iterator;
+
+import static net.sourceforge.urin.Path.PrefixWithDotSegmentCriteria.PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY;
+import static net.sourceforge.urin.Path.PrefixWithDotSegmentCriteria.PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON;
+
+/**
+ * Reads the canonical form of a URI reference, as written by {@link UriEquivalence#appendCanonicalTo(CharSequence, AsciiOutput)},
+ * a character at a time, without generating the {@code String} representation of the URI reference.
+ * <p>
+ * The canonical form is read as a series of pieces, each of which is either the encoded form of a component, such as
+ * the host, a path segment, or the query, which are cached, or a delimiter.  Percent encoded octets in each piece are
+ * normalised as they are read, using the same rules as {@code UriEquivalence}, so a segment that decodes to
+ * "{@code .}" or "{@code ..}" is kept percent encoded.  A URI reference whose path is written with dot segments that
+ * canonicalisation removes, such as the "{@code /.}" that prefixes a path beginning with an empty segment, is instead
+ * canonicalised in full, which is rare.
+ * <p>
+ * Not thread safe.
+ */
+final class CanonicalCharacters {
+
+    private static final int PATH_SEGMENTS = 10;
+    private static final int END = 15;
+
+    private final UrinReference<?, ?, ?> urinReference;
+    private final String scheme;
+    private final String userInfo;
+    private final String host;
+    private final String port;
+    private final String pathStart;
+    private final boolean dotPrefixed;
+    private final Iterator<? extends Segment<?>> segments;
+    private boolean separatorDue;
+    private int stage;
+    private CharSequence piece = "";
+    private boolean ignoreCase;
+    private boolean verbatim;
+    private int index;
+    private int pendingHexDigits;
+    private int octet;
+
+    CanonicalCharacters(final UrinReference<?, ?, ?> urinReference) {
+        this.urinReference = urinReference;
+        this.scheme = urinReference instanceof Urin ? ((Urin<?, ?, ?>) urinReference).scheme().asString() : null;
+        final Authority authority = urinReference.hasAuthority() ? urinReference.authority() : null;
+        this.userInfo = authority == null ? null : authority.encodedUserInfo();
+        this.host = authority == null ? null : authority.host().asString();
+        this.port = authority == null ? null : significantPort(scheme, authority.encodedPort());
+        final Path<?> path = urinReference.path();
+        this.pathStart = path.isAbsolute() || path.isEmpty() && authority != null ? "/" : null;
+        this.dotPrefixed = authority == null && dotPrefixed(scheme, path);
+        this.segments = path.iterator();
+        if (hasRemovableDotSegments(path)) {
+            piece = new Canonicaliser().canonicalise(urinReference).toString();
+            stage = END;
+        }
+    }
+
+    /**
+     * Writes the canonical form of the given URI reference, or of the URI reference it is a view of, to the given output.
+     */
+    static void appendCanonicalTo(final UrinReference<?, ?, ?> urinReference, final AsciiOutput output) {
+        final CanonicalCharacters canonicalCharacters = new CanonicalCharacters(urinReference.underlying());
+        int character = canonicalCharacters.next();
+        while (character != -1) {
+            output.append((char) character);
+            character = canonicalCharacters.next();
+        }
+    }
+
+    private static String significantPort(final String scheme, final String port) {
+        final String schemeName = scheme == null ? "" : scheme;
+        return port != null && UriEquivalence.isSignificantPort(schemeName, schemeName.length(), port, 0, port.length()) ? port : null;
+    }
+
+    private static boolean dotPrefixed(final String scheme, final Path<?> path) {
+        return (scheme == null ? PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON : PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY).matches(path);
+    }
+
+    /**
+     * Determines whether canonicalisation removes dot segments from the path as encoded, which it does for URIs and
+     * paths that begin with "{@code /}".
+     */
+    private boolean hasRemovableDotSegments(final Path<?> path) {
+        return (scheme != null || path.isAbsolute()) && (dotPrefixed || hasDotSegment(path));
+    }
+
+    private static boolean hasDotSegment(final Path<?> path) {
+        for (final Segment<?> segment : path) {
+            final String encoded = segment.asString();
+            if (".".equals(encoded) || "..".equals(encoded)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives the next character of the canonical form, or -1 if there are no more.
+     */
+    int next() {
+        if (pendingHexDigits > 0) {
+            pendingHexDigits--;
+            return Character.toUpperCase(Character.forDigit(pendingHexDigits == 1 ? octet >> 4 : octet & 0xf, 16));
+        }
+        while (index >= piece.length()) {
+            if (stage == END) {
+                return -1;
+            }
+            ignoreCase = stage == 0 || stage == 5;
+            verbatim = false;
+            piece = nextPiece();
+            index = 0;
+        }
+        if (verbatim) {
+            return piece.charAt(index++);
+        }
+        final int character = UriEquivalence.normalisedCharacter(piece, index, piece.length(), ignoreCase);
+        index += UriEquivalence.width(piece, index, piece.length());
+        if (character < 0) {
+            octet = -1 - character;
+            pendingHexDigits = 2;
+            return '%';
+        }
+        return character;
+    }
+
+    private CharSequence nextPiece() {
+        final CharSequence result;
+        if (stage < 5) {
+            result = schemeOrUserInfoPiece();
+        } else if (stage < PATH_SEGMENTS) {
+            result = hostOrPathStartPiece();
+        } else if (stage == PATH_SEGMENTS) {
+            return segmentPiece();
+        } else {
+            result = queryOrFragmentPiece();
+        }
+        stage++;
+        return result == null ? "" : result;
+    }
+
+    private CharSequence schemeOrUserInfoPiece() {
+        switch (stage) {
+            case 0:
+                return scheme;
+            case 1:
+                return scheme == null ? null : ":";
+            case 2:
+                return host == null ? null : "//";
+            case 3:
+                return userInfo;
+            default:
+                return userInfo == null ? null : "@";
+        }
+    }
+
+    private CharSequence hostOrPathStartPiece() {
+        switch (stage) {
+            case 5:
+                return host;
+            case 6:
+                return port == null ? null : ":";
+            case 7:
+                return port;
+            case 8:
+                return pathStart;
+            default:
+                return dotPrefixed ? "./" : null;
+        }
+    }
+
+    private CharSequence segmentPiece() {
+        if (separatorDue) {
+            separatorDue = false;
+            return "/";
+        } else if (!segments.hasNext()) {
+            stage++;
+            return "";
+        }
+        final String segment = segments.next().asString();
+        separatorDue = segments.hasNext();
+        final String encodedDotSegment = UriEquivalence.encodedDotSegment(segment, 0, segment.length());
+        verbatim = encodedDotSegment != null;
+        return verbatim ? encodedDotSegment : segment;
+    }
+
+    private CharSequence queryOrFragmentPiece() {
+        switch (stage) {
+            case 11:
+                return urinReference.hasQuery() ? "?" : null;
+            case 12:
+                return urinReference.hasQuery() ? urinReference.query().asString() : null;
+            case 13:
+                return urinReference.hasFragment() ? "#" : null;
+            default:
+                return urinReference.hasFragment() ? urinReference.fragment().asString() : null;
+        }
+    }
+}
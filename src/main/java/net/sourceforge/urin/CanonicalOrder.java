@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.util.Comparator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Orders URI references by their canonical forms, as written by {@link UriEquivalence#appendCanonicalTo(CharSequence, AsciiOutput)},
+ * compared as {@code String}s.
+ * <p>
+ * The canonical form of each URI reference is read a character at a time by {@link CanonicalCharacters}, so comparing
+ * stops at the first character that differs, and does not generate the {@code String} representation of either URI
+ * reference.
+ * <p>
+ * Immutable and thread safe.
+ */
+final class CanonicalOrder implements Comparator<UrinReference<?, ?, ?>> {
+
+    static final CanonicalOrder CANONICAL_ORDER = new CanonicalOrder();
+
+    private CanonicalOrder() {
+        // deliberately empty
+    }
+
+    @Override
+    public int compare(final UrinReference<?, ?, ?> first, final UrinReference<?, ?, ?> second) {
+        final CanonicalCharacters firstCharacters = new CanonicalCharacters(requireNonNull(first, "Cannot compare null UrinReference").underlying());
+        final CanonicalCharacters secondCharacters = new CanonicalCharacters(requireNonNull(second, "Cannot compare null UrinReference").underlying());
+        int firstCharacter;
+        int secondCharacter;
+        do {
+            firstCharacter = firstCharacters.next();
+            secondCharacter = secondCharacters.next();
+        } while (firstCharacter == secondCharacter && firstCharacter != -1);
+        return firstCharacter - secondCharacter;
+    }
+}
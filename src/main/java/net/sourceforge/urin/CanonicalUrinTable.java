@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * An open addressing hash table of the canonical forms of URI references, as written by
+ * {@link UriEquivalence#appendCanonicalTo(CharSequence, AsciiOutput)}, which is the shared implementation of
+ * {@code UrinSet} and {@code UrinMap}.
+ * <p>
+ * Each canonical form is stored as US-ASCII bytes in one of a list of large {@code ByteBuffer}s, which are either on
+ * or off heap.  Entries are numbered in the order they were added, and for each, the table holds the 64 bit FNV-1a hash
+ * of its canonical form, the address of its bytes, and their length.  Slots in the hash table hold entry numbers, so
+ * growing the table needs only the stored hashes.
+ * <p>
+ * Not thread safe.
+ */
+final class CanonicalUrinTable {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean offHeap;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final Canonicaliser canonicaliser = new Canonicaliser();
+    private CharSequence canonical = "";
+    private int chunkPosition;
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private long[] fingerprints = new long[INITIAL_CAPACITY];
+    private long[] addresses = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int size;
+
+    CanonicalUrinTable(final boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Finds the entry for the given URI reference.
+     *
+     * @return the number of the entry, or -1 if there is none.
+     */
+    int indexOf(final UrinReference<?, ?, ?> urinReference) {
+        canonical = canonicaliser.canonicalise(urinReference);
+        return slots[slot(fingerprint())] - 1;
+    }
+
+    /**
+     * Finds the entry for the given URI reference.
+     *
+     * @return the number of the entry, or -1 if there is none.
+     */
+    int indexOf(final CharSequence uriReference) {
+        canonical = canonicaliser.canonicalise(uriReference);
+        return slots[slot(fingerprint())] - 1;
+    }
+
+    /**
+     * Finds the entry for the given URI reference, adding one if there is none.
+     *
+     * @return the number of the existing entry, or -1 minus the number of the added entry.
+     */
+    int add(final UrinReference<?, ?, ?> urinReference) {
+        canonical = canonicaliser.canonicalise(urinReference);
+        return addCanonical();
+    }
+
+    /**
+     * Finds the entry for the given URI reference, adding one if there is none.
+     *
+     * @return the number of the existing entry, or -1 minus the number of the added entry.
+     */
+    int add(final CharSequence uriReference) {
+        canonical = canonicaliser.canonicalise(uriReference);
+        return addCanonical();
+    }
+
+    int size() {
+        return size;
+    }
+
+    String entry(final int index) {
+        final ByteBuffer chunk = chunks.get((int) (addresses[index] >>> 32));
+        final int position = (int) addresses[index];
+        final byte[] bytes = new byte[lengths[index]];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = chunk.get(position + i);
+        }
+        return new String(bytes, US_ASCII);
+    }
+
+    private long fingerprint() {
+        final AsciiOutput.Fnv1a64AsciiOutput output = AsciiOutput.fnv1a64Output();
+        for (int i = 0; i < canonical.length(); i++) {
+            output.append(canonical.charAt(i));
+        }
+        return output.hash();
+    }
+
+    private int addCanonical() {
+        final long fingerprint = fingerprint();
+        final int slot = slot(fingerprint);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        final int index = size;
+        if (index == fingerprints.length) {
+            final int capacity = index * 2;
+            fingerprints = Arrays.copyOf(fingerprints, capacity);
+            addresses = Arrays.copyOf(addresses, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        fingerprints[index] = fingerprint;
+        addresses[index] = store();
+        lengths[index] = canonical.length();
+        slots[slot] = index + 1;
+        size++;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return -1 - index;
+    }
+
+    /**
+     * Finds the slot that holds the entry for the canonical form, or the empty slot it would go in.
+     */
+    private int slot(final long fingerprint) {
+        final int mask = slots.length - 1;
+        int slot = spread(fingerprint) & mask;
+        while (slots[slot] != 0 && !matchesCanonical(slots[slot] - 1, fingerprint)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int spread(final long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    private boolean matchesCanonical(final int index, final long fingerprint) {
+        if (fingerprints[index] != fingerprint || lengths[index] != canonical.length()) {
+            return false;
+        }
+        final ByteBuffer chunk = chunks.get((int) (addresses[index] >>> 32));
+        final int position = (int) addresses[index];
+        for (int i = 0; i < lengths[index]; i++) {
+            if (chunk.get(position + i) != (byte) canonical.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long store() {
+        final int length = canonical.length();
+        if (chunks.isEmpty() || chunks.get(chunks.size() - 1).capacity() - chunkPosition < length) {
+            final int capacity = Math.max(CHUNK_SIZE, length);
+            chunks.add(offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+            chunkPosition = 0;
+        }
+        final ByteBuffer chunk = chunks.get(chunks.size() - 1);
+        for (int i = 0; i < length; i++) {
+            chunk.put(chunkPosition + i, (byte) canonical.charAt(i));
+        }
+        final long address = (long) (chunks.size() - 1) << 32 | chunkPosition;
+        chunkPosition += length;
+        return address;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        final int mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = spread(fingerprints[index]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+/**
+ * Writes the canonical forms of URI references, as defined by {@link UriEquivalence#appendCanonicalTo(CharSequence, AsciiOutput)},
+ * reusing the same buffers each time, so that the {@code CharSequence} returned is only valid until the next call.
+ * <p>
+ * Not thread safe.
+ */
+final class Canonicaliser {
+
+    private final StringBuilder encoded = new StringBuilder();
+    private final AsciiOutput encodedOutput = AsciiOutput.stringBuilderOutput(encoded);
+    private final StringBuilder canonical = new StringBuilder();
+    private final AsciiOutput canonicalOutput = AsciiOutput.stringBuilderOutput(canonical);
+
+    CharSequence canonicalise(final UrinReference<?, ?, ?> urinReference) {
+        encoded.setLength(0);
+        urinReference.appendTo(encodedOutput);
+        return canonicalise(encoded);
+    }
+
+    CharSequence canonicalise(final CharSequence uriReference) {
+        canonical.setLength(0);
+        UriEquivalence.appendCanonicalTo(uriReference, canonicalOutput);
+        return canonical;
+    }
+}
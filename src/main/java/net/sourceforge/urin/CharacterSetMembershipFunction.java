@@ -197,6 +197,14 @@ abstract class CharacterSetMembershipFunction {
 
     abstract String describe();
 
+    /**
+     * Returns a {@code CharacterSetMembershipFunction} with the same members and description as this one, that tests membership
+     * of ASCII characters with a single bit lookup, however deeply nested this one is.
+     */
+    CharacterSetMembershipFunction flattened() {
+        return new FlattenedCharacterSetMembershipFunction(this);
+    }
+
     CharacterSetMembershipFunction remove(final char excludedCharacter) {
         return new CharacterSetMembershipFunction() {
             @Override
@@ -211,4 +219,47 @@ abstract class CharacterSetMembershipFunction {
         };
     }
 
+    private static final class FlattenedCharacterSetMembershipFunction extends CharacterSetMembershipFunction {
+        private final CharacterSetMembershipFunction characterSetMembershipFunction;
+        private final long lowMembers;
+        private final long highMembers;
+
+        FlattenedCharacterSetMembershipFunction(final CharacterSetMembershipFunction characterSetMembershipFunction) {
+            this.characterSetMembershipFunction = characterSetMembershipFunction;
+            long low = 0;
+            long high = 0;
+            for (char character = 0; character < 64; character++) {
+                if (characterSetMembershipFunction.isMember(character)) {
+                    low |= 1L << character;
+                }
+                if (characterSetMembershipFunction.isMember((char) (character + 64))) {
+                    high |= 1L << character;
+                }
+            }
+            this.lowMembers = low;
+            this.highMembers = high;
+        }
+
+        @Override
+        boolean isMember(final char character) {
+            if (character < 64) {
+                return (lowMembers & (1L << character)) != 0;
+            } else if (character < 128) {
+                return (highMembers & (1L << (character - 64))) != 0;
+            } else {
+                return characterSetMembershipFunction.isMember(character);
+            }
+        }
+
+        @Override
+        String describe() {
+            return characterSetMembershipFunction.describe();
+        }
+
+        @Override
+        CharacterSetMembershipFunction flattened() {
+            return this;
+        }
+    }
+
 }
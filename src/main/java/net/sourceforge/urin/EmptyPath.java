@@ -54,8 +54,13 @@ final class EmptyPath<T> extends Path<T> {
     }
 
     @Override
-    String asString(final PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria) {
-        return "";
+    int encodedLength(final PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria) {
+        return 0;
+    }
+
+    @Override
+    void appendTo(final AsciiOutput output, final PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria) {
+        // the empty path is encoded as the empty string
     }
 
     @Override
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+/**
+ * A 128 bit fingerprint of a URI reference, as returned by {@link UrinReference#fingerprint128()}.
+ * Immutable and thread safe.
+ */
+public final class Fingerprint {
+
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+
+    Fingerprint(final long mostSignificantBits, final long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+    }
+
+    /**
+     * Gets the most significant 64 bits of this fingerprint.
+     *
+     * @return the most significant 64 bits of this fingerprint.
+     */
+    public long mostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    /**
+     * Gets the least significant 64 bits of this fingerprint.
+     *
+     * @return the least significant 64 bits of this fingerprint.
+     */
+    public long leastSignificantBits() {
+        return leastSignificantBits;
+    }
+
+    /**
+     * Gets this fingerprint as 32 lower case hexadecimal digits, most significant first.
+     *
+     * @return this fingerprint as 32 lower case hexadecimal digits.
+     */
+    public String asString() {
+        final StringBuilder result = new StringBuilder(32);
+        appendHex(result, mostSignificantBits);
+        appendHex(result, leastSignificantBits);
+        return result.toString();
+    }
+
+    private static void appendHex(final StringBuilder stringBuilder, final long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            stringBuilder.append(Character.forDigit((int) (value >>> shift) & 0xf, 16));
+        }
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        } else if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+
+        final Fingerprint that = (Fingerprint) object;
+        return mostSignificantBits == that.mostSignificantBits && leastSignificantBits == that.leastSignificantBits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(mostSignificantBits ^ leastSignificantBits);
+    }
+
+    @Override
+    public String toString() {
+        return "Fingerprint{" +
+                "value='" + asString() + '\'' +
+                '}';
+    }
+}
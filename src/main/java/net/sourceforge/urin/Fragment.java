@@ -38,6 +38,10 @@ public class Fragment<ENCODES> extends PercentEncodingUnaryValue<ENCODES> {
         super(fragment, percentEncoding);
     }
 
+    private Fragment(final PercentEncodingPartial.PercentEncoding<ENCODES> percentEncoding, final String encodedFragment) {
+        super(percentEncoding, encodedFragment);
+    }
+
     /**
      * Constructor for subclasses of {@code Fragment} with scheme specific percent encoding of characters beyond that specified for generic URI {@code Fragment}s.
      *
@@ -45,7 +49,7 @@ public class Fragment<ENCODES> extends PercentEncodingUnaryValue<ENCODES> {
      * @param percentEncodingPartial the {@code PercentEncodingPartial} this subclass will use.
      */
     protected Fragment(final ENCODES value, final PercentEncodingPartial<ENCODES, String> percentEncodingPartial) {
-        this(value, percentEncodingPartial.apply(PERCENT_ENCODING));
+        this(value, percentEncodingPartial.compile(PERCENT_ENCODING));
     }
 
     /**
@@ -58,6 +62,23 @@ public class Fragment<ENCODES> extends PercentEncodingUnaryValue<ENCODES> {
         return new Fragment<>(fragment, PERCENT_ENCODING);
     }
 
+    /**
+     * Factory method for creating {@code Fragment}s from their percent encoded form.  The given {@code String} is validated, but not
+     * decoded until the value of the {@code Fragment} is asked for, and is used as is when the {@code Fragment} is rendered.
+     * <p>
+     * The resulting {@code Fragment} is equal to one made by {@link #fragment(String)} from the decoded value, but is rendered using
+     * the given percent encoding, which may differ from the one {@code fragment(String)} would produce, for example if it encodes
+     * characters that don't need to be encoded.
+     *
+     * @param encodedFragment a percent encoded {@code String} to represent as a {@code Fragment}.
+     * @return a {@code Fragment} representing the given percent encoded {@code String}.
+     * @throws ParseException if the given {@code String} is not a valid percent encoded fragment.
+     */
+    public static Fragment<String> encodedFragment(final String encodedFragment) throws ParseException {
+        PERCENT_ENCODING.validate(encodedFragment);
+        return new Fragment<>(PERCENT_ENCODING, encodedFragment);
+    }
+
     /**
      * Factory method for {@code MakingDecoder}s of {@code String} {@code Fragment}s
      *
@@ -78,8 +99,9 @@ public class Fragment<ENCODES> extends PercentEncodingUnaryValue<ENCODES> {
      *
      * @return the (non-encoded) value of this fragment.
      */
+    @Override
     public final ENCODES value() {
-        return value;
+        return super.value();
     }
 
 }
@@ -77,6 +77,8 @@ public abstract class Host {
             singleMemberCharacterSet(':')
     );
 
+    private String encoded;
+
     private Host() {
     }
 
@@ -247,7 +249,20 @@ public abstract class Host {
         return AugmentedOptional.of(hexadectets);
     }
 
-    abstract String asString();
+    final String asString() {
+        String result = encoded;
+        if (result == null) {
+            result = encode();
+            encoded = result;
+        }
+        return result;
+    }
+
+    final int encodedLength() {
+        return asString().length();
+    }
+
+    abstract String encode();
 
     private static final class Elidable {
         private final String content;
@@ -267,7 +282,7 @@ public abstract class Host {
         }
     }
 
-    private static final class RegisteredName extends Host {
+    static final class RegisteredName extends Host {
         private static final CharacterSetMembershipFunction REGISTERED_NAME_CHARACTER_SET = or(
                 UNRESERVED,
                 SUB_DELIMITERS
@@ -290,7 +305,7 @@ public abstract class Host {
         }
 
         @Override
-        String asString() {
+        String encode() {
             return PERCENT_ENCODER.encode(registeredName);
         }
 
@@ -320,7 +335,7 @@ public abstract class Host {
         }
     }
 
-    private static final class IpV4Address extends Host {
+    static final class IpV4Address extends Host {
         private final Octet firstOctet;
         private final Octet secondOctet;
         private final Octet thirdOctet;
@@ -347,13 +362,17 @@ public abstract class Host {
         }
 
         @Override
-        String asString() {
+        String encode() {
             return firstOctet.asString() +
                     '.' + secondOctet.asString() +
                     '.' + thirdOctet.asString() +
                     '.' + fourthOctet.asString();
         }
 
+        Octet[] octets() {
+            return new Octet[]{firstOctet, secondOctet, thirdOctet, fourthOctet};
+        }
+
         @Override
         public boolean equals(final Object object) {
             if (this == object) {
@@ -389,7 +408,7 @@ public abstract class Host {
         }
     }
 
-    private static final class IpV6Address extends Host {
+    static final class IpV6Address extends Host {
         private final Hexadectet firstHexadectet;
         private final Hexadectet secondHexadectet;
         private final Hexadectet thirdHexadectet;
@@ -439,11 +458,15 @@ public abstract class Host {
         }
 
         @Override
-        String asString() {
+        String encode() {
             final Deque<Elidable> elided = elide(firstHexadectet, secondHexadectet, thirdHexadectet, fourthHexadectet, fifthHexadectet, sixthHexadectet, seventhHexadectet, eighthHexadectet);
             return "[" + elided.stream().map(elidable -> elidable.content).collect(joining(":")) + (elided.getLast().isElided ? ":" : "") + "]";
         }
 
+        Hexadectet[] hexadectets() {
+            return new Hexadectet[]{firstHexadectet, secondHexadectet, thirdHexadectet, fourthHexadectet, fifthHexadectet, sixthHexadectet, seventhHexadectet, eighthHexadectet};
+        }
+
         @Override
         public boolean equals(final Object object) {
             if (this == object) {
@@ -491,7 +514,7 @@ public abstract class Host {
         }
     }
 
-    private static class IpV6AddressWithTrailingIpV4Address extends Host {
+    static class IpV6AddressWithTrailingIpV4Address extends Host {
         private final Hexadectet firstHexadectet;
         private final Hexadectet secondHexadectet;
         private final Hexadectet thirdHexadectet;
@@ -548,11 +571,19 @@ public abstract class Host {
         }
 
         @Override
-        String asString() {
+        String encode() {
             final Deque<Elidable> elided = elide(firstHexadectet, secondHexadectet, thirdHexadectet, fourthHexadectet, fifthHexadectet, sixthHexadectet);
             return "[" + elided.stream().map(elidable -> elidable.content).collect(joining(":")) + ":" + ipV4Address(firstOctet, secondOctet, thirdOctet, fourthOctet).asString() + "]";
         }
 
+        Hexadectet[] hexadectets() {
+            return new Hexadectet[]{firstHexadectet, secondHexadectet, thirdHexadectet, fourthHexadectet, fifthHexadectet, sixthHexadectet};
+        }
+
+        Octet[] octets() {
+            return new Octet[]{firstOctet, secondOctet, thirdOctet, fourthOctet};
+        }
+
         @Override
         public boolean equals(final Object object) {
             if (this == object) {
@@ -606,18 +637,18 @@ public abstract class Host {
         }
     }
 
-    private static final class IpVFutureAddress extends Host {
+    static final class IpVFutureAddress extends Host {
         private static final Pattern IP_V_FUTURE_ADDRESS_REFERENCE_PATTERN = Pattern.compile("^\\[v([\\dABCDEFabcdef]+)\\.([^/?#]+)]");
 
         private final String version;
         private final String address;
 
-        private IpVFutureAddress(final String version, final String address) {
+        IpVFutureAddress(final String version, final String address) {
             this.version = version;
             this.address = address.toLowerCase(ENGLISH);
         }
 
-        private static AugmentedOptional<IpVFutureAddress> makeIpVFutureAddress(final String version, final String address) {
+        static AugmentedOptional<IpVFutureAddress> makeIpVFutureAddress(final String version, final String address) {
             if (version.isEmpty()) {
                 return AugmentedOptional.empty("Version must contain at least one character");
             }
@@ -649,10 +680,18 @@ public abstract class Host {
         }
 
         @Override
-        String asString() {
+        String encode() {
             return "[v" + version + '.' + address + ']';
         }
 
+        String version() {
+            return version;
+        }
+
+        String address() {
+            return address;
+        }
+
         @Override
         public boolean equals(final Object object) {
             if (this == object) {
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bounded pool of decoded URI components, such as {@code Segment}s, or the names of HTTP query parameters, keyed on
+ * their percent encoded forms, so that components that recur share one instance.
+ * <p>
+ * A pool is used by a {@code MakingDecoder} returned by {@link MakingDecoder#interning(InterningPool)}.  Components
+ * are looked up by comparing the characters of their percent encoded forms, so a component found in the pool is neither
+ * decoded, nor has its encoded form copied.  The pool is a fixed number of slots, each of which holds the most recently
+ * made component whose encoded form hashes to it, so the pool never grows, and components that recur often stay in it.
+ * <p>
+ * The pool counts the components found in it and the components made, and estimates the memory that sharing saves as 64
+ * bytes of object headers and fields, plus one byte per encoded character, for each component found.
+ * <p>
+ * Thread safe.
+ *
+ * @param <T> The type of component held by this pool.
+ */
+public final class InterningPool<T> {
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int ESTIMATED_OVERHEAD_BYTES = 64;
+
+    private final AtomicReferenceArray<Entry<T>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    private InterningPool(final int capacity) {
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Factory method for creating {@code InterningPool}s.
+     *
+     * @param capacity the number of components the pool can hold, which is rounded up to a power of two.
+     * @param <T>      The type of component held by the {@code InterningPool}.
+     * @return an empty {@code InterningPool}.
+     * @throws IllegalArgumentException if {@code capacity} is not positive, or is greater than 2<sup>30</sup>.
+     */
+    public static <T> InterningPool<T> interningPool(final int capacity) {
+        if (capacity <= 0 || capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("Cannot instantiate InterningPool with capacity " + capacity);
+        }
+        return new InterningPool<>(capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+    }
+
+    /**
+     * Gets the component whose percent encoded form is the given range of characters, decoding it with the given
+     * {@code Transformer} if it is not in this pool.
+     *
+     * @param source      a {@code CharSequence} containing the percent encoded form of a component.
+     * @param start       the index of the first character of the percent encoded form.
+     * @param end         the index after the last character of the percent encoded form.
+     * @param transformer the {@code Transformer} to decode the percent encoded form with.
+     * @return the component represented by the given percent encoded form.
+     * @throws ParseException if the component is not in this pool, and cannot be decoded.
+     */
+    public T intern(final CharSequence source, final int start, final int end, final Transformer<T, String> transformer) throws ParseException {
+        requireNonNull(transformer, "Cannot intern with null transformer");
+        return intern(requireNonNull(source, "Cannot intern null source"), start, end, transformer::decode);
+    }
+
+    T intern(final CharSequence source, final int start, final int end, final Maker<T> maker) throws ParseException {
+        final int hash = hash(source, start, end);
+        final int index = hash & (entries.length() - 1);
+        final Entry<T> entry = entries.get(index);
+        if (entry != null && entry.matches(hash, source, start, end)) {
+            hits.increment();
+            bytesSaved.add(ESTIMATED_OVERHEAD_BYTES + end - start);
+            return entry.value;
+        }
+        misses.increment();
+        final String encoded = source.subSequence(start, end).toString();
+        final T value = maker.make(encoded);
+        entries.set(index, new Entry<>(hash, encoded, value));
+        return value;
+    }
+
+    private static int hash(final CharSequence source, final int start, final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Gets the number of components found in this pool.
+     *
+     * @return the number of components found in this pool.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of components made because they were not found in this pool.
+     *
+     * @return the number of components made because they were not found in this pool.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the proportion of components looked up that were found in this pool.
+     *
+     * @return the proportion of components looked up that were found in this pool, or 0 if none have been looked up.
+     */
+    public double hitRate() {
+        final long hitCount = hitCount();
+        final long lookupCount = hitCount + missCount();
+        return lookupCount == 0 ? 0 : (double) hitCount / lookupCount;
+    }
+
+    /**
+     * Gets an estimate of the number of bytes of memory saved by sharing the components found in this pool, rather than
+     * making new ones.
+     *
+     * @return an estimate of the number of bytes of memory saved.
+     */
+    public long estimatedBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "InterningPool{" +
+                "capacity=" + entries.length() +
+                ", hitCount=" + hitCount() +
+                ", missCount=" + missCount() +
+                ", estimatedBytesSaved=" + estimatedBytesSaved() +
+                '}';
+    }
+
+    private static final class Entry<T> {
+        private final int hash;
+        private final String encoded;
+        private final T value;
+
+        Entry(final int hash, final String encoded, final T value) {
+            this.hash = hash;
+            this.encoded = encoded;
+            this.value = value;
+        }
+
+        boolean matches(final int hash, final CharSequence source, final int start, final int end) {
+            if (this.hash != hash || encoded.length() != end - start) {
+                return false;
+            }
+            for (int i = 0; i < encoded.length(); i++) {
+                if (encoded.charAt(i) != source.charAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -10,6 +10,8 @@
 
 package net.sourceforge.urin;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * A parser of encoded URI components.
  *
@@ -20,15 +22,56 @@ package net.sourceforge.urin;
 public abstract class MakingDecoder<NON_ENCODED, FACTORY_INPUT, ENCODED> {
 
     private final PercentEncodingPartial<FACTORY_INPUT, ENCODED> percentEncodingPartial;
+    private final InterningPool<NON_ENCODED> interningPool;
+    private CompiledMaker<NON_ENCODED, ENCODED> compiledMaker;
 
     protected MakingDecoder(final PercentEncodingPartial<FACTORY_INPUT, ENCODED> percentEncodingPartial) {
+        this(percentEncodingPartial, null);
+    }
+
+    private MakingDecoder(final PercentEncodingPartial<FACTORY_INPUT, ENCODED> percentEncodingPartial, final InterningPool<NON_ENCODED> interningPool) {
         this.percentEncodingPartial = percentEncodingPartial;
+        this.interningPool = interningPool;
     }
 
     protected abstract NON_ENCODED makeOne(FACTORY_INPUT input);
 
+    /**
+     * Gets a {@code MakingDecoder} that makes the same objects as this, but shares objects that have the same encoded
+     * form, using the given {@code InterningPool}.  Objects found in the pool are not decoded again.
+     *
+     * @param interningPool the {@code InterningPool} to share objects through.
+     * @return a {@code MakingDecoder} that shares objects through the given {@code InterningPool}.
+     */
+    public final MakingDecoder<NON_ENCODED, FACTORY_INPUT, ENCODED> interning(final InterningPool<NON_ENCODED> interningPool) {
+        final MakingDecoder<NON_ENCODED, FACTORY_INPUT, ENCODED> delegate = this;
+        return new MakingDecoder<NON_ENCODED, FACTORY_INPUT, ENCODED>(percentEncodingPartial, requireNonNull(interningPool, "Cannot intern with null interningPool")) {
+            @Override
+            protected NON_ENCODED makeOne(final FACTORY_INPUT input) {
+                return delegate.makeOne(input);
+            }
+        };
+    }
+
     final Maker<NON_ENCODED> toMaker(final PercentEncodingPartial.PercentEncoding<ENCODED> percentEncoding) {
-        return encoded -> makeOne(percentEncodingPartial.apply(percentEncoding).decode(encoded));
+        CompiledMaker<NON_ENCODED, ENCODED> result = compiledMaker;
+        if (result == null || !result.percentEncoding.equals(percentEncoding)) {
+            final PercentEncodingPartial.PercentEncoding<FACTORY_INPUT> compiledPercentEncoding = percentEncodingPartial.compile(percentEncoding);
+            final Maker<NON_ENCODED> decodingMaker = encoded -> makeOne(compiledPercentEncoding.decode(encoded));
+            result = new CompiledMaker<>(percentEncoding, interningPool == null ? decodingMaker : encoded -> interningPool.intern(encoded, 0, encoded.length(), decodingMaker));
+            compiledMaker = result;
+        }
+        return result.maker;
+    }
+
+    private static final class CompiledMaker<NON_ENCODED, ENCODED> {
+        private final PercentEncodingPartial.PercentEncoding<ENCODED> percentEncoding;
+        private final Maker<NON_ENCODED> maker;
+
+        CompiledMaker(final PercentEncodingPartial.PercentEncoding<ENCODED> percentEncoding, final Maker<NON_ENCODED> maker) {
+            this.percentEncoding = percentEncoding;
+            this.maker = maker;
+        }
     }
 
 }
@@ -131,7 +131,7 @@ public abstract class Path<T> implements Iterable<Segment<T>> {
      * @return a {@code AbsolutePath} representing the given {@code Segment}s.
      */
     public static <ENCODES> AbsolutePath<ENCODES> path(final Iterable<Segment<ENCODES>> segments) {
-        return new AbsolutePath<>(segments);
+        return AbsolutePath.absolutePath(segments);
     }
 
     static <SEGMENT> Path<SEGMENT> parseRootlessPath(final String rawPath, final MakingDecoder<Segment<SEGMENT>, ?, String> segmentMakingDecoder) throws ParseException {
@@ -186,7 +186,15 @@ public abstract class Path<T> implements Iterable<Segment<T>> {
 
     abstract boolean firstPartIsSuppliedButIsEmpty();
 
-    abstract String asString(PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria);
+    final String asString(final PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria) {
+        final StringBuilder result = new StringBuilder(encodedLength(prefixWithDotSegmentCriteria));
+        appendTo(AsciiOutput.stringBuilderOutput(result), prefixWithDotSegmentCriteria);
+        return result.toString();
+    }
+
+    abstract int encodedLength(PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria);
+
+    abstract void appendTo(AsciiOutput output, PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria);
 
     abstract boolean isEmpty();
 
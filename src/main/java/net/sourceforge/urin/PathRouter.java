@@ -0,0 +1,566 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.util.*;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+import static net.sourceforge.urin.Segment.STRING_SEGMENT_MAKING_DECODER;
+
+/**
+ * Matches {@code Path}s against a set of route templates, such as {@code /users/{id}/orders/{orderId}}.
+ * <p>
+ * A route template is an absolute path, each segment of which is one of:
+ * <ul>
+ *     <li>a literal segment, in encoded form, for example {@code users} or {@code caf%C3%A9},</li>
+ *     <li>a variable, such as {@code {id}}, which matches any single segment, or</li>
+ *     <li>a catch-all variable, such as {@code {path*}}, which matches all remaining segments, of which there must be at least one.
+ *     A catch-all variable may only appear as the last segment of a template.</li>
+ * </ul>
+ * <p>
+ * The templates are compiled into a trie of segments, so matching takes time proportional to the depth of the matched path
+ * rather than the number of routes.  Where more than one route matches a path, literal segments take precedence over variables,
+ * and variables take precedence over catch-all variables, segment by segment from the start of the path.  When a literal
+ * segment leads to no match, matching backtracks to try a variable and then a catch-all variable instead, but as each node of
+ * the trie is reached by only one sequence of choices, no node is visited more than once for a path, so backtracking is
+ * bounded by the size of the trie rather than growing with the depth of the path.
+ * <p>
+ * Immutable and thread safe.
+ *
+ * @param <V> The type of value associated with each route.
+ */
+public final class PathRouter<V> {
+
+    private final Node<V> root;
+    private final int maximumVariables;
+    private final List<Route<V>> routes;
+
+    private PathRouter(final List<Route<V>> routes) {
+        final Node<V> rootNode = new Node<>("");
+        int maximumVariableCount = 0;
+        for (final Route<V> route : routes) {
+            rootNode.add(route, 0);
+            maximumVariableCount = Math.max(maximumVariableCount, route.variableNames.size());
+        }
+        rootNode.compile();
+        this.root = rootNode;
+        this.maximumVariables = maximumVariableCount;
+        this.routes = routes;
+    }
+
+    /**
+     * Factory method for creating {@code Route}s.
+     *
+     * @param template a route template, such as {@code /users/{id}/orders/{orderId}}.
+     * @param value    the value to associate with paths that match the template.
+     * @param <V>      The type of value associated with the route.
+     * @return a {@code Route} representing the given template and value.
+     * @throws IllegalArgumentException if the given template is not a valid route template.
+     */
+    public static <V> Route<V> route(final String template, final V value) {
+        return new Route<>(requireNonNull(template, "Cannot instantiate Route with null template"), requireNonNull(value, "Cannot instantiate Route with null value"));
+    }
+
+    /**
+     * Factory method for creating {@code PathRouter}s from {@code Route}s.
+     *
+     * @param routes the {@code Route}s to match against.
+     * @param <V>    The type of value associated with each route.
+     * @return a {@code PathRouter} that matches the given {@code Route}s.
+     * @throws IllegalArgumentException if two of the given {@code Route}s have templates that match exactly the same paths.
+     */
+    @SafeVarargs
+    public static <V> PathRouter<V> pathRouter(final Route<V>... routes) {
+        final List<Route<V>> routeList = new ArrayList<>(routes.length);
+        for (final Route<V> route : routes) {
+            routeList.add(route);
+        }
+        return pathRouter(routeList);
+    }
+
+    /**
+     * Factory method for creating {@code PathRouter}s from an {@code Iterable} of {@code Route}s.
+     *
+     * @param routes the {@code Route}s to match against.
+     * @param <V>    The type of value associated with each route.
+     * @return a {@code PathRouter} that matches the given {@code Route}s.
+     * @throws IllegalArgumentException if two of the given {@code Route}s have templates that match exactly the same paths.
+     */
+    public static <V> PathRouter<V> pathRouter(final Iterable<Route<V>> routes) {
+        final List<Route<V>> routeList = new ArrayList<>();
+        for (final Route<V> route : routes) {
+            routeList.add(requireNonNull(route, "Cannot instantiate PathRouter with null route"));
+        }
+        return new PathRouter<>(unmodifiableList(routeList));
+    }
+
+    /**
+     * Matches the given {@code Path} against the routes of this router, comparing literal segments with the decoded values of the path's segments.
+     * The values of variables in the returned {@code Match} are the decoded values of the matching segments, except for catch-all variables,
+     * which are the remaining segments in encoded form, separated by '/'.
+     * <p>
+     * Only absolute and empty paths can match.
+     *
+     * @param path the {@code Path} to match.
+     * @return a {@code Match} for the route that matches the given path, or an empty {@code Optional} if no route matches.
+     */
+    public Optional<Match<V>> match(final Path<String> path) {
+        if (path.isAbsolute() || path.isEmpty()) {
+            final List<Segment<String>> segments = path.isEmpty() ? Collections.<Segment<String>>emptyList() : ((AbsolutePath<String>) path).segmentList();
+            final String[] variableValues = new String[maximumVariables];
+            final Node<V> matchingNode = root.match(segments, 0, variableValues, 0);
+            if (matchingNode != null) {
+                return Optional.of(new Match<>(matchingNode.route, variableValues));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Matches the given encoded path against the routes of this router, comparing literal segments with the encoded path's segments
+     * without decoding them.  The encoded path is expected to be in the form produced by this library, for example as the path part of
+     * a {@code Urin}'s {@code asString()}.  The values of variables in the returned {@code Match} are in encoded form.
+     *
+     * @param encodedPath an encoded absolute path, such as {@code /users/1234/orders/56}.
+     * @return a {@code Match} for the route that matches the given path, or an empty {@code Optional} if no route matches.
+     */
+    public Optional<Match<V>> matchEncoded(final String encodedPath) {
+        if (encodedPath.isEmpty() || encodedPath.charAt(0) == '/') {
+            final int start = encodedPath.length() > 1 ? 1 : encodedPath.length() + 1;
+            final String[] variableValues = new String[maximumVariables];
+            final Node<V> matchingNode = root.matchEncoded(encodedPath, start, variableValues, 0);
+            if (matchingNode != null) {
+                return Optional.of(new Match<>(matchingNode.route, variableValues));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the routes this router matches against, in the order they were supplied.
+     *
+     * @return the routes this router matches against.
+     */
+    public List<Route<V>> routes() {
+        return routes;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        } else if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+
+        final PathRouter<?> that = (PathRouter<?>) object;
+        return routes.equals(that.routes);
+    }
+
+    @Override
+    public int hashCode() {
+        return routes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PathRouter{routes=" + routes + '}';
+    }
+
+    /**
+     * A route template and its associated value.
+     * <p>
+     * Immutable and thread safe.
+     *
+     * @param <V> The type of value associated with the route.
+     */
+    public static final class Route<V> {
+        private final String template;
+        private final V value;
+        private final List<TemplateSegment> templateSegments;
+        private final List<String> variableNames;
+
+        private Route(final String template, final V value) {
+            this.template = template;
+            this.value = value;
+            if (template.isEmpty() || template.charAt(0) != '/') {
+                throw new IllegalArgumentException("Route template must begin with '/' in [" + template + "]");
+            }
+            final List<TemplateSegment> segments = new ArrayList<>();
+            final List<String> names = new ArrayList<>();
+            if (template.length() > 1) {
+                final String[] segmentStrings = template.substring(1).split("/", -1);
+                for (int i = 0; i < segmentStrings.length; i++) {
+                    final TemplateSegment templateSegment = TemplateSegment.parse(segmentStrings[i], template);
+                    if (templateSegment.isVariable()) {
+                        if (names.contains(templateSegment.variableName)) {
+                            throw new IllegalArgumentException("Variable {" + templateSegment.variableName + "} appears more than once in route template [" + template + "]");
+                        } else if (templateSegment.isCatchAll && i != segmentStrings.length - 1) {
+                            throw new IllegalArgumentException("Catch-all variable {" + templateSegment.variableName + "*} must be the last segment of route template [" + template + "]");
+                        }
+                        names.add(templateSegment.variableName);
+                    }
+                    segments.add(templateSegment);
+                }
+            }
+            this.templateSegments = segments;
+            this.variableNames = names;
+        }
+
+        /**
+         * Gets the template of this route.
+         *
+         * @return the template of this route.
+         */
+        public String template() {
+            return template;
+        }
+
+        /**
+         * Gets the value associated with this route.
+         *
+         * @return the value associated with this route.
+         */
+        public V value() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (this == object) {
+                return true;
+            } else if (object == null || getClass() != object.getClass()) {
+                return false;
+            }
+
+            final Route<?> that = (Route<?>) object;
+            return template.equals(that.template) && value.equals(that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = template.hashCode();
+            result = 31 * result + value.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Route{template='" + template + "', value=" + value + '}';
+        }
+    }
+
+    /**
+     * The result of matching a path against a {@code PathRouter}, made up of the matching route and the values of its variables.
+     * <p>
+     * Immutable and thread safe.
+     *
+     * @param <V> The type of value associated with the route.
+     */
+    public static final class Match<V> {
+        private final Route<V> route;
+        private final String[] variableValues;
+
+        private Match(final Route<V> route, final String[] variableValues) {
+            this.route = route;
+            this.variableValues = variableValues;
+        }
+
+        /**
+         * Gets the route that matched.
+         *
+         * @return the route that matched.
+         */
+        public Route<V> route() {
+            return route;
+        }
+
+        /**
+         * Gets the value associated with the route that matched.
+         *
+         * @return the value associated with the route that matched.
+         */
+        public V value() {
+            return route.value;
+        }
+
+        /**
+         * Gets the value of the given variable.
+         *
+         * @param name the name of a variable in the matching route's template.
+         * @return the value of the given variable.
+         * @throws IllegalArgumentException if the matching route's template does not have a variable with the given name.
+         */
+        public String variable(final String name) {
+            final int index = route.variableNames.indexOf(name);
+            if (index == -1) {
+                throw new IllegalArgumentException("Route template [" + route.template + "] does not have a variable named [" + name + "]");
+            }
+            return variableValues[index];
+        }
+
+        /**
+         * Gets the values of all variables in the matching route's template, in the order they appear in the template.
+         *
+         * @return a {@code Map} of variable names to values.
+         */
+        public Map<String, String> variables() {
+            final Map<String, String> result = new LinkedHashMap<>();
+            for (int i = 0; i < route.variableNames.size(); i++) {
+                result.put(route.variableNames.get(i), variableValues[i]);
+            }
+            return unmodifiableMap(result);
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (this == object) {
+                return true;
+            } else if (object == null || getClass() != object.getClass()) {
+                return false;
+            }
+
+            final Match<?> that = (Match<?>) object;
+            return route.equals(that.route) && variables().equals(that.variables());
+        }
+
+        @Override
+        public int hashCode() {
+            int result = route.hashCode();
+            result = 31 * result + variables().hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Match{route=" + route + ", variables=" + variables() + '}';
+        }
+    }
+
+    private static final class TemplateSegment {
+        private final String decodedLiteral;
+        private final String encodedLiteral;
+        private final String variableName;
+        private final boolean isCatchAll;
+
+        private TemplateSegment(final String decodedLiteral, final String encodedLiteral, final String variableName, final boolean isCatchAll) {
+            this.decodedLiteral = decodedLiteral;
+            this.encodedLiteral = encodedLiteral;
+            this.variableName = variableName;
+            this.isCatchAll = isCatchAll;
+        }
+
+        static TemplateSegment parse(final String segmentString, final String template) {
+            if (segmentString.length() > 1 && segmentString.charAt(0) == '{' && segmentString.charAt(segmentString.length() - 1) == '}') {
+                final boolean isCatchAll = segmentString.charAt(segmentString.length() - 2) == '*';
+                final String variableName = segmentString.substring(1, segmentString.length() - (isCatchAll ? 2 : 1));
+                if (variableName.isEmpty()) {
+                    throw new IllegalArgumentException("Variable must have a name in route template [" + template + "]");
+                }
+                for (int i = 0; i < variableName.length(); i++) {
+                    final char character = variableName.charAt(i);
+                    if (!(Character.isLetterOrDigit(character) || character == '_')) {
+                        throw new IllegalArgumentException("Character " + (i + 1) + " must be a letter, digit, or '_' in variable name [" + variableName + "] in route template [" + template + "]");
+                    }
+                }
+                return new TemplateSegment(null, null, variableName, isCatchAll);
+            } else {
+                final Segment<String> segment;
+                try {
+                    segment = Segment.parse(segmentString, STRING_SEGMENT_MAKING_DECODER);
+                } catch (final ParseException e) {
+                    throw new IllegalArgumentException("Invalid segment [" + segmentString + "] in route template [" + template + "]", e);
+                }
+                if (!segment.hasValue() && !segment.isEmpty()) {
+                    throw new IllegalArgumentException("Dot segment [" + segmentString + "] is not permitted in route template [" + template + "]");
+                }
+                return new TemplateSegment(segment.hasValue() ? segment.value() : "", segment.asString(), null, false);
+            }
+        }
+
+        boolean isVariable() {
+            return variableName != null;
+        }
+    }
+
+    private static final class Node<V> {
+        private final String decodedLiteral;
+        private final Map<String, Node<V>> literalChildren = new HashMap<>();
+        private LiteralTable<Node<V>> decodedLiteralChildren;
+        private LiteralTable<Node<V>> encodedLiteralChildren;
+        private Node<V> variableChild;
+        private Node<V> catchAllChild;
+        private Route<V> route;
+
+        Node(final String decodedLiteral) {
+            this.decodedLiteral = decodedLiteral;
+        }
+
+        void add(final Route<V> route, final int index) {
+            if (index == route.templateSegments.size()) {
+                if (this.route != null) {
+                    throw new IllegalArgumentException("Route template [" + route.template + "] matches the same paths as route template [" + this.route.template + "]");
+                }
+                this.route = route;
+            } else {
+                final TemplateSegment templateSegment = route.templateSegments.get(index);
+                final Node<V> child;
+                if (templateSegment.isCatchAll) {
+                    if (catchAllChild == null) {
+                        catchAllChild = new Node<>("");
+                    }
+                    child = catchAllChild;
+                } else if (templateSegment.isVariable()) {
+                    if (variableChild == null) {
+                        variableChild = new Node<>("");
+                    }
+                    child = variableChild;
+                } else {
+                    child = literalChildren.computeIfAbsent(templateSegment.encodedLiteral, key -> new Node<>(templateSegment.decodedLiteral));
+                }
+                child.add(route, index + 1);
+            }
+        }
+
+        void compile() {
+            final List<String> decodedKeys = new ArrayList<>(literalChildren.size());
+            final List<String> encodedKeys = new ArrayList<>(literalChildren.size());
+            final List<Node<V>> children = new ArrayList<>(literalChildren.size());
+            for (final Map.Entry<String, Node<V>> entry : literalChildren.entrySet()) {
+                final Node<V> child = entry.getValue();
+                decodedKeys.add(child.decodedLiteral);
+                encodedKeys.add(entry.getKey());
+                children.add(child);
+                child.compile();
+            }
+            decodedLiteralChildren = new LiteralTable<>(decodedKeys, children);
+            encodedLiteralChildren = new LiteralTable<>(encodedKeys, children);
+            if (variableChild != null) {
+                variableChild.compile();
+            }
+            if (catchAllChild != null) {
+                catchAllChild.compile();
+            }
+        }
+
+        Node<V> match(final List<Segment<String>> segments, final int index, final String[] variableValues, final int variableIndex) {
+            if (index == segments.size()) {
+                return route == null ? null : this;
+            }
+            final Segment<String> segment = segments.get(index);
+            if (segment.hasValue() || segment.isEmpty()) {
+                final String value = segment.hasValue() ? segment.value() : "";
+                final Node<V> literalChild = decodedLiteralChildren.get(value);
+                if (literalChild != null) {
+                    final Node<V> result = literalChild.match(segments, index + 1, variableValues, variableIndex);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                if (variableChild != null) {
+                    variableValues[variableIndex] = value;
+                    final Node<V> result = variableChild.match(segments, index + 1, variableValues, variableIndex + 1);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                if (catchAllChild != null && catchAllChild.route != null) {
+                    final StringBuilder remainder = new StringBuilder(segment.asString());
+                    for (int i = index + 1; i < segments.size(); i++) {
+                        remainder.append('/').append(segments.get(i).asString());
+                    }
+                    variableValues[variableIndex] = remainder.toString();
+                    return catchAllChild;
+                }
+            }
+            return null;
+        }
+
+        Node<V> matchEncoded(final String encodedPath, final int start, final String[] variableValues, final int variableIndex) {
+            if (start > encodedPath.length()) {
+                return route == null ? null : this;
+            }
+            final int slashIndex = encodedPath.indexOf('/', start);
+            final int end = slashIndex == -1 ? encodedPath.length() : slashIndex;
+            final Node<V> literalChild = encodedLiteralChildren.get(encodedPath, start, end);
+            if (literalChild != null) {
+                final Node<V> result = literalChild.matchEncoded(encodedPath, end + 1, variableValues, variableIndex);
+                if (result != null) {
+                    return result;
+                }
+            }
+            if (variableChild != null) {
+                variableValues[variableIndex] = encodedPath.substring(start, end);
+                final Node<V> result = variableChild.matchEncoded(encodedPath, end + 1, variableValues, variableIndex + 1);
+                if (result != null) {
+                    return result;
+                }
+            }
+            if (catchAllChild != null && catchAllChild.route != null) {
+                variableValues[variableIndex] = encodedPath.substring(start);
+                return catchAllChild;
+            }
+            return null;
+        }
+    }
+
+    private static final class LiteralTable<T> {
+        private final String[] keys;
+        private final Object[] values;
+        private final int mask;
+
+        LiteralTable(final List<String> keys, final List<T> values) {
+            int capacity = 2;
+            while (capacity < keys.size() * 2) {
+                capacity <<= 1;
+            }
+            this.keys = new String[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+            for (int i = 0; i < keys.size(); i++) {
+                final String key = keys.get(i);
+                int slot = spread(key.hashCode()) & mask;
+                while (this.keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = key;
+                this.values[slot] = values.get(i);
+            }
+        }
+
+        private static int spread(final int hashCode) {
+            return hashCode ^ (hashCode >>> 16);
+        }
+
+        T get(final String key) {
+            return get(key, 0, key.length());
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(final String source, final int start, final int end) {
+            int hashCode = 0;
+            for (int i = start; i < end; i++) {
+                hashCode = 31 * hashCode + source.charAt(i);
+            }
+            int slot = spread(hashCode) & mask;
+            while (keys[slot] != null) {
+                final String key = keys[slot];
+                if (key.length() == end - start && key.regionMatches(0, source, start, end - start)) {
+                    return (T) values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+}
@@ -10,8 +10,6 @@
 
 package net.sourceforge.urin;
 
-import java.util.Locale;
-
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static net.sourceforge.urin.CharacterSetMembershipFunction.*;
 
@@ -19,7 +17,7 @@ final class PercentEncoder {
     static final PercentEncoder ENCODE_NOTHING = new PercentEncoder(ALL_CHARACTERS);
     static final PercentEncoder ENCODE_EVERYTHING = new PercentEncoder(NO_CHARACTERS);
 
-    private static final Locale NO_LOCALISATION = null;
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
     private static final byte BINARY_1000_0000 = -128;
     private static final byte BINARY_1100_0000 = -64;
     private static final byte BINARY_1110_0000 = -32;
@@ -28,11 +26,7 @@ final class PercentEncoder {
     private final CharacterSetMembershipFunction nonPercentEncodedCharacterSet;
 
     PercentEncoder(final CharacterSetMembershipFunction nonPercentEncodedCharacterSet) {
-        this.nonPercentEncodedCharacterSet = nonPercentEncodedCharacterSet;
-    }
-
-    private static String percentEncode(final byte character) {
-        return String.format(NO_LOCALISATION, "%%%02X", character);
+        this.nonPercentEncodedCharacterSet = nonPercentEncodedCharacterSet.flattened();
     }
 
     private static byte getByte(final char[] source, final int startIndex) throws ParseException {
@@ -72,15 +66,41 @@ final class PercentEncoder {
     }
 
     String encode(final String notEncoded) {
-        final StringBuilder result = new StringBuilder();
-        for (final byte character : notEncoded.getBytes(UTF_8)) {
-            if (nonPercentEncodedCharacterSet.isMember((char) character)) {
-                result.append((char) character);
+        final StringBuilder result = new StringBuilder(notEncoded.length());
+        encode(notEncoded, 0, notEncoded.length(), result);
+        return result.toString();
+    }
+
+    void encode(final CharSequence notEncoded, final int startIndex, final int endIndex, final StringBuilder result) {
+        for (int i = startIndex; i < endIndex; i++) {
+            final char character = notEncoded.charAt(i);
+            if (character < 0x80) {
+                appendByte(character, result);
+            } else if (character < 0x800) {
+                appendByte(0xC0 | (character >> 6), result);
+                appendByte(0x80 | (character & 0x3F), result);
+            } else if (Character.isHighSurrogate(character) && i + 1 < endIndex && Character.isLowSurrogate(notEncoded.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(character, notEncoded.charAt(++i));
+                appendByte(0xF0 | (codePoint >> 18), result);
+                appendByte(0x80 | ((codePoint >> 12) & 0x3F), result);
+                appendByte(0x80 | ((codePoint >> 6) & 0x3F), result);
+                appendByte(0x80 | (codePoint & 0x3F), result);
+            } else if (Character.isSurrogate(character)) {
+                appendByte('?', result);
             } else {
-                result.append(percentEncode(character));
+                appendByte(0xE0 | (character >> 12), result);
+                appendByte(0x80 | ((character >> 6) & 0x3F), result);
+                appendByte(0x80 | (character & 0x3F), result);
             }
         }
-        return result.toString();
+    }
+
+    private void appendByte(final int character, final StringBuilder result) {
+        if (nonPercentEncodedCharacterSet.isMember((char) (byte) character)) {
+            result.append((char) (byte) character);
+        } else {
+            result.append('%').append(HEX_DIGITS[(character >> 4) & 0xF]).append(HEX_DIGITS[character & 0xF]);
+        }
     }
 
     String decode(final String encoded) throws ParseException {
@@ -90,23 +110,45 @@ final class PercentEncoder {
         for (int i = 0; i < candidateChars.length; i++) {
             final char candidateChar = candidateChars[i];
             if ('%' == candidateChar) {
-                buffer[0] = getByte(candidateChars, i);
-                final int byteCount = getByteCount(buffer[0]);
-                for (int j = 1; j < byteCount; j++) {
-                    buffer[j] = getByte(candidateChars, i + (3 * j));
-                }
+                final int byteCount = getPercentEncodedBytes(candidateChars, i, buffer);
                 i = i + (3 * byteCount) - 1;
                 result.append(new String(buffer, 0, byteCount, UTF_8));
             } else {
-                if (nonPercentEncodedCharacterSet.isMember(candidateChar)) {
-                    result.append(candidateChar);
-                } else {
-                    throw new ParseException("Invalid character [" + candidateChar + "] - must be " + nonPercentEncodedCharacterSet.describe());
-                }
+                result.append(nonPercentEncodedCharacter(candidateChar));
             }
         }
         return result.toString();
     }
 
+    void validate(final String encoded) throws ParseException {
+        final byte[] buffer = new byte[4];
+        final char[] candidateChars = encoded.toCharArray();
+        for (int i = 0; i < candidateChars.length; i++) {
+            final char candidateChar = candidateChars[i];
+            if ('%' == candidateChar) {
+                i = i + (3 * getPercentEncodedBytes(candidateChars, i, buffer)) - 1;
+            } else {
+                nonPercentEncodedCharacter(candidateChar);
+            }
+        }
+    }
+
+    private static int getPercentEncodedBytes(final char[] source, final int startIndex, final byte[] buffer) throws ParseException {
+        buffer[0] = getByte(source, startIndex);
+        final int byteCount = getByteCount(buffer[0]);
+        for (int j = 1; j < byteCount; j++) {
+            buffer[j] = getByte(source, startIndex + (3 * j));
+        }
+        return byteCount;
+    }
+
+    private char nonPercentEncodedCharacter(final char candidateChar) throws ParseException {
+        if (nonPercentEncodedCharacterSet.isMember(candidateChar)) {
+            return candidateChar;
+        } else {
+            throw new ParseException("Invalid character [" + candidateChar + "] - must be " + nonPercentEncodedCharacterSet.describe());
+        }
+    }
+
 
 }
@@ -13,13 +13,17 @@ package net.sourceforge.urin;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 
 import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
 import static java.util.regex.Pattern.quote;
-import static net.sourceforge.urin.CharacterSetMembershipFunction.NO_CHARACTERS;
+import static net.sourceforge.urin.CharacterSetMembershipFunction.DIGIT;
+import static net.sourceforge.urin.CharacterSetMembershipFunction.HEX_DIGIT;
 
 public abstract class PercentEncodingPartial<ENCODES, CHILD_ENCODES> {
+    private CompiledPercentEncoding<ENCODES, CHILD_ENCODES> compiledPercentEncoding;
+
     PercentEncodingPartial() {
     }
 
@@ -64,6 +68,33 @@ public abstract class PercentEncodingPartial<ENCODES, CHILD_ENCODES> {
         };
     }
 
+    public static PercentEncodingPartial<String, String> percentEncodedValue() {
+        return new PercentEncodingPartial<String, String>() {
+            @Override
+            public PercentEncoding<String> apply(final PercentEncoding<String> childPercentEncoding) {
+                return new PercentEncoding.PercentEncodedValue(childPercentEncoding);
+            }
+        };
+    }
+
+    public static PercentEncodingPartial<Long, String> percentEncodingLongValue() {
+        return new PercentEncodingPartial<Long, String>() {
+            @Override
+            public PercentEncoding<Long> apply(final PercentEncoding<String> childPercentEncoding) {
+                return new PercentEncoding.PercentEncodingLongValue(true, childPercentEncoding);
+            }
+        };
+    }
+
+    public static PercentEncodingPartial<UUID, String> percentEncodingUuidValue() {
+        return new PercentEncodingPartial<UUID, String>() {
+            @Override
+            public PercentEncoding<UUID> apply(final PercentEncoding<String> childPercentEncoding) {
+                return new PercentEncoding.PercentEncodingUuidValue(true, childPercentEncoding);
+            }
+        };
+    }
+
     public static PercentEncodingPartial<String, String> percentEncodingSubstitutedValue(final char originalCharacter, final char replacementCharacter) {
         return new PercentEncodingPartial<String, String>() {
             @Override
@@ -99,6 +130,20 @@ public abstract class PercentEncodingPartial<ENCODES, CHILD_ENCODES> {
 
     abstract PercentEncoding<ENCODES> apply(PercentEncoding<CHILD_ENCODES> childPercentEncoding);
 
+    /**
+     * Applies this to the given child {@code PercentEncoding}, reusing the result of the previous call if it was for the same child.
+     * Components are always built on one of a few constant child {@code PercentEncoding}s, so this means each
+     * {@code PercentEncoding} chain is built once, rather than every time a component is made or parsed.
+     */
+    final PercentEncoding<ENCODES> compile(final PercentEncoding<CHILD_ENCODES> childPercentEncoding) {
+        CompiledPercentEncoding<ENCODES, CHILD_ENCODES> result = compiledPercentEncoding;
+        if (result == null || !result.childPercentEncoding.equals(childPercentEncoding)) {
+            result = new CompiledPercentEncoding<>(childPercentEncoding, apply(childPercentEncoding));
+            compiledPercentEncoding = result;
+        }
+        return result.percentEncoding;
+    }
+
     final <SUPER_ENCODES> PercentEncodingPartial<SUPER_ENCODES, CHILD_ENCODES> chain(final PercentEncodingPartial<SUPER_ENCODES, ENCODES> superEncoder) {
         return new PercentEncodingPartial<SUPER_ENCODES, CHILD_ENCODES>() {
             @Override
@@ -108,6 +153,16 @@ public abstract class PercentEncodingPartial<ENCODES, CHILD_ENCODES> {
         };
     }
 
+    private static final class CompiledPercentEncoding<ENCODES, CHILD_ENCODES> {
+        private final PercentEncoding<CHILD_ENCODES> childPercentEncoding;
+        private final PercentEncoding<ENCODES> percentEncoding;
+
+        CompiledPercentEncoding(final PercentEncoding<CHILD_ENCODES> childPercentEncoding, final PercentEncoding<ENCODES> percentEncoding) {
+            this.childPercentEncoding = childPercentEncoding;
+            this.percentEncoding = percentEncoding;
+        }
+    }
+
     abstract static class PercentEncoding<ENCODES> {
         static PercentEncoding<String> percentEncodingString(final PercentEncoder percentEncoder) {
             return new PercentEncodingString(percentEncoder);
@@ -125,6 +180,10 @@ public abstract class PercentEncodingPartial<ENCODES, CHILD_ENCODES> {
 
         public abstract ENCODES decode(String encoded) throws ParseException;
 
+        public void validate(final String encoded) throws ParseException {
+            decode(encoded);
+        }
+
         public abstract PercentEncoding<ENCODES> additionallyEncoding(char additionallyEncodedCharacter);
 
         private static final class PercentEncodingString extends PercentEncoding<String> {
@@ -144,6 +203,11 @@ public abstract class PercentEncodingPartial<ENCODES, CHILD_ENCODES> {
                 return percentEncoder.decode(encoded);
             }
 
+            @Override
+            public void validate(final String encoded) throws ParseException {
+                percentEncoder.validate(encoded);
+            }
+
             @Override
             public PercentEncoding<String> additionallyEncoding(final char additionallyEncodedCharacter) {
                 return new PercentEncodingString(percentEncoder.additionallyEncoding(additionallyEncodedCharacter));
@@ -234,6 +298,148 @@ public abstract class PercentEncodingPartial<ENCODES, CHILD_ENCODES> {
 
         }
 
+        private static final class PercentEncodedValue extends PercentEncoding<String> {
+            private final PercentEncoding<String> percentEncoding;
+
+            PercentEncodedValue(final PercentEncoding<String> percentEncoding) {
+                this.percentEncoding = requireNonNull(percentEncoding, "Cannot instantiate PercentEncodedValue with null PercentEncoding");
+            }
+
+            @Override
+            public String encode(final String alreadyEncoded) {
+                return alreadyEncoded;
+            }
+
+            @Override
+            public String decode(final String encoded) throws ParseException {
+                percentEncoding.validate(encoded);
+                return encoded;
+            }
+
+            @Override
+            public void validate(final String encoded) throws ParseException {
+                percentEncoding.validate(encoded);
+            }
+
+            @Override
+            public PercentEncoding<String> additionallyEncoding(final char additionallyEncodedCharacter) {
+                return new PercentEncodedValue(percentEncoding.additionallyEncoding(additionallyEncodedCharacter));
+            }
+
+        }
+
+        private static final class PercentEncodingLongValue extends PercentEncoding<Long> {
+            private final boolean encodesDirectly;
+            private final PercentEncoding<String> percentEncoding;
+
+            PercentEncodingLongValue(final boolean encodesDirectly, final PercentEncoding<String> percentEncoding) {
+                this.encodesDirectly = encodesDirectly;
+                this.percentEncoding = percentEncoding;
+            }
+
+            @Override
+            public String encode(final Long notEncoded) {
+                return encodesDirectly ? Long.toString(notEncoded) : percentEncoding.encode(Long.toString(notEncoded));
+            }
+
+            @Override
+            public Long decode(final String encoded) throws ParseException {
+                return parseLong(encodesDirectly ? encoded : percentEncoding.decode(encoded));
+            }
+
+            @Override
+            public void validate(final String encoded) throws ParseException {
+                decode(encoded);
+            }
+
+            @Override
+            public PercentEncoding<Long> additionallyEncoding(final char additionallyEncodedCharacter) {
+                return new PercentEncodingLongValue(encodesDirectly && !DIGIT.isMember(additionallyEncodedCharacter) && additionallyEncodedCharacter != '-', percentEncoding.additionallyEncoding(additionallyEncodedCharacter));
+            }
+
+            private static long parseLong(final String digits) throws ParseException {
+                final boolean negative = digits.startsWith("-");
+                final int startIndex = negative ? 1 : 0;
+                if (digits.length() == startIndex || digits.length() - startIndex > 19) {
+                    throw new ParseException("Invalid long [" + digits + "] - must be an optional '-' followed by between 1 and 19 digits");
+                }
+                long result = 0;
+                for (int i = startIndex; i < digits.length(); i++) {
+                    final char character = digits.charAt(i);
+                    if (!DIGIT.isMember(character)) {
+                        throw new ParseException("Invalid character [" + character + "] in long [" + digits + "] - must be a digit");
+                    }
+                    result = 10 * result - (character - '0');
+                    if (result > 0) {
+                        throw new ParseException("Invalid long [" + digits + "] - out of range");
+                    }
+                }
+                if (!negative && result == Long.MIN_VALUE) {
+                    throw new ParseException("Invalid long [" + digits + "] - out of range");
+                }
+                return negative ? result : -result;
+            }
+        }
+
+        private static final class PercentEncodingUuidValue extends PercentEncoding<UUID> {
+            private final boolean encodesDirectly;
+            private final PercentEncoding<String> percentEncoding;
+
+            PercentEncodingUuidValue(final boolean encodesDirectly, final PercentEncoding<String> percentEncoding) {
+                this.encodesDirectly = encodesDirectly;
+                this.percentEncoding = percentEncoding;
+            }
+
+            @Override
+            public String encode(final UUID notEncoded) {
+                return encodesDirectly ? notEncoded.toString() : percentEncoding.encode(notEncoded.toString());
+            }
+
+            @Override
+            public UUID decode(final String encoded) throws ParseException {
+                return parseUuid(encodesDirectly ? encoded : percentEncoding.decode(encoded));
+            }
+
+            @Override
+            public void validate(final String encoded) throws ParseException {
+                decode(encoded);
+            }
+
+            @Override
+            public PercentEncoding<UUID> additionallyEncoding(final char additionallyEncodedCharacter) {
+                return new PercentEncodingUuidValue(encodesDirectly && !HEX_DIGIT.isMember(additionallyEncodedCharacter) && additionallyEncodedCharacter != '-', percentEncoding.additionallyEncoding(additionallyEncodedCharacter));
+            }
+
+            private static UUID parseUuid(final String uuid) throws ParseException {
+                if (uuid.length() != 36) {
+                    throw new ParseException("Invalid UUID [" + uuid + "] - must be 36 characters long");
+                }
+                long mostSignificantBits = 0;
+                long leastSignificantBits = 0;
+                for (int i = 0; i < uuid.length(); i++) {
+                    final char character = uuid.charAt(i);
+                    if (i == 8 || i == 13 || i == 18 || i == 23) {
+                        if (character != '-') {
+                            throw new ParseException("Invalid character [" + character + "] at index [" + i + "] in UUID [" + uuid + "] - must be '-'");
+                        }
+                    } else if (i < 18) {
+                        mostSignificantBits = (mostSignificantBits << 4) | hexValue(uuid, i);
+                    } else {
+                        leastSignificantBits = (leastSignificantBits << 4) | hexValue(uuid, i);
+                    }
+                }
+                return new UUID(mostSignificantBits, leastSignificantBits);
+            }
+
+            private static int hexValue(final String uuid, final int index) throws ParseException {
+                final char character = uuid.charAt(index);
+                if (!HEX_DIGIT.isMember(character)) {
+                    throw new ParseException("Invalid character [" + character + "] at index [" + index + "] in UUID [" + uuid + "] - must be a hex digit");
+                }
+                return Character.digit(character, 16);
+            }
+        }
+
         private static class SpecifiedValueEncoding extends PercentEncoding<String> {
 
             private final String encodedValue;
@@ -247,7 +453,7 @@ public abstract class PercentEncodingPartial<ENCODES, CHILD_ENCODES> {
             @Override
             public String encode(final String notEncoded) {
                 if (encodedValue.equals(notEncoded)) {
-                    return new PercentEncoder(NO_CHARACTERS).encode(notEncoded);
+                    return PercentEncoder.ENCODE_EVERYTHING.encode(notEncoded);
                 } else {
                     return percentEncoding.encode(notEncoded);
                 }
@@ -10,17 +10,93 @@
 
 package net.sourceforge.urin;
 
-abstract class PercentEncodingUnaryValue<ENCODING> extends UnaryValue<ENCODING> {
+import static java.util.Objects.requireNonNull;
+
+abstract class PercentEncodingUnaryValue<ENCODING> {
 
     private final PercentEncodingPartial.PercentEncoding<ENCODING> percentEncoding;
+    private final ENCODING value;
+    private final String encoded;
+    /**
+     * Whichever of the value and the encoded value was not supplied to the constructor, once it has been asked for.
+     */
+    private volatile Object derived;
 
     PercentEncodingUnaryValue(final ENCODING value, final PercentEncodingPartial.PercentEncoding<ENCODING> percentEncoding) {
-        super(value);
+        this.value = requireNonNull(value, "value cannot be null");
+        this.encoded = null;
         this.percentEncoding = percentEncoding;
     }
 
+    /**
+     * Constructor for values that are already percent encoded, which are decoded the first time their value is asked for.
+     * The caller is responsible for validating the given percent encoded {@code String}.
+     */
+    PercentEncodingUnaryValue(final PercentEncodingPartial.PercentEncoding<ENCODING> percentEncoding, final String encoded) {
+        this.value = null;
+        this.encoded = requireNonNull(encoded, "encoded value cannot be null");
+        this.percentEncoding = percentEncoding;
+    }
+
+    PercentEncodingUnaryValue(final ENCODING value, final String encoded, final PercentEncodingPartial.PercentEncoding<ENCODING> percentEncoding) {
+        this.value = requireNonNull(value, "value cannot be null");
+        this.encoded = requireNonNull(encoded, "encoded value cannot be null");
+        this.percentEncoding = percentEncoding;
+    }
+
+    @SuppressWarnings("unchecked")
+    ENCODING value() {
+        if (value != null) {
+            return value;
+        }
+        Object result = derived;
+        if (result == null) {
+            try {
+                result = percentEncoding.decode(encoded);
+            } catch (final ParseException e) {
+                throw new IllegalStateException("Cannot decode previously validated value [" + encoded + "]", e);
+            }
+            derived = result;
+        }
+        return (ENCODING) result;
+    }
+
     final String asString() {
-        return percentEncoding.encode(value);
+        if (encoded != null) {
+            return encoded;
+        }
+        Object result = derived;
+        if (result == null) {
+            result = percentEncoding.encode(value);
+            derived = result;
+        }
+        return (String) result;
+    }
+
+    final int encodedLength() {
+        return asString().length();
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        } else if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+
+        final PercentEncodingUnaryValue<?> that = (PercentEncodingUnaryValue<?>) object;
+        return value().equals(that.value());
+    }
+
+    @Override
+    public int hashCode() {
+        return value().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{value='" + value() + "'}";
     }
 
 }
@@ -38,6 +38,10 @@ public class Query<ENCODES> extends PercentEncodingUnaryValue<ENCODES> {
         super(value, percentEncoding);
     }
 
+    private Query(final PercentEncodingPartial.PercentEncoding<ENCODES> percentEncoding, final String encodedValue) {
+        super(percentEncoding, encodedValue);
+    }
+
     /**
      * Constructor for subclasses of {@code Query} with scheme specific percent encoding of characters beyond that specified for generic URI {@code Query}s.
      *
@@ -45,7 +49,42 @@ public class Query<ENCODES> extends PercentEncodingUnaryValue<ENCODES> {
      * @param percentEncodingPartial the {@code PercentEncodingPartial} this subclass will use.
      */
     protected Query(final ENCODES value, final PercentEncodingPartial<ENCODES, String> percentEncodingPartial) {
-        this(value, percentEncodingPartial.apply(PERCENT_ENCODING));
+        this(value, percentEncodingPartial.compile(PERCENT_ENCODING));
+    }
+
+    /**
+     * Constructor for subclasses of {@code Query} with scheme specific percent encoding of characters beyond that specified for generic URI {@code Query}s,
+     * that are rendered using the given percent encoded form of their value, rather than by encoding their value.
+     *
+     * @param value                  the (non encoded) value this object represents.
+     * @param encodedValue           a valid percent encoded form of the value, which this object will be rendered as.
+     * @param percentEncodingPartial the {@code PercentEncodingPartial} this subclass will use.
+     */
+    protected Query(final ENCODES value, final String encodedValue, final PercentEncodingPartial<ENCODES, String> percentEncodingPartial) {
+        super(value, encodedValue, percentEncodingPartial.compile(PERCENT_ENCODING));
+    }
+
+    /**
+     * Factory method for {@code Transformer}s that percent encode values in the same way as a subclass of {@code Query} constructed with the given {@code PercentEncodingPartial}.
+     * This allows subclasses to encode and decode parts of their values independently of the whole.
+     *
+     * @param percentEncodingPartial the {@code PercentEncodingPartial} the {@code Transformer} will use.
+     * @param <T>                    the type of value the {@code Transformer} encodes.
+     * @return a {@code Transformer} that percent encodes values using the given {@code PercentEncodingPartial}.
+     */
+    protected static <T> Transformer<T, String> percentEncodingTransformer(final PercentEncodingPartial<T, String> percentEncodingPartial) {
+        final PercentEncodingPartial.PercentEncoding<T> percentEncoding = percentEncodingPartial.apply(PERCENT_ENCODING);
+        return new Transformer<T, String>() {
+            @Override
+            public String encode(final T nonEncoded) {
+                return percentEncoding.encode(nonEncoded);
+            }
+
+            @Override
+            public T decode(final String rawValue) throws ParseException {
+                return percentEncoding.decode(rawValue);
+            }
+        };
     }
 
     /**
@@ -58,6 +97,23 @@ public class Query<ENCODES> extends PercentEncodingUnaryValue<ENCODES> {
         return new Query<>(query, PERCENT_ENCODING);
     }
 
+    /**
+     * Factory method for creating {@code Query}s from their percent encoded form.  The given {@code String} is validated, but not
+     * decoded until the value of the {@code Query} is asked for, and is used as is when the {@code Query} is rendered.
+     * <p>
+     * The resulting {@code Query} is equal to one made by {@link #query(String)} from the decoded value, but is rendered using
+     * the given percent encoding, which may differ from the one {@code query(String)} would produce, for example if it encodes
+     * characters that don't need to be encoded.
+     *
+     * @param encodedQuery a percent encoded {@code String} to represent as a {@code Query}.
+     * @return a {@code Query} representing the given percent encoded {@code String}.
+     * @throws ParseException if the given {@code String} is not a valid percent encoded query.
+     */
+    public static Query<String> encodedQuery(final String encodedQuery) throws ParseException {
+        PERCENT_ENCODING.validate(encodedQuery);
+        return new Query<>(PERCENT_ENCODING, encodedQuery);
+    }
+
     /**
      * Factory method for {@code MakingDecoder}s of {@code String} {@code Query}s.
      *
@@ -78,7 +134,8 @@ public class Query<ENCODES> extends PercentEncodingUnaryValue<ENCODES> {
      *
      * @return the (non-encoded) value of this query.
      */
+    @Override
     public final ENCODES value() {
-        return value;
+        return super.value();
     }
 }
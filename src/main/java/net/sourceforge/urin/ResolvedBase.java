@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A base URI prepared for resolving many references against, for example all the links on a web page.
+ * <p>
+ * Resolving a reference using a {@code ResolvedBase} gives the same result as resolving it using {@link Urin#resolve(UrinReference)}
+ * on the base, but the base's components and the path that relative paths are merged with are worked out once, when the
+ * {@code ResolvedBase} is created.  References given as {@code String}s are resolved as they are parsed, without first
+ * making a {@code RelativeReference}.
+ * <p>
+ * Immutable and thread safe.
+ *
+ * @param <SEGMENT>  The type of {@code Segment} used by paths of the base URI.
+ * @param <QUERY>    The type of {@code Query} used by the base URI.
+ * @param <FRAGMENT> The type of {@code Fragment} used by the base URI.
+ * @see <a href="http://tools.ietf.org/html/rfc3986#section-5">RFC 3986 - Reference Resolution</a>
+ */
+public final class ResolvedBase<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> {
+
+    private final Scheme<SEGMENT, QUERY, FRAGMENT> parsingScheme;
+    private final Urin<SEGMENT, QUERY, FRAGMENT> base;
+    private final Scheme<SEGMENT, QUERY, FRAGMENT> baseScheme;
+    private final boolean resolvesDirectly;
+    private final AbsolutePath<SEGMENT> mergePrefix;
+
+    private ResolvedBase(final Scheme<SEGMENT, QUERY, FRAGMENT> parsingScheme, final Urin<SEGMENT, QUERY, FRAGMENT> base) {
+        this.parsingScheme = requireNonNull(parsingScheme, "Cannot instantiate ResolvedBase with null scheme");
+        this.base = requireNonNull(base, "Cannot instantiate ResolvedBase with null base");
+        this.baseScheme = base.scheme();
+        final Path<SEGMENT> basePath = base.path();
+        this.resolvesDirectly = base.hasAuthority() && basePath.isAbsolute();
+        this.mergePrefix = resolvesDirectly ? ((AbsolutePath<SEGMENT>) basePath).withoutLastSegment() : Path.<SEGMENT>path();
+    }
+
+    /**
+     * Factory method for creating {@code ResolvedBase}s.
+     *
+     * @param scheme     the {@code Scheme} to use to parse references given as {@code String}s.
+     * @param base       the {@code Urin} to resolve references against.
+     * @param <SEGMENT>  The type of {@code Segment} used by paths of the base URI.
+     * @param <QUERY>    The type of {@code Query} used by the base URI.
+     * @param <FRAGMENT> The type of {@code Fragment} used by the base URI.
+     * @return a {@code ResolvedBase} for resolving references against the given {@code Urin}.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> ResolvedBase<SEGMENT, QUERY, FRAGMENT> resolvedBase(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Urin<SEGMENT, QUERY, FRAGMENT> base) {
+        return new ResolvedBase<>(scheme, base);
+    }
+
+    /**
+     * Gets the {@code Urin} that references are resolved against.
+     *
+     * @return the {@code Urin} that references are resolved against.
+     */
+    public Urin<SEGMENT, QUERY, FRAGMENT> base() {
+        return base;
+    }
+
+    /**
+     * Resolves the given {@code UrinReference} relative to the base.
+     *
+     * @param urinReference a {@code UrinReference} to resolve relative to the base.
+     * @return the {@code Urin} resulting from resolving the given {@code UrinReference} relative to the base.
+     */
+    public Urin<SEGMENT, QUERY, FRAGMENT> resolve(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
+        if (resolvesDirectly && urinReference instanceof RelativeReference && !urinReference.hasAuthority() && !urinReference.path().isEmpty()) {
+            final Path<SEGMENT> referencePath = urinReference.path();
+            final AbsolutePath<SEGMENT> path = referencePath.isAbsolute() ? (AbsolutePath<SEGMENT>) referencePath : mergePrefix.appendNormalised(referencePath);
+            if (urinReference.hasQuery()) {
+                return urinReference.hasFragment()
+                        ? baseScheme.urin(base.authority(), path, urinReference.query(), urinReference.fragment())
+                        : baseScheme.urin(base.authority(), path, urinReference.query());
+            } else {
+                return urinReference.hasFragment()
+                        ? baseScheme.urin(base.authority(), path, urinReference.fragment())
+                        : baseScheme.urin(base.authority(), path);
+            }
+        }
+        return base.resolve(urinReference);
+    }
+
+    /**
+     * Parses the given {@code String} as a URI reference, and resolves it relative to the base.
+     *
+     * @param uriReferenceString a {@code String} that represents a URI reference.
+     * @return the {@code Urin} resulting from resolving the given URI reference relative to the base.
+     * @throws ParseException if the given {@code String} is not a valid URI reference.
+     */
+    public Urin<SEGMENT, QUERY, FRAGMENT> resolve(final String uriReferenceString) throws ParseException {
+        if (resolvesDirectly) {
+            final int pathEndIndex = pathEndIndex(uriReferenceString);
+            if (pathEndIndex > 0 && !uriReferenceString.startsWith("//")) {
+                final AbsolutePath<SEGMENT> path = mergedPath(uriReferenceString, pathEndIndex);
+                if (!path.isEmpty()) {
+                    return resolved(uriReferenceString, pathEndIndex, path);
+                }
+            }
+        }
+        return base.resolve(parsingScheme.parseUrinReference(uriReferenceString));
+    }
+
+    /**
+     * Parses each of the given {@code String}s as a URI reference, and resolves it relative to the base.
+     *
+     * @param uriReferenceStrings {@code String}s that represent URI references.
+     * @return the {@code Urin}s resulting from resolving the given URI references relative to the base, in the same order.
+     * @throws ParseException if any of the given {@code String}s is not a valid URI reference.
+     */
+    public List<Urin<SEGMENT, QUERY, FRAGMENT>> resolveAll(final Iterable<String> uriReferenceStrings) throws ParseException {
+        final List<Urin<SEGMENT, QUERY, FRAGMENT>> result = new ArrayList<>();
+        for (final String uriReferenceString : uriReferenceStrings) {
+            result.add(resolve(uriReferenceString));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the end of the path of a URI reference that has no scheme.
+     *
+     * @return the index of the first '?' or '#' in the given {@code String}, or its length if it contains neither,
+     * or -1 if the given {@code String} begins with a scheme.
+     */
+    private static int pathEndIndex(final String uriReferenceString) {
+        boolean mayHaveScheme = true;
+        for (int i = 0; i < uriReferenceString.length(); i++) {
+            final char character = uriReferenceString.charAt(i);
+            if (character == '?' || character == '#') {
+                return i;
+            } else if (character == '/') {
+                mayHaveScheme = false;
+            } else if (character == ':' && mayHaveScheme && i > 0) {
+                return -1;
+            }
+        }
+        return uriReferenceString.length();
+    }
+
+    private AbsolutePath<SEGMENT> mergedPath(final String uriReferenceString, final int pathEndIndex) throws ParseException {
+        final String pathString = uriReferenceString.substring(0, pathEndIndex);
+        if (pathString.charAt(0) == '/') {
+            return parsingScheme.parsePath(pathString);
+        } else {
+            final String[] segmentStrings = pathString.split("/", -1);
+            final List<Segment<SEGMENT>> segments = new ArrayList<>(segmentStrings.length);
+            for (final String segmentString : segmentStrings) {
+                segments.add(parsingScheme.parseSegment(segmentString));
+            }
+            return mergePrefix.appendNormalised(Path.normaliseRootless(segments));
+        }
+    }
+
+    private Urin<SEGMENT, QUERY, FRAGMENT> resolved(final String uriReferenceString, final int pathEndIndex, final AbsolutePath<SEGMENT> path) throws ParseException {
+        final int fragmentIndex = uriReferenceString.indexOf('#', pathEndIndex);
+        final int queryEndIndex = fragmentIndex == -1 ? uriReferenceString.length() : fragmentIndex;
+        if (uriReferenceString.startsWith("?", pathEndIndex)) {
+            final QUERY query = parsingScheme.parseQuery(uriReferenceString.substring(pathEndIndex + 1, queryEndIndex));
+            return fragmentIndex == -1
+                    ? baseScheme.urin(base.authority(), path, query)
+                    : baseScheme.urin(base.authority(), path, query, parsingScheme.parseFragment(uriReferenceString.substring(fragmentIndex + 1)));
+        } else {
+            return fragmentIndex == -1
+                    ? baseScheme.urin(base.authority(), path)
+                    : baseScheme.urin(base.authority(), path, parsingScheme.parseFragment(uriReferenceString.substring(fragmentIndex + 1)));
+        }
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        } else if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+
+        final ResolvedBase<?, ?, ?> that = (ResolvedBase<?, ?, ?>) object;
+        return parsingScheme.equals(that.parsingScheme) && base.equals(that.base);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = parsingScheme.hashCode();
+        result = 31 * result + base.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ResolvedBase{scheme=" + parsingScheme + ", base=" + base + '}';
+    }
+}
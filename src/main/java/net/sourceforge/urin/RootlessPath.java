@@ -20,6 +20,7 @@ import static net.sourceforge.urin.PathHelper.appendSegmentsTo;
 final class RootlessPath<T> extends Path<T> {
 
     private final Collection<Segment<T>> segments;
+    private int encodedLengthWithoutPrefix = -1;
 
     RootlessPath(final Iterable<Segment<T>> segments) {
         this.segments = normaliseRootless(segments);
@@ -56,19 +57,34 @@ final class RootlessPath<T> extends Path<T> {
     }
 
     @Override
-    String asString(final PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria) {
-        final StringBuilder result = new StringBuilder();
+    int encodedLength(final PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria) {
+        return prefixWithDotSegmentCriteria.matches(this) ? lengthWithoutPrefix() + 2 : lengthWithoutPrefix();
+    }
+
+    private int lengthWithoutPrefix() {
+        int result = encodedLengthWithoutPrefix;
+        if (result == -1) {
+            result = Math.max(segments.size() - 1, 0);
+            for (final Segment<T> segment : segments) {
+                result += segment.encodedLength();
+            }
+            encodedLengthWithoutPrefix = result;
+        }
+        return result;
+    }
+
+    @Override
+    void appendTo(final AsciiOutput output, final PrefixWithDotSegmentCriteria prefixWithDotSegmentCriteria) {
         if (prefixWithDotSegmentCriteria.matches(this)) {
-            result.append("./");
+            output.append("./");
         }
         final Iterator<Segment<T>> segmentIterator = segments.iterator();
         while (segmentIterator.hasNext()) {
-            result.append(segmentIterator.next().asString());
+            output.append(segmentIterator.next().asString());
             if (segmentIterator.hasNext()) {
-                result.append('/');
+                output.append('/');
             }
         }
-        return result.toString();
     }
 
     @Override
@@ -92,6 +92,26 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         return new SchemeWithDefaultPort<>(name.toLowerCase(ENGLISH), defaultPort, STRING_SEGMENT_MAKING_DECODER, STRING_QUERY_MAKING_DECODER, STRING_FRAGMENT_MAKING_DECODER);
     }
 
+    /**
+     * Determines whether the given URI references are equivalent, without parsing them.  Percent encoded octets are
+     * compared by value, and percent encoded unreserved characters are equivalent to the characters themselves.  Schemes
+     * and hosts are compared case-insensitively.  An empty port is equivalent to no port, as are port 80 for http and port
+     * 443 for https.  Dot segments are removed from paths before they are compared, and an empty path is equivalent to
+     * "{@code /}" when there is an authority.  Characters outside US-ASCII are equivalent to the percent encoded octets
+     * of their UTF-8 encoding.
+     * <p>
+     * The components of the URI references are compared in turn, stopping at the first difference, and without creating
+     * any intermediate {@code String}s.  The given {@code CharSequence}s are not checked to be valid URI references.
+     *
+     * @param first  a {@code CharSequence} that represents a URI reference.
+     * @param second a {@code CharSequence} that represents a URI reference.
+     * @return true if the given URI references are equivalent.
+     * @see <a href="http://tools.ietf.org/html/rfc3986#section-6.2.2">RFC 3986 - Syntax-Based Normalization</a>
+     */
+    public static boolean equivalent(final CharSequence first, final CharSequence second) {
+        return UriEquivalence.equivalent(requireNonNull(first, "Cannot compare null URI reference"), requireNonNull(second, "Cannot compare null URI reference"));
+    }
+
     private static <T extends Exception> void verify(final String name, final ExceptionFactory<T> exceptionFactory) throws T {
         if (name.isEmpty()) {
             throw exceptionFactory.makeException("Scheme must contain at least one character");
@@ -100,19 +120,40 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         CharacterSetMembershipFunction.verify(TRAILING_CHARACTER_MEMBERSHIP_FUNCTION, name, "scheme", 1, exceptionFactory);
     }
 
-    private Scheme<SEGMENT, QUERY, FRAGMENT> parse(final String name) throws ParseException {
+    final Scheme<SEGMENT, QUERY, FRAGMENT> parse(final String name) throws ParseException {
         verify(name, PARSE_EXCEPTION_EXCEPTION_FACTORY);
         return withName(name);
     }
 
     abstract Scheme<SEGMENT, QUERY, FRAGMENT> withName(String name);
 
+    /**
+     * Gets the name of this scheme as it was given, without changing its case.
+     */
+    abstract String name();
+
     abstract String asString();
 
     abstract Authority normalise(Authority authority);
 
     abstract Scheme<SEGMENT, QUERY, FRAGMENT> removeDefaultPort();
 
+    final Segment<SEGMENT> parseSegment(final String segmentString) throws ParseException {
+        return Segment.parse(segmentString, segmentMakingDecoder);
+    }
+
+    final AbsolutePath<SEGMENT> parsePath(final String pathString) throws ParseException {
+        return Path.parsePath(pathString, segmentMakingDecoder);
+    }
+
+    final QUERY parseQuery(final String queryString) throws ParseException {
+        return Query.parseQuery(queryString, queryMakingDecoder);
+    }
+
+    final FRAGMENT parseFragment(final String fragmentString) throws ParseException {
+        return Fragment.parseFragment(fragmentString, fragmentMakingDecoder);
+    }
+
     /**
      * Factory method for creating {@code RelativeReference}s with just an empty path.
      *
@@ -289,6 +330,24 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         return new RelativeReferenceWithAuthorityAndQueryAndFragment<>(authority, path, query, fragment);
     }
 
+    /**
+     * Makes a {@code RelativeReference} from the given components, of which the authority, query, and fragment may be null.
+     * The caller is responsible for the path being absolute or empty if there is an authority.
+     */
+    final RelativeReference<SEGMENT, QUERY, FRAGMENT> makeRelativeReference(final Authority authority, final Path<SEGMENT> path, final QUERY query, final FRAGMENT fragment) {
+        if (authority == null) {
+            if (query == null) {
+                return fragment == null ? new RelativeReferenceNoAuthority<>(path) : new RelativeReferenceNoAuthorityWithFragment<>(path, fragment);
+            } else {
+                return fragment == null ? new RelativeReferenceNoAuthorityWithQuery<>(path, query) : new RelativeReferenceNoAuthorityWithQueryAndFragment<>(path, query, fragment);
+            }
+        } else if (query == null) {
+            return fragment == null ? new RelativeReferenceWithAuthority<>(authority, path) : new RelativeReferenceWithAuthorityAndFragment<>(authority, path, fragment);
+        } else {
+            return fragment == null ? new RelativeReferenceWithAuthorityAndQuery<>(authority, path, query) : new RelativeReferenceWithAuthorityAndQueryAndFragment<>(authority, path, query, fragment);
+        }
+    }
+
     /**
      * Parses the given {@code String} as a relative reference.
      *
@@ -306,14 +365,18 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
     }
 
     private RelativeReference<SEGMENT, QUERY, FRAGMENT> parseRelativeReference(final Matcher matcher) throws ParseException {
-        final ThrowingOptional<Authority> authority = ThrowingOptional.ofNullable(matcher.group(3)).map(Authority::parse);
-        final ThrowingOptional<String> pathString = ThrowingOptional.ofNullable(matcher.group(4)).filter(""::equals);
-        final ThrowingOptional<QUERY> query = ThrowingOptional.ofNullable(matcher.group(6)).map(qs -> Query.parseQuery(qs, queryMakingDecoder));
-        final ThrowingOptional<FRAGMENT> fragment = ThrowingOptional.ofNullable(matcher.group(8)).map(fs -> Fragment.parseFragment(fs, fragmentMakingDecoder));
+        return parseRelativeReference(matcher.group(3), matcher.group(4), matcher.group(6), matcher.group(8));
+    }
+
+    private RelativeReference<SEGMENT, QUERY, FRAGMENT> parseRelativeReference(final String authorityString, final String pathString, final String queryString, final String fragmentString) throws ParseException {
+        final ThrowingOptional<Authority> authority = ThrowingOptional.ofNullable(authorityString).map(Authority::parse);
+        final ThrowingOptional<String> path = ThrowingOptional.ofNullable(pathString).filter(""::equals);
+        final ThrowingOptional<QUERY> query = ThrowingOptional.ofNullable(queryString).map(qs -> Query.parseQuery(qs, queryMakingDecoder));
+        final ThrowingOptional<FRAGMENT> fragment = ThrowingOptional.ofNullable(fragmentString).map(fs -> Fragment.parseFragment(fs, fragmentMakingDecoder));
 
         return authority
                 .map(a ->
-                        pathString.map(ps -> Path.parsePath(ps, segmentMakingDecoder))
+                        path.map(ps -> Path.parsePath(ps, segmentMakingDecoder))
                                 .map(p -> query
                                         .map(q -> fragment.map(f -> relativeReference(a, p, q, f)).orElseGet(() -> relativeReference(a, p, q)))
                                         .orElseGet(() -> fragment.map(f -> relativeReference(a, p, f)).orElseGet(() -> relativeReference(a, p))))
@@ -321,7 +384,7 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
                                         .map(q -> fragment.map(f -> relativeReference(a, q, f)).orElseGet(() -> relativeReference(a, q)))
                                         .orElseGet(() -> fragment.map(f -> relativeReference(a, f)).orElseGet(() -> relativeReference(a)))))
                 .orElseGet(() ->
-                        pathString.map(ps -> ps.startsWith("/") ? Path.parsePath(ps, segmentMakingDecoder) : Path.parseRootlessPath(ps, segmentMakingDecoder))
+                        path.map(ps -> ps.startsWith("/") ? Path.parsePath(ps, segmentMakingDecoder) : Path.parseRootlessPath(ps, segmentMakingDecoder))
                                 .map(p -> query
                                         .map(q -> fragment.map(f -> relativeReference(p, q, f)).orElseGet(() -> relativeReference(p, q)))
                                         .orElseGet(() -> fragment.map(f -> relativeReference(p, f)).orElseGet(() -> relativeReference(p))))
@@ -333,12 +396,17 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
     /**
      * Parses the given {@code URI} to produce a {@code RelativeReference}.
+     * The raw components of the {@code URI} are parsed directly, unless they contain characters outside US-ASCII, in which
+     * case the {@code URI} is first converted to a US-ASCII {@code String}.
      *
      * @param uri a {@code URI} representing a relative reference to parse.
      * @return a {@code RelativeReference} representing the RFC 3986 relative reference represented by the given {@code URI}.
      * @throws ParseException if the given {@code URI} is not a valid RFC 3986 relative reference.
      */
     public final RelativeReference<SEGMENT, QUERY, FRAGMENT> parseRelativeReference(final URI uri) throws ParseException {
+        if (uri.getScheme() == null && hasUsAsciiComponents(uri)) {
+            return parseRelativeReference(rawAuthority(uri), uri.getRawPath(), uri.getRawQuery(), uri.getRawFragment());
+        }
         return parseRelativeReference(uri.toASCIIString());
     }
 
@@ -518,6 +586,27 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         return new UrinWithAuthorityAndPathAndQueryAndFragment<>(removeDefaultPort(), normalise(authority), path, query, fragment);
     }
 
+    /**
+     * Makes a {@code Urin} from the given components, of which the authority, query, and fragment may be null.  The
+     * caller is responsible for the path being absolute or empty if there is an authority.
+     */
+    final Urin<SEGMENT, QUERY, FRAGMENT> makeUrin(final Authority authority, final Path<SEGMENT> path, final QUERY query, final FRAGMENT fragment) {
+        final Scheme<SEGMENT, QUERY, FRAGMENT> scheme = removeDefaultPort();
+        if (authority == null) {
+            if (query == null) {
+                return fragment == null ? new UrinWithPath<>(scheme, path) : new UrinWithPathAndFragment<>(scheme, path, fragment);
+            } else {
+                return fragment == null ? new UrinWithPathAndQuery<>(scheme, path, query) : new UrinWithPathAndQueryAndFragment<>(scheme, path, query, fragment);
+            }
+        }
+        final Authority normalisedAuthority = normalise(authority);
+        if (query == null) {
+            return fragment == null ? new UrinWithAuthorityAndPath<>(scheme, normalisedAuthority, path) : new UrinWithAuthorityAndPathAndFragment<>(scheme, normalisedAuthority, path, fragment);
+        } else {
+            return fragment == null ? new UrinWithAuthorityAndPathAndQuery<>(scheme, normalisedAuthority, path, query) : new UrinWithAuthorityAndPathAndQueryAndFragment<>(scheme, normalisedAuthority, path, query, fragment);
+        }
+    }
+
     /**
      * Parses the given {@code String} as a URI.
      *
@@ -534,11 +623,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
     }
 
     private Urin<SEGMENT, QUERY, FRAGMENT> parseUrin(final Matcher matcher) throws ParseException {
-        final Scheme<SEGMENT, QUERY, FRAGMENT> scheme = parse(matcher.group(2));
-        final ThrowingOptional<Authority> authority = ThrowingOptional.ofNullable(matcher.group(5)).map(Authority::parse);
-        final String pathString = matcher.group(6);
-        final ThrowingOptional<QUERY> query = ThrowingOptional.ofNullable(matcher.group(8)).map(qs -> Query.parseQuery(qs, queryMakingDecoder));
-        final ThrowingOptional<FRAGMENT> fragment = ThrowingOptional.ofNullable(matcher.group(10)).map(fs -> Fragment.parseFragment(fs, fragmentMakingDecoder));
+        return parseUrin(matcher.group(2), matcher.group(5), matcher.group(6), matcher.group(8), matcher.group(10));
+    }
+
+    private Urin<SEGMENT, QUERY, FRAGMENT> parseUrin(final String schemeString, final String authorityString, final String pathString, final String queryString, final String fragmentString) throws ParseException {
+        final Scheme<SEGMENT, QUERY, FRAGMENT> scheme = parse(schemeString);
+        final ThrowingOptional<Authority> authority = ThrowingOptional.ofNullable(authorityString).map(Authority::parse);
+        final ThrowingOptional<QUERY> query = ThrowingOptional.ofNullable(queryString).map(qs -> Query.parseQuery(qs, queryMakingDecoder));
+        final ThrowingOptional<FRAGMENT> fragment = ThrowingOptional.ofNullable(fragmentString).map(fs -> Fragment.parseFragment(fs, fragmentMakingDecoder));
 
         return authority
                 .map(a ->
@@ -579,15 +671,47 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
     /**
      * Parses the given {@code URI} to produce a {@code Urin}.
+     * The raw components of the {@code URI} are parsed directly, unless they contain characters outside US-ASCII, in which
+     * case the {@code URI} is first converted to a US-ASCII {@code String}.
      *
      * @param uri a {@code URI} to parse.
      * @return a {@code Urin} representing the RFC 3986 URI represented by the given {@code URI}.
      * @throws ParseException if the given {@code URI} is not a valid RFC 3986 URI.
      */
     public final Urin<SEGMENT, QUERY, FRAGMENT> parseUrin(final URI uri) throws ParseException {
+        if (uri.getScheme() != null && hasUsAsciiComponents(uri)) {
+            return parseUrin(uri.getScheme(), rawAuthority(uri), uri.getRawPath(), uri.getRawQuery(), uri.getRawFragment());
+        }
         return parseUrin(uri.toASCIIString());
     }
 
+    /**
+     * Returns true if the raw components of the given {@code URI} can be parsed directly, without first converting the
+     * {@code URI} to a {@code String}.  This is the case for hierarchical {@code URI}s that contain only US-ASCII characters,
+     * as {@code URI} doesn't percent encode other characters in its raw components.
+     */
+    private static boolean hasUsAsciiComponents(final URI uri) {
+        if (uri.isOpaque()) {
+            return false;
+        }
+        final String uriString = uri.toString();
+        for (int i = 0; i < uriString.length(); i++) {
+            if (uriString.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code URI} reports an empty authority, as in "{@code file:///}", as absent, so this distinguishes the two by
+     * checking for the "{@code //}" that introduces an authority.
+     */
+    private static String rawAuthority(final URI uri) {
+        final String rawAuthority = uri.getRawAuthority();
+        return rawAuthority == null && uri.getRawSchemeSpecificPart().startsWith("//") ? "" : rawAuthority;
+    }
+
     /**
      * Parses the given {@code String} as a URI reference.
      *
@@ -610,12 +734,19 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
     /**
      * Parses the given {@code URI} to produce a {@code UrinReference}.
+     * The raw components of the {@code URI} are parsed directly, unless they contain characters outside US-ASCII, in which
+     * case the {@code URI} is first converted to a US-ASCII {@code String}.
      *
      * @param uriReference a {@code URI} to parse.
      * @return a {@code UrinReference} representing the RFC 3986 URI reference represented by the given {@code URI}.
      * @throws ParseException if the given {@code URI} is not a valid RFC 3986 URI reference.
      */
     public final UrinReference<SEGMENT, QUERY, FRAGMENT> parseUrinReference(final URI uriReference) throws ParseException {
+        if (hasUsAsciiComponents(uriReference)) {
+            return uriReference.getScheme() == null
+                    ? parseRelativeReference(rawAuthority(uriReference), uriReference.getRawPath(), uriReference.getRawQuery(), uriReference.getRawFragment())
+                    : parseUrin(uriReference.getScheme(), rawAuthority(uriReference), uriReference.getRawPath(), uriReference.getRawQuery(), uriReference.getRawFragment());
+        }
         return parseUrinReference(uriReference.toASCIIString());
     }
 
@@ -634,7 +765,12 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         GenericScheme<SEGMENT, QUERY, FRAGMENT> withName(final String name) {
-            return new GenericScheme<>(name, this);
+            return this.name.equals(name) ? this : new GenericScheme<>(name, this);
+        }
+
+        @Override
+        String name() {
+            return name;
         }
 
         @Override
@@ -691,8 +827,13 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return path.asString(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON);
+        public int encodedLength() {
+            return path.encodedLength(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON);
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            path.appendTo(output, PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON);
         }
 
         @Override
@@ -732,7 +873,7 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         Urin<SEGMENT, QUERY, FRAGMENT> resolve(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Path<SEGMENT> path) {
-            return scheme.urin(path.resolveRelativeTo(this.path));
+            return scheme.urin(this.path.resolveRelativeTo(path));
         }
 
         @Override
@@ -743,9 +884,9 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         @Override
         Urin<SEGMENT, QUERY, FRAGMENT> resolve(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Path<SEGMENT> path, final QUERY query) {
             if (this.path.isEmpty()) {
-                return scheme.urin(path.resolveRelativeTo(this.path), query);
+                return scheme.urin(this.path.resolveRelativeTo(path), query);
             } else {
-                return scheme.urin(path.resolveRelativeTo(this.path));
+                return scheme.urin(this.path.resolveRelativeTo(path));
             }
         }
 
@@ -778,13 +919,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final RelativeReferenceNoAuthority<?, ?, ?> that = (RelativeReferenceNoAuthority<?, ?, ?>) object;
+            final RelativeReferenceNoAuthority<?, ?, ?> that = (RelativeReferenceNoAuthority<?, ?, ?>) other;
             return path.equals(that.path);
         }
 
@@ -809,8 +951,15 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return "//" + authority.asString() + path.asString(NEVER_PREFIX_WITH_DOT_SEGMENT);
+        public int encodedLength() {
+            return 2 + authority.encodedLength() + path.encodedLength(NEVER_PREFIX_WITH_DOT_SEGMENT);
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append("//");
+            authority.appendTo(output);
+            path.appendTo(output, NEVER_PREFIX_WITH_DOT_SEGMENT);
         }
 
         @Override
@@ -880,13 +1029,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final RelativeReferenceWithAuthority<?, ?, ?> that = (RelativeReferenceWithAuthority<?, ?, ?>) object;
+            final RelativeReferenceWithAuthority<?, ?, ?> that = (RelativeReferenceWithAuthority<?, ?, ?>) other;
             return authority.equals(that.authority)
                     && path.equals(that.path);
         }
@@ -914,8 +1064,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return path.asString(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON) + '?' + query.asString();
+        public int encodedLength() {
+            return path.encodedLength(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON) + 1 + query.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            path.appendTo(output, PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON);
+            output.append('?').append(query.asString());
         }
 
         @Override
@@ -993,13 +1149,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final RelativeReferenceNoAuthorityWithQuery<?, ?, ?> that = (RelativeReferenceNoAuthorityWithQuery<?, ?, ?>) object;
+            final RelativeReferenceNoAuthorityWithQuery<?, ?, ?> that = (RelativeReferenceNoAuthorityWithQuery<?, ?, ?>) other;
 
             return query.equals(that.query) && path.equals(that.path);
 
@@ -1028,8 +1185,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return path.asString(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON) + '#' + fragment.asString();
+        public int encodedLength() {
+            return path.encodedLength(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON) + 1 + fragment.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            path.appendTo(output, PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON);
+            output.append('#').append(fragment.asString());
         }
 
         @Override
@@ -1115,13 +1278,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final RelativeReferenceNoAuthorityWithFragment<?, ?, ?> that = (RelativeReferenceNoAuthorityWithFragment<?, ?, ?>) object;
+            final RelativeReferenceNoAuthorityWithFragment<?, ?, ?> that = (RelativeReferenceNoAuthorityWithFragment<?, ?, ?>) other;
 
             return fragment.equals(that.fragment) && path.equals(that.path);
 
@@ -1152,8 +1316,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return path.asString(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON) + '?' + query.asString() + '#' + fragment.asString();
+        public int encodedLength() {
+            return path.encodedLength(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON) + 1 + query.encodedLength() + 1 + fragment.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            path.appendTo(output, PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY_OR_CONTAINS_COLON);
+            output.append('?').append(query.asString()).append('#').append(fragment.asString());
         }
 
         @Override
@@ -1193,13 +1363,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final RelativeReferenceNoAuthorityWithQueryAndFragment<?, ?, ?> that = (RelativeReferenceNoAuthorityWithQueryAndFragment<?, ?, ?>) object;
+            final RelativeReferenceNoAuthorityWithQueryAndFragment<?, ?, ?> that = (RelativeReferenceNoAuthorityWithQueryAndFragment<?, ?, ?>) other;
 
             return fragment.equals(that.fragment) && query.equals(that.query) && path.equals(that.path);
         }
@@ -1260,8 +1431,16 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return "//" + authority.asString() + path.asString(NEVER_PREFIX_WITH_DOT_SEGMENT) + '?' + query.asString();
+        public int encodedLength() {
+            return 2 + authority.encodedLength() + path.encodedLength(NEVER_PREFIX_WITH_DOT_SEGMENT) + 1 + query.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append("//");
+            authority.appendTo(output);
+            path.appendTo(output, NEVER_PREFIX_WITH_DOT_SEGMENT);
+            output.append('?').append(query.asString());
         }
 
         @Override
@@ -1331,13 +1510,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final RelativeReferenceWithAuthorityAndQuery<?, ?, ?> that = (RelativeReferenceWithAuthorityAndQuery<?, ?, ?>) object;
+            final RelativeReferenceWithAuthorityAndQuery<?, ?, ?> that = (RelativeReferenceWithAuthorityAndQuery<?, ?, ?>) other;
 
             return authority.equals(that.authority) && query.equals(that.query) && path.equals(that.path);
         }
@@ -1368,8 +1548,16 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return "//" + authority.asString() + path.asString(NEVER_PREFIX_WITH_DOT_SEGMENT) + '#' + fragment.asString();
+        public int encodedLength() {
+            return 2 + authority.encodedLength() + path.encodedLength(NEVER_PREFIX_WITH_DOT_SEGMENT) + 1 + fragment.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append("//");
+            authority.appendTo(output);
+            path.appendTo(output, NEVER_PREFIX_WITH_DOT_SEGMENT);
+            output.append('#').append(fragment.asString());
         }
 
         @Override
@@ -1439,13 +1627,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final RelativeReferenceWithAuthorityAndFragment<?, ?, ?> that = (RelativeReferenceWithAuthorityAndFragment<?, ?, ?>) object;
+            final RelativeReferenceWithAuthorityAndFragment<?, ?, ?> that = (RelativeReferenceWithAuthorityAndFragment<?, ?, ?>) other;
 
             return authority.equals(that.authority) && fragment.equals(that.fragment) && path.equals(that.path);
         }
@@ -1478,8 +1667,16 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return "//" + authority.asString() + path.asString(NEVER_PREFIX_WITH_DOT_SEGMENT) + '?' + query.asString() + '#' + fragment.asString();
+        public int encodedLength() {
+            return 2 + authority.encodedLength() + path.encodedLength(NEVER_PREFIX_WITH_DOT_SEGMENT) + 1 + query.encodedLength() + 1 + fragment.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append("//");
+            authority.appendTo(output);
+            path.appendTo(output, NEVER_PREFIX_WITH_DOT_SEGMENT);
+            output.append('?').append(query.asString()).append('#').append(fragment.asString());
         }
 
         @Override
@@ -1549,13 +1746,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final RelativeReferenceWithAuthorityAndQueryAndFragment<?, ?, ?> that = (RelativeReferenceWithAuthorityAndQueryAndFragment<?, ?, ?>) object;
+            final RelativeReferenceWithAuthorityAndQueryAndFragment<?, ?, ?> that = (RelativeReferenceWithAuthorityAndQueryAndFragment<?, ?, ?>) other;
 
             return authority.equals(that.authority) && fragment.equals(that.fragment) && query.equals(that.query) && path.equals(that.path);
         }
@@ -1589,8 +1787,25 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return scheme.asString() + ':' + path.asString(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY) + '?' + query.asString() + '#' + fragment.asString();
+        public Urin<SEGMENT, QUERY, FRAGMENT> withQuery(final QUERY query) {
+            return new UrinWithPathAndQueryAndFragment<>(scheme, path, query, fragment);
+        }
+
+        @Override
+        public Urin<SEGMENT, QUERY, FRAGMENT> withoutQuery() {
+            return new UrinWithPathAndFragment<>(scheme, path, fragment);
+        }
+
+        @Override
+        public int encodedLength() {
+            return scheme.asString().length() + 1 + path.encodedLength(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY) + 1 + query.encodedLength() + 1 + fragment.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(scheme.asString()).append(':');
+            path.appendTo(output, PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY);
+            output.append('?').append(query.asString()).append('#').append(fragment.asString());
         }
 
         @Override
@@ -1628,6 +1843,11 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
             throw new UnsupportedOperationException("Attempt to get authority from a UrinReference that does not have one.");
         }
 
+        @Override
+        Scheme<SEGMENT, QUERY, FRAGMENT> scheme() {
+            return scheme;
+        }
+
         @Override
         public Urin<SEGMENT, QUERY, FRAGMENT> resolve(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
             return urinReference.resolve(scheme, path, query, fragment);
@@ -1635,13 +1855,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final UrinWithPathAndQueryAndFragment<?, ?, ?> that = (UrinWithPathAndQueryAndFragment<?, ?, ?>) object;
+            final UrinWithPathAndQueryAndFragment<?, ?, ?> that = (UrinWithPathAndQueryAndFragment<?, ?, ?>) other;
             return fragment.equals(that.fragment)
                     && path.equals(that.path)
                     && query.equals(that.query)
@@ -1679,8 +1900,26 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return scheme.asString() + "://" + authority.asString() + path.asString(NEVER_PREFIX_WITH_DOT_SEGMENT) + '?' + query.asString() + '#' + fragment.asString();
+        public Urin<SEGMENT, QUERY, FRAGMENT> withQuery(final QUERY query) {
+            return new UrinWithAuthorityAndPathAndQueryAndFragment<>(scheme, authority, path, query, fragment);
+        }
+
+        @Override
+        public Urin<SEGMENT, QUERY, FRAGMENT> withoutQuery() {
+            return new UrinWithAuthorityAndPathAndFragment<>(scheme, authority, path, fragment);
+        }
+
+        @Override
+        public int encodedLength() {
+            return scheme.asString().length() + 3 + authority.encodedLength() + path.encodedLength(NEVER_PREFIX_WITH_DOT_SEGMENT) + 1 + query.encodedLength() + 1 + fragment.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(scheme.asString()).append("://");
+            authority.appendTo(output);
+            path.appendTo(output, NEVER_PREFIX_WITH_DOT_SEGMENT);
+            output.append('?').append(query.asString()).append('#').append(fragment.asString());
         }
 
         @Override
@@ -1718,6 +1957,11 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
             return authority;
         }
 
+        @Override
+        Scheme<SEGMENT, QUERY, FRAGMENT> scheme() {
+            return scheme;
+        }
+
         @Override
         public Urin<SEGMENT, QUERY, FRAGMENT> resolve(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
             return urinReference.resolve(scheme, authority, path, query, fragment);
@@ -1725,13 +1969,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final UrinWithAuthorityAndPathAndQueryAndFragment<?, ?, ?> that = (UrinWithAuthorityAndPathAndQueryAndFragment<?, ?, ?>) object;
+            final UrinWithAuthorityAndPathAndQueryAndFragment<?, ?, ?> that = (UrinWithAuthorityAndPathAndQueryAndFragment<?, ?, ?>) other;
 
             return authority.equals(that.authority) && fragment.equals(that.fragment) && path.equals(that.path) && query.equals(that.query) && scheme.equals(that.scheme);
 
@@ -1765,8 +2010,25 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return scheme.asString() + ':' + path.asString(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY) + '?' + query.asString();
+        public Urin<SEGMENT, QUERY, FRAGMENT> withQuery(final QUERY query) {
+            return new UrinWithPathAndQuery<>(scheme, path, query);
+        }
+
+        @Override
+        public Urin<SEGMENT, QUERY, FRAGMENT> withoutQuery() {
+            return new UrinWithPath<>(scheme, path);
+        }
+
+        @Override
+        public int encodedLength() {
+            return scheme.asString().length() + 1 + path.encodedLength(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY) + 1 + query.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(scheme.asString()).append(':');
+            path.appendTo(output, PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY);
+            output.append('?').append(query.asString());
         }
 
         @Override
@@ -1804,6 +2066,11 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
             throw new UnsupportedOperationException("Attempt to get authority from a UrinReference that does not have one.");
         }
 
+        @Override
+        Scheme<SEGMENT, QUERY, FRAGMENT> scheme() {
+            return scheme;
+        }
+
         @Override
         public Urin<SEGMENT, QUERY, FRAGMENT> resolve(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
             return urinReference.resolve(scheme, path, query);
@@ -1811,13 +2078,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final UrinWithPathAndQuery<?, ?, ?> that = (UrinWithPathAndQuery<?, ?, ?>) object;
+            final UrinWithPathAndQuery<?, ?, ?> that = (UrinWithPathAndQuery<?, ?, ?>) other;
             return path.equals(that.path)
                     && query.equals(that.query)
                     && scheme.equals(that.scheme);
@@ -1851,8 +2119,26 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return scheme.asString() + "://" + authority.asString() + path.asString(NEVER_PREFIX_WITH_DOT_SEGMENT) + '?' + query.asString();
+        public Urin<SEGMENT, QUERY, FRAGMENT> withQuery(final QUERY query) {
+            return new UrinWithAuthorityAndPathAndQuery<>(scheme, authority, path, query);
+        }
+
+        @Override
+        public Urin<SEGMENT, QUERY, FRAGMENT> withoutQuery() {
+            return new UrinWithAuthorityAndPath<>(scheme, authority, path);
+        }
+
+        @Override
+        public int encodedLength() {
+            return scheme.asString().length() + 3 + authority.encodedLength() + path.encodedLength(NEVER_PREFIX_WITH_DOT_SEGMENT) + 1 + query.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(scheme.asString()).append("://");
+            authority.appendTo(output);
+            path.appendTo(output, NEVER_PREFIX_WITH_DOT_SEGMENT);
+            output.append('?').append(query.asString());
         }
 
         @Override
@@ -1890,6 +2176,11 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
             return authority;
         }
 
+        @Override
+        Scheme<SEGMENT, QUERY, FRAGMENT> scheme() {
+            return scheme;
+        }
+
         @Override
         public Urin<SEGMENT, QUERY, FRAGMENT> resolve(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
             return urinReference.resolve(scheme, authority, path, query);
@@ -1897,13 +2188,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final UrinWithAuthorityAndPathAndQuery<?, ?, ?> that = (UrinWithAuthorityAndPathAndQuery<?, ?, ?>) object;
+            final UrinWithAuthorityAndPathAndQuery<?, ?, ?> that = (UrinWithAuthorityAndPathAndQuery<?, ?, ?>) other;
 
             return authority.equals(that.authority) && path.equals(that.path) && query.equals(that.query) && scheme.equals(that.scheme);
 
@@ -1938,8 +2230,26 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return scheme.asString() + "://" + authority.asString() + path.asString(NEVER_PREFIX_WITH_DOT_SEGMENT) + '#' + fragment.asString();
+        public Urin<SEGMENT, QUERY, FRAGMENT> withQuery(final QUERY query) {
+            return new UrinWithAuthorityAndPathAndQueryAndFragment<>(scheme, authority, path, query, fragment);
+        }
+
+        @Override
+        public Urin<SEGMENT, QUERY, FRAGMENT> withoutQuery() {
+            return this;
+        }
+
+        @Override
+        public int encodedLength() {
+            return scheme.asString().length() + 3 + authority.encodedLength() + path.encodedLength(NEVER_PREFIX_WITH_DOT_SEGMENT) + 1 + fragment.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(scheme.asString()).append("://");
+            authority.appendTo(output);
+            path.appendTo(output, NEVER_PREFIX_WITH_DOT_SEGMENT);
+            output.append('#').append(fragment.asString());
         }
 
         @Override
@@ -1977,6 +2287,11 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
             return authority;
         }
 
+        @Override
+        Scheme<SEGMENT, QUERY, FRAGMENT> scheme() {
+            return scheme;
+        }
+
         @Override
         public Urin<SEGMENT, QUERY, FRAGMENT> resolve(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
             return urinReference.resolve(scheme, authority, path);
@@ -1984,13 +2299,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final UrinWithAuthorityAndPathAndFragment<?, ?, ?> that = (UrinWithAuthorityAndPathAndFragment<?, ?, ?>) object;
+            final UrinWithAuthorityAndPathAndFragment<?, ?, ?> that = (UrinWithAuthorityAndPathAndFragment<?, ?, ?>) other;
 
             return authority.equals(that.authority) && fragment.equals(that.fragment) && path.equals(that.path) && scheme.equals(that.scheme);
 
@@ -2023,8 +2339,25 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return scheme.asString() + ":" + path.asString(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY) + '#' + fragment.asString();
+        public Urin<SEGMENT, QUERY, FRAGMENT> withQuery(final QUERY query) {
+            return new UrinWithPathAndQueryAndFragment<>(scheme, path, query, fragment);
+        }
+
+        @Override
+        public Urin<SEGMENT, QUERY, FRAGMENT> withoutQuery() {
+            return this;
+        }
+
+        @Override
+        public int encodedLength() {
+            return scheme.asString().length() + 1 + path.encodedLength(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY) + 1 + fragment.encodedLength();
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(scheme.asString()).append(':');
+            path.appendTo(output, PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY);
+            output.append('#').append(fragment.asString());
         }
 
         @Override
@@ -2062,6 +2395,11 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
             throw new UnsupportedOperationException("Attempt to get authority from a UrinReference that does not have one.");
         }
 
+        @Override
+        Scheme<SEGMENT, QUERY, FRAGMENT> scheme() {
+            return scheme;
+        }
+
         @Override
         public Urin<SEGMENT, QUERY, FRAGMENT> resolve(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
             return urinReference.resolve(scheme, path);
@@ -2069,13 +2407,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final UrinWithPathAndFragment<?, ?, ?> that = (UrinWithPathAndFragment<?, ?, ?>) object;
+            final UrinWithPathAndFragment<?, ?, ?> that = (UrinWithPathAndFragment<?, ?, ?>) other;
 
             return fragment.equals(that.fragment) && path.equals(that.path) && scheme.equals(that.scheme);
 
@@ -2105,8 +2444,24 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return scheme.asString() + ':' + path.asString(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY);
+        public Urin<SEGMENT, QUERY, FRAGMENT> withQuery(final QUERY query) {
+            return new UrinWithPathAndQuery<>(scheme, path, query);
+        }
+
+        @Override
+        public Urin<SEGMENT, QUERY, FRAGMENT> withoutQuery() {
+            return this;
+        }
+
+        @Override
+        public int encodedLength() {
+            return scheme.asString().length() + 1 + path.encodedLength(PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY);
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(scheme.asString()).append(':');
+            path.appendTo(output, PREFIX_WITH_DOT_SEGMENT_IF_FIRST_IS_EMPTY);
         }
 
         @Override
@@ -2144,6 +2499,11 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
             throw new UnsupportedOperationException("Attempt to get authority from a UrinReference that does not have one.");
         }
 
+        @Override
+        Scheme<SEGMENT, QUERY, FRAGMENT> scheme() {
+            return scheme;
+        }
+
         @Override
         public Urin<SEGMENT, QUERY, FRAGMENT> resolve(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
             return urinReference.resolve(scheme, path);
@@ -2151,13 +2511,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final UrinWithPath<?, ?, ?> that = (UrinWithPath<?, ?, ?>) object;
+            final UrinWithPath<?, ?, ?> that = (UrinWithPath<?, ?, ?>) other;
 
             return path.equals(that.path) && scheme.equals(that.scheme);
 
@@ -2188,8 +2549,25 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
         }
 
         @Override
-        public String asString() {
-            return scheme.asString() + "://" + authority.asString() + path.asString(NEVER_PREFIX_WITH_DOT_SEGMENT);
+        public Urin<SEGMENT, QUERY, FRAGMENT> withQuery(final QUERY query) {
+            return new UrinWithAuthorityAndPathAndQuery<>(scheme, authority, path, query);
+        }
+
+        @Override
+        public Urin<SEGMENT, QUERY, FRAGMENT> withoutQuery() {
+            return this;
+        }
+
+        @Override
+        public int encodedLength() {
+            return scheme.asString().length() + 3 + authority.encodedLength() + path.encodedLength(NEVER_PREFIX_WITH_DOT_SEGMENT);
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            output.append(scheme.asString()).append("://");
+            authority.appendTo(output);
+            path.appendTo(output, NEVER_PREFIX_WITH_DOT_SEGMENT);
         }
 
         @Override
@@ -2227,6 +2605,11 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
             return authority;
         }
 
+        @Override
+        Scheme<SEGMENT, QUERY, FRAGMENT> scheme() {
+            return scheme;
+        }
+
         @Override
         public Urin<SEGMENT, QUERY, FRAGMENT> resolve(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
             return urinReference.resolve(scheme, authority, path);
@@ -2234,13 +2617,14 @@ public abstract class Scheme<SEGMENT, QUERY extends Query<?>, FRAGMENT extends F
 
         @Override
         public boolean equals(final Object object) {
-            if (this == object) {
+            final Object other = underlyingOf(object);
+            if (this == other) {
                 return true;
-            } else if (object == null || getClass() != object.getClass()) {
+            } else if (other == null || getClass() != other.getClass()) {
                 return false;
             }
 
-            final UrinWithAuthorityAndPath<?, ?, ?> that = (UrinWithAuthorityAndPath<?, ?, ?>) object;
+            final UrinWithAuthorityAndPath<?, ?, ?> that = (UrinWithAuthorityAndPath<?, ?, ?>) other;
 
             return authority.equals(that.authority) && path.equals(that.path) && scheme.equals(that.scheme);
 
@@ -21,6 +21,8 @@ import static java.util.Objects.requireNonNull;
 public class SchemeWithDefaultPort<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> extends Scheme<SEGMENT, QUERY, FRAGMENT> {
     private final String name;
     private final Port defaultPort;
+    private SchemeWithDefaultPort<SEGMENT, QUERY, FRAGMENT> withOwnName;
+    private GenericScheme<SEGMENT, QUERY, FRAGMENT> withoutDefaultPort;
 
     /**
      * Constructor for subclasses of {@code Scheme} with default ports.
@@ -45,7 +47,20 @@ public class SchemeWithDefaultPort<SEGMENT, QUERY extends Query<?>, FRAGMENT ext
 
     @Override
     SchemeWithDefaultPort<SEGMENT, QUERY, FRAGMENT> withName(final String name) {
-        return new SchemeWithDefaultPort<>(name, defaultPort, this);
+        if (!this.name.equals(name)) {
+            return new SchemeWithDefaultPort<>(name, defaultPort, this);
+        }
+        SchemeWithDefaultPort<SEGMENT, QUERY, FRAGMENT> result = withOwnName;
+        if (result == null) {
+            result = new SchemeWithDefaultPort<>(name, defaultPort, this);
+            withOwnName = result;
+        }
+        return result;
+    }
+
+    @Override
+    String name() {
+        return name;
     }
 
     @Override
@@ -60,7 +75,12 @@ public class SchemeWithDefaultPort<SEGMENT, QUERY extends Query<?>, FRAGMENT ext
 
     @Override
     Scheme<SEGMENT, QUERY, FRAGMENT> removeDefaultPort() {
-        return new GenericScheme<>(name, this);
+        GenericScheme<SEGMENT, QUERY, FRAGMENT> result = withoutDefaultPort;
+        if (result == null) {
+            result = new GenericScheme<>(name, this);
+            withoutDefaultPort = result;
+        }
+        return result;
     }
 
     @Override
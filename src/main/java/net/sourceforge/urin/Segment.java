@@ -11,6 +11,7 @@
 package net.sourceforge.urin;
 
 import java.util.List;
+import java.util.UUID;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -42,9 +43,31 @@ public abstract class Segment<ENCODES> {
             return segment(value);
         }
     };
+    /**
+     * The {@code MakingDecoder} used by segments representing {@code Long}s.  Segments are decoded directly from their
+     * encoded form, and must be made up of an optional '-' followed by decimal digits, none of which are percent encoded.
+     */
+    public static final MakingDecoder<Segment<Long>, Long, String> LONG_SEGMENT_MAKING_DECODER = new MakingDecoder<Segment<Long>, Long, String>(PercentEncodingPartial.percentEncodingLongValue()) {
+        @Override
+        protected Segment<Long> makeOne(final Long value) {
+            return longSegment(value);
+        }
+    };
+    /**
+     * The {@code MakingDecoder} used by segments representing {@code UUID}s.  Segments are decoded directly from their
+     * encoded form, and must be in the standard 36 character form of a {@code UUID}, none of which are percent encoded.
+     */
+    public static final MakingDecoder<Segment<UUID>, UUID, String> UUID_SEGMENT_MAKING_DECODER = new MakingDecoder<Segment<UUID>, UUID, String>(PercentEncodingPartial.percentEncodingUuidValue()) {
+        @Override
+        protected Segment<UUID> makeOne(final UUID value) {
+            return uuidSegment(value);
+        }
+    };
     private static final PercentEncodingPartial.PercentEncoding<String> PERCENT_ENCODING = specifiedValueEncoding(".",
             specifiedValueEncoding("..",
                     percentEncodingString(new PercentEncoder(P_CHAR))));
+    private static final PercentEncodingPartial.PercentEncoding<Long> LONG_PERCENT_ENCODING = PercentEncodingPartial.percentEncodingLongValue().apply(PERCENT_ENCODING);
+    private static final PercentEncodingPartial.PercentEncoding<UUID> UUID_PERCENT_ENCODING = PercentEncodingPartial.percentEncodingUuidValue().apply(PERCENT_ENCODING);
 
     private Segment() {
     }
@@ -145,7 +168,54 @@ public abstract class Segment<ENCODES> {
      * @return a {@code Segment} representing the given {@code Object}.
      */
     public static <T> Segment<T> segment(final T segment, final PercentEncodingPartial<T, String> percentEncodingPartial) {
-        return segment(segment, percentEncodingPartial.apply(PERCENT_ENCODING));
+        return segment(segment, percentEncodingPartial.compile(PERCENT_ENCODING));
+    }
+
+    /**
+     * Factory method for creating {@code Segment}s representing {@code long}s, encoded as their decimal digits.
+     *
+     * @param segment any {@code long} to represent as a {@code Segment}.
+     * @return a {@code Segment} representing the given {@code long}.
+     */
+    public static Segment<Long> longSegment(final long segment) {
+        return new ValueSegment<>(segment, LONG_PERCENT_ENCODING);
+    }
+
+    /**
+     * Factory method for creating {@code Segment}s representing {@code UUID}s, encoded in their standard 36 character form.
+     *
+     * @param segment any {@code UUID} to represent as a {@code Segment}.
+     * @return a {@code Segment} representing the given {@code UUID}.
+     */
+    public static Segment<UUID> uuidSegment(final UUID segment) {
+        return new ValueSegment<>(segment, UUID_PERCENT_ENCODING);
+    }
+
+    /**
+     * Factory method for creating {@code Segment}s from their percent encoded form.  The given {@code String} is validated, but not
+     * decoded until the value of the {@code Segment} is asked for, and is used as is when the {@code Segment} is rendered.
+     * <p>
+     * As the given {@code String} is already encoded, "{@code .}" and "{@code ..}" are the segments returned by {@link #dot()} and
+     * {@link #dotDot()} respectively, and "" is the segment returned by {@link #empty()}.  Otherwise, the resulting {@code Segment}
+     * is equal to one made by {@link #segment(String)} from the decoded value, but is rendered using the given percent encoding,
+     * which may differ from the one {@code segment(String)} would produce, for example if it encodes characters that don't need to be encoded.
+     *
+     * @param encodedSegment a percent encoded {@code String} to represent as a {@code Segment}.
+     * @return a {@code Segment} representing the given percent encoded {@code String}.
+     * @throws ParseException if the given {@code String} is not a valid percent encoded segment.
+     */
+    public static Segment<String> encodedSegment(final String encodedSegment) throws ParseException {
+        switch (encodedSegment) {
+            case "":
+                return empty();
+            case ".":
+                return dot();
+            case "..":
+                return dotDot();
+            default:
+                PERCENT_ENCODING.validate(encodedSegment);
+                return new ValueSegment<>(PERCENT_ENCODING, encodedSegment);
+        }
     }
 
     private static <T> Segment<T> segment(final T segment, final PercentEncodingPartial.PercentEncoding<T> percentEncoding) {
@@ -172,6 +242,10 @@ public abstract class Segment<ENCODES> {
 
     abstract String asString();
 
+    final int encodedLength() {
+        return asString().length();
+    }
+
     abstract boolean isEmpty();
 
     /**
@@ -202,6 +276,10 @@ public abstract class Segment<ENCODES> {
             this.delegate = new SegmentEncodingUnaryValue<>(value, percentEncoding);
         }
 
+        private ValueSegment(final PercentEncodingPartial.PercentEncoding<ENCODES> percentEncoding, final String encoded) {
+            this.delegate = new SegmentEncodingUnaryValue<>(percentEncoding, encoded);
+        }
+
         @Override
         public boolean hasValue() {
             return true;
@@ -209,7 +287,7 @@ public abstract class Segment<ENCODES> {
 
         @Override
         public ENCODES value() {
-            return delegate.value;
+            return delegate.value();
         }
 
         @Override
@@ -250,6 +328,10 @@ public abstract class Segment<ENCODES> {
         SegmentEncodingUnaryValue(final ENCODES value, final PercentEncodingPartial.PercentEncoding<ENCODES> percentEncoding) {
             super(value, percentEncoding);
         }
+
+        SegmentEncodingUnaryValue(final PercentEncodingPartial.PercentEncoding<ENCODES> percentEncoding, final String encoded) {
+            super(percentEncoding, encoded);
+        }
     }
 
     private static final class DotSegment<ENCODES> extends Segment<ENCODES> {
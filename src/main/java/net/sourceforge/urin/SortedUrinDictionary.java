@@ -0,0 +1,521 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A sorted set of URI references, stored front coded, for compact indexes of URI references that share long prefixes.
+ * <p>
+ * Each URI reference is stored as the US-ASCII bytes of its canonical form, which is the same for URI references that
+ * are equivalent according to {@link Scheme#equivalent(CharSequence, CharSequence)}, in the order of those bytes.
+ * URI references are grouped into blocks of 16.  The first in each block is stored in full, and each of the others as
+ * the length of the prefix it shares with the one before, followed by the rest of its bytes.  Finding a URI reference
+ * is a binary search over the first URI reference in each block, followed by a scan of one block.
+ * <p>
+ * URI references are returned parsed by the {@code Scheme} the {@code SortedUrinDictionary} was made with.
+ * <p>
+ * Immutable and thread safe.
+ *
+ * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references in this dictionary.
+ * @param <QUERY>    The type of {@code Query} used by URI references in this dictionary.
+ * @param <FRAGMENT> The type of {@code Fragment} used by URI references in this dictionary.
+ */
+public final class SortedUrinDictionary<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> implements Iterable<UrinReference<SEGMENT, QUERY, FRAGMENT>> {
+
+    private static final int BLOCK_SIZE = 16;
+    private static final int FORMAT_VERSION = 1;
+
+    private final Scheme<SEGMENT, QUERY, FRAGMENT> scheme;
+    private final int size;
+    private final int maximumLength;
+    private final int[] blockOffsets;
+    private final byte[] data;
+
+    private SortedUrinDictionary(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final int size, final int maximumLength, final int[] blockOffsets, final byte[] data) {
+        this.scheme = requireNonNull(scheme, "Cannot instantiate SortedUrinDictionary with null scheme");
+        this.size = size;
+        this.maximumLength = maximumLength;
+        this.blockOffsets = blockOffsets;
+        this.data = data;
+    }
+
+    /**
+     * Factory method for creating {@code SortedUrinDictionary}s from URI references in the order of their canonical forms.
+     * Consecutive equivalent URI references are stored once.
+     *
+     * @param scheme                the {@code Scheme} to use to parse the URI references returned by the dictionary.
+     * @param sortedUrinReferences  {@code UrinReference}s in the order of their canonical forms.
+     * @param <SEGMENT>             The type of {@code Segment} used by paths of URI references in the dictionary.
+     * @param <QUERY>               The type of {@code Query} used by URI references in the dictionary.
+     * @param <FRAGMENT>            The type of {@code Fragment} used by URI references in the dictionary.
+     * @return a {@code SortedUrinDictionary} containing the given URI references.
+     * @throws IllegalArgumentException if the given URI references are not in the order of their canonical forms.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> SortedUrinDictionary<SEGMENT, QUERY, FRAGMENT> sortedUrinDictionary(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Iterable<? extends UrinReference<SEGMENT, QUERY, FRAGMENT>> sortedUrinReferences) {
+        final Canonicaliser canonicaliser = new Canonicaliser();
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        int[] blockOffsets = new int[16];
+        int size = 0;
+        int maximumLength = 0;
+        byte[] previous = new byte[0];
+        for (final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference : sortedUrinReferences) {
+            final byte[] canonical = canonicaliser.canonicalise(requireNonNull(urinReference, "Cannot instantiate SortedUrinDictionary with null UrinReference")).toString().getBytes(US_ASCII);
+            final int comparison = size == 0 ? 1 : compare(canonical, canonical.length, previous, previous.length);
+            if (comparison < 0) {
+                throw new IllegalArgumentException("Cannot instantiate SortedUrinDictionary with UrinReference out of order [" + urinReference + "]");
+            } else if (comparison > 0) {
+                if (size % BLOCK_SIZE == 0) {
+                    if (size / BLOCK_SIZE == blockOffsets.length) {
+                        blockOffsets = Arrays.copyOf(blockOffsets, blockOffsets.length * 2);
+                    }
+                    blockOffsets[size / BLOCK_SIZE] = data.size();
+                    writeVarint(data, canonical.length);
+                    data.write(canonical, 0, canonical.length);
+                } else {
+                    final int sharedLength = sharedPrefixLength(canonical, previous);
+                    writeVarint(data, sharedLength);
+                    writeVarint(data, canonical.length - sharedLength);
+                    data.write(canonical, sharedLength, canonical.length - sharedLength);
+                }
+                maximumLength = Math.max(maximumLength, canonical.length);
+                previous = canonical;
+                size++;
+            }
+        }
+        return new SortedUrinDictionary<>(scheme, size, maximumLength, Arrays.copyOf(blockOffsets, (size + BLOCK_SIZE - 1) / BLOCK_SIZE), data.toByteArray());
+    }
+
+    /**
+     * Reads a {@code SortedUrinDictionary} written by {@link #writeTo(OutputStream)}.
+     *
+     * @param scheme       the {@code Scheme} to use to parse the URI references returned by the dictionary.
+     * @param inputStream  the {@code InputStream} to read from.
+     * @param <SEGMENT>    The type of {@code Segment} used by paths of URI references in the dictionary.
+     * @param <QUERY>      The type of {@code Query} used by URI references in the dictionary.
+     * @param <FRAGMENT>   The type of {@code Fragment} used by URI references in the dictionary.
+     * @return the {@code SortedUrinDictionary} read.
+     * @throws IOException if the {@code InputStream} cannot be read, or does not contain a well formed {@code SortedUrinDictionary}.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> SortedUrinDictionary<SEGMENT, QUERY, FRAGMENT> readSortedUrinDictionary(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final InputStream inputStream) throws IOException {
+        final DataInputStream dataInputStream = new DataInputStream(inputStream);
+        final int version = dataInputStream.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported SortedUrinDictionary format version " + version);
+        }
+        final int size = dataInputStream.readInt();
+        final int maximumLength = dataInputStream.readInt();
+        if (size < 0 || maximumLength < 0) {
+            throw new IOException("Invalid SortedUrinDictionary size " + size + " and maximum length " + maximumLength);
+        }
+        final int blockCount = dataInputStream.readInt();
+        if (blockCount != size / BLOCK_SIZE + (size % BLOCK_SIZE == 0 ? 0 : 1)) {
+            throw new IOException("Invalid SortedUrinDictionary block count " + blockCount + " for size " + size);
+        }
+        final int[] blockOffsets = new int[blockCount];
+        for (int i = 0; i < blockOffsets.length; i++) {
+            blockOffsets[i] = dataInputStream.readInt();
+        }
+        final int dataLength = dataInputStream.readInt();
+        if (dataLength < 0) {
+            throw new IOException("Invalid SortedUrinDictionary data length " + dataLength);
+        }
+        final byte[] data = readData(dataInputStream, dataLength);
+        verifyData(size, maximumLength, blockOffsets, data);
+        return new SortedUrinDictionary<>(scheme, size, maximumLength, blockOffsets, data);
+    }
+
+    /**
+     * Reads the given number of bytes, growing the array they are read into as they arrive, so that a corrupt length
+     * does not cause a huge allocation before the end of the stream is found.
+     */
+    private static byte[] readData(final DataInputStream dataInputStream, final int length) throws IOException {
+        byte[] data = new byte[Math.min(length, 1 << 16)];
+        dataInputStream.readFully(data);
+        while (data.length < length) {
+            final int position = data.length;
+            data = Arrays.copyOf(data, (int) Math.min(length, 2L * position));
+            dataInputStream.readFully(data, position, data.length - position);
+        }
+        return data;
+    }
+
+    /**
+     * Checks that the given data holds the given number of URI references, the longest of the given maximum length, each
+     * sharing no more than the length of the one before, with the first of each block at the given block offset, so that
+     * reading them cannot go beyond the end of the data.
+     */
+    private static void verifyData(final int size, final int maximumLength, final int[] blockOffsets, final byte[] data) throws IOException {
+        final DataReader dataReader = new DataReader(data);
+        int previousLength = 0;
+        int longest = 0;
+        for (int index = 0; index < size; index++) {
+            final int sharedLength;
+            if (index % BLOCK_SIZE == 0) {
+                if (blockOffsets[index / BLOCK_SIZE] != dataReader.position) {
+                    throw new IOException("Invalid SortedUrinDictionary block offset " + blockOffsets[index / BLOCK_SIZE] + " for block " + index / BLOCK_SIZE + " starting at index " + dataReader.position);
+                }
+                sharedLength = 0;
+            } else {
+                sharedLength = dataReader.readVarint();
+                if (sharedLength > previousLength) {
+                    throw new IOException("Invalid SortedUrinDictionary shared length " + sharedLength + " after URI reference of length " + previousLength);
+                }
+            }
+            final int suffixLength = dataReader.readVarint();
+            dataReader.skip(suffixLength);
+            previousLength = sharedLength + suffixLength;
+            longest = Math.max(longest, previousLength);
+        }
+        if (longest != maximumLength) {
+            throw new IOException("Invalid SortedUrinDictionary maximum length " + maximumLength + " for URI references no longer than " + longest);
+        }
+        if (dataReader.position != data.length) {
+            throw new IOException("Unexpected " + (data.length - dataReader.position) + " bytes after SortedUrinDictionary data");
+        }
+    }
+
+    /**
+     * Writes this dictionary to the given {@code OutputStream}, in a form that can be read by
+     * {@link #readSortedUrinDictionary(Scheme, InputStream)}.
+     *
+     * @param outputStream the {@code OutputStream} to write to.
+     * @throws IOException if the {@code OutputStream} cannot be written to.
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(FORMAT_VERSION);
+        dataOutputStream.writeInt(size);
+        dataOutputStream.writeInt(maximumLength);
+        dataOutputStream.writeInt(blockOffsets.length);
+        for (final int blockOffset : blockOffsets) {
+            dataOutputStream.writeInt(blockOffset);
+        }
+        dataOutputStream.writeInt(data.length);
+        dataOutputStream.write(data);
+        dataOutputStream.flush();
+    }
+
+    /**
+     * Gets the number of URI references in this dictionary.
+     *
+     * @return the number of URI references in this dictionary.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether this dictionary contains a URI reference equivalent to the given URI reference.
+     *
+     * @param urinReference a {@code UrinReference} to look for.
+     * @return true if this dictionary contains an equivalent URI reference.
+     */
+    public boolean contains(final UrinReference<?, ?, ?> urinReference) {
+        return containsCanonical(new Canonicaliser().canonicalise(requireNonNull(urinReference, "Cannot look up null UrinReference")));
+    }
+
+    /**
+     * Determines whether this dictionary contains a URI reference equivalent to the given URI reference.
+     *
+     * @param uriReference a {@code CharSequence} that represents a URI reference.
+     * @return true if this dictionary contains an equivalent URI reference.
+     */
+    public boolean contains(final CharSequence uriReference) {
+        return containsCanonical(new Canonicaliser().canonicalise(requireNonNull(uriReference, "Cannot look up null URI reference")));
+    }
+
+    private boolean containsCanonical(final CharSequence canonical) {
+        final Cursor cursor = new Cursor();
+        final int rank = firstIndex(cursor, canonical, false, 0);
+        return rank != size && cursor.seek(rank).compareTo(canonical, false) == 0;
+    }
+
+    /**
+     * Gets the number of URI references in this dictionary that come before the given URI reference, which is the
+     * ordinal of the given URI reference, if this dictionary contains it.
+     *
+     * @param urinReference a {@code UrinReference}.
+     * @return the number of URI references in this dictionary that come before the given URI reference.
+     */
+    public int rank(final UrinReference<?, ?, ?> urinReference) {
+        return firstIndex(new Cursor(), new Canonicaliser().canonicalise(requireNonNull(urinReference, "Cannot look up null UrinReference")), false, 0);
+    }
+
+    /**
+     * Gets the number of URI references in this dictionary that come before the given URI reference, which is the
+     * ordinal of the given URI reference, if this dictionary contains it.
+     *
+     * @param uriReference a {@code CharSequence} that represents a URI reference.
+     * @return the number of URI references in this dictionary that come before the given URI reference.
+     */
+    public int rank(final CharSequence uriReference) {
+        return firstIndex(new Cursor(), new Canonicaliser().canonicalise(requireNonNull(uriReference, "Cannot look up null URI reference")), false, 0);
+    }
+
+    /**
+     * Gets the URI reference with the given ordinal.
+     *
+     * @param ordinal the number of URI references in this dictionary that come before the one to get.
+     * @return the URI reference with the given ordinal.
+     * @throws IndexOutOfBoundsException if the given ordinal is negative, or not less than the size of this dictionary.
+     */
+    public UrinReference<SEGMENT, QUERY, FRAGMENT> select(final int ordinal) {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("No UrinReference with ordinal " + ordinal + " in SortedUrinDictionary of size " + size);
+        }
+        return parse(new Cursor().seek(ordinal).asString());
+    }
+
+    /**
+     * Gets the URI references in this dictionary whose canonical forms begin with the canonical form of the given URI
+     * reference, for example, every URI reference under "{@code https://example.com/docs/}".
+     *
+     * @param prefix a {@code CharSequence} that represents the start of a URI reference.
+     * @return the URI references in this dictionary that begin with the given prefix, in order.
+     */
+    public Iterable<UrinReference<SEGMENT, QUERY, FRAGMENT>> withPrefix(final CharSequence prefix) {
+        final CharSequence canonicalPrefix = new Canonicaliser().canonicalise(requireNonNull(prefix, "Cannot look up null prefix"));
+        final Cursor cursor = new Cursor();
+        final int start = firstIndex(cursor, canonicalPrefix, false, 0);
+        final int end = firstIndex(cursor, canonicalPrefix, true, 1);
+        return () -> new CursorIterator(start, end);
+    }
+
+    /**
+     * Returns an {@code Iterator} over the URI references in this dictionary, in order.
+     *
+     * @return an {@code Iterator} over the URI references in this dictionary.
+     */
+    @Override
+    public Iterator<UrinReference<SEGMENT, QUERY, FRAGMENT>> iterator() {
+        return new CursorIterator(0, size);
+    }
+
+    /**
+     * Finds the first URI reference that compares with the given canonical form at or above the given threshold, moving
+     * the given cursor from block to block rather than making a new one for each.
+     */
+    private int firstIndex(final Cursor cursor, final CharSequence canonical, final boolean prefixOnly, final int threshold) {
+        int low = 0;
+        int high = blockOffsets.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (cursor.seekBlock(middle).compareTo(canonical, prefixOnly) >= threshold) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        if (low == 0) {
+            return 0;
+        }
+        cursor.seekBlock(low - 1);
+        final int blockEnd = Math.min(size, low * BLOCK_SIZE);
+        int index = (low - 1) * BLOCK_SIZE;
+        while (index < blockEnd && cursor.compareTo(canonical, prefixOnly) < threshold) {
+            index++;
+            if (index < blockEnd) {
+                cursor.next();
+            }
+        }
+        return index;
+    }
+
+    private UrinReference<SEGMENT, QUERY, FRAGMENT> parse(final String canonicalForm) {
+        try {
+            return scheme.parseUrinReference(canonicalForm);
+        } catch (final ParseException e) {
+            throw new IllegalStateException("Invalid URI reference in SortedUrinDictionary [" + canonicalForm + "]", e);
+        }
+    }
+
+    private static int compare(final byte[] first, final int firstLength, final byte[] second, final int secondLength) {
+        final int length = Math.min(firstLength, secondLength);
+        for (int i = 0; i < length; i++) {
+            if (first[i] != second[i]) {
+                return first[i] - second[i];
+            }
+        }
+        return firstLength - secondLength;
+    }
+
+    private static int sharedPrefixLength(final byte[] first, final byte[] second) {
+        final int length = Math.min(first.length, second.length);
+        int result = 0;
+        while (result < length && first[result] == second[result]) {
+            result++;
+        }
+        return result;
+    }
+
+    private static void writeVarint(final ByteArrayOutputStream outputStream, final int value) {
+        int remaining = value;
+        while ((remaining & ~0x7f) != 0) {
+            outputStream.write(remaining & 0x7f | 0x80);
+            remaining >>>= 7;
+        }
+        outputStream.write(remaining);
+    }
+
+    @Override
+    public String toString() {
+        return "SortedUrinDictionary{" +
+                "scheme=" + scheme +
+                ", size=" + size +
+                '}';
+    }
+
+    /**
+     * Decodes URI references one after another, starting from the first in a block, into a buffer that holds the bytes
+     * of the current URI reference.  A cursor can be moved to any block, reusing its buffer.
+     */
+    private final class Cursor {
+        private final byte[] bytes = new byte[maximumLength];
+        private int position;
+        private int length;
+
+        Cursor seekBlock(final int block) {
+            position = blockOffsets[block];
+            length = readVarint();
+            System.arraycopy(data, position, bytes, 0, length);
+            position += length;
+            return this;
+        }
+
+        Cursor seek(final int index) {
+            seekBlock(index / BLOCK_SIZE);
+            for (int i = 0; i < index % BLOCK_SIZE; i++) {
+                next();
+            }
+            return this;
+        }
+
+        void next() {
+            final int sharedLength = readVarint();
+            final int suffixLength = readVarint();
+            System.arraycopy(data, position, bytes, sharedLength, suffixLength);
+            position += suffixLength;
+            length = sharedLength + suffixLength;
+        }
+
+        private int readVarint() {
+            int result = 0;
+            int shift = 0;
+            byte next;
+            do {
+                next = data[position++];
+                result |= (next & 0x7f) << shift;
+                shift += 7;
+            } while (next < 0);
+            return result;
+        }
+
+        /**
+         * Compares the current URI reference with the given canonical form.  When only comparing prefixes, a URI reference
+         * that starts with the canonical form compares as equal.
+         */
+        int compareTo(final CharSequence canonical, final boolean prefixOnly) {
+            final int commonLength = Math.min(length, canonical.length());
+            for (int i = 0; i < commonLength; i++) {
+                if (bytes[i] != (byte) canonical.charAt(i)) {
+                    return bytes[i] - (byte) canonical.charAt(i);
+                }
+            }
+            return prefixOnly && length >= canonical.length() ? 0 : length - canonical.length();
+        }
+
+        String asString() {
+            return new String(bytes, 0, length, US_ASCII);
+        }
+    }
+
+    /**
+     * Reads the data of a {@code SortedUrinDictionary} that has not yet been verified, reporting any attempt to read beyond
+     * its end as an {@code IOException}.
+     */
+    private static final class DataReader {
+        private final byte[] data;
+        private int position;
+
+        DataReader(final byte[] data) {
+            this.data = data;
+        }
+
+        int readVarint() throws IOException {
+            int result = 0;
+            int shift = 0;
+            byte next;
+            do {
+                if (shift > 28 || position == data.length) {
+                    throw new IOException("Invalid SortedUrinDictionary varint ending at index " + position);
+                }
+                next = data[position++];
+                result |= (next & 0x7f) << shift;
+                shift += 7;
+            } while (next < 0);
+            if (result < 0) {
+                throw new IOException("Invalid SortedUrinDictionary varint ending at index " + position);
+            }
+            return result;
+        }
+
+        void skip(final int length) throws IOException {
+            if (length > data.length - position) {
+                throw new IOException("Cannot read " + length + " bytes from index " + position + " of SortedUrinDictionary data of length " + data.length);
+            }
+            position += length;
+        }
+    }
+
+    private final class CursorIterator implements Iterator<UrinReference<SEGMENT, QUERY, FRAGMENT>> {
+        private final int end;
+        private int index;
+        private Cursor cursor;
+
+        CursorIterator(final int start, final int end) {
+            this.index = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < end;
+        }
+
+        @Override
+        public UrinReference<SEGMENT, QUERY, FRAGMENT> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (cursor == null) {
+                cursor = new Cursor().seek(index);
+            } else if (index % BLOCK_SIZE == 0) {
+                cursor.seekBlock(index / BLOCK_SIZE);
+            } else {
+                cursor.next();
+            }
+            index++;
+            return parse(cursor.asString());
+        }
+    }
+}
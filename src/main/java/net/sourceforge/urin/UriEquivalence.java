@@ -0,0 +1,608 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import static net.sourceforge.urin.CharacterSetMembershipFunction.HEX_DIGIT;
+import static net.sourceforge.urin.CharacterSetMembershipFunction.UNRESERVED;
+
+/**
+ * Compares URI reference {@code CharSequence}s for equivalence, component by component, without creating intermediate
+ * {@code String}s.
+ * <p>
+ * Percent encoded octets are compared by value, so hexadecimal digits in either case are equivalent, and an encoded
+ * unreserved character is equivalent to the character itself.  Schemes and hosts are compared case-insensitively, an
+ * empty port is equivalent to no port, as is port 80 for the http scheme and port 443 for the https scheme, and an
+ * empty path is equivalent to "{@code /}" when there is an authority.  Dot segments are removed from paths that begin
+ * with "{@code /}" and from paths of references that have a scheme, so, as when parsing, only the literal segments
+ * "{@code .}" and "{@code ..}" are dot segments, and a segment such as "{@code %2E}" is not equivalent to one.
+ * Characters outside US-ASCII, which cannot appear in a URI reference, are treated as the percent encoded octets of
+ * their UTF-8 encoding, as when mapping an IRI to a URI, with unpaired surrogates treated as U+FFFD.
+ *
+ * @see <a href="http://tools.ietf.org/html/rfc3987#section-3.1">RFC 3987 - Mapping of IRIs to URIs</a>
+ * @see <a href="http://tools.ietf.org/html/rfc3986#section-6.2.2">RFC 3986 - Syntax-Based Normalization</a>
+ */
+final class UriEquivalence {
+
+    private static final char MAX_US_ASCII = 0x7F;
+    private static final int REPLACEMENT_CHARACTER = 0xFFFD;
+
+    private UriEquivalence() {
+        // deliberately empty
+    }
+
+    static boolean equivalent(final CharSequence first, final CharSequence second) {
+        final Components firstComponents = new Components(first);
+        final Components secondComponents = new Components(second);
+        return schemesEquivalent(firstComponents, secondComponents)
+                && authoritiesEquivalent(firstComponents, secondComponents)
+                && pathsEquivalent(firstComponents, secondComponents)
+                && optionalRegionsEquivalent(first, firstComponents.queryStart, firstComponents.queryEnd, second, secondComponents.queryStart, secondComponents.queryEnd)
+                && optionalRegionsEquivalent(first, firstComponents.fragmentStart, first.length(), second, secondComponents.fragmentStart, second.length());
+    }
+
+    /**
+     * Writes the canonical form of the given URI reference, which is the same for any two URI references that are
+     * equivalent according to {@link #equivalent(CharSequence, CharSequence)}, and different for any two that are not.
+     * Unreserved characters are decoded, other percent encoded octets use upper case hexadecimal digits, schemes and
+     * hosts are lower cased, insignificant ports are removed, dot segments are removed, and an empty path with an
+     * authority is written as "{@code /}".
+     */
+    static void appendCanonicalTo(final CharSequence uriReference, final AsciiOutput output) {
+        final Components components = new Components(uriReference);
+        if (components.hasScheme()) {
+            appendNormalised(uriReference, 0, components.schemeEnd, true, output);
+            output.append(':');
+        }
+        if (components.hasAuthority()) {
+            appendCanonicalAuthority(components, output);
+        }
+        appendCanonicalPath(components, output);
+        if (components.queryStart != -1) {
+            output.append('?');
+            appendNormalised(uriReference, components.queryStart, components.queryEnd, false, output);
+        }
+        if (components.fragmentStart != -1) {
+            output.append('#');
+            appendNormalised(uriReference, components.fragmentStart, uriReference.length(), false, output);
+        }
+    }
+
+    private static void appendCanonicalAuthority(final Components components, final AsciiOutput output) {
+        output.append("//");
+        if (components.userInfoStart != -1) {
+            appendNormalised(components.sequence, components.userInfoStart, components.hostStart - 1, false, output);
+            output.append('@');
+        }
+        appendNormalised(components.sequence, components.hostStart, components.hostEnd, true, output);
+        if (components.hasSignificantPort()) {
+            output.append(':');
+            appendNormalised(components.sequence, withoutLeadingZeros(components.sequence, components.hostEnd + 1, components.pathStart), components.pathStart, false, output);
+        }
+    }
+
+    private static void appendCanonicalPath(final Components components, final AsciiOutput output) {
+        if (components.hasDotSegments()) {
+            final int[] segments = components.normalisedSegments();
+            if (needsDotPrefix(components, segments)) {
+                output.append(components.isAbsolutePath() ? "/." : "./");
+            }
+            for (int i = 0; i < segments.length; i += 2) {
+                if (i > 0 || components.isAbsolutePath()) {
+                    output.append('/');
+                }
+                appendNormalisedSegment(components.sequence, segments[i], segments[i + 1], output);
+            }
+        } else if (components.pathStart == components.pathEnd) {
+            if (components.hasAuthority()) {
+                output.append('/');
+            }
+        } else {
+            int segmentStart = components.pathStart;
+            int segmentEnd = segmentEnd(components.sequence, segmentStart, components.pathEnd);
+            appendNormalisedSegment(components.sequence, segmentStart, segmentEnd, output);
+            while (segmentEnd < components.pathEnd) {
+                output.append('/');
+                segmentStart = segmentEnd + 1;
+                segmentEnd = segmentEnd(components.sequence, segmentStart, components.pathEnd);
+                appendNormalisedSegment(components.sequence, segmentStart, segmentEnd, output);
+            }
+        }
+    }
+
+    /**
+     * Writes a path segment, keeping a segment that decodes to "{@code .}" or "{@code ..}" percent encoded, as
+     * {@code Segment} does, so that it is not read back as a dot segment.
+     */
+    private static void appendNormalisedSegment(final CharSequence sequence, final int start, final int end, final AsciiOutput output) {
+        final String encodedDotSegment = encodedDotSegment(sequence, start, end);
+        if (encodedDotSegment == null) {
+            appendNormalised(sequence, start, end, false, output);
+        } else {
+            output.append(encodedDotSegment);
+        }
+    }
+
+    /**
+     * Determines whether a path with its dot segments removed needs prefixing with a dot segment to be read back as the
+     * same path, using the same criteria as {@code Path}: when there is no authority, a first segment that is empty would
+     * be read as the start of an authority, and, when there is no scheme either, a first segment of a rootless path that
+     * contains a colon would be read as a scheme.
+     */
+    private static boolean needsDotPrefix(final Components components, final int[] segments) {
+        if (components.hasAuthority() || segments.length == 0) {
+            return false;
+        }
+        final boolean firstIsEmpty = segments.length > 2 && segments[0] == segments[1];
+        final boolean firstContainsColon = !components.hasScheme() && !components.isAbsolutePath() && indexOf(components.sequence, ':', segments[0], segments[1]) != -1;
+        return firstIsEmpty || firstContainsColon;
+    }
+
+    private static void appendNormalised(final CharSequence sequence, final int start, final int end, final boolean ignoreCase, final AsciiOutput output) {
+        int index = start;
+        while (index < end) {
+            if (sequence.charAt(index) > MAX_US_ASCII) {
+                final int codePoint = codePointAt(sequence, index, end);
+                final int octets = utf8Octets(codePoint);
+                for (int i = utf8Length(codePoint) - 1; i >= 0; i--) {
+                    appendPercentEncodedOctet(octets >>> 8 * i & 0xff, output);
+                }
+                index += codePoint > Character.MAX_VALUE ? 2 : 1;
+            } else {
+                final int character = normalisedCharacter(sequence, index, end, ignoreCase);
+                if (character < 0) {
+                    appendPercentEncodedOctet(-1 - character, output);
+                } else {
+                    output.append((char) character);
+                }
+                index += width(sequence, index, end);
+            }
+        }
+    }
+
+    private static void appendPercentEncodedOctet(final int octet, final AsciiOutput output) {
+        output.append('%').append(Character.toUpperCase(Character.forDigit(octet >> 4, 16))).append(Character.toUpperCase(Character.forDigit(octet & 0xf, 16)));
+    }
+
+    /**
+     * Gives the code point at the given index, which is U+FFFD if the character there is an unpaired surrogate.
+     */
+    private static int codePointAt(final CharSequence sequence, final int index, final int end) {
+        final char character = sequence.charAt(index);
+        if (Character.isHighSurrogate(character) && index + 1 < end && Character.isLowSurrogate(sequence.charAt(index + 1))) {
+            return Character.toCodePoint(character, sequence.charAt(index + 1));
+        }
+        return Character.isSurrogate(character) ? REPLACEMENT_CHARACTER : character;
+    }
+
+    private static int utf8Length(final int codePoint) {
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint <= Character.MAX_VALUE ? 3 : 4;
+    }
+
+    /**
+     * Gives the UTF-8 encoding of the given code point, which is outside US-ASCII, packed into an {@code int} with the
+     * first octet most significant.
+     */
+    private static int utf8Octets(final int codePoint) {
+        switch (utf8Length(codePoint)) {
+            case 2:
+                return (0xc0 | codePoint >> 6) << 8 | 0x80 | codePoint & 0x3f;
+            case 3:
+                return (0xe0 | codePoint >> 12) << 16 | (0x80 | codePoint >> 6 & 0x3f) << 8 | 0x80 | codePoint & 0x3f;
+            default:
+                return (0xf0 | codePoint >> 18) << 24 | (0x80 | codePoint >> 12 & 0x3f) << 16 | (0x80 | codePoint >> 6 & 0x3f) << 8 | 0x80 | codePoint & 0x3f;
+        }
+    }
+
+    private static boolean schemesEquivalent(final Components first, final Components second) {
+        return first.hasScheme() == second.hasScheme()
+                && (!first.hasScheme() || regionsEquivalent(first.sequence, 0, first.schemeEnd, second.sequence, 0, second.schemeEnd, true));
+    }
+
+    private static boolean authoritiesEquivalent(final Components first, final Components second) {
+        if (first.hasAuthority() != second.hasAuthority()) {
+            return false;
+        } else if (!first.hasAuthority()) {
+            return true;
+        }
+        return optionalRegionsEquivalent(first.sequence, first.userInfoStart, first.hostStart - 1, second.sequence, second.userInfoStart, second.hostStart - 1)
+                && regionsEquivalent(first.sequence, first.hostStart, first.hostEnd, second.sequence, second.hostStart, second.hostEnd, true)
+                && portsEquivalent(first, second);
+    }
+
+    private static boolean portsEquivalent(final Components first, final Components second) {
+        final boolean firstHasPort = first.hasSignificantPort();
+        final boolean secondHasPort = second.hasSignificantPort();
+        return firstHasPort == secondHasPort
+                && (!firstHasPort || regionsEquivalent(
+                first.sequence, withoutLeadingZeros(first.sequence, first.hostEnd + 1, first.pathStart), first.pathStart,
+                second.sequence, withoutLeadingZeros(second.sequence, second.hostEnd + 1, second.pathStart), second.pathStart,
+                false
+        ));
+    }
+
+    private static boolean pathsEquivalent(final Components first, final Components second) {
+        if (first.isAbsolutePath() != second.isAbsolutePath()) {
+            return false;
+        } else if (first.hasDotSegments() || second.hasDotSegments()) {
+            return segmentsEquivalent(first, first.normalisedSegments(), second, second.normalisedSegments());
+        } else if (first.pathStart == first.pathEnd || second.pathStart == second.pathEnd) {
+            return first.pathLength() == second.pathLength() || first.isRootPath() && second.isRootPath();
+        }
+        int firstSegmentStart = first.pathStart;
+        int secondSegmentStart = second.pathStart;
+        while (true) {
+            final int firstSegmentEnd = segmentEnd(first.sequence, firstSegmentStart, first.pathEnd);
+            final int secondSegmentEnd = segmentEnd(second.sequence, secondSegmentStart, second.pathEnd);
+            if (!segmentRegionsEquivalent(first.sequence, firstSegmentStart, firstSegmentEnd, second.sequence, secondSegmentStart, secondSegmentEnd)) {
+                return false;
+            } else if (firstSegmentEnd == first.pathEnd || secondSegmentEnd == second.pathEnd) {
+                return firstSegmentEnd == first.pathEnd && secondSegmentEnd == second.pathEnd;
+            }
+            firstSegmentStart = firstSegmentEnd + 1;
+            secondSegmentStart = secondSegmentEnd + 1;
+        }
+    }
+
+    private static boolean segmentsEquivalent(final Components first, final int[] firstSegments, final Components second, final int[] secondSegments) {
+        if (firstSegments.length != secondSegments.length) {
+            return false;
+        }
+        for (int i = 0; i < firstSegments.length; i += 2) {
+            if (!segmentRegionsEquivalent(first.sequence, firstSegments[i], firstSegments[i + 1], second.sequence, secondSegments[i], secondSegments[i + 1])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares two path segments, which are equivalent if their characters are, unless only one of them is a literal dot
+     * segment, since a percent encoded "{@code .}" or "{@code ..}" is an ordinary segment.
+     */
+    private static boolean segmentRegionsEquivalent(final CharSequence first, final int firstStart, final int firstEnd, final CharSequence second, final int secondStart, final int secondEnd) {
+        return regionsEquivalent(first, firstStart, firstEnd, second, secondStart, secondEnd, false)
+                && (encodedDotSegment(first, firstStart, firstEnd) == null) == (encodedDotSegment(second, secondStart, secondEnd) == null);
+    }
+
+    private static int segmentEnd(final CharSequence sequence, final int start, final int pathEnd) {
+        final int slashIndex = indexOf(sequence, '/', start, pathEnd);
+        return slashIndex == -1 ? pathEnd : slashIndex;
+    }
+
+    /**
+     * Gives the canonical form of the given segment if it decodes to "{@code .}" or "{@code ..}" but is not written
+     * literally as either, which is "{@code %2E}" or "{@code %2E%2E}", or null otherwise.
+     */
+    static String encodedDotSegment(final CharSequence sequence, final int start, final int end) {
+        int index = start;
+        int dots = 0;
+        boolean isEncoded = false;
+        while (index < end && dots < 2) {
+            if (sequence.charAt(index) == '.') {
+                index++;
+            } else if (isPercentEncodedOctet(sequence, index, end) && normalisedCharacter(sequence, index, end, false) == '.') {
+                isEncoded = true;
+                index += 3;
+            } else {
+                return null;
+            }
+            dots++;
+        }
+        if (index != end || !isEncoded) {
+            return null;
+        }
+        return dots == 1 ? "%2E" : "%2E%2E";
+    }
+
+    private static boolean optionalRegionsEquivalent(final CharSequence first, final int firstStart, final int firstEnd, final CharSequence second, final int secondStart, final int secondEnd) {
+        if (firstStart == -1 || secondStart == -1) {
+            return firstStart == secondStart;
+        }
+        return regionsEquivalent(first, firstStart, firstEnd, second, secondStart, secondEnd, false);
+    }
+
+    private static boolean regionsEquivalent(final CharSequence first, final int firstStart, final int firstEnd, final CharSequence second, final int secondStart, final int secondEnd, final boolean ignoreCase) {
+        int firstIndex = firstStart;
+        int secondIndex = secondStart;
+        while (firstIndex < firstEnd && secondIndex < secondEnd) {
+            if (first.charAt(firstIndex) > MAX_US_ASCII || second.charAt(secondIndex) > MAX_US_ASCII) {
+                return new NormalisedCharacters(first, firstIndex, firstEnd, ignoreCase).matches(new NormalisedCharacters(second, secondIndex, secondEnd, ignoreCase));
+            } else if (normalisedCharacter(first, firstIndex, firstEnd, ignoreCase) != normalisedCharacter(second, secondIndex, secondEnd, ignoreCase)) {
+                return false;
+            }
+            firstIndex += width(first, firstIndex, firstEnd);
+            secondIndex += width(second, secondIndex, secondEnd);
+        }
+        return firstIndex == firstEnd && secondIndex == secondEnd;
+    }
+
+    private static boolean isPercentEncodedOctet(final CharSequence sequence, final int index, final int end) {
+        return sequence.charAt(index) == '%' && index + 2 < end && HEX_DIGIT.isMember(sequence.charAt(index + 1)) && HEX_DIGIT.isMember(sequence.charAt(index + 2));
+    }
+
+    static int width(final CharSequence sequence, final int index, final int end) {
+        return isPercentEncodedOctet(sequence, index, end) ? 3 : 1;
+    }
+
+    /**
+     * Gives the character at the given index, or the percent encoded octet starting there, as an {@code int}.  Encoded
+     * unreserved characters give the character itself; other encoded octets give a negative value, so that they are
+     * distinct from any character.
+     */
+    static int normalisedCharacter(final CharSequence sequence, final int index, final int end, final boolean ignoreCase) {
+        final int character;
+        if (isPercentEncodedOctet(sequence, index, end)) {
+            final int octet = Character.digit(sequence.charAt(index + 1), 16) << 4 | Character.digit(sequence.charAt(index + 2), 16);
+            if (!UNRESERVED.isMember((char) octet)) {
+                return -1 - octet;
+            }
+            character = octet;
+        } else {
+            character = sequence.charAt(index);
+        }
+        return ignoreCase && character >= 'A' && character <= 'Z' ? character + ('a' - 'A') : character;
+    }
+
+    /**
+     * Determines whether the port in the given region is significant for the scheme that ends at the given index, which
+     * is -1 if there is no scheme.  An empty port is never significant, nor is port 80 for http, or 443 for https,
+     * however many leading zeros it is written with.
+     */
+    static boolean isSignificantPort(final CharSequence schemeSequence, final int schemeEnd, final CharSequence portSequence, final int portStart, final int portEnd) {
+        if (portStart >= portEnd) {
+            return false;
+        } else if (regionEqualsIgnoringCase(schemeSequence, 0, schemeEnd, "http")) {
+            return !regionEqualsIgnoringCase(portSequence, withoutLeadingZeros(portSequence, portStart, portEnd), portEnd, "80");
+        } else if (regionEqualsIgnoringCase(schemeSequence, 0, schemeEnd, "https")) {
+            return !regionEqualsIgnoringCase(portSequence, withoutLeadingZeros(portSequence, portStart, portEnd), portEnd, "443");
+        }
+        return true;
+    }
+
+    /**
+     * Gets the index of the first digit of the non-empty port in the given region that is not a leading zero, so that
+     * ports are compared by number rather than by digits.
+     */
+    private static int withoutLeadingZeros(final CharSequence sequence, final int start, final int end) {
+        int index = start;
+        while (index < end - 1 && sequence.charAt(index) == '0') {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean regionEqualsIgnoringCase(final CharSequence sequence, final int start, final int end, final String value) {
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char character = sequence.charAt(start + i);
+            if ((character >= 'A' && character <= 'Z' ? character + ('a' - 'A') : character) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(final CharSequence sequence, final char character, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (sequence.charAt(i) == character) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the normalised characters of a region in turn, giving each octet of the UTF-8 encoding of a character
+     * outside US-ASCII as a percent encoded octet.
+     */
+    private static final class NormalisedCharacters {
+        private static final int END = Integer.MIN_VALUE;
+
+        private final CharSequence sequence;
+        private final int end;
+        private final boolean ignoreCase;
+        private int index;
+        private int pendingOctets;
+        private int pendingOctetCount;
+
+        NormalisedCharacters(final CharSequence sequence, final int start, final int end, final boolean ignoreCase) {
+            this.sequence = sequence;
+            this.index = start;
+            this.end = end;
+            this.ignoreCase = ignoreCase;
+        }
+
+        int next() {
+            if (pendingOctetCount > 0) {
+                pendingOctetCount--;
+                return -1 - (pendingOctets >>> 8 * pendingOctetCount & 0xff);
+            } else if (index >= end) {
+                return END;
+            } else if (sequence.charAt(index) > MAX_US_ASCII) {
+                final int codePoint = codePointAt(sequence, index, end);
+                index += codePoint > Character.MAX_VALUE ? 2 : 1;
+                pendingOctets = utf8Octets(codePoint);
+                pendingOctetCount = utf8Length(codePoint);
+                return next();
+            }
+            final int character = normalisedCharacter(sequence, index, end, ignoreCase);
+            index += width(sequence, index, end);
+            return character;
+        }
+
+        boolean matches(final NormalisedCharacters other) {
+            int character = next();
+            while (character == other.next()) {
+                if (character == END) {
+                    return true;
+                }
+                character = next();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The indices of the components of a URI reference, found using the same rules as the regular expression given in RFC 3986
+     * appendix B.  A start index of -1 means the component is absent.
+     */
+    private static final class Components {
+        private final CharSequence sequence;
+        private final int schemeEnd;
+        private final int userInfoStart;
+        private final int hostStart;
+        private final int hostEnd;
+        private final int pathStart;
+        private final int pathEnd;
+        private final int queryStart;
+        private final int queryEnd;
+        private final int fragmentStart;
+
+        Components(final CharSequence sequence) {
+            this.sequence = sequence;
+            final int fragmentIndex = indexOf(sequence, '#', 0, sequence.length());
+            this.fragmentStart = fragmentIndex == -1 ? -1 : fragmentIndex + 1;
+            this.queryEnd = fragmentIndex == -1 ? sequence.length() : fragmentIndex;
+            final int queryIndex = indexOf(sequence, '?', 0, queryEnd);
+            this.queryStart = queryIndex == -1 ? -1 : queryIndex + 1;
+            this.pathEnd = queryIndex == -1 ? queryEnd : queryIndex;
+            this.schemeEnd = schemeEnd(sequence, pathEnd);
+            final int hierarchicalPartStart = schemeEnd + 1;
+            if (startsWithAuthority(sequence, hierarchicalPartStart, pathEnd)) {
+                final int authorityStart = hierarchicalPartStart + 2;
+                final int slashIndex = indexOf(sequence, '/', authorityStart, pathEnd);
+                this.pathStart = slashIndex == -1 ? pathEnd : slashIndex;
+                final int atIndex = lastIndexOf(sequence, '@', authorityStart, pathStart);
+                this.userInfoStart = atIndex == -1 ? -1 : authorityStart;
+                this.hostStart = atIndex == -1 ? authorityStart : atIndex + 1;
+                this.hostEnd = hostEnd(sequence, hostStart, pathStart);
+            } else {
+                this.userInfoStart = -1;
+                this.hostStart = -1;
+                this.hostEnd = -1;
+                this.pathStart = hierarchicalPartStart;
+            }
+        }
+
+        private static int schemeEnd(final CharSequence sequence, final int pathEnd) {
+            for (int i = 0; i < pathEnd; i++) {
+                final char character = sequence.charAt(i);
+                if (character == ':') {
+                    return i > 0 ? i : -1;
+                } else if (character == '/') {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean startsWithAuthority(final CharSequence sequence, final int start, final int end) {
+            return end - start >= 2 && sequence.charAt(start) == '/' && sequence.charAt(start + 1) == '/';
+        }
+
+        private static int lastIndexOf(final CharSequence sequence, final char character, final int start, final int end) {
+            for (int i = end - 1; i >= start; i--) {
+                if (sequence.charAt(i) == character) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static int hostEnd(final CharSequence sequence, final int hostStart, final int authorityEnd) {
+            final int ipLiteralEnd = hostStart < authorityEnd && sequence.charAt(hostStart) == '[' ? indexOf(sequence, ']', hostStart, authorityEnd) : -1;
+            final int colonIndex = indexOf(sequence, ':', ipLiteralEnd == -1 ? hostStart : ipLiteralEnd, authorityEnd);
+            return colonIndex == -1 ? authorityEnd : colonIndex;
+        }
+
+        boolean hasScheme() {
+            return schemeEnd != -1;
+        }
+
+        boolean hasAuthority() {
+            return hostStart != -1;
+        }
+
+        boolean hasSignificantPort() {
+            return isSignificantPort(sequence, schemeEnd, sequence, hostEnd + 1, pathStart);
+        }
+
+        int pathLength() {
+            return pathEnd - pathStart;
+        }
+
+        boolean isAbsolutePath() {
+            return pathStart < pathEnd ? sequence.charAt(pathStart) == '/' : hasAuthority();
+        }
+
+        boolean isRootPath() {
+            return hasAuthority() && (pathStart == pathEnd || pathLength() == 1 && sequence.charAt(pathStart) == '/');
+        }
+
+        boolean hasDotSegments() {
+            if (!hasScheme() && !isAbsolutePath()) {
+                return false;
+            }
+            int segmentStart = pathStart;
+            while (segmentStart <= pathEnd) {
+                final int slashIndex = indexOf(sequence, '/', segmentStart, pathEnd);
+                final int segmentEnd = slashIndex == -1 ? pathEnd : slashIndex;
+                if (isDotSegment(segmentStart, segmentEnd) || isDotDotSegment(segmentStart, segmentEnd)) {
+                    return true;
+                }
+                segmentStart = segmentEnd + 1;
+            }
+            return false;
+        }
+
+        private boolean isDotSegment(final int start, final int end) {
+            return end - start == 1 && sequence.charAt(start) == '.';
+        }
+
+        private boolean isDotDotSegment(final int start, final int end) {
+            return end - start == 2 && sequence.charAt(start) == '.' && sequence.charAt(start + 1) == '.';
+        }
+
+        /**
+         * Removes dot segments from the path, as described in RFC 3986 section 5.2.4, giving the start and end index of each
+         * remaining segment, in turn.  An empty path with an authority is treated as "{@code /}".
+         */
+        int[] normalisedSegments() {
+            final boolean isAbsolute = isAbsolutePath();
+            final int[] segments = new int[2 * (pathLength() + 1)];
+            int size = 0;
+            int segmentStart = isAbsolute && pathStart < pathEnd ? pathStart + 1 : pathStart;
+            while (segmentStart <= pathEnd) {
+                final int slashIndex = indexOf(sequence, '/', segmentStart, pathEnd);
+                final int segmentEnd = slashIndex == -1 ? pathEnd : slashIndex;
+                final boolean isDotDot = isDotDotSegment(segmentStart, segmentEnd);
+                final boolean isDot = isDotDot || isDotSegment(segmentStart, segmentEnd);
+                if (isDotDot) {
+                    size = Math.max(0, size - 2);
+                }
+                if (!isDot || slashIndex == -1) {
+                    segments[size] = isDot ? segmentEnd : segmentStart;
+                    segments[size + 1] = segmentEnd;
+                    size += 2;
+                }
+                segmentStart = segmentEnd + 1;
+            }
+            final int[] result = new int[size];
+            System.arraycopy(segments, 0, result, 0, size);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+import static net.sourceforge.urin.CharacterSetMembershipFunction.*;
+
+/**
+ * A URI Template, as defined in <a href="https://tools.ietf.org/html/rfc6570">RFC 6570</a>, supporting all four levels of template,
+ * for example {@code https://{host}/search{?q,lang,page}}.
+ * <p>
+ * A template is parsed once, when it is created, into a sequence of literal parts, which are encoded at that point,
+ * and expressions, which are expanded each time {@link #expand(Map)} is called.
+ * <p>
+ * Variable values may be {@code null} or absent, meaning undefined, an {@code Iterable}, meaning a list, a {@code Map}, meaning an
+ * associative array, or any other {@code Object}, in which case its {@code toString()} is used.  Prefix modifiers are ignored for
+ * lists and associative arrays.
+ * <p>
+ * Immutable and thread safe.
+ */
+public final class UriTemplate {
+
+    private static final CharacterSetMembershipFunction RESERVED = or(
+            SUB_DELIMITERS,
+            singleMemberCharacterSet(':'),
+            singleMemberCharacterSet('/'),
+            singleMemberCharacterSet('?'),
+            singleMemberCharacterSet('#'),
+            singleMemberCharacterSet('['),
+            singleMemberCharacterSet(']'),
+            singleMemberCharacterSet('@')
+    );
+    private static final PercentEncoder UNRESERVED_ENCODER = new PercentEncoder(UNRESERVED);
+    private static final PercentEncoder UNRESERVED_AND_RESERVED_ENCODER = new PercentEncoder(or(UNRESERVED, RESERVED));
+    private static final int MAXIMUM_PREFIX_LENGTH = 9999;
+    private static final int ESTIMATED_EXPANSION_LENGTH = 16;
+
+    private final String template;
+    private final List<Part> parts;
+    private final int estimatedLength;
+
+    private UriTemplate(final String template, final List<Part> parts, final int estimatedLength) {
+        this.template = template;
+        this.parts = parts;
+        this.estimatedLength = estimatedLength;
+    }
+
+    /**
+     * Factory method for creating {@code UriTemplate}s.
+     *
+     * @param template a {@code String} representing an RFC 6570 URI Template.
+     * @return a {@code UriTemplate} representing the given {@code String}.
+     * @throws IllegalArgumentException if the given {@code String} is not a valid URI Template.
+     */
+    public static UriTemplate uriTemplate(final String template) {
+        requireNonNull(template, "Cannot instantiate UriTemplate with null template");
+        final List<Part> parts = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        int estimatedLength = 0;
+        int index = 0;
+        while (index < template.length()) {
+            final char character = template.charAt(index);
+            if (character == '{') {
+                final int closeIndex = template.indexOf('}', index);
+                if (closeIndex == -1) {
+                    throw new IllegalArgumentException("Character " + (index + 1) + " begins an expression that is not closed in URI template [" + template + "]");
+                }
+                if (literal.length() > 0) {
+                    parts.add(new Literal(literal.toString()));
+                    estimatedLength += literal.length();
+                    literal.setLength(0);
+                }
+                final Expression expression = Expression.parse(template, index + 1, closeIndex);
+                parts.add(expression);
+                estimatedLength += ESTIMATED_EXPANSION_LENGTH * expression.variableSpecifications.size();
+                index = closeIndex + 1;
+            } else {
+                index = appendLiteral(template, index, literal);
+            }
+        }
+        if (literal.length() > 0) {
+            parts.add(new Literal(literal.toString()));
+            estimatedLength += literal.length();
+        }
+        return new UriTemplate(template, parts, estimatedLength);
+    }
+
+    private static int appendLiteral(final String template, final int index, final StringBuilder literal) {
+        final char character = template.charAt(index);
+        if (character == '%') {
+            if (index + 2 >= template.length() || !HEX_DIGIT.isMember(template.charAt(index + 1)) || !HEX_DIGIT.isMember(template.charAt(index + 2))) {
+                throw new IllegalArgumentException("Character " + (index + 1) + " must begin a percent encoded octet in URI template [" + template + "]");
+            }
+            literal.append(template, index, index + 3);
+            return index + 3;
+        } else if (character < 0x80 && !isLiteralCharacter(character)) {
+            throw new IllegalArgumentException("Character " + (index + 1) + " must not be a control character, space, \", ', %, <, >, \\, ^, `, {, |, or } in URI template [" + template + "]");
+        } else {
+            final int endIndex = Character.isHighSurrogate(character) && index + 1 < template.length() ? index + 2 : index + 1;
+            UNRESERVED_AND_RESERVED_ENCODER.encode(template, index, endIndex, literal);
+            return endIndex;
+        }
+    }
+
+    private static boolean isLiteralCharacter(final char character) {
+        return character > ' ' && character < 0x7F && "\"'%<>\\^`{|}".indexOf(character) == -1;
+    }
+
+    /**
+     * Expands this template using the given variable values.
+     *
+     * @param variables a {@code Map} of variable names to values.
+     * @return the expansion of this template.
+     */
+    public String expand(final Map<String, ?> variables) {
+        return expandTo(variables, new StringBuilder(estimatedLength)).toString();
+    }
+
+    /**
+     * Expands this template using the given variable values, appending the result to the given {@code StringBuilder}.
+     *
+     * @param variables a {@code Map} of variable names to values.
+     * @param result    the {@code StringBuilder} to append the expansion to.
+     * @return the given {@code StringBuilder}.
+     */
+    public StringBuilder expandTo(final Map<String, ?> variables, final StringBuilder result) {
+        requireNonNull(variables, "Cannot expand UriTemplate with null variables");
+        for (final Part part : parts) {
+            part.expandTo(variables, result);
+        }
+        return result;
+    }
+
+    /**
+     * Expands this template using the given variable values, and parses the expansion as a URI of the given {@code Scheme}.
+     * For example, passing {@link net.sourceforge.urin.scheme.http.Http#HTTP} returns a {@code Urin} whose query is an
+     * {@link net.sourceforge.urin.scheme.http.HttpQuery}.
+     *
+     * @param scheme    the {@code Scheme} to parse the expansion with.
+     * @param variables a {@code Map} of variable names to values.
+     * @param <SEGMENT>  The type of {@code Segment} of the {@code Scheme}.
+     * @param <QUERY>    The type of {@code Query} of the {@code Scheme}.
+     * @param <FRAGMENT> The type of {@code Fragment} of the {@code Scheme}.
+     * @return a {@code Urin} representing the expansion of this template.
+     * @throws ParseException if the expansion is not a valid URI of the given {@code Scheme}.
+     */
+    public <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> Urin<SEGMENT, QUERY, FRAGMENT> expandToUrin(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Map<String, ?> variables) throws ParseException {
+        return scheme.parseUrin(expand(variables));
+    }
+
+    /**
+     * Gets the {@code String} this template was created from.
+     *
+     * @return the {@code String} this template was created from.
+     */
+    public String template() {
+        return template;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        } else if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+
+        final UriTemplate that = (UriTemplate) object;
+        return template.equals(that.template);
+    }
+
+    @Override
+    public int hashCode() {
+        return template.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "UriTemplate{template='" + template + "'}";
+    }
+
+    private enum Operator {
+        SIMPLE("", ",", false, "", false),
+        RESERVED("", ",", false, "", true),
+        FRAGMENT("#", ",", false, "", true),
+        LABEL(".", ".", false, "", false),
+        PATH_SEGMENT("/", "/", false, "", false),
+        PATH_PARAMETER(";", ";", true, "", false),
+        QUERY("?", "&", true, "=", false),
+        QUERY_CONTINUATION("&", "&", true, "=", false);
+
+        private final String first;
+        private final String separator;
+        private final boolean named;
+        private final String ifEmpty;
+        private final boolean allowReserved;
+
+        Operator(final String first, final String separator, final boolean named, final String ifEmpty, final boolean allowReserved) {
+            this.first = first;
+            this.separator = separator;
+            this.named = named;
+            this.ifEmpty = ifEmpty;
+            this.allowReserved = allowReserved;
+        }
+
+        static Operator operator(final char character) {
+            switch (character) {
+                case '+':
+                    return RESERVED;
+                case '#':
+                    return FRAGMENT;
+                case '.':
+                    return LABEL;
+                case '/':
+                    return PATH_SEGMENT;
+                case ';':
+                    return PATH_PARAMETER;
+                case '?':
+                    return QUERY;
+                case '&':
+                    return QUERY_CONTINUATION;
+                default:
+                    return SIMPLE;
+            }
+        }
+
+        void encode(final String value, final int endIndex, final StringBuilder result) {
+            if (allowReserved) {
+                int startIndex = 0;
+                int percentIndex = value.indexOf('%');
+                while (percentIndex != -1 && percentIndex < endIndex) {
+                    UNRESERVED_AND_RESERVED_ENCODER.encode(value, startIndex, percentIndex, result);
+                    if (percentIndex + 2 < endIndex && HEX_DIGIT.isMember(value.charAt(percentIndex + 1)) && HEX_DIGIT.isMember(value.charAt(percentIndex + 2))) {
+                        result.append(value, percentIndex, percentIndex + 3);
+                        startIndex = percentIndex + 3;
+                    } else {
+                        result.append("%25");
+                        startIndex = percentIndex + 1;
+                    }
+                    percentIndex = value.indexOf('%', startIndex);
+                }
+                UNRESERVED_AND_RESERVED_ENCODER.encode(value, startIndex, endIndex, result);
+            } else {
+                UNRESERVED_ENCODER.encode(value, 0, endIndex, result);
+            }
+        }
+    }
+
+    private interface Part {
+        void expandTo(Map<String, ?> variables, StringBuilder result);
+    }
+
+    private static final class Literal implements Part {
+        private final String encoded;
+
+        Literal(final String encoded) {
+            this.encoded = encoded;
+        }
+
+        @Override
+        public void expandTo(final Map<String, ?> variables, final StringBuilder result) {
+            result.append(encoded);
+        }
+    }
+
+    private static final class VariableSpecification {
+        private final String name;
+        private final int maximumLength;
+        private final boolean explode;
+
+        VariableSpecification(final String name, final int maximumLength, final boolean explode) {
+            this.name = name;
+            this.maximumLength = maximumLength;
+            this.explode = explode;
+        }
+
+        static VariableSpecification parse(final String template, final int startIndex, final int endIndex) {
+            int nameEndIndex = startIndex;
+            while (nameEndIndex < endIndex && template.charAt(nameEndIndex) != ':' && template.charAt(nameEndIndex) != '*') {
+                nameEndIndex++;
+            }
+            final String name = template.substring(startIndex, nameEndIndex);
+            verifyName(template, startIndex, name);
+            if (nameEndIndex == endIndex) {
+                return new VariableSpecification(name, Integer.MAX_VALUE, false);
+            } else if (template.charAt(nameEndIndex) == '*') {
+                if (nameEndIndex + 1 != endIndex) {
+                    throw new IllegalArgumentException("Character " + (nameEndIndex + 2) + " must end the variable specification in URI template [" + template + "]");
+                }
+                return new VariableSpecification(name, Integer.MAX_VALUE, true);
+            } else {
+                final String prefix = template.substring(nameEndIndex + 1, endIndex);
+                if (prefix.isEmpty() || prefix.length() > 4 || !DIGIT.areMembers(prefix) || prefix.charAt(0) == '0') {
+                    throw new IllegalArgumentException("Prefix modifier [" + prefix + "] must be a number between 1 and " + MAXIMUM_PREFIX_LENGTH + " in URI template [" + template + "]");
+                }
+                return new VariableSpecification(name, Integer.parseInt(prefix), false);
+            }
+        }
+
+        private static void verifyName(final String template, final int startIndex, final String name) {
+            if (name.isEmpty() || name.charAt(0) == '.' || name.charAt(name.length() - 1) == '.' || name.contains("..")) {
+                throw new IllegalArgumentException("Variable name [" + name + "] must be a non-empty sequence of characters optionally separated by single dots in URI template [" + template + "]");
+            }
+            int index = 0;
+            while (index < name.length()) {
+                final char character = name.charAt(index);
+                if (character == '%' && index + 2 < name.length() && HEX_DIGIT.isMember(name.charAt(index + 1)) && HEX_DIGIT.isMember(name.charAt(index + 2))) {
+                    index += 3;
+                } else if (ALPHA.isMember(character) || DIGIT.isMember(character) || character == '_' || character == '.') {
+                    index++;
+                } else {
+                    throw new IllegalArgumentException("Character " + (startIndex + index + 1) + " must be " + ALPHA.describe() + ", " + DIGIT.describe() + ", _, ., or a percent encoded octet in URI template [" + template + "]");
+                }
+            }
+        }
+    }
+
+    private static final class Expression implements Part {
+        private final Operator operator;
+        private final List<VariableSpecification> variableSpecifications;
+
+        private Expression(final Operator operator, final List<VariableSpecification> variableSpecifications) {
+            this.operator = operator;
+            this.variableSpecifications = variableSpecifications;
+        }
+
+        static Expression parse(final String template, final int startIndex, final int endIndex) {
+            if (startIndex == endIndex) {
+                throw new IllegalArgumentException("Character " + startIndex + " begins an empty expression in URI template [" + template + "]");
+            }
+            final char firstCharacter = template.charAt(startIndex);
+            if ("=,!@|".indexOf(firstCharacter) != -1) {
+                throw new IllegalArgumentException("Character " + (startIndex + 1) + " is a reserved operator in URI template [" + template + "]");
+            }
+            final Operator operator = Operator.operator(firstCharacter);
+            final List<VariableSpecification> variableSpecifications = new ArrayList<>();
+            int variableStartIndex = operator == Operator.SIMPLE ? startIndex : startIndex + 1;
+            while (variableStartIndex <= endIndex) {
+                final int commaIndex = template.indexOf(',', variableStartIndex);
+                final int variableEndIndex = commaIndex == -1 || commaIndex > endIndex ? endIndex : commaIndex;
+                variableSpecifications.add(VariableSpecification.parse(template, variableStartIndex, variableEndIndex));
+                variableStartIndex = variableEndIndex + 1;
+            }
+            return new Expression(operator, variableSpecifications);
+        }
+
+        @Override
+        public void expandTo(final Map<String, ?> variables, final StringBuilder result) {
+            boolean first = true;
+            for (final VariableSpecification variableSpecification : variableSpecifications) {
+                final Object value = variables.get(variableSpecification.name);
+                if (isDefined(value)) {
+                    result.append(first ? operator.first : operator.separator);
+                    first = false;
+                    if (value instanceof Map) {
+                        expandAssociativeArray(variableSpecification, (Map<?, ?>) value, result);
+                    } else if (value instanceof Iterable) {
+                        expandList(variableSpecification, (Iterable<?>) value, result);
+                    } else {
+                        expandString(variableSpecification, value.toString(), result);
+                    }
+                }
+            }
+        }
+
+        private static boolean isDefined(final Object value) {
+            if (value instanceof Map) {
+                return !((Map<?, ?>) value).isEmpty();
+            } else if (value instanceof Iterable) {
+                return ((Iterable<?>) value).iterator().hasNext();
+            } else {
+                return value != null;
+            }
+        }
+
+        private void appendName(final String name, final String value, final StringBuilder result) {
+            result.append(name);
+            result.append(value.isEmpty() ? operator.ifEmpty : "=");
+        }
+
+        private void expandString(final VariableSpecification variableSpecification, final String value, final StringBuilder result) {
+            if (operator.named) {
+                appendName(variableSpecification.name, value, result);
+            }
+            final int endIndex = variableSpecification.maximumLength >= value.length()
+                    ? value.length()
+                    : value.offsetByCodePoints(0, Math.min(variableSpecification.maximumLength, value.codePointCount(0, value.length())));
+            operator.encode(value, endIndex, result);
+        }
+
+        private void expandList(final VariableSpecification variableSpecification, final Iterable<?> values, final StringBuilder result) {
+            final Iterator<?> iterator = values.iterator();
+            if (variableSpecification.explode) {
+                while (iterator.hasNext()) {
+                    final String value = iterator.next().toString();
+                    if (operator.named) {
+                        appendName(variableSpecification.name, value, result);
+                    }
+                    operator.encode(value, value.length(), result);
+                    if (iterator.hasNext()) {
+                        result.append(operator.separator);
+                    }
+                }
+            } else {
+                if (operator.named) {
+                    result.append(variableSpecification.name).append('=');
+                }
+                while (iterator.hasNext()) {
+                    final String value = iterator.next().toString();
+                    operator.encode(value, value.length(), result);
+                    if (iterator.hasNext()) {
+                        result.append(',');
+                    }
+                }
+            }
+        }
+
+        private void expandAssociativeArray(final VariableSpecification variableSpecification, final Map<?, ?> values, final StringBuilder result) {
+            final Iterator<? extends Map.Entry<?, ?>> iterator = values.entrySet().iterator();
+            if (variableSpecification.explode) {
+                while (iterator.hasNext()) {
+                    final Map.Entry<?, ?> entry = iterator.next();
+                    final String key = entry.getKey().toString();
+                    final String value = entry.getValue().toString();
+                    operator.encode(key, key.length(), result);
+                    result.append(operator.named && value.isEmpty() ? operator.ifEmpty : "=");
+                    operator.encode(value, value.length(), result);
+                    if (iterator.hasNext()) {
+                        result.append(operator.separator);
+                    }
+                }
+            } else {
+                if (operator.named) {
+                    result.append(variableSpecification.name).append('=');
+                }
+                while (iterator.hasNext()) {
+                    final Map.Entry<?, ?> entry = iterator.next();
+                    final String key = entry.getKey().toString();
+                    final String value = entry.getValue().toString();
+                    operator.encode(key, key.length(), result);
+                    result.append(',');
+                    operator.encode(value, value.length(), result);
+                    if (iterator.hasNext()) {
+                        result.append(',');
+                    }
+                }
+            }
+        }
+    }
+}
@@ -10,6 +10,14 @@
 
 package net.sourceforge.urin;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.sourceforge.urin.Path.PrefixWithDotSegmentCriteria.NEVER_PREFIX_WITH_DOT_SEGMENT;
+import static net.sourceforge.urin.Segment.dotDot;
+
 /**
  * A URI.
  * <p>
@@ -32,6 +40,22 @@ public abstract class Urin<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fra
     @Override
     public abstract Urin<SEGMENT, QUERY, FRAGMENT> withPath(AbsolutePath<SEGMENT> path);
 
+    /**
+     * Returns a copy of this {@code Urin} with the query replaced with the given query, or added if this {@code Urin} has no query.
+     * The copy shares this {@code Urin}'s scheme, authority, path and fragment, including their encoded forms.
+     *
+     * @param query the query to use in the new {@code Urin}.
+     * @return a copy of this {@code Urin} with the query replaced with the given query.
+     */
+    public abstract Urin<SEGMENT, QUERY, FRAGMENT> withQuery(QUERY query);
+
+    /**
+     * Returns a copy of this {@code Urin} without a query, or this {@code Urin} if it has no query.
+     *
+     * @return a copy of this {@code Urin} without a query.
+     */
+    public abstract Urin<SEGMENT, QUERY, FRAGMENT> withoutQuery();
+
     /**
      * Resolves the given {@code UrinReference} relative to this.
      *
@@ -41,6 +65,136 @@ public abstract class Urin<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fra
      */
     public abstract Urin<SEGMENT, QUERY, FRAGMENT> resolve(UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference);
 
+    /**
+     * Returns the shortest {@code RelativeReference} that resolves relative to this to give the given {@code Urin}.
+     * This is the inverse of {@link #resolve(UrinReference)}, so {@code resolve(relativize(target))} is equal to {@code target}.
+     * <p>
+     * The relative reference is found by comparing the authorities and the path segments of this and the given {@code Urin},
+     * preferring, in order, a reference with only a fragment or query, a reference with a relative path, a reference with an absolute
+     * path, and a reference with an authority, except that an absolute path is preferred to a relative path that has more segments.
+     *
+     * @param target the {@code Urin} to make a {@code RelativeReference} to.
+     * @return the shortest {@code RelativeReference} that resolves relative to this to give the given {@code Urin}.
+     * @throws IllegalArgumentException if the given {@code Urin} has a different scheme to this, or if no {@code RelativeReference} resolves relative to this to give the given {@code Urin}.
+     * @see <a href="http://tools.ietf.org/html/rfc3986#section-5">RFC 3986 - Reference Resolution</a>
+     */
+    public final RelativeReference<SEGMENT, QUERY, FRAGMENT> relativize(final Urin<SEGMENT, QUERY, FRAGMENT> target) {
+        if (!scheme().equals(target.scheme())) {
+            throw new IllegalArgumentException("Cannot relativize [" + target.asString() + "] relative to [" + asString() + "] because they have different schemes");
+        }
+        for (final RelativeReference<SEGMENT, QUERY, FRAGMENT> candidate : relativeReferenceCandidates(target)) {
+            if (resolve(candidate).equals(target)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Cannot relativize [" + target.asString() + "] relative to [" + asString() + "]");
+    }
+
+    private List<RelativeReference<SEGMENT, QUERY, FRAGMENT>> relativeReferenceCandidates(final Urin<SEGMENT, QUERY, FRAGMENT> target) {
+        final List<RelativeReference<SEGMENT, QUERY, FRAGMENT>> candidates = new ArrayList<>();
+        if (hasAuthority() == target.hasAuthority() && (!hasAuthority() || authority().equals(target.authority()))) {
+            if (path().equals(target.path())) {
+                addQueryAndFragmentCandidates(target, candidates);
+            }
+            addPathCandidates(target, candidates);
+        }
+        if (target.hasAuthority()) {
+            candidates.add(networkPathReference(target));
+        }
+        return candidates;
+    }
+
+    private void addQueryAndFragmentCandidates(final Urin<SEGMENT, QUERY, FRAGMENT> target, final List<RelativeReference<SEGMENT, QUERY, FRAGMENT>> candidates) {
+        final Scheme<SEGMENT, QUERY, FRAGMENT> scheme = scheme();
+        if (hasQuery() == target.hasQuery() && (!hasQuery() || query().equals(target.query()))) {
+            candidates.add(target.hasFragment() ? scheme.relativeReference(target.fragment()) : scheme.relativeReference());
+        }
+        if (target.hasQuery()) {
+            candidates.add(target.hasFragment() ? scheme.relativeReference(target.query(), target.fragment()) : scheme.relativeReference(target.query()));
+        }
+    }
+
+    private void addPathCandidates(final Urin<SEGMENT, QUERY, FRAGMENT> target, final List<RelativeReference<SEGMENT, QUERY, FRAGMENT>> candidates) {
+        final List<Segment<SEGMENT>> baseSegments = path().segments();
+        final List<Segment<SEGMENT>> targetSegments = target.path().segments();
+        if (!targetSegments.isEmpty()) {
+            final int baseDirectoryDepth = Math.max(baseSegments.size() - 1, 0);
+            int commonDepth = 0;
+            while (commonDepth < baseDirectoryDepth && commonDepth < targetSegments.size() - 1 && baseSegments.get(commonDepth).equals(targetSegments.get(commonDepth))) {
+                commonDepth++;
+            }
+            final List<Segment<SEGMENT>> relativeSegments = new ArrayList<>(baseDirectoryDepth - commonDepth + targetSegments.size() - commonDepth);
+            for (int i = commonDepth; i < baseDirectoryDepth; i++) {
+                relativeSegments.add(dotDot());
+            }
+            relativeSegments.addAll(targetSegments.subList(commonDepth, targetSegments.size()));
+            final RelativeReference<SEGMENT, QUERY, FRAGMENT> relativePathReference = pathReference(Path.rootlessPath(relativeSegments), target);
+            if (target.path().isAbsolute() && targetSegments.size() < relativeSegments.size()) {
+                candidates.add(pathReference(target.path(), target));
+                candidates.add(relativePathReference);
+            } else {
+                candidates.add(relativePathReference);
+                candidates.add(pathReference(target.path(), target));
+            }
+        } else if (target.path().isAbsolute()) {
+            candidates.add(pathReference(target.path(), target));
+        }
+    }
+
+    private RelativeReference<SEGMENT, QUERY, FRAGMENT> pathReference(final Path<SEGMENT> path, final Urin<SEGMENT, QUERY, FRAGMENT> target) {
+        final Scheme<SEGMENT, QUERY, FRAGMENT> scheme = scheme();
+        if (target.hasQuery()) {
+            return target.hasFragment() ? scheme.relativeReference(path, target.query(), target.fragment()) : scheme.relativeReference(path, target.query());
+        } else {
+            return target.hasFragment() ? scheme.relativeReference(path, target.fragment()) : scheme.relativeReference(path);
+        }
+    }
+
+    private RelativeReference<SEGMENT, QUERY, FRAGMENT> networkPathReference(final Urin<SEGMENT, QUERY, FRAGMENT> target) {
+        final Scheme<SEGMENT, QUERY, FRAGMENT> scheme = scheme();
+        if (target.path().isAbsolute()) {
+            final AbsolutePath<SEGMENT> path = (AbsolutePath<SEGMENT>) target.path();
+            if (target.hasQuery()) {
+                return target.hasFragment() ? scheme.relativeReference(target.authority(), path, target.query(), target.fragment()) : scheme.relativeReference(target.authority(), path, target.query());
+            } else {
+                return target.hasFragment() ? scheme.relativeReference(target.authority(), path, target.fragment()) : scheme.relativeReference(target.authority(), path);
+            }
+        } else if (target.hasQuery()) {
+            return target.hasFragment() ? scheme.relativeReference(target.authority(), target.query(), target.fragment()) : scheme.relativeReference(target.authority(), target.query());
+        } else {
+            return target.hasFragment() ? scheme.relativeReference(target.authority(), target.fragment()) : scheme.relativeReference(target.authority());
+        }
+    }
+
+    /**
+     * Writes the US-ASCII encoding of the path and query of this URI to the given {@code ByteBuffer}, starting at its
+     * current position, in the form used for the origin-form of HTTP request targets.  That is, the path, or "{@code /}"
+     * if the path is empty, followed by '{@code ?}' and the query, if this URI has a query.
+     *
+     * @param byteBuffer the {@code ByteBuffer} to write to.
+     * @throws BufferOverflowException if the given {@code ByteBuffer} has too few bytes remaining for the path and query,
+     *                                 in which case nothing is written.
+     * @see <a href="https://tools.ietf.org/html/rfc9112#section-3.2.1">RFC 9112 - origin-form</a>
+     */
+    public final void writePathAndQueryTo(final ByteBuffer byteBuffer) {
+        final Path<SEGMENT> path = path();
+        final int pathLength = path.isEmpty() ? 1 : path.encodedLength(NEVER_PREFIX_WITH_DOT_SEGMENT);
+        if (byteBuffer.remaining() < (hasQuery() ? pathLength + 1 + query().encodedLength() : pathLength)) {
+            throw new BufferOverflowException();
+        }
+        final AsciiOutput output = AsciiOutput.byteBufferOutput(byteBuffer);
+        if (path.isEmpty()) {
+            output.append('/');
+        } else {
+            path.appendTo(output, NEVER_PREFIX_WITH_DOT_SEGMENT);
+        }
+        if (hasQuery()) {
+            output.append('?').append(query().asString());
+        }
+    }
+
+    abstract Scheme<SEGMENT, QUERY, FRAGMENT> scheme();
+
     @Override
     Urin<SEGMENT, QUERY, FRAGMENT> resolve(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Path<SEGMENT> path) {
         return this;
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A Bloom filter of URI references, which can say that a URI reference has definitely not been added, or that an
+ * equivalent one might have been.
+ * <p>
+ * Bit indexes are derived from the 128 bit FNV-1a hash of the canonical form of a URI reference, which is the same for
+ * URI references that are equivalent according to {@link Scheme#equivalent(CharSequence, CharSequence)}.  The canonical
+ * form is hashed as it is generated, without generating a {@code String}, or, for a {@code CharSequence}, parsing it.
+ * The high and low 64 bits of the hash are combined to give as many indexes as are needed.
+ * <p>
+ * Thread safe.  Bits are set using compare and swap, so URI references can be added and looked up concurrently.
+ *
+ * @see <a href="https://www.eecs.harvard.edu/~michaelm/postscripts/rsa2008.pdf">Less Hashing, Same Performance: Building a Better Bloom Filter</a>
+ */
+public final class UrinBloomFilter {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctionCount;
+
+    private UrinBloomFilter(final AtomicLongArray bits, final int hashFunctionCount) {
+        this.bits = bits;
+        this.bitCount = (long) bits.length() * Long.SIZE;
+        this.hashFunctionCount = hashFunctionCount;
+    }
+
+    /**
+     * Factory method for creating {@code UrinBloomFilter}s big enough to hold the given number of URI references with no
+     * more than the given probability of false positives.
+     *
+     * @param expectedInsertions         the number of URI references expected to be added.
+     * @param falsePositiveProbability   the greatest acceptable probability that a URI reference that has not been added is
+     *                                   reported as possibly added, once the expected number have been added.
+     * @return an empty {@code UrinBloomFilter}.
+     * @throws IllegalArgumentException if {@code expectedInsertions} is not positive, or {@code falsePositiveProbability}
+     *                                  is not between 0 and 1, exclusive, or the filter would need too many bits.
+     */
+    public static UrinBloomFilter urinBloomFilter(final long expectedInsertions, final double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Cannot instantiate UrinBloomFilter with non-positive expectedInsertions " + expectedInsertions);
+        } else if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1)) {
+            throw new IllegalArgumentException("Cannot instantiate UrinBloomFilter with falsePositiveProbability " + falsePositiveProbability + ", which is not between 0 and 1");
+        }
+        final double optimalBitCount = -expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2));
+        final double longCount = Math.ceil(optimalBitCount / Long.SIZE);
+        if (longCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot instantiate UrinBloomFilter with " + (long) optimalBitCount + " bits");
+        }
+        final int hashFunctionCount = (int) Math.max(1, Math.round(longCount * Long.SIZE / expectedInsertions * Math.log(2)));
+        return new UrinBloomFilter(new AtomicLongArray((int) longCount), hashFunctionCount);
+    }
+
+    /**
+     * Reads a {@code UrinBloomFilter} written by {@link #writeTo(OutputStream)}.
+     *
+     * @param inputStream the {@code InputStream} to read from.
+     * @return the {@code UrinBloomFilter} read.
+     * @throws IOException if the {@code InputStream} cannot be read, or does not contain a {@code UrinBloomFilter}.
+     */
+    public static UrinBloomFilter readUrinBloomFilter(final InputStream inputStream) throws IOException {
+        final DataInputStream dataInputStream = new DataInputStream(inputStream);
+        final int version = dataInputStream.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported UrinBloomFilter format version " + version);
+        }
+        final int hashFunctionCount = dataInputStream.readInt();
+        final int longCount = dataInputStream.readInt();
+        if (hashFunctionCount <= 0 || longCount <= 0) {
+            throw new IOException("Invalid UrinBloomFilter with " + hashFunctionCount + " hash functions and " + longCount + " longs");
+        }
+        final AtomicLongArray bits = new AtomicLongArray(longCount);
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, dataInputStream.readLong());
+        }
+        return new UrinBloomFilter(bits, hashFunctionCount);
+    }
+
+    /**
+     * Writes this filter to the given {@code OutputStream}, in a form that can be read by
+     * {@link #readUrinBloomFilter(InputStream)}.  URI references added concurrently may or may not be written.
+     *
+     * @param outputStream the {@code OutputStream} to write to.
+     * @throws IOException if the {@code OutputStream} cannot be written to.
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(FORMAT_VERSION);
+        dataOutputStream.writeInt(hashFunctionCount);
+        dataOutputStream.writeInt(bits.length());
+        for (int i = 0; i < bits.length(); i++) {
+            dataOutputStream.writeLong(bits.get(i));
+        }
+        dataOutputStream.flush();
+    }
+
+    /**
+     * Adds the given URI reference to this filter.
+     *
+     * @param urinReference a {@code UrinReference} to add.
+     * @return true if this filter definitely did not already contain an equivalent URI reference.
+     */
+    public boolean put(final UrinReference<?, ?, ?> urinReference) {
+        return put(hash(requireNonNull(urinReference, "Cannot add null UrinReference")));
+    }
+
+    /**
+     * Adds the given URI reference to this filter.  The given {@code CharSequence} is not checked to be a valid URI
+     * reference.
+     *
+     * @param uriReference a {@code CharSequence} that represents a URI reference.
+     * @return true if this filter definitely did not already contain an equivalent URI reference.
+     */
+    public boolean put(final CharSequence uriReference) {
+        return put(hash(requireNonNull(uriReference, "Cannot add null URI reference")));
+    }
+
+    /**
+     * Determines whether this filter might contain a URI reference equivalent to the given URI reference.
+     *
+     * @param urinReference a {@code UrinReference} to look for.
+     * @return false if this filter definitely does not contain an equivalent URI reference.
+     */
+    public boolean mightContain(final UrinReference<?, ?, ?> urinReference) {
+        return mightContain(hash(requireNonNull(urinReference, "Cannot look up null UrinReference")));
+    }
+
+    /**
+     * Determines whether this filter might contain a URI reference equivalent to the given URI reference.
+     *
+     * @param uriReference a {@code CharSequence} that represents a URI reference.
+     * @return false if this filter definitely does not contain an equivalent URI reference.
+     */
+    public boolean mightContain(final CharSequence uriReference) {
+        return mightContain(hash(requireNonNull(uriReference, "Cannot look up null URI reference")));
+    }
+
+    /**
+     * Gets the number of bits in this filter.
+     *
+     * @return the number of bits in this filter.
+     */
+    public long bitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Gets the number of bits set for each URI reference added.
+     *
+     * @return the number of bits set for each URI reference added.
+     */
+    public int hashFunctionCount() {
+        return hashFunctionCount;
+    }
+
+    private static AsciiOutput.Fnv1a128AsciiOutput hash(final UrinReference<?, ?, ?> urinReference) {
+        final AsciiOutput.Fnv1a128AsciiOutput output = AsciiOutput.fnv1a128Output();
+        CanonicalCharacters.appendCanonicalTo(urinReference, output);
+        return output;
+    }
+
+    private static AsciiOutput.Fnv1a128AsciiOutput hash(final CharSequence uriReference) {
+        final AsciiOutput.Fnv1a128AsciiOutput output = AsciiOutput.fnv1a128Output();
+        UriEquivalence.appendCanonicalTo(uriReference, output);
+        return output;
+    }
+
+    private boolean put(final AsciiOutput.Fnv1a128AsciiOutput hash) {
+        boolean changed = false;
+        long combinedHash = hash.high();
+        for (int i = 0; i < hashFunctionCount; i++) {
+            changed |= setBit(Long.remainderUnsigned(combinedHash, bitCount));
+            combinedHash += hash.low();
+        }
+        return changed;
+    }
+
+    private boolean mightContain(final AsciiOutput.Fnv1a128AsciiOutput hash) {
+        long combinedHash = hash.high();
+        for (int i = 0; i < hashFunctionCount; i++) {
+            final long bitIndex = Long.remainderUnsigned(combinedHash, bitCount);
+            if ((bits.get((int) (bitIndex >>> 6)) & 1L << bitIndex) == 0) {
+                return false;
+            }
+            combinedHash += hash.low();
+        }
+        return true;
+    }
+
+    private boolean setBit(final long bitIndex) {
+        final int longIndex = (int) (bitIndex >>> 6);
+        final long mask = 1L << bitIndex;
+        long current = bits.get(longIndex);
+        while ((current & mask) == 0) {
+            if (bits.compareAndSet(longIndex, current, current | mask)) {
+                return true;
+            }
+            current = bits.get(longIndex);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "UrinBloomFilter{" +
+                "bitCount=" + bitCount +
+                ", hashFunctionCount=" + hashFunctionCount +
+                '}';
+    }
+}
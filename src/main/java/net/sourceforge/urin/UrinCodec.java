@@ -0,0 +1,413 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.Objects.requireNonNull;
+import static net.sourceforge.urin.Hexadectet.hexadectet;
+import static net.sourceforge.urin.Octet.octet;
+
+/**
+ * Encodes URI references in a compact binary form, and decodes them again without parsing their {@code String}
+ * representation.
+ * <p>
+ * The binary form is a format version byte, then varint flags saying which components are present, then the
+ * components in order.  The scheme name is only written when it differs from the name of the {@code Scheme} the
+ * {@code UrinCodec} was made with.  The scheme name, user info, registered names, path segments, query, and fragment are
+ * written percent encoded, as the varint length of the encoded form followed by its bytes.  IP addresses are packed
+ * into four or sixteen bytes, and ports into a varint.  Path segments are written individually, after the varint
+ * number of them.
+ * <p>
+ * Decoding rebuilds each component directly from its part of the binary form, so it avoids matching the whole URI
+ * reference against the grammar, and working out the type of its host.  It does not avoid decoding the components:
+ * the user info, registered name, segments, query, and fragment are still percent decoded, and the values of the
+ * segments, query, and fragment made by the {@code MakingDecoder}s of the {@code Scheme} the {@code UrinCodec} was made
+ * with, just as they are when parsing, so invalid percent encoding in them is reported as a {@code ParseException}
+ * either way.  By default, the binary form is trusted to have been written by {@link #encode(UrinReference)}, and
+ * decoding anything else may fail with an unchecked exception, or give a URI reference that is not valid.  Decoding
+ * in checked mode additionally verifies the binary form and the scheme name and IP vFuture addresses in it, so that
+ * any problem is reported as a {@code ParseException}.
+ * <p>
+ * Immutable and thread safe.
+ *
+ * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references decoded by this.
+ * @param <QUERY>    The type of {@code Query} used by URI references decoded by this.
+ * @param <FRAGMENT> The type of {@code Fragment} used by URI references decoded by this.
+ */
+public final class UrinCodec<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int SCHEME = 1;
+    private static final int AUTHORITY = 1 << 1;
+    private static final int USER_INFO = 1 << 2;
+    private static final int PORT = 1 << 3;
+    private static final int ABSOLUTE_PATH = 1 << 4;
+    private static final int ROOTLESS_PATH = 1 << 5;
+    private static final int HAS_QUERY = 1 << 6;
+    private static final int HAS_FRAGMENT = 1 << 7;
+    private static final int SCHEME_NAME = 1 << 8;
+    private static final int ALL_FLAGS = (1 << 9) - 1;
+    private static final int REGISTERED_NAME = 0;
+    private static final int IP_V4_ADDRESS = 1;
+    private static final int IP_V6_ADDRESS = 2;
+    private static final int IP_V6_ADDRESS_WITH_TRAILING_IP_V4_ADDRESS = 3;
+    private static final int IP_V_FUTURE_ADDRESS = 4;
+    private static final int MAXIMUM_PORT_DIGITS = 9;
+
+    private final Scheme<SEGMENT, QUERY, FRAGMENT> scheme;
+    private final String schemeName;
+
+    private UrinCodec(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme) {
+        this.scheme = requireNonNull(scheme, "Cannot instantiate UrinCodec with null scheme");
+        this.schemeName = scheme.name();
+    }
+
+    /**
+     * Factory method for creating {@code UrinCodec}s.
+     *
+     * @param scheme     the {@code Scheme} to make the components of decoded URI references with.
+     * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references decoded by the {@code UrinCodec}.
+     * @param <QUERY>    The type of {@code Query} used by URI references decoded by the {@code UrinCodec}.
+     * @param <FRAGMENT> The type of {@code Fragment} used by URI references decoded by the {@code UrinCodec}.
+     * @return a {@code UrinCodec} for the given scheme.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> UrinCodec<SEGMENT, QUERY, FRAGMENT> urinCodec(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme) {
+        return new UrinCodec<>(scheme);
+    }
+
+    /**
+     * Encodes the given URI reference in binary form.
+     *
+     * @param urinReference the {@code UrinReference} to encode.
+     * @return the binary form of the given URI reference.
+     */
+    public byte[] encode(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
+        final UrinReference<SEGMENT, QUERY, FRAGMENT> underlying = requireNonNull(urinReference, "Cannot encode null UrinReference").underlying();
+        final Authority authority = underlying.hasAuthority() ? underlying.authority() : null;
+        final Path<SEGMENT> path = underlying.path();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(underlying.encodedLength() + 8);
+        output.write(FORMAT_VERSION);
+        final int flags = schemeFlags(underlying) | flags(underlying, authority, path);
+        writeVarint(output, flags);
+        if ((flags & SCHEME_NAME) != 0) {
+            writeString(output, ((Urin<?, ?, ?>) underlying).scheme().name());
+        }
+        if (authority != null) {
+            writeAuthority(output, authority);
+        }
+        if (path.isAbsolute() || !path.isEmpty()) {
+            final List<Segment<SEGMENT>> segments = path.segments();
+            writeVarint(output, segments.size());
+            for (final Segment<SEGMENT> segment : segments) {
+                writeString(output, segment.asString());
+            }
+        }
+        if (underlying.hasQuery()) {
+            writeString(output, underlying.query().asString());
+        }
+        if (underlying.hasFragment()) {
+            writeString(output, underlying.fragment().asString());
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Decodes a URI reference from the binary form written by {@link #encode(UrinReference)}, trusting it to be valid.
+     *
+     * @param bytes the binary form of a URI reference.
+     * @return the {@code UrinReference} the given bytes represent.
+     * @throws ParseException if a component cannot be made by the {@code Scheme}.
+     */
+    public UrinReference<SEGMENT, QUERY, FRAGMENT> decode(final byte[] bytes) throws ParseException {
+        return decode(new Input(requireNonNull(bytes, "Cannot decode null bytes"), false));
+    }
+
+    /**
+     * Decodes a URI reference from the binary form written by {@link #encode(UrinReference)}, checking that it is valid.
+     *
+     * @param bytes the binary form of a URI reference.
+     * @return the {@code UrinReference} the given bytes represent.
+     * @throws ParseException if the given bytes are not the binary form of a valid URI reference.
+     */
+    public UrinReference<SEGMENT, QUERY, FRAGMENT> decodeChecked(final byte[] bytes) throws ParseException {
+        final Input input = new Input(requireNonNull(bytes, "Cannot decode null bytes"), true);
+        final UrinReference<SEGMENT, QUERY, FRAGMENT> result = decode(input);
+        if (input.remaining() != 0) {
+            throw new ParseException("Unexpected " + input.remaining() + " bytes after URI reference");
+        }
+        return result;
+    }
+
+    private int schemeFlags(final UrinReference<?, ?, ?> urinReference) {
+        if (urinReference instanceof Urin) {
+            return schemeName.equals(((Urin<?, ?, ?>) urinReference).scheme().name()) ? SCHEME : SCHEME | SCHEME_NAME;
+        }
+        return 0;
+    }
+
+    private static int flags(final UrinReference<?, ?, ?> urinReference, final Authority authority, final Path<?> path) {
+        int flags = 0;
+        if (authority != null) {
+            flags |= AUTHORITY
+                    | (authority.encodedUserInfo() == null ? 0 : USER_INFO)
+                    | (authority.encodedPort() == null ? 0 : PORT);
+        }
+        if (path.isAbsolute()) {
+            flags |= ABSOLUTE_PATH;
+        } else if (!path.isEmpty()) {
+            flags |= ROOTLESS_PATH;
+        }
+        return flags
+                | (urinReference.hasQuery() ? HAS_QUERY : 0)
+                | (urinReference.hasFragment() ? HAS_FRAGMENT : 0);
+    }
+
+    /**
+     * Writes the user info and host of the given authority, then its port as a varint one greater than its value, or,
+     * for the rare port that is empty or too big for an {@code int}, as zero followed by its digits.
+     */
+    private static void writeAuthority(final ByteArrayOutputStream output, final Authority authority) {
+        final String userInfo = authority.encodedUserInfo();
+        if (userInfo != null) {
+            writeString(output, userInfo);
+        }
+        writeHost(output, authority.host());
+        final String port = authority.encodedPort();
+        if (port != null) {
+            if (port.isEmpty() || port.length() > MAXIMUM_PORT_DIGITS) {
+                writeVarint(output, 0);
+                writeString(output, port);
+            } else {
+                writeVarint(output, Integer.parseInt(port) + 1);
+            }
+        }
+    }
+
+    /**
+     * Writes a byte giving the type of the given host, then its registered name, its address packed into four or
+     * sixteen bytes, or its IP vFuture version and address.
+     */
+    private static void writeHost(final ByteArrayOutputStream output, final Host host) {
+        if (host instanceof Host.IpV4Address) {
+            output.write(IP_V4_ADDRESS);
+            writeOctets(output, ((Host.IpV4Address) host).octets());
+        } else if (host instanceof Host.IpV6Address) {
+            output.write(IP_V6_ADDRESS);
+            writeHexadectets(output, ((Host.IpV6Address) host).hexadectets());
+        } else if (host instanceof Host.IpV6AddressWithTrailingIpV4Address) {
+            output.write(IP_V6_ADDRESS_WITH_TRAILING_IP_V4_ADDRESS);
+            writeHexadectets(output, ((Host.IpV6AddressWithTrailingIpV4Address) host).hexadectets());
+            writeOctets(output, ((Host.IpV6AddressWithTrailingIpV4Address) host).octets());
+        } else if (host instanceof Host.IpVFutureAddress) {
+            output.write(IP_V_FUTURE_ADDRESS);
+            writeString(output, ((Host.IpVFutureAddress) host).version());
+            writeString(output, ((Host.IpVFutureAddress) host).address());
+        } else {
+            output.write(REGISTERED_NAME);
+            writeString(output, host.asString());
+        }
+    }
+
+    private static void writeOctets(final ByteArrayOutputStream output, final Octet... octets) {
+        for (final Octet octet : octets) {
+            output.write(Integer.parseInt(octet.value));
+        }
+    }
+
+    private static void writeHexadectets(final ByteArrayOutputStream output, final Hexadectet... hexadectets) {
+        for (final Hexadectet hexadectet : hexadectets) {
+            output.write(hexadectet.value >> 8);
+            output.write(hexadectet.value);
+        }
+    }
+
+    private UrinReference<SEGMENT, QUERY, FRAGMENT> decode(final Input input) throws ParseException {
+        final int version = input.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new ParseException("Unsupported UrinCodec format version " + version);
+        }
+        final int flags = readFlags(input);
+        final Scheme<SEGMENT, QUERY, FRAGMENT> urinScheme = (flags & SCHEME) == 0 ? null : readScheme(input, flags);
+        final Authority authority = (flags & AUTHORITY) == 0 ? null : readAuthority(input, flags);
+        final Path<SEGMENT> path = readPath(input, flags);
+        final QUERY query = (flags & HAS_QUERY) == 0 ? null : scheme.parseQuery(input.readString());
+        final FRAGMENT fragment = (flags & HAS_FRAGMENT) == 0 ? null : scheme.parseFragment(input.readString());
+        return urinScheme == null
+                ? scheme.makeRelativeReference(authority, path, query, fragment)
+                : urinScheme.makeUrin(authority, path, query, fragment);
+    }
+
+    /**
+     * Reads the flags, which must not give a user info or port without an authority, an authority with a rootless path,
+     * or a scheme name without a scheme.
+     */
+    private static int readFlags(final Input input) throws ParseException {
+        final int flags = input.readVarint();
+        final boolean valid = (flags & ~ALL_FLAGS) == 0
+                && ((flags & SCHEME) != 0 || (flags & SCHEME_NAME) == 0)
+                && ((flags & AUTHORITY) == 0 ? (flags & (USER_INFO | PORT)) == 0 : (flags & ROOTLESS_PATH) == 0);
+        if (!valid) {
+            throw new ParseException("Invalid UrinCodec flags " + flags);
+        }
+        return flags;
+    }
+
+    private Scheme<SEGMENT, QUERY, FRAGMENT> readScheme(final Input input, final int flags) throws ParseException {
+        if ((flags & SCHEME_NAME) == 0) {
+            return scheme.withName(schemeName);
+        }
+        final String name = input.readString();
+        return input.isChecked() ? scheme.parse(name) : scheme.withName(name);
+    }
+
+    private static Authority readAuthority(final Input input, final int flags) throws ParseException {
+        final UserInfo userInfo = (flags & USER_INFO) == 0 ? null : UserInfo.parse(input.readString());
+        final Host host = readHost(input);
+        if ((flags & PORT) == 0) {
+            return userInfo == null ? Authority.authority(host) : Authority.authority(userInfo, host);
+        }
+        final int portPlusOne = input.readVarint();
+        final Port port = portPlusOne == 0 ? Port.parse(input.readString()) : Port.port(portPlusOne - 1);
+        return userInfo == null ? Authority.authority(host, port) : Authority.authority(userInfo, host, port);
+    }
+
+    private static Host readHost(final Input input) throws ParseException {
+        final int type = input.readByte();
+        switch (type) {
+            case REGISTERED_NAME:
+                return Host.RegisteredName.parses(input.readString()).orElseThrow(ParseException::new);
+            case IP_V4_ADDRESS:
+                return Host.ipV4Address(readOctet(input), readOctet(input), readOctet(input), readOctet(input));
+            case IP_V6_ADDRESS:
+                return Host.ipV6Address(readHexadectet(input), readHexadectet(input), readHexadectet(input), readHexadectet(input), readHexadectet(input), readHexadectet(input), readHexadectet(input), readHexadectet(input));
+            case IP_V6_ADDRESS_WITH_TRAILING_IP_V4_ADDRESS:
+                return Host.ipV6Address(readHexadectet(input), readHexadectet(input), readHexadectet(input), readHexadectet(input), readHexadectet(input), readHexadectet(input), readOctet(input), readOctet(input), readOctet(input), readOctet(input));
+            case IP_V_FUTURE_ADDRESS:
+                return readIpVFutureAddress(input);
+            default:
+                throw new ParseException("Unknown host type " + type);
+        }
+    }
+
+    private static Host readIpVFutureAddress(final Input input) throws ParseException {
+        final String version = input.readString();
+        final String address = input.readString();
+        return input.isChecked()
+                ? Host.IpVFutureAddress.makeIpVFutureAddress(version, address).orElseThrow(ParseException::new)
+                : new Host.IpVFutureAddress(version, address);
+    }
+
+    private static Octet readOctet(final Input input) throws ParseException {
+        return octet(input.readByte());
+    }
+
+    private static Hexadectet readHexadectet(final Input input) throws ParseException {
+        return hexadectet(input.readByte() << 8 | input.readByte());
+    }
+
+    private Path<SEGMENT> readPath(final Input input, final int flags) throws ParseException {
+        if ((flags & (ABSOLUTE_PATH | ROOTLESS_PATH)) == 0) {
+            return new EmptyPath<>();
+        }
+        final int segmentCount = input.readVarint();
+        input.require(segmentCount); // each segment takes at least one byte
+        final List<Segment<SEGMENT>> segments = new ArrayList<>(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments.add(scheme.parseSegment(input.readString()));
+        }
+        return (flags & ABSOLUTE_PATH) == 0 ? Path.rootlessPath(segments) : Path.path(segments);
+    }
+
+    private static void writeString(final ByteArrayOutputStream output, final String string) {
+        writeVarint(output, string.length());
+        output.write(string.getBytes(ISO_8859_1), 0, string.length());
+    }
+
+    private static void writeVarint(final ByteArrayOutputStream output, final int value) {
+        int remaining = value;
+        while ((remaining & ~0x7f) != 0) {
+            output.write(remaining & 0x7f | 0x80);
+            remaining >>>= 7;
+        }
+        output.write(remaining);
+    }
+
+    @Override
+    public String toString() {
+        return "UrinCodec{" +
+                "scheme=" + scheme +
+                '}';
+    }
+
+    /**
+     * Reads the binary form of a URI reference.  When checked, reading beyond the end of the bytes throws
+     * {@code ParseException}, rather than an unchecked exception.
+     */
+    private static final class Input {
+        private final byte[] bytes;
+        private final boolean checked;
+        private int position;
+
+        Input(final byte[] bytes, final boolean checked) {
+            this.bytes = bytes;
+            this.checked = checked;
+        }
+
+        boolean isChecked() {
+            return checked;
+        }
+
+        int remaining() {
+            return bytes.length - position;
+        }
+
+        int readByte() throws ParseException {
+            require(1);
+            return bytes[position++] & 0xff;
+        }
+
+        int readVarint() throws ParseException {
+            int result = 0;
+            int shift = 0;
+            int next;
+            do {
+                if (shift > 28) {
+                    throw new ParseException("Invalid varint ending at index " + position);
+                }
+                next = readByte();
+                result |= (next & 0x7f) << shift;
+                shift += 7;
+            } while ((next & 0x80) != 0);
+            return result;
+        }
+
+        String readString() throws ParseException {
+            final int length = readVarint();
+            require(length);
+            final String result = new String(bytes, position, length, ISO_8859_1);
+            position += length;
+            return result;
+        }
+
+        /**
+         * Checks, if checked, that there are at least the given number of bytes left.
+         */
+        void require(final int length) throws ParseException {
+            if (checked && (length < 0 || length > remaining())) {
+                throw new ParseException("Cannot read " + length + " bytes from index " + position + " of " + bytes.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A map from URI references to values that stores each URI reference as the US-ASCII bytes of its canonical form, in
+ * large shared byte arrays, rather than as objects, so that it can hold very many entries compactly.
+ * <p>
+ * URI references that are equivalent according to {@link Scheme#equivalent(CharSequence, CharSequence)} have the same
+ * canonical form, so are the same key.  Keys can be given either as {@code UrinReference}s or as {@code CharSequence}s,
+ * which are not parsed, and are returned as {@code UrinReference}s parsed by the {@code Scheme} the {@code UrinMap} was
+ * made with.  Values cannot be null.
+ * <p>
+ * Not thread safe.
+ *
+ * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references in this map.
+ * @param <QUERY>    The type of {@code Query} used by URI references in this map.
+ * @param <FRAGMENT> The type of {@code Fragment} used by URI references in this map.
+ * @param <V>        The type of values in this map.
+ */
+public final class UrinMap<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>, V> {
+
+    private final Scheme<SEGMENT, QUERY, FRAGMENT> scheme;
+    private final CanonicalUrinTable table;
+    private Object[] values = new Object[16];
+
+    private UrinMap(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final boolean offHeap) {
+        this.scheme = requireNonNull(scheme, "Cannot instantiate UrinMap with null scheme");
+        this.table = new CanonicalUrinTable(offHeap);
+    }
+
+    /**
+     * Factory method for creating {@code UrinMap}s that store keys on the heap.
+     *
+     * @param scheme     the {@code Scheme} to use to parse the keys returned by the map.
+     * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references in the map.
+     * @param <QUERY>    The type of {@code Query} used by URI references in the map.
+     * @param <FRAGMENT> The type of {@code Fragment} used by URI references in the map.
+     * @param <V>        The type of values in the map.
+     * @return an empty {@code UrinMap}.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>, V> UrinMap<SEGMENT, QUERY, FRAGMENT, V> urinMap(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme) {
+        return new UrinMap<>(scheme, false);
+    }
+
+    /**
+     * Factory method for creating {@code UrinMap}s that store keys off the heap, in direct {@code ByteBuffer}s.
+     *
+     * @param scheme     the {@code Scheme} to use to parse the keys returned by the map.
+     * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references in the map.
+     * @param <QUERY>    The type of {@code Query} used by URI references in the map.
+     * @param <FRAGMENT> The type of {@code Fragment} used by URI references in the map.
+     * @param <V>        The type of values in the map.
+     * @return an empty {@code UrinMap}.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>, V> UrinMap<SEGMENT, QUERY, FRAGMENT, V> offHeapUrinMap(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme) {
+        return new UrinMap<>(scheme, true);
+    }
+
+    /**
+     * Associates the given value with the given URI reference, replacing any value associated with an equivalent URI reference.
+     *
+     * @param urinReference a {@code UrinReference}.
+     * @param value         the value to associate with the URI reference.
+     * @return the value previously associated with an equivalent URI reference, or null if there was none.
+     */
+    public V put(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference, final V value) {
+        requireNonNull(value, "Cannot put null value");
+        return putAt(table.add(requireNonNull(urinReference, "Cannot put null UrinReference")), value);
+    }
+
+    /**
+     * Associates the given value with the given URI reference, replacing any value associated with an equivalent URI
+     * reference.  The given {@code CharSequence} is not checked to be a valid URI reference.
+     *
+     * @param uriReference a {@code CharSequence} that represents a URI reference.
+     * @param value        the value to associate with the URI reference.
+     * @return the value previously associated with an equivalent URI reference, or null if there was none.
+     */
+    public V put(final CharSequence uriReference, final V value) {
+        requireNonNull(value, "Cannot put null value");
+        return putAt(table.add(requireNonNull(uriReference, "Cannot put null URI reference")), value);
+    }
+
+    private V putAt(final int addResult, final V value) {
+        if (addResult < 0) {
+            final int index = -1 - addResult;
+            if (index == values.length) {
+                values = Arrays.copyOf(values, index * 2);
+            }
+            values[index] = value;
+            return null;
+        }
+        final V previous = value(addResult);
+        values[addResult] = value;
+        return previous;
+    }
+
+    /**
+     * Gets the value associated with a URI reference equivalent to the given URI reference.
+     *
+     * @param urinReference a {@code UrinReference} to look up.
+     * @return the associated value, or null if there is none.
+     */
+    public V get(final UrinReference<?, ?, ?> urinReference) {
+        return valueAt(table.indexOf(requireNonNull(urinReference, "Cannot look up null UrinReference")));
+    }
+
+    /**
+     * Gets the value associated with a URI reference equivalent to the given URI reference.
+     *
+     * @param uriReference a {@code CharSequence} that represents a URI reference.
+     * @return the associated value, or null if there is none.
+     */
+    public V get(final CharSequence uriReference) {
+        return valueAt(table.indexOf(requireNonNull(uriReference, "Cannot look up null URI reference")));
+    }
+
+    private V valueAt(final int index) {
+        return index == -1 ? null : value(index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(final int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * Determines whether this map has a value associated with a URI reference equivalent to the given URI reference.
+     *
+     * @param urinReference a {@code UrinReference} to look up.
+     * @return true if this map has a value associated with an equivalent URI reference.
+     */
+    public boolean containsKey(final UrinReference<?, ?, ?> urinReference) {
+        return table.indexOf(requireNonNull(urinReference, "Cannot look up null UrinReference")) != -1;
+    }
+
+    /**
+     * Determines whether this map has a value associated with a URI reference equivalent to the given URI reference.
+     *
+     * @param uriReference a {@code CharSequence} that represents a URI reference.
+     * @return true if this map has a value associated with an equivalent URI reference.
+     */
+    public boolean containsKey(final CharSequence uriReference) {
+        return table.indexOf(requireNonNull(uriReference, "Cannot look up null URI reference")) != -1;
+    }
+
+    /**
+     * Gets the number of entries in this map.
+     *
+     * @return the number of entries in this map.
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Performs the given action on each entry in this map, in the order the keys were added.  Each key is parsed from its
+     * canonical form by the {@code Scheme} this map was made with.
+     *
+     * @param action the action to perform on each key and value.
+     * @throws IllegalStateException if a key that was added as a {@code CharSequence} is not valid.
+     */
+    public void forEach(final BiConsumer<? super UrinReference<SEGMENT, QUERY, FRAGMENT>, ? super V> action) {
+        for (int index = 0; index < table.size(); index++) {
+            action.accept(parse(table.entry(index)), value(index));
+        }
+    }
+
+    private UrinReference<SEGMENT, QUERY, FRAGMENT> parse(final String canonicalForm) {
+        try {
+            return scheme.parseUrinReference(canonicalForm);
+        } catch (final ParseException e) {
+            throw new IllegalStateException("Invalid URI reference in UrinMap [" + canonicalForm + "]", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UrinMap{" +
+                "scheme=" + scheme +
+                ", size=" + table.size() +
+                '}';
+    }
+}
@@ -11,6 +11,11 @@
 package net.sourceforge.urin;
 
 import java.net.URI;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * A URI reference - either a URI or a relative reference.
@@ -23,6 +28,10 @@ import java.net.URI;
  */
 public abstract class UrinReference<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> {
 
+    private volatile URI uri;
+    private volatile long fingerprint64;
+    private Fingerprint fingerprint128;
+
     UrinReference() {
         // deliberately empty
     }
@@ -32,7 +41,57 @@ public abstract class UrinReference<SEGMENT, QUERY extends Query<?>, FRAGMENT ex
      *
      * @return an RFC 3986 compliant {@code String} representation of this URI reference.
      */
-    public abstract String asString();
+    public final String asString() {
+        final StringBuilder result = new StringBuilder(encodedLength());
+        appendTo(AsciiOutput.stringBuilderOutput(result));
+        return result.toString();
+    }
+
+    /**
+     * Gets the length of the {@code String} representation of this URI reference, without generating it.  As the
+     * {@code String} representation is made up of US-ASCII characters only, this is also the number of bytes in its
+     * US-ASCII encoding.
+     *
+     * @return the length of the {@code String} representation of this URI reference.
+     */
+    public abstract int encodedLength();
+
+    /**
+     * Writes the US-ASCII encoding of the {@code String} representation of this URI reference to the given {@code ByteBuffer},
+     * starting at its current position, without generating the {@code String}.  The position of the {@code ByteBuffer} is
+     * advanced by {@link #encodedLength()}.
+     *
+     * @param byteBuffer the {@code ByteBuffer} to write to.
+     * @throws BufferOverflowException if the given {@code ByteBuffer} has fewer than {@code encodedLength()} bytes remaining,
+     *                                 in which case nothing is written.
+     */
+    public final void writeTo(final ByteBuffer byteBuffer) {
+        if (byteBuffer.remaining() < encodedLength()) {
+            throw new BufferOverflowException();
+        }
+        appendTo(AsciiOutput.byteBufferOutput(byteBuffer));
+    }
+
+    /**
+     * Writes the US-ASCII encoding of the {@code String} representation of this URI reference to the given byte array,
+     * starting at the given offset, without generating the {@code String}.
+     *
+     * @param bytes  the byte array to write to.
+     * @param offset the index in the byte array to write the first byte to.
+     * @return the number of bytes written, which is {@link #encodedLength()}.
+     * @throws IndexOutOfBoundsException if the given offset is negative, or there are fewer than {@code encodedLength()}
+     *                                   bytes in the array from the given offset, in which case nothing is written.
+     */
+    public final int writeTo(final byte[] bytes, final int offset) {
+        final int encodedLength = encodedLength();
+        if (offset < 0 || offset > bytes.length - encodedLength) {
+            throw new IndexOutOfBoundsException("Cannot write " + encodedLength + " bytes at offset " + offset + " of array of length " + bytes.length);
+        }
+        appendTo(AsciiOutput.byteArrayOutput(bytes, offset));
+        return encodedLength;
+    }
+
+    abstract void appendTo(AsciiOutput output);
 
     /**
      * Generates a {@code URI} representation of this URI reference.
@@ -41,11 +100,117 @@ public abstract class UrinReference<SEGMENT, QUERY extends Query<?>, FRAGMENT ex
      * represents URI references as defined in the obsolete RFC 2396.  RFC 3986 extends the definition of URI
      * references, so this class can represent URI references that cannot be represented by Java's {@code URI} class.
      *
+     * <p>
+     * The {@code URI} is generated the first time this method is called, and the same {@code URI} is returned by subsequent calls.
+     *
      * @return a {@code URI} representation of this {@code UrinReference}.
      * @throws IllegalArgumentException if Java's {@code URI} class is unable to represent this URI reference.
      */
     public final URI asUri() {
-        return URI.create(asString());
+        URI result = uri;
+        if (result == null) {
+            result = URI.create(asString());
+            uri = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets a 64 bit fingerprint of this URI reference, for use as a compact key that is the same in any JVM, and for any
+     * equivalent URI reference.  The fingerprint is the 64 bit FNV-1a hash of the US-ASCII encoding of the canonical form
+     * of this URI reference, which is the same for URI references that are equivalent according to
+     * {@link Scheme#equivalent(CharSequence, CharSequence)}, and which is calculated as it is generated, without generating
+     * a {@code String}.
+     * <p>
+     * The fingerprint is calculated the first time this method is called, and the same value is returned by subsequent calls.
+     *
+     * @return a 64 bit fingerprint of this URI reference.
+     * @see <a href="https://datatracker.ietf.org/doc/html/draft-eastlake-fnv">The FNV Non-Cryptographic Hash Algorithm</a>
+     */
+    public final long fingerprint64() {
+        long result = fingerprint64;
+        if (result == 0) {
+            final AsciiOutput.Fnv1a64AsciiOutput output = AsciiOutput.fnv1a64Output();
+            CanonicalCharacters.appendCanonicalTo(this, output);
+            result = output.hash();
+            fingerprint64 = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets a 128 bit fingerprint of this URI reference, for use as a compact key that is the same in any JVM, and for any
+     * equivalent URI reference.  The fingerprint is the 128 bit FNV-1a hash of the US-ASCII encoding of the canonical form
+     * of this URI reference, which is the same for URI references that are equivalent according to
+     * {@link Scheme#equivalent(CharSequence, CharSequence)}, and which is calculated as it is generated, without generating
+     * a {@code String}.
+     * <p>
+     * The fingerprint is calculated the first time this method is called, and the same value is returned by subsequent calls.
+     *
+     * @return a 128 bit fingerprint of this URI reference.
+     * @see <a href="https://datatracker.ietf.org/doc/html/draft-eastlake-fnv">The FNV Non-Cryptographic Hash Algorithm</a>
+     */
+    public final Fingerprint fingerprint128() {
+        Fingerprint result = fingerprint128;
+        if (result == null) {
+            final AsciiOutput.Fnv1a128AsciiOutput output = AsciiOutput.fnv1a128Output();
+            CanonicalCharacters.appendCanonicalTo(this, output);
+            result = new Fingerprint(output.high(), output.low());
+            fingerprint128 = result;
+        }
+        return result;
+    }
+
+    /**
+     * Determines whether this URI reference is equivalent to the given URI reference, which is whether they have the same
+     * canonical form, as described by {@link #canonicalOrder()}.  This is the same equivalence as
+     * {@link Scheme#equivalent(CharSequence, CharSequence)}, {@link #canonicalOrder()}, and the fingerprints use, so two
+     * URI references are equivalent exactly when they are equal in canonical order, and equivalent URI references have
+     * the same fingerprints.
+     * <p>
+     * The canonical forms are compared character by character, stopping at the first difference, without generating the
+     * {@code String} representation of either URI reference.
+     *
+     * @param other a {@code UrinReference} to compare with.
+     * @return true if this URI reference is equivalent to the given URI reference.
+     * @see <a href="http://tools.ietf.org/html/rfc3986#section-6.2">RFC 3986 - Comparison Ladder</a>
+     */
+    public final boolean isEquivalentTo(final UrinReference<?, ?, ?> other) {
+        requireNonNull(other, "Cannot compare with null UrinReference");
+        return underlying() == other.underlying() || CanonicalOrder.CANONICAL_ORDER.compare(this, other) == 0;
+    }
+
+    /**
+     * Gets a {@code Comparator} that orders URI references by their canonical forms, which are the same for URI references
+     * that are equivalent according to {@link Scheme#equivalent(CharSequence, CharSequence)}.  In a canonical form,
+     * unreserved characters are not percent encoded, other percent encoded octets use upper case hexadecimal digits, the
+     * scheme and host are lower case, default ports for http and https are removed, dot segments are removed, and an empty
+     * path with an authority is written as "{@code /}".
+     * <p>
+     * The order is the same as comparing the canonical forms as {@code String}s, so it is a total order that is
+     * consistent with equivalence, and that sorts URI references with the same scheme and authority together, in order of
+     * path, then query, then fragment.  The canonical forms are compared character by character, stopping at the first
+     * difference, without generating the {@code String} representation of either URI reference.
+     *
+     * @return a {@code Comparator} that orders URI references by their canonical forms.
+     */
+    public static Comparator<UrinReference<?, ?, ?>> canonicalOrder() {
+        return CanonicalOrder.CANONICAL_ORDER;
+    }
+
+    /**
+     * Gets the {@code Urin} or {@code RelativeReference} this represents, which is this, unless this is a view of one.
+     */
+    UrinReference<SEGMENT, QUERY, FRAGMENT> underlying() {
+        return this;
+    }
+
+    /**
+     * Gets the {@code Urin} or {@code RelativeReference} the given object represents, if it is a view of one, so that
+     * views are equal to the URI references they represent, or otherwise the given object.
+     */
+    static Object underlyingOf(final Object object) {
+        return object instanceof UrinReference ? ((UrinReference<?, ?, ?>) object).underlying() : object;
     }
 
     /**
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A set of URI references that stores each as the US-ASCII bytes of its canonical form, in large shared byte arrays,
+ * rather than as objects, so that it can hold very many URI references compactly.
+ * <p>
+ * URI references that are equivalent according to {@link Scheme#equivalent(CharSequence, CharSequence)} have the same
+ * canonical form, so a {@code UrinSet} contains at most one of them.  URI references can be added and looked up either
+ * as {@code UrinReference}s or as {@code CharSequence}s, which are not parsed, and are returned as {@code UrinReference}s
+ * parsed by the {@code Scheme} the {@code UrinSet} was made with.
+ * <p>
+ * Not thread safe.
+ *
+ * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references in this set.
+ * @param <QUERY>    The type of {@code Query} used by URI references in this set.
+ * @param <FRAGMENT> The type of {@code Fragment} used by URI references in this set.
+ */
+public final class UrinSet<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> implements Iterable<UrinReference<SEGMENT, QUERY, FRAGMENT>> {
+
+    private final Scheme<SEGMENT, QUERY, FRAGMENT> scheme;
+    private final CanonicalUrinTable table;
+
+    private UrinSet(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final boolean offHeap) {
+        this.scheme = requireNonNull(scheme, "Cannot instantiate UrinSet with null scheme");
+        this.table = new CanonicalUrinTable(offHeap);
+    }
+
+    /**
+     * Factory method for creating {@code UrinSet}s that store URI references on the heap.
+     *
+     * @param scheme     the {@code Scheme} to use to parse the URI references returned by the set.
+     * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references in the set.
+     * @param <QUERY>    The type of {@code Query} used by URI references in the set.
+     * @param <FRAGMENT> The type of {@code Fragment} used by URI references in the set.
+     * @return an empty {@code UrinSet}.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> UrinSet<SEGMENT, QUERY, FRAGMENT> urinSet(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme) {
+        return new UrinSet<>(scheme, false);
+    }
+
+    /**
+     * Factory method for creating {@code UrinSet}s that store URI references off the heap, in direct {@code ByteBuffer}s.
+     *
+     * @param scheme     the {@code Scheme} to use to parse the URI references returned by the set.
+     * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references in the set.
+     * @param <QUERY>    The type of {@code Query} used by URI references in the set.
+     * @param <FRAGMENT> The type of {@code Fragment} used by URI references in the set.
+     * @return an empty {@code UrinSet}.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> UrinSet<SEGMENT, QUERY, FRAGMENT> offHeapUrinSet(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme) {
+        return new UrinSet<>(scheme, true);
+    }
+
+    /**
+     * Adds the given URI reference to this set, unless it already contains an equivalent URI reference.
+     *
+     * @param urinReference a {@code UrinReference} to add.
+     * @return true if this set did not already contain an equivalent URI reference.
+     */
+    public boolean add(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) {
+        return table.add(requireNonNull(urinReference, "Cannot add null UrinReference")) < 0;
+    }
+
+    /**
+     * Adds the given URI reference to this set, unless it already contains an equivalent URI reference.  The given
+     * {@code CharSequence} is not checked to be a valid URI reference.
+     *
+     * @param uriReference a {@code CharSequence} that represents a URI reference.
+     * @return true if this set did not already contain an equivalent URI reference.
+     */
+    public boolean add(final CharSequence uriReference) {
+        return table.add(requireNonNull(uriReference, "Cannot add null URI reference")) < 0;
+    }
+
+    /**
+     * Determines whether this set contains a URI reference equivalent to the given URI reference.
+     *
+     * @param urinReference a {@code UrinReference} to look for.
+     * @return true if this set contains an equivalent URI reference.
+     */
+    public boolean contains(final UrinReference<?, ?, ?> urinReference) {
+        return table.indexOf(requireNonNull(urinReference, "Cannot look up null UrinReference")) != -1;
+    }
+
+    /**
+     * Determines whether this set contains a URI reference equivalent to the given URI reference.
+     *
+     * @param uriReference a {@code CharSequence} that represents a URI reference.
+     * @return true if this set contains an equivalent URI reference.
+     */
+    public boolean contains(final CharSequence uriReference) {
+        return table.indexOf(requireNonNull(uriReference, "Cannot look up null URI reference")) != -1;
+    }
+
+    /**
+     * Gets the number of URI references in this set.
+     *
+     * @return the number of URI references in this set.
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Returns an {@code Iterator} over the URI references in this set, in the order they were added.  Each is parsed from
+     * its canonical form by the {@code Scheme} this set was made with.
+     *
+     * @return an {@code Iterator} over the URI references in this set.
+     * @throws IllegalStateException from {@code next()} if a URI reference that was added as a {@code CharSequence} is not valid.
+     */
+    @Override
+    public Iterator<UrinReference<SEGMENT, QUERY, FRAGMENT>> iterator() {
+        return new Iterator<UrinReference<SEGMENT, QUERY, FRAGMENT>>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < table.size();
+            }
+
+            @Override
+            public UrinReference<SEGMENT, QUERY, FRAGMENT> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return parse(table.entry(index++));
+            }
+        };
+    }
+
+    private UrinReference<SEGMENT, QUERY, FRAGMENT> parse(final String canonicalForm) {
+        try {
+            return scheme.parseUrinReference(canonicalForm);
+        } catch (final ParseException e) {
+            throw new IllegalStateException("Invalid URI reference in UrinSet [" + canonicalForm + "]", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UrinSet{" +
+                "scheme=" + scheme +
+                ", size=" + table.size() +
+                '}';
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sorts lines of URI references that may be too many to hold in memory, removing URI references that are equivalent
+ * according to {@link Scheme#equivalent(CharSequence, CharSequence)}.
+ * <p>
+ * Each line is parsed by the {@code Scheme} the {@code UrinSorter} was made with, and replaced by its canonical form, as
+ * used by {@link UrinReference#canonicalOrder()}.  Canonical forms are collected in memory until they reach the
+ * {@code UrinSorter}'s memory budget, estimated as 64 bytes of object headers and references plus two bytes per
+ * character for each canonical form, then sorted, and written to a run file in the temporary directory, each as the
+ * length of the prefix it shares with the one before, followed by the rest of its bytes.  The runs are then merged, up to
+ * 64 at a time, dropping duplicates, to give the canonical forms of the distinct URI references in order, one per line.
+ * Run files are deleted when sorting finishes.
+ * <p>
+ * Immutable and thread safe.
+ *
+ * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references sorted by this.
+ * @param <QUERY>    The type of {@code Query} used by URI references sorted by this.
+ * @param <FRAGMENT> The type of {@code Fragment} used by URI references sorted by this.
+ */
+public final class UrinSorter<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> {
+
+    private static final long DEFAULT_MEMORY_BUDGET = 1L << 27;
+    private static final int ESTIMATED_OVERHEAD_BYTES = 64;
+    private static final int MAXIMUM_MERGE_WIDTH = 64;
+
+    private final Scheme<SEGMENT, QUERY, FRAGMENT> scheme;
+    private final java.nio.file.Path temporaryDirectory;
+    private final long memoryBudget;
+
+    private UrinSorter(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final java.nio.file.Path temporaryDirectory, final long memoryBudget) {
+        this.scheme = requireNonNull(scheme, "Cannot instantiate UrinSorter with null scheme");
+        this.temporaryDirectory = requireNonNull(temporaryDirectory, "Cannot instantiate UrinSorter with null temporaryDirectory");
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Cannot instantiate UrinSorter with memory budget " + memoryBudget);
+        }
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Factory method for creating {@code UrinSorter}s with a memory budget of 128 MiB.
+     *
+     * @param scheme             the {@code Scheme} to parse URI references with.
+     * @param temporaryDirectory the directory to write run files to.
+     * @param <SEGMENT>          The type of {@code Segment} used by paths of URI references sorted by the {@code UrinSorter}.
+     * @param <QUERY>            The type of {@code Query} used by URI references sorted by the {@code UrinSorter}.
+     * @param <FRAGMENT>         The type of {@code Fragment} used by URI references sorted by the {@code UrinSorter}.
+     * @return a {@code UrinSorter} for the given scheme.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> UrinSorter<SEGMENT, QUERY, FRAGMENT> urinSorter(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final java.nio.file.Path temporaryDirectory) {
+        return new UrinSorter<>(scheme, temporaryDirectory, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Factory method for creating {@code UrinSorter}s with the given memory budget.  A larger budget means fewer, longer
+     * runs, and so less merging.
+     *
+     * @param scheme             the {@code Scheme} to parse URI references with.
+     * @param temporaryDirectory the directory to write run files to.
+     * @param memoryBudget       the estimated number of bytes of canonical forms to hold in memory before spilling a run.
+     * @param <SEGMENT>          The type of {@code Segment} used by paths of URI references sorted by the {@code UrinSorter}.
+     * @param <QUERY>            The type of {@code Query} used by URI references sorted by the {@code UrinSorter}.
+     * @param <FRAGMENT>         The type of {@code Fragment} used by URI references sorted by the {@code UrinSorter}.
+     * @return a {@code UrinSorter} for the given scheme.
+     * @throws IllegalArgumentException if {@code memoryBudget} is not positive.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> UrinSorter<SEGMENT, QUERY, FRAGMENT> urinSorter(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final java.nio.file.Path temporaryDirectory, final long memoryBudget) {
+        return new UrinSorter<>(scheme, temporaryDirectory, memoryBudget);
+    }
+
+    /**
+     * Sorts the URI references in the given file, one per line, and writes the canonical forms of the distinct URI
+     * references to the given output file, in order, one per line.
+     *
+     * @param input  the file to read URI references from.
+     * @param output the file to write sorted, distinct URI references to.
+     * @return the number of distinct URI references written.
+     * @throws IOException    if a file cannot be read or written.
+     * @throws ParseException if a line that is not empty is not a valid URI reference for the scheme.
+     */
+    public long sort(final java.nio.file.Path input, final java.nio.file.Path output) throws IOException, ParseException {
+        try (InputStream inputStream = Files.newInputStream(input); OutputStream outputStream = Files.newOutputStream(output)) {
+            return sort(inputStream, outputStream);
+        }
+    }
+
+    /**
+     * Sorts the URI references in the given {@code InputStream}, one per line, and writes the canonical forms of the
+     * distinct URI references to the given {@code OutputStream}, in order, one per line.  Neither stream is closed.
+     *
+     * @param input  the {@code InputStream} to read URI references from.
+     * @param output the {@code OutputStream} to write sorted, distinct URI references to.
+     * @return the number of distinct URI references written.
+     * @throws IOException    if a stream cannot be read or written, or a run file cannot be written or read.
+     * @throws ParseException if a line that is not empty is not a valid URI reference for the scheme.
+     */
+    public long sort(final InputStream input, final OutputStream output) throws IOException, ParseException {
+        final List<java.nio.file.Path> runs = new ArrayList<>();
+        try {
+            final List<String> lastRun = spillRuns(new BufferedReader(new InputStreamReader(input, UTF_8)), runs);
+            final LineWriter lineWriter = new LineWriter(new BufferedOutputStream(output));
+            if (runs.isEmpty()) {
+                writeSorted(lastRun, lineWriter);
+            } else {
+                if (!lastRun.isEmpty()) {
+                    runs.add(spill(lastRun));
+                }
+                mergeToMaximumWidth(runs);
+                merge(runs, lineWriter);
+            }
+            lineWriter.flush();
+            return lineWriter.count;
+        } finally {
+            deleteAll(runs);
+        }
+    }
+
+    /**
+     * Reads canonical forms into memory, spilling each run to a file when it reaches the memory budget, and returning the
+     * last run, which is not spilled.
+     */
+    private List<String> spillRuns(final BufferedReader reader, final List<java.nio.file.Path> runs) throws IOException, ParseException {
+        final Canonicaliser canonicaliser = new Canonicaliser();
+        List<String> run = new ArrayList<>();
+        long size = 0;
+        String line = reader.readLine();
+        while (line != null) {
+            if (!line.isEmpty()) {
+                final String canonicalForm = canonicaliser.canonicalise(scheme.parseUrinReference(line)).toString();
+                run.add(canonicalForm);
+                size += ESTIMATED_OVERHEAD_BYTES + 2L * canonicalForm.length();
+                if (size >= memoryBudget) {
+                    runs.add(spill(run));
+                    run = new ArrayList<>();
+                    size = 0;
+                }
+            }
+            line = reader.readLine();
+        }
+        return run;
+    }
+
+    private java.nio.file.Path spill(final List<String> run) throws IOException {
+        final java.nio.file.Path path = Files.createTempFile(temporaryDirectory, "urins", ".run");
+        try (RunWriter runWriter = new RunWriter(path)) {
+            writeSorted(run, runWriter);
+        }
+        return path;
+    }
+
+    private static void writeSorted(final List<String> run, final EntryWriter entryWriter) throws IOException {
+        Collections.sort(run);
+        String previous = null;
+        for (final String canonicalForm : run) {
+            if (!canonicalForm.equals(previous)) {
+                final byte[] bytes = canonicalForm.getBytes(US_ASCII);
+                entryWriter.write(bytes, bytes.length);
+                previous = canonicalForm;
+            }
+        }
+    }
+
+    /**
+     * Merges the oldest runs into new runs until there are few enough to merge at once.
+     */
+    private void mergeToMaximumWidth(final List<java.nio.file.Path> runs) throws IOException {
+        while (runs.size() > MAXIMUM_MERGE_WIDTH) {
+            final List<java.nio.file.Path> merged = new ArrayList<>(runs.subList(0, MAXIMUM_MERGE_WIDTH));
+            final java.nio.file.Path run = Files.createTempFile(temporaryDirectory, "urins", ".run");
+            runs.add(run);
+            try (RunWriter runWriter = new RunWriter(run)) {
+                merge(merged, runWriter);
+            }
+            deleteAll(merged);
+            runs.removeAll(merged);
+        }
+    }
+
+    private static void merge(final List<java.nio.file.Path> runs, final EntryWriter entryWriter) throws IOException {
+        final PriorityQueue<RunReader> runReaders = new PriorityQueue<>(runs.size());
+        try {
+            for (final java.nio.file.Path run : runs) {
+                final RunReader runReader = new RunReader(run);
+                if (runReader.advance()) {
+                    runReaders.add(runReader);
+                } else {
+                    runReader.close();
+                }
+            }
+            byte[] previous = new byte[0];
+            int previousLength = -1;
+            while (!runReaders.isEmpty()) {
+                final RunReader runReader = runReaders.poll();
+                if (compare(runReader.bytes, runReader.length, previous, previousLength) != 0) {
+                    entryWriter.write(runReader.bytes, runReader.length);
+                    if (previous.length < runReader.length) {
+                        previous = new byte[runReader.bytes.length];
+                    }
+                    System.arraycopy(runReader.bytes, 0, previous, 0, runReader.length);
+                    previousLength = runReader.length;
+                }
+                if (runReader.advance()) {
+                    runReaders.add(runReader);
+                } else {
+                    runReader.close();
+                }
+            }
+        } finally {
+            for (final RunReader runReader : runReaders) {
+                runReader.close();
+            }
+        }
+    }
+
+    private static void deleteAll(final List<java.nio.file.Path> paths) throws IOException {
+        for (final java.nio.file.Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static int compare(final byte[] first, final int firstLength, final byte[] second, final int secondLength) {
+        final int length = Math.min(firstLength, secondLength);
+        for (int i = 0; i < length; i++) {
+            if (first[i] != second[i]) {
+                return first[i] - second[i];
+            }
+        }
+        return firstLength - secondLength;
+    }
+
+    @Override
+    public String toString() {
+        return "UrinSorter{" +
+                "scheme=" + scheme +
+                ", temporaryDirectory=" + temporaryDirectory +
+                ", memoryBudget=" + memoryBudget +
+                '}';
+    }
+
+    private interface EntryWriter {
+        void write(byte[] bytes, int length) throws IOException;
+    }
+
+    private static final class LineWriter implements EntryWriter {
+        private final OutputStream outputStream;
+        private long count;
+
+        LineWriter(final OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int length) throws IOException {
+            outputStream.write(bytes, 0, length);
+            outputStream.write('\n');
+            count++;
+        }
+
+        void flush() throws IOException {
+            outputStream.flush();
+        }
+    }
+
+    /**
+     * Writes a run file, in which each entry is the varint length of the prefix it shares with the entry before, then
+     * the varint length of the rest of its bytes, then those bytes.
+     */
+    private static final class RunWriter implements EntryWriter, Closeable {
+        private final OutputStream outputStream;
+        private byte[] previous = new byte[0];
+        private int previousLength;
+
+        RunWriter(final java.nio.file.Path path) throws IOException {
+            this.outputStream = new BufferedOutputStream(Files.newOutputStream(path));
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int length) throws IOException {
+            final int limit = Math.min(length, previousLength);
+            int sharedLength = 0;
+            while (sharedLength < limit && bytes[sharedLength] == previous[sharedLength]) {
+                sharedLength++;
+            }
+            writeVarint(sharedLength);
+            writeVarint(length - sharedLength);
+            outputStream.write(bytes, sharedLength, length - sharedLength);
+            if (previous.length < length) {
+                previous = new byte[Math.max(length, previous.length * 2)];
+            }
+            System.arraycopy(bytes, 0, previous, 0, length);
+            previousLength = length;
+        }
+
+        private void writeVarint(final int value) throws IOException {
+            int remaining = value;
+            while ((remaining & ~0x7f) != 0) {
+                outputStream.write(remaining & 0x7f | 0x80);
+                remaining >>>= 7;
+            }
+            outputStream.write(remaining);
+        }
+
+        @Override
+        public void close() throws IOException {
+            outputStream.close();
+        }
+    }
+
+    private static final class RunReader implements Comparable<RunReader>, Closeable {
+        private final InputStream inputStream;
+        private byte[] bytes = new byte[64];
+        private int length;
+
+        RunReader(final java.nio.file.Path path) throws IOException {
+            this.inputStream = new BufferedInputStream(Files.newInputStream(path));
+        }
+
+        /**
+         * Reads the next entry, returning false if there are no more.
+         */
+        boolean advance() throws IOException {
+            final int first = inputStream.read();
+            if (first == -1) {
+                return false;
+            }
+            final int sharedLength = readVarint(first);
+            final int suffixLength = readVarint(inputStream.read());
+            length = sharedLength + suffixLength;
+            if (bytes.length < length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length, bytes.length * 2));
+            }
+            int offset = sharedLength;
+            while (offset < length) {
+                final int read = inputStream.read(bytes, offset, length - offset);
+                if (read == -1) {
+                    throw new IOException("Truncated run file");
+                }
+                offset += read;
+            }
+            return true;
+        }
+
+        private int readVarint(final int firstByte) throws IOException {
+            int next = firstByte;
+            int result = 0;
+            int shift = 0;
+            while (next != -1 && (next & 0x80) != 0) {
+                result |= (next & 0x7f) << shift;
+                shift += 7;
+                next = inputStream.read();
+            }
+            if (next == -1) {
+                throw new IOException("Truncated run file");
+            }
+            return result | next << shift;
+        }
+
+        @Override
+        public int compareTo(final RunReader that) {
+            return compare(bytes, length, that.bytes, that.length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A file backed, append only store of URI references, each identified by the number of URI references appended before it.
+ * <p>
+ * URI references are written, in their US-ASCII encoded form, to a log file, and the position and length of each is
+ * written to an index file.  Both files are memory mapped, in regions, so reopening a store reads only the number of URI
+ * references it holds, however many that is.  The last region of each file is mapped only as far as it is used, and
+ * remapped as it grows, and the files are truncated to the length used when the store is closed.  URI references are returned as views of the mapped bytes, which write
+ * their {@code String} representation directly from the mapped bytes, and parse it, using the {@code Scheme} the store
+ * was opened with, only when one of their components is first asked for.  Views are equal to the URI references they
+ * represent.
+ * <p>
+ * A URI reference can be at most 16 MiB long, and the log file can be at most 1 TiB long.
+ * <p>
+ * Not thread safe.
+ *
+ * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references in this store.
+ * @param <QUERY>    The type of {@code Query} used by URI references in this store.
+ * @param <FRAGMENT> The type of {@code Fragment} used by URI references in this store.
+ */
+public final class UrinStore<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> implements Closeable {
+
+    private static final String LOG_FILE_NAME = "urins.log";
+    private static final String INDEX_FILE_NAME = "urins.index";
+    private static final long DEFAULT_REGION_SIZE = 1L << 30;
+    private static final int LENGTH_BITS = 24;
+    private static final int MAXIMUM_LENGTH = (1 << LENGTH_BITS) - 1;
+    private static final long MAXIMUM_LOG_LENGTH = 1L << (Long.SIZE - LENGTH_BITS);
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES;
+    private static final long MINIMUM_MAPPED_LENGTH = 1L << 16;
+    private static final long MAXIMUM_MAPPING_GROWTH = 1L << 26;
+
+    private final Scheme<SEGMENT, QUERY, FRAGMENT> scheme;
+    private final long regionSize;
+    private final FileChannel logChannel;
+    private final FileChannel indexChannel;
+    private final List<MappedByteBuffer> logRegions = new ArrayList<>();
+    private final List<MappedByteBuffer> indexRegions = new ArrayList<>();
+    private long size;
+    private long logLength;
+
+    private UrinStore(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final java.nio.file.Path directory, final long regionSize) throws IOException {
+        this.scheme = requireNonNull(scheme, "Cannot instantiate UrinStore with null scheme");
+        requireNonNull(directory, "Cannot instantiate UrinStore with null directory");
+        this.regionSize = regionSize;
+        this.logChannel = FileChannel.open(directory.resolve(LOG_FILE_NAME), READ, WRITE, CREATE);
+        try {
+            this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE_NAME), READ, WRITE, CREATE);
+        } catch (final IOException e) {
+            logChannel.close();
+            throw e;
+        }
+        this.size = indexRegion(0, INDEX_ENTRY_SIZE).getLong(0);
+        if (size > 0) {
+            final long lastEntry = indexEntry(size - 1);
+            this.logLength = (lastEntry >>> LENGTH_BITS) + (lastEntry & MAXIMUM_LENGTH);
+        }
+    }
+
+    /**
+     * Factory method for creating {@code UrinStore}s.  Opens the store in the given directory, creating it if the
+     * directory does not already contain one.
+     *
+     * @param scheme     the {@code Scheme} to use to parse the URI references in the store.
+     * @param directory  the directory containing the files of the store.
+     * @param <SEGMENT>  The type of {@code Segment} used by paths of URI references in the store.
+     * @param <QUERY>    The type of {@code Query} used by URI references in the store.
+     * @param <FRAGMENT> The type of {@code Fragment} used by URI references in the store.
+     * @return a {@code UrinStore} in the given directory.
+     * @throws IOException if the files of the store cannot be opened or mapped.
+     */
+    public static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> UrinStore<SEGMENT, QUERY, FRAGMENT> urinStore(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final java.nio.file.Path directory) throws IOException {
+        return new UrinStore<>(scheme, directory, DEFAULT_REGION_SIZE);
+    }
+
+    static <SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> UrinStore<SEGMENT, QUERY, FRAGMENT> urinStore(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final java.nio.file.Path directory, final long regionSize) throws IOException {
+        return new UrinStore<>(scheme, directory, regionSize);
+    }
+
+    /**
+     * Appends the given URI reference to the store.
+     *
+     * @param urinReference the {@code UrinReference} to append.
+     * @return the id of the appended URI reference.
+     * @throws IllegalArgumentException if the given URI reference is too long to store, or the store is full.
+     * @throws IOException              if the files of the store cannot be extended.
+     */
+    public long append(final UrinReference<SEGMENT, QUERY, FRAGMENT> urinReference) throws IOException {
+        final int length = requireNonNull(urinReference, "Cannot append null UrinReference").encodedLength();
+        if (length > Math.min(MAXIMUM_LENGTH, regionSize)) {
+            throw new IllegalArgumentException("Cannot append UrinReference of length " + length + " to UrinStore");
+        }
+        final long offset = length > regionSize - logLength % regionSize ? (logLength / regionSize + 1) * regionSize : logLength;
+        if (offset + length > MAXIMUM_LOG_LENGTH) {
+            throw new IllegalArgumentException("Cannot append UrinReference to full UrinStore");
+        }
+        final ByteBuffer logRegion = logRegion(offset / regionSize, offset % regionSize + length).duplicate();
+        logRegion.position((int) (offset % regionSize));
+        urinReference.writeTo(logRegion);
+        final long id = size;
+        final long indexOffset = indexOffset(id);
+        indexRegion(indexOffset / regionSize, indexOffset % regionSize + INDEX_ENTRY_SIZE).putLong((int) (indexOffset % regionSize), offset << LENGTH_BITS | length);
+        size = id + 1;
+        logLength = offset + length;
+        indexRegion(0, INDEX_ENTRY_SIZE).putLong(0, size);
+        return id;
+    }
+
+    /**
+     * Gets a view of the URI reference with the given id.
+     *
+     * @param id the id of a URI reference in the store.
+     * @return a {@code UrinReference} view of the URI reference with the given id.
+     * @throws IndexOutOfBoundsException if there is no URI reference with the given id.
+     * @throws IOException               if the files of the store cannot be mapped.
+     */
+    public UrinReference<SEGMENT, QUERY, FRAGMENT> get(final long id) throws IOException {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No UrinReference with id " + id + " in UrinStore of size " + size);
+        }
+        final long entry = indexEntry(id);
+        final long offset = entry >>> LENGTH_BITS;
+        final int length = (int) (entry & MAXIMUM_LENGTH);
+        return new MappedUrinReference<>(scheme, logRegion(offset / regionSize, offset % regionSize + length), (int) (offset % regionSize), length);
+    }
+
+    /**
+     * Gets the number of URI references in the store.
+     *
+     * @return the number of URI references in the store.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Writes any changes to the store to the storage device, truncates its files to the length used, and closes them.
+     * Views of URI references in the store remain usable after it is closed.
+     *
+     * @throws IOException if the files of the store cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        for (final MappedByteBuffer logRegion : logRegions) {
+            logRegion.force();
+        }
+        for (final MappedByteBuffer indexRegion : indexRegions) {
+            indexRegion.force();
+        }
+        try {
+            logChannel.truncate(logLength);
+            indexChannel.truncate(indexOffset(size));
+        } finally {
+            try {
+                logChannel.close();
+            } finally {
+                indexChannel.close();
+            }
+        }
+    }
+
+    private static long indexOffset(final long id) {
+        return INDEX_ENTRY_SIZE + id * INDEX_ENTRY_SIZE;
+    }
+
+    private long indexEntry(final long id) throws IOException {
+        final long indexOffset = indexOffset(id);
+        return indexRegion(indexOffset / regionSize, indexOffset % regionSize + INDEX_ENTRY_SIZE).getLong((int) (indexOffset % regionSize));
+    }
+
+    private MappedByteBuffer logRegion(final long region, final long usedLength) throws IOException {
+        return region(logChannel, logRegions, region, usedLength);
+    }
+
+    private MappedByteBuffer indexRegion(final long region, final long usedLength) throws IOException {
+        return region(indexChannel, indexRegions, region, usedLength);
+    }
+
+    /**
+     * Gets the given region of a file, mapped at least as far as the given length.  Regions before the last are mapped
+     * in full, and the last is remapped, up to double its length at a time, when more of it is needed.  Views keep any
+     * previous, shorter mapping, which maps the same bytes of the file.
+     */
+    private MappedByteBuffer region(final FileChannel channel, final List<MappedByteBuffer> regions, final long region, final long usedLength) throws IOException {
+        if (region < regions.size() && regions.get((int) region).capacity() >= usedLength) {
+            return regions.get((int) region);
+        }
+        for (int i = Math.max(0, regions.size() - 1); i <= region; i++) {
+            final long length = i < region ? regionSize : mappedLength(i < regions.size() ? regions.get(i).capacity() : 0, usedLength);
+            if (i == regions.size()) {
+                regions.add(channel.map(FileChannel.MapMode.READ_WRITE, i * regionSize, length));
+            } else if (regions.get(i).capacity() < length) {
+                regions.set(i, channel.map(FileChannel.MapMode.READ_WRITE, i * regionSize, length));
+            }
+        }
+        return regions.get((int) region);
+    }
+
+    private long mappedLength(final long currentLength, final long usedLength) {
+        final long grownLength = Math.max(MINIMUM_MAPPED_LENGTH, currentLength + Math.min(currentLength, MAXIMUM_MAPPING_GROWTH));
+        return Math.min(regionSize, Math.max(usedLength, grownLength));
+    }
+
+    @Override
+    public String toString() {
+        return "UrinStore{" +
+                "scheme=" + scheme +
+                ", size=" + size +
+                '}';
+    }
+
+    /**
+     * A view of a URI reference in a mapped region of the log file.  Holds only the position of the bytes in the region
+     * until one of its components is asked for, when it parses the bytes into a {@code UrinReference}, which it delegates
+     * to thereafter.
+     */
+    private static final class MappedUrinReference<SEGMENT, QUERY extends Query<?>, FRAGMENT extends Fragment<?>> extends UrinReference<SEGMENT, QUERY, FRAGMENT> {
+        private final Scheme<SEGMENT, QUERY, FRAGMENT> scheme;
+        private final ByteBuffer region;
+        private final int position;
+        private final int length;
+        private UrinReference<SEGMENT, QUERY, FRAGMENT> parsed;
+
+        MappedUrinReference(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final ByteBuffer region, final int position, final int length) {
+            this.scheme = scheme;
+            this.region = region;
+            this.position = position;
+            this.length = length;
+        }
+
+        @Override
+        UrinReference<SEGMENT, QUERY, FRAGMENT> underlying() {
+            UrinReference<SEGMENT, QUERY, FRAGMENT> result = parsed;
+            if (result == null) {
+                final byte[] bytes = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    bytes[i] = region.get(position + i);
+                }
+                final String uriReference = new String(bytes, US_ASCII);
+                try {
+                    result = scheme.parseUrinReference(uriReference);
+                } catch (final ParseException e) {
+                    throw new IllegalStateException("Invalid URI reference in UrinStore [" + uriReference + "]", e);
+                }
+                parsed = result;
+            }
+            return result;
+        }
+
+        @Override
+        public int encodedLength() {
+            return length;
+        }
+
+        @Override
+        void appendTo(final AsciiOutput output) {
+            for (int i = 0; i < length; i++) {
+                output.append((char) region.get(position + i));
+            }
+        }
+
+        @Override
+        public Path<SEGMENT> path() {
+            return underlying().path();
+        }
+
+        @Override
+        public UrinReference<SEGMENT, QUERY, FRAGMENT> withPath(final AbsolutePath<SEGMENT> path) {
+            return underlying().withPath(path);
+        }
+
+        @Override
+        public boolean hasFragment() {
+            return underlying().hasFragment();
+        }
+
+        @Override
+        public FRAGMENT fragment() {
+            return underlying().fragment();
+        }
+
+        @Override
+        public boolean hasQuery() {
+            return underlying().hasQuery();
+        }
+
+        @Override
+        public QUERY query() {
+            return underlying().query();
+        }
+
+        @Override
+        public boolean hasAuthority() {
+            return underlying().hasAuthority();
+        }
+
+        @Override
+        public Authority authority() {
+            return underlying().authority();
+        }
+
+        @Override
+        Urin<SEGMENT, QUERY, FRAGMENT> resolve(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Path<SEGMENT> path) {
+            return underlying().resolve(scheme, path);
+        }
+
+        @Override
+        Urin<SEGMENT, QUERY, FRAGMENT> resolve(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Authority authority, final Path<SEGMENT> path) {
+            return underlying().resolve(scheme, authority, path);
+        }
+
+        @Override
+        Urin<SEGMENT, QUERY, FRAGMENT> resolve(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Path<SEGMENT> path, final QUERY query) {
+            return underlying().resolve(scheme, path, query);
+        }
+
+        @Override
+        Urin<SEGMENT, QUERY, FRAGMENT> resolve(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Authority authority, final Path<SEGMENT> path, final QUERY query) {
+            return underlying().resolve(scheme, authority, path, query);
+        }
+
+        @Override
+        Urin<SEGMENT, QUERY, FRAGMENT> resolve(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Path<SEGMENT> path, final QUERY query, final FRAGMENT fragment) {
+            return underlying().resolve(scheme, path, query, fragment);
+        }
+
+        @Override
+        Urin<SEGMENT, QUERY, FRAGMENT> resolve(final Scheme<SEGMENT, QUERY, FRAGMENT> scheme, final Authority authority, final Path<SEGMENT> path, final QUERY query, final FRAGMENT fragment) {
+            return underlying().resolve(scheme, authority, path, query, fragment);
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            return this == object || underlying().equals(object);
+        }
+
+        @Override
+        public int hashCode() {
+            return underlying().hashCode();
+        }
+    }
+}
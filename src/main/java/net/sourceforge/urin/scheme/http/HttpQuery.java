@@ -12,9 +12,8 @@ package net.sourceforge.urin.scheme.http;
 
 import net.sourceforge.urin.*;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
+import java.util.function.Predicate;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.*;
@@ -25,14 +24,36 @@ import static java.util.Objects.requireNonNull;
  */
 public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> implements Iterable<HttpQuery.QueryParameter> {
 
-    private static final PercentEncodingPartial<Iterable<QueryParameter>, String> HTTP_QUERY_PERCENT_ENCODING_PARTIAL = encodeQueryParameters(
-            PercentEncodingPartial.percentEncodingDelimitedValue(
-                    '&',
-                    PercentEncodingPartial.percentEncodingDelimitedValue(
-                            ';',
-                            percentEncodedQueryParameter(PercentEncodingPartial.percentEncodingDelimitedValue(
-                                    '=',
-                                    PercentEncodingPartial.percentEncodingSubstitutedValue(' ', '+'))))));
+    private static final Transformer<String, String> NAME_AND_VALUE_TRANSFORMER = percentEncodingTransformer(
+            PercentEncodingPartial.additionallyEncoding(
+                    asList('&', ';', '='),
+                    PercentEncodingPartial.percentEncodingSubstitutedValue(' ', '+')));
+
+    private static final Transformer<Long, String> LONG_TRANSFORMER = percentEncodingTransformer(PercentEncodingPartial.percentEncodingLongValue());
+
+    private static final PercentEncodingPartial<Iterable<QueryParameter>, String> HTTP_QUERY_PERCENT_ENCODING_PARTIAL = PercentEncodingPartial.transformingPercentEncodingPartial(
+            PercentEncodingPartial.percentEncodedValue(),
+            new Transformer<Iterable<QueryParameter>, String>() {
+                @Override
+                public String encode(final Iterable<QueryParameter> queryParameters) {
+                    final Iterator<QueryParameter> queryParameterIterator = queryParameters.iterator();
+                    final StringBuilder result = new StringBuilder();
+                    while (queryParameterIterator.hasNext()) {
+                        result.append(queryParameterIterator.next().percentEncoded());
+                        if (queryParameterIterator.hasNext()) {
+                            result.append('&');
+                        }
+                    }
+                    return result.toString();
+                }
+
+                @Override
+                public Iterable<QueryParameter> decode(final String percentEncodedQuery) throws ParseException {
+                    return PercentEncodedQueryParameters.parse(percentEncodedQuery);
+                }
+            });
+
+    private static final Transformer<String, String> ENCODED_QUERY_VALIDATING_TRANSFORMER = percentEncodingTransformer(PercentEncodingPartial.percentEncodedValue());
 
     /**
      * The {@code MakingDecoder} used by HTTP queries.
@@ -40,14 +61,29 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
     public static final MakingDecoder<HttpQuery, Iterable<QueryParameter>, String> HTTP_QUERY_MAKING_DECODER = new MakingDecoder<HttpQuery, Iterable<QueryParameter>, String>(HTTP_QUERY_PERCENT_ENCODING_PARTIAL) {
         @Override
         protected HttpQuery makeOne(final Iterable<QueryParameter> queryParameters) {
-            return new HttpQuery(queryParameters);
+            return queryParameters instanceof PercentEncodedQueryParameters
+                    ? new HttpQuery((PercentEncodedQueryParameters) queryParameters)
+                    : httpQuery(requireNonNullElements(queryParameters));
         }
     };
 
     private static final QueryParameter VALUELESS_EMPTY_NAMED_QUERY_PARAMETER = queryParameter("");
 
-    private HttpQuery(final Iterable<QueryParameter> queryParameters) {
-        super(unmodifiableList(convertSingleElementListOfValuelessQueryParameterNamedEmptyStringToEmptyList(requireNonNullElements(queryParameters))), HTTP_QUERY_PERCENT_ENCODING_PARTIAL);
+    private final List<QueryParameter> queryParameters;
+    private QueryParameterIndex queryParameterIndex;
+
+    private HttpQuery(final List<QueryParameter> queryParameters) {
+        super(queryParameters, HTTP_QUERY_PERCENT_ENCODING_PARTIAL);
+        this.queryParameters = queryParameters;
+    }
+
+    private HttpQuery(final List<QueryParameter> queryParameters, final String encodedQuery) {
+        super(queryParameters, encodedQuery, HTTP_QUERY_PERCENT_ENCODING_PARTIAL);
+        this.queryParameters = queryParameters;
+    }
+
+    private static HttpQuery httpQuery(final List<QueryParameter> nonNullQueryParameters) {
+        return new HttpQuery(unmodifiableList(convertSingleElementListOfValuelessQueryParameterNamedEmptyStringToEmptyList(nonNullQueryParameters)));
     }
 
     /**
@@ -61,6 +97,26 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
         return HTTP_QUERY_MAKING_DECODER;
     }
 
+    /**
+     * Factory method for {@code MakingDecoder}s of {@code HttpQuery}s that share the names of query parameters that have
+     * the same encoded form, using the given {@code InterningPool}.  Names are looked up in the pool when they are first
+     * got, and names found in the pool are not decoded again.
+     *
+     * @param namePool the {@code InterningPool} to share the names of query parameters through.
+     * @return a {@code MakingDecoder} of {@code HttpQuery}s that shares the names of query parameters.
+     */
+    public static MakingDecoder<HttpQuery, Iterable<QueryParameter>, String> httpQueryMakingDecoder(final InterningPool<String> namePool) {
+        requireNonNull(namePool, "Cannot instantiate MakingDecoder with null namePool");
+        return new MakingDecoder<HttpQuery, Iterable<QueryParameter>, String>(HTTP_QUERY_PERCENT_ENCODING_PARTIAL) {
+            @Override
+            protected HttpQuery makeOne(final Iterable<QueryParameter> queryParameters) {
+                return queryParameters instanceof PercentEncodedQueryParameters
+                        ? new HttpQuery(((PercentEncodedQueryParameters) queryParameters).withNamePool(namePool))
+                        : httpQuery(requireNonNullElements(queryParameters));
+            }
+        };
+    }
+
     private static List<QueryParameter> requireNonNullElements(final Iterable<QueryParameter> queryParameters) {
         final List<QueryParameter> result = new ArrayList<>();
         for (final QueryParameter queryParameter : queryParameters) {
@@ -73,56 +129,24 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
         return queryParameters.size() == 1 && VALUELESS_EMPTY_NAMED_QUERY_PARAMETER.equals(queryParameters.get(0)) ? emptyList() : queryParameters;
     }
 
-    private static <T> PercentEncodingPartial<Iterable<QueryParameter>, T> encodeQueryParameters(final PercentEncodingPartial<Iterable<Iterable<QueryParameter>>, T> childPercentEncodingPartial) {
-        return PercentEncodingPartial.transformingPercentEncodingPartial(childPercentEncodingPartial, new Transformer<Iterable<QueryParameter>, Iterable<Iterable<QueryParameter>>>() {
-            @Override
-            public Iterable<Iterable<QueryParameter>> encode(final Iterable<QueryParameter> queryParameters) {
-                final List<Iterable<QueryParameter>> result = new ArrayList<>();
-                for (final QueryParameter queryParameter : queryParameters) {
-                    result.add(singletonList(queryParameter));
-                }
-                return result;
-            }
-
-            @Override
-            public Iterable<QueryParameter> decode(final Iterable<Iterable<QueryParameter>> iterables) {
-                final List<QueryParameter> result = new ArrayList<>();
-                for (final Iterable<QueryParameter> queryParameters : iterables) {
-                    for (final QueryParameter queryParameter : queryParameters) {
-                        result.add(queryParameter);
-                    }
-                }
-                return result;
-            }
-        });
+    private static String percentEncodeNameOrValue(final String nameOrValue) {
+        return NAME_AND_VALUE_TRANSFORMER.encode(nameOrValue);
     }
 
-    private static <T> PercentEncodingPartial<QueryParameter, T> percentEncodedQueryParameter(final PercentEncodingPartial<Iterable<String>, T> childPercentEncodingPartial) {
-        return PercentEncodingPartial.transformingPercentEncodingPartial(childPercentEncodingPartial, new Transformer<QueryParameter, Iterable<String>>() {
-            @Override
-            public Iterable<String> encode(final QueryParameter queryParameter) {
-                return queryParameter.encoded();
-            }
+    private static String internName(final InterningPool<String> namePool, final String percentEncodedQuery, final int startIndex, final int endIndex) {
+        try {
+            return namePool.intern(percentEncodedQuery, startIndex, endIndex, NAME_AND_VALUE_TRANSFORMER);
+        } catch (final ParseException e) {
+            throw new IllegalStateException("Cannot decode previously validated query parameter part [" + percentEncodedQuery.substring(startIndex, endIndex) + "]", e);
+        }
+    }
 
-            @Override
-            public QueryParameter decode(final Iterable<String> strings) throws ParseException {
-                final Iterator<String> iterator = strings.iterator();
-                if (!iterator.hasNext()) {
-                    throw new ParseException("Invalid query parameter String [" + strings + "]");
-                }
-                final QueryParameter result;
-                final String name = iterator.next();
-                if (iterator.hasNext()) {
-                    result = queryParameter(name, iterator.next());
-                    if (iterator.hasNext()) {
-                        throw new ParseException("Invalid query parameter - expected maximum of two elements in [" + strings + "]");
-                    }
-                } else {
-                    result = queryParameter(name);
-                }
-                return result;
-            }
-        });
+    private static String percentDecodeNameOrValue(final String percentEncodedNameOrValue) {
+        try {
+            return NAME_AND_VALUE_TRANSFORMER.decode(percentEncodedNameOrValue);
+        } catch (final ParseException e) {
+            throw new IllegalStateException("Cannot decode previously validated query parameter part [" + percentEncodedNameOrValue + "]", e);
+        }
     }
 
     /**
@@ -163,7 +187,24 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
      * @return a {@code HttpQuery} representing the given query parameters.
      */
     public static HttpQuery queryParameters(final Iterable<QueryParameter> queryParameters) {
-        return new HttpQuery(queryParameters);
+        return httpQuery(requireNonNullElements(queryParameters));
+    }
+
+    /**
+     * Factory method for creating {@code HttpQuery}s from their percent encoded form.  The given {@code String} is validated, and
+     * split into {@code QueryParameter}s, but their names and values are not decoded until they are asked for, and the
+     * {@code HttpQuery} is rendered using the given {@code String} as is.
+     * <p>
+     * The resulting {@code HttpQuery} is equal to one made by {@link #queryParameters(Iterable)} from the decoded query
+     * parameters, but is rendered using the given percent encoding, which may differ from the one {@code queryParameters}
+     * would produce, for example if it uses {@code %20} rather than {@code +} to encode spaces.
+     *
+     * @param encodedQuery a percent encoded {@code String} to represent as a {@code HttpQuery}.
+     * @return a {@code HttpQuery} representing the given percent encoded {@code String}.
+     * @throws ParseException if the given {@code String} is not a valid percent encoded HTTP query.
+     */
+    public static HttpQuery encodedQueryParameters(final String encodedQuery) throws ParseException {
+        return new HttpQuery(PercentEncodedQueryParameters.parse(ENCODED_QUERY_VALIDATING_TRANSFORMER.decode(encodedQuery)), encodedQuery);
     }
 
     @Override
@@ -172,17 +213,282 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
         return value().iterator();
     }
 
+    List<QueryParameter> queryParameterList() {
+        return queryParameters;
+    }
+
+    /**
+     * Returns true if this query contains a {@code QueryParameter} with the given (non-encoded) name, whether or not it has a value.
+     *
+     * @param name the (non-encoded) name of a query parameter.
+     * @return true if this query contains a {@code QueryParameter} with the given name.
+     */
+    public boolean contains(final String name) {
+        return asMap().containsKey(name);
+    }
+
+    /**
+     * Gets the value of the first {@code QueryParameter} with the given (non-encoded) name that has a value.
+     *
+     * @param name the (non-encoded) name of a query parameter.
+     * @return the value of the first {@code QueryParameter} with the given name that has a value, or an empty {@code Optional} if there is none.
+     */
+    public Optional<String> get(final String name) {
+        final List<String> values = getAll(name);
+        return values.isEmpty() ? Optional.empty() : Optional.of(values.get(0));
+    }
+
+    /**
+     * Gets the value of the first {@code QueryParameter} with the given (non-encoded) name that has a value, as a {@code long}.
+     * The value is parsed directly from its percent encoded form, without decoding it to a {@code String} first, and so must be
+     * made up of an optional '-' followed by decimal digits, none of which are percent encoded.
+     * <p>
+     * Unlike {@link #get(String)}, this does not decode the values of other {@code QueryParameter}s in this query.
+     *
+     * @param name the (non-encoded) name of a query parameter.
+     * @return the value of the first {@code QueryParameter} with the given name that has a value, or an empty {@code OptionalLong} if there is none.
+     * @throws ParseException if the value of the first {@code QueryParameter} with the given name that has a value is not a valid {@code long}.
+     */
+    public OptionalLong getLong(final String name) throws ParseException {
+        for (final QueryParameter queryParameter : queryParameters) {
+            if (queryParameter.hasValue() && queryParameter.name().equals(name)) {
+                return OptionalLong.of(LONG_TRANSFORMER.decode(queryParameter.encodedValue()));
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Gets the values of the {@code QueryParameter}s with the given (non-encoded) name that have values, in the order they appear in this query.
+     *
+     * @param name the (non-encoded) name of a query parameter.
+     * @return the values of the {@code QueryParameter}s with the given name that have values, which is empty if there are none.
+     */
+    public List<String> getAll(final String name) {
+        final List<String> values = asMap().get(name);
+        return values == null ? emptyList() : values;
+    }
+
+    /**
+     * Returns an unmodifiable {@code Map} view of this query, from each (non-encoded) query parameter name to the values of the
+     * {@code QueryParameter}s with that name that have values.  A name that only appears on {@code QueryParameter}s without values maps to an empty {@code List}.
+     * The {@code Map} iterates over names in the order they first appear in this query, and each {@code List} of values is in the order the values appear in this query.
+     * <p>
+     * The {@code Map} is built the first time it or any of the lookup methods is called, and reused thereafter.
+     *
+     * @return an unmodifiable {@code Map} view of this query.
+     */
+    public Map<String, List<String>> asMap() {
+        QueryParameterIndex result = queryParameterIndex;
+        if (result == null) {
+            result = new QueryParameterIndex(this);
+            queryParameterIndex = result;
+        }
+        return result.valuesByName;
+    }
+
+    /**
+     * Returns a new {@code HttpQuery} made up of the {@code QueryParameter}s of this query followed by the given {@code QueryParameter}.
+     * <p>
+     * The returned query shares this query's {@code QueryParameter}s, and reuses their encoded form when it is rendered.
+     *
+     * @param queryParameter the {@code QueryParameter} to add.
+     * @return a new {@code HttpQuery} made up of the {@code QueryParameter}s of this query followed by the given {@code QueryParameter}.
+     */
+    public HttpQuery withParameter(final QueryParameter queryParameter) {
+        requireNonNull(queryParameter, "Cannot add null queryParameter");
+        final List<QueryParameter> result = new ArrayList<>(queryParameters.size() + 1);
+        result.addAll(queryParameters);
+        result.add(queryParameter);
+        return httpQuery(result);
+    }
+
+    /**
+     * Returns a new {@code HttpQuery} in which the first {@code QueryParameter} with the same (non-encoded) name as the given
+     * {@code QueryParameter} is replaced by it, and any other {@code QueryParameter}s with that name are removed.  If this query
+     * contains no {@code QueryParameter} with that name, the given {@code QueryParameter} is added to the end.
+     * <p>
+     * The returned query shares this query's other {@code QueryParameter}s, and reuses their encoded form when it is rendered.
+     *
+     * @param queryParameter the {@code QueryParameter} to replace those with the same name.
+     * @return a new {@code HttpQuery} with the given {@code QueryParameter} in place of those with the same name.
+     */
+    public HttpQuery withReplacedParameter(final QueryParameter queryParameter) {
+        requireNonNull(queryParameter, "Cannot replace with null queryParameter");
+        final List<QueryParameter> result = new ArrayList<>(queryParameters.size() + 1);
+        boolean replaced = false;
+        for (final QueryParameter existingQueryParameter : queryParameters) {
+            if (!existingQueryParameter.name().equals(queryParameter.name())) {
+                result.add(existingQueryParameter);
+            } else if (!replaced) {
+                result.add(queryParameter);
+                replaced = true;
+            }
+        }
+        if (!replaced) {
+            result.add(queryParameter);
+        }
+        return httpQuery(result);
+    }
+
+    /**
+     * Returns an {@code HttpQuery} made up of the {@code QueryParameter}s of this query that do not have the given (non-encoded) name.
+     * <p>
+     * The returned query shares this query's remaining {@code QueryParameter}s, and reuses their encoded form when it is rendered.
+     *
+     * @param name the (non-encoded) name of the query parameters to remove.
+     * @return an {@code HttpQuery} without the {@code QueryParameter}s with the given name, which is this query if it contains none.
+     */
+    public HttpQuery withoutParameter(final String name) {
+        requireNonNull(name, "Cannot remove query parameters with null name");
+        return withoutParameters(queryParameter -> name.equals(queryParameter.name()));
+    }
+
+    /**
+     * Returns an {@code HttpQuery} made up of the {@code QueryParameter}s of this query that do not match the given {@code Predicate}.
+     * <p>
+     * The returned query shares this query's remaining {@code QueryParameter}s, and reuses their encoded form when it is rendered.
+     *
+     * @param predicate a {@code Predicate} matching the {@code QueryParameter}s to remove.
+     * @return an {@code HttpQuery} without the {@code QueryParameter}s that match the given {@code Predicate}, which is this query if none match.
+     */
+    public HttpQuery withoutParameters(final Predicate<? super QueryParameter> predicate) {
+        requireNonNull(predicate, "Cannot remove query parameters matching null predicate");
+        final List<QueryParameter> result = new ArrayList<>(queryParameters.size());
+        for (final QueryParameter queryParameter : queryParameters) {
+            if (!predicate.test(queryParameter)) {
+                result.add(queryParameter);
+            }
+        }
+        return result.size() == queryParameters.size() ? this : httpQuery(result);
+    }
+
+    private static final class QueryParameterIndex {
+        private final Map<String, List<String>> valuesByName;
+
+        QueryParameterIndex(final Iterable<QueryParameter> queryParameters) {
+            final Map<String, List<String>> mutableValuesByName = new LinkedHashMap<>();
+            for (final QueryParameter queryParameter : queryParameters) {
+                final List<String> values = mutableValuesByName.computeIfAbsent(queryParameter.name(), name -> new ArrayList<>(1));
+                if (queryParameter.hasValue()) {
+                    values.add(queryParameter.value());
+                }
+            }
+            for (final Map.Entry<String, List<String>> entry : mutableValuesByName.entrySet()) {
+                entry.setValue(unmodifiableList(entry.getValue()));
+            }
+            this.valuesByName = unmodifiableMap(mutableValuesByName);
+        }
+    }
+
+    private static final class PercentEncodedQueryParameters extends AbstractList<QueryParameter> {
+        private final String percentEncodedQuery;
+        private final int[] boundaries;
+        private final InterningPool<String> namePool;
+        private final QueryParameter[] queryParameters;
+
+        private PercentEncodedQueryParameters(final String percentEncodedQuery, final int[] boundaries, final InterningPool<String> namePool) {
+            this.percentEncodedQuery = percentEncodedQuery;
+            this.boundaries = boundaries;
+            this.namePool = namePool;
+            this.queryParameters = new QueryParameter[boundaries.length / 3];
+        }
+
+        static List<QueryParameter> parse(final String percentEncodedQuery) throws ParseException {
+            if (percentEncodedQuery.isEmpty()) {
+                return emptyList();
+            }
+            final int[] boundaries = new int[3 * countQueryParameters(percentEncodedQuery)];
+            int boundaryIndex = 0;
+            int startIndex = 0;
+            int equalsIndex = -1;
+            for (int i = 0; i <= percentEncodedQuery.length(); i++) {
+                final char character = i == percentEncodedQuery.length() ? '&' : percentEncodedQuery.charAt(i);
+                if (character == '&' || character == ';') {
+                    boundaries[boundaryIndex++] = startIndex;
+                    boundaries[boundaryIndex++] = equalsIndex;
+                    boundaries[boundaryIndex++] = i;
+                    startIndex = i + 1;
+                    equalsIndex = -1;
+                } else if (character == '=') {
+                    if (equalsIndex != -1) {
+                        throw invalidQueryParameter(percentEncodedQuery, startIndex);
+                    }
+                    equalsIndex = i;
+                }
+            }
+            return new PercentEncodedQueryParameters(percentEncodedQuery, boundaries, null);
+        }
+
+        PercentEncodedQueryParameters withNamePool(final InterningPool<String> namePool) {
+            return new PercentEncodedQueryParameters(percentEncodedQuery, boundaries, namePool);
+        }
+
+        private static int countQueryParameters(final String percentEncodedQuery) {
+            int result = 1;
+            for (int i = 0; i < percentEncodedQuery.length(); i++) {
+                final char character = percentEncodedQuery.charAt(i);
+                if (character == '&' || character == ';') {
+                    result++;
+                }
+            }
+            return result;
+        }
+
+        private static ParseException invalidQueryParameter(final String percentEncodedQuery, final int startIndex) {
+            final List<String> nameAndValues = new ArrayList<>();
+            for (final String percentEncodedNameOrValue : percentEncodedQuery.substring(startIndex).split("[&;]", -1)[0].split("=", -1)) {
+                nameAndValues.add(percentDecodeNameOrValue(percentEncodedNameOrValue));
+            }
+            return new ParseException("Invalid query parameter - expected maximum of two elements in [" + nameAndValues + "]");
+        }
+
+        @Override
+        public QueryParameter get(final int index) {
+            if (index < 0 || index >= queryParameters.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + queryParameters.length);
+            }
+            QueryParameter result = queryParameters[index];
+            if (result == null) {
+                result = new PercentEncodedQueryParameter(percentEncodedQuery, boundaries[3 * index], boundaries[3 * index + 1], boundaries[3 * index + 2], namePool);
+                queryParameters[index] = result;
+            }
+            return result;
+        }
+
+        @Override
+        public int size() {
+            return queryParameters.length;
+        }
+    }
+
     /**
      * Value type for specifying HTTP query parameter name/value pairs.
+     * <p>
+     * {@code QueryParameter}s of a parsed {@code HttpQuery} keep their percent encoded form, and only decode their name and
+     * value the first time they are asked for.
      *
      * @see HttpQuery#queryParameter(String, String)
      */
     public static abstract class QueryParameter {
 
+        private String percentEncoded;
+
         private QueryParameter() {
         }
 
-        abstract Iterable<String> encoded();
+        final String percentEncoded() {
+            String result = percentEncoded;
+            if (result == null) {
+                result = percentEncode();
+                percentEncoded = result;
+            }
+            return result;
+        }
+
+        String percentEncode() {
+            return hasValue() ? percentEncodeNameOrValue(name()) + '=' + percentEncodeNameOrValue(value()) : percentEncodeNameOrValue(name());
+        }
 
         /**
          * Gets the (non-encoded) name of this query parameter as a {@code String}.
@@ -191,6 +497,16 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
          */
         public abstract String name();
 
+        /**
+         * Gets the percent encoded name of this query parameter as a {@code String}.  For a {@code QueryParameter} of a parsed
+         * {@code HttpQuery}, this is the name exactly as it appeared in the parsed {@code String}, and is available without decoding it.
+         *
+         * @return the percent encoded name of this query parameter as a {@code String}.
+         */
+        public String encodedName() {
+            return percentEncodeNameOrValue(name());
+        }
+
         /**
          * Returns true if {@code value()} can be called on this {@code QueryParameter}.  This method
          * returns false for {@code QueryParameter}s that do not have a value component.
@@ -208,6 +524,42 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
          * @throws UnsupportedOperationException if this is a {@code QueryParameter} that does not have a value component.
          */
         public abstract String value();
+
+        /**
+         * Gets the percent encoded value component of this {@code QueryParameter}, as a {@code String}, if it has one, or throws {@code UnsupportedOperationException} otherwise.
+         * For a {@code QueryParameter} of a parsed {@code HttpQuery}, this is the value exactly as it appeared in the parsed {@code String}, and is available without decoding it.
+         *
+         * @return the percent encoded value component of this {@code QueryParameter}.
+         * @throws UnsupportedOperationException if this is a {@code QueryParameter} that does not have a value component.
+         */
+        public String encodedValue() {
+            return percentEncodeNameOrValue(value());
+        }
+
+        @Override
+        public final String toString() {
+            return hasValue()
+                    ? "QueryParameter{name='" + name() + "', value='" + value() + "'}"
+                    : "QueryParameter{name='" + name() + "'}";
+        }
+
+        @Override
+        public final boolean equals(final Object object) {
+            if (this == object) {
+                return true;
+            } else if (!(object instanceof QueryParameter)) {
+                return false;
+            }
+
+            final QueryParameter that = (QueryParameter) object;
+
+            return hasValue() == that.hasValue() && name().equals(that.name()) && (!hasValue() || value().equals(that.value()));
+        }
+
+        @Override
+        public final int hashCode() {
+            return hasValue() ? 31 * name().hashCode() + value().hashCode() : name().hashCode();
+        }
     }
 
     private static final class NameAndValueQueryParameter extends QueryParameter {
@@ -219,11 +571,6 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
             this.value = requireNonNull(value, "Cannot instantiate QueryParameter with null value");
         }
 
-        @Override
-        Iterable<String> encoded() {
-            return asList(name, value);
-        }
-
         @Override
         public String name() {
             return name;
@@ -238,31 +585,6 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
         public String value() {
             return value;
         }
-
-        @Override
-        public String toString() {
-            return "QueryParameter{name='" + name + "', value='" + value + "'}";
-        }
-
-        @Override
-        public boolean equals(final Object object) {
-            if (this == object) {
-                return true;
-            } else if (object == null || getClass() != object.getClass()) {
-                return false;
-            }
-
-            final NameAndValueQueryParameter that = (NameAndValueQueryParameter) object;
-
-            return name.equals(that.name) && value.equals(that.value);
-        }
-
-        @Override
-        public int hashCode() {
-            int result = name.hashCode();
-            result = 31 * result + value.hashCode();
-            return result;
-        }
     }
 
     private static final class NameOnlyQueryParameter extends QueryParameter {
@@ -272,11 +594,6 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
             this.name = requireNonNull(name, "Cannot instantiate QueryParameter with null name");
         }
 
-        @Override
-        Iterable<String> encoded() {
-            return singletonList(name);
-        }
-
         @Override
         public String name() {
             return name;
@@ -291,29 +608,69 @@ public final class HttpQuery extends Query<Iterable<HttpQuery.QueryParameter>> i
         public String value() {
             throw new UnsupportedOperationException("Attempt to get value from a QueryParameter that does not have one.");
         }
+    }
+
+    private static final class PercentEncodedQueryParameter extends QueryParameter {
+        private final String percentEncodedQuery;
+        private final int startIndex;
+        private final int equalsIndex;
+        private final int endIndex;
+        private final InterningPool<String> namePool;
+        private String name;
+        private String value;
+
+        PercentEncodedQueryParameter(final String percentEncodedQuery, final int startIndex, final int equalsIndex, final int endIndex, final InterningPool<String> namePool) {
+            this.percentEncodedQuery = percentEncodedQuery;
+            this.startIndex = startIndex;
+            this.equalsIndex = equalsIndex;
+            this.endIndex = endIndex;
+            this.namePool = namePool;
+        }
 
         @Override
-        public String toString() {
-            return "QueryParameter{name='" + name + "'}";
+        String percentEncode() {
+            final String percentEncodedQueryParameter = percentEncodedQuery.substring(startIndex, endIndex);
+            return percentEncodedQueryParameter.indexOf('%') == -1 ? percentEncodedQueryParameter : super.percentEncode();
         }
 
         @Override
-        public boolean equals(final Object object) {
-            if (this == object) {
-                return true;
-            } else if (object == null || getClass() != object.getClass()) {
-                return false;
+        public String name() {
+            String result = name;
+            if (result == null) {
+                result = namePool == null
+                        ? percentDecodeNameOrValue(encodedName())
+                        : internName(namePool, percentEncodedQuery, startIndex, hasValue() ? equalsIndex : endIndex);
+                name = result;
             }
+            return result;
+        }
 
-            final NameOnlyQueryParameter that = (NameOnlyQueryParameter) object;
+        @Override
+        public String encodedName() {
+            return percentEncodedQuery.substring(startIndex, hasValue() ? equalsIndex : endIndex);
+        }
 
-            return name.equals(that.name);
+        @Override
+        public boolean hasValue() {
+            return equalsIndex != -1;
+        }
 
+        @Override
+        public String value() {
+            String result = value;
+            if (result == null) {
+                result = percentDecodeNameOrValue(encodedValue());
+                value = result;
+            }
+            return result;
         }
 
         @Override
-        public int hashCode() {
-            return name.hashCode();
+        public String encodedValue() {
+            if (!hasValue()) {
+                throw new UnsupportedOperationException("Attempt to get value from a QueryParameter that does not have one.");
+            }
+            return percentEncodedQuery.substring(equalsIndex + 1, endIndex);
         }
     }
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin.scheme.http;
+
+import net.sourceforge.urin.Fragment;
+import net.sourceforge.urin.Urin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Objects.requireNonNull;
+import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameter;
+
+/**
+ * Puts {@code HttpQuery}s into a canonical form, for example for use as part of a cache key.
+ * <p>
+ * The canonical form of a query is made up of its {@code QueryParameter}s, less any with one of a given set of
+ * (non-encoded) names, ordered by their percent encoded names, and then by their percent encoded values.  A
+ * {@code QueryParameter} without a value comes before one with the same name and a value.  {@code QueryParameter}s
+ * that are equal keep their relative order.
+ * <p>
+ * Canonicalising a query allocates only an array of the indices of the {@code QueryParameter}s it keeps, and reuses the
+ * encoded form of each {@code QueryParameter}.
+ * <p>
+ * Immutable and thread safe.
+ */
+public final class QueryCanonicalizer {
+
+    private final Set<String> removedNames;
+    private final String[] removedEncodedNames;
+    private final int mask;
+
+    private QueryCanonicalizer(final Iterable<String> removedNames) {
+        final Set<String> names = new LinkedHashSet<>();
+        for (final String removedName : removedNames) {
+            names.add(requireNonNull(removedName, "Cannot instantiate QueryCanonicalizer with null removed name"));
+        }
+        int capacity = 2;
+        while (capacity < names.size() * 2) {
+            capacity <<= 1;
+        }
+        this.removedNames = names;
+        this.removedEncodedNames = new String[capacity];
+        this.mask = capacity - 1;
+        for (final String name : names) {
+            final String encodedName = queryParameter(name).percentEncoded();
+            int slot = spread(encodedName.hashCode()) & mask;
+            while (removedEncodedNames[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            removedEncodedNames[slot] = encodedName;
+        }
+    }
+
+    /**
+     * Factory method for creating {@code QueryCanonicalizer}s.
+     *
+     * @param removedNames the (non-encoded) names of query parameters to remove from canonical queries.
+     * @return a {@code QueryCanonicalizer} that removes query parameters with the given names.
+     */
+    public static QueryCanonicalizer queryCanonicalizer(final String... removedNames) {
+        return queryCanonicalizer(asList(removedNames));
+    }
+
+    /**
+     * Factory method for creating {@code QueryCanonicalizer}s.
+     *
+     * @param removedNames the (non-encoded) names of query parameters to remove from canonical queries.
+     * @return a {@code QueryCanonicalizer} that removes query parameters with the given names.
+     */
+    public static QueryCanonicalizer queryCanonicalizer(final Iterable<String> removedNames) {
+        return new QueryCanonicalizer(removedNames);
+    }
+
+    private static int spread(final int hashCode) {
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    /**
+     * Returns the canonical form of the given {@code HttpQuery}.
+     *
+     * @param query the {@code HttpQuery} to canonicalise.
+     * @return the canonical form of the given {@code HttpQuery}.
+     */
+    public HttpQuery canonicalize(final HttpQuery query) {
+        final List<HttpQuery.QueryParameter> queryParameters = query.queryParameterList();
+        final int[] indices = sortedIndices(queryParameters);
+        final List<HttpQuery.QueryParameter> result = new ArrayList<>(indices.length);
+        for (final int index : indices) {
+            result.add(queryParameters.get(index));
+        }
+        return HttpQuery.queryParameters(result);
+    }
+
+    /**
+     * Returns a copy of the given {@code Urin} with its query replaced by its canonical form, or without a query if the
+     * canonical form of its query has no query parameters.
+     *
+     * @param urin       the {@code Urin} to canonicalise the query of.
+     * @param <FRAGMENT> The type of {@code Fragment} used by the given {@code Urin}.
+     * @return a copy of the given {@code Urin} with its query in canonical form.
+     */
+    public <FRAGMENT extends Fragment<?>> Urin<String, HttpQuery, FRAGMENT> canonicalize(final Urin<String, HttpQuery, FRAGMENT> urin) {
+        if (urin.hasQuery()) {
+            final HttpQuery canonicalQuery = canonicalize(urin.query());
+            return canonicalQuery.queryParameterList().isEmpty() ? urin.withoutQuery() : urin.withQuery(canonicalQuery);
+        } else {
+            return urin;
+        }
+    }
+
+    /**
+     * Appends the percent encoded canonical form of the given {@code HttpQuery} to the given {@code StringBuilder}, without
+     * creating an intermediate {@code HttpQuery}.
+     *
+     * @param query         the {@code HttpQuery} to canonicalise.
+     * @param stringBuilder the {@code StringBuilder} to append the canonical form to.
+     */
+    public void canonicalizeTo(final HttpQuery query, final StringBuilder stringBuilder) {
+        final List<HttpQuery.QueryParameter> queryParameters = query.queryParameterList();
+        final int[] indices = sortedIndices(queryParameters);
+        for (int i = 0; i < indices.length; i++) {
+            if (i > 0) {
+                stringBuilder.append('&');
+            }
+            stringBuilder.append(queryParameters.get(indices[i]).percentEncoded());
+        }
+    }
+
+    /**
+     * Returns the hash code of the percent encoded canonical form of the given {@code HttpQuery}, without creating it.  The
+     * result is the same as the {@code hashCode()} of the {@code String} that {@link #canonicalizeTo(HttpQuery, StringBuilder)} appends.
+     *
+     * @param query the {@code HttpQuery} to canonicalise.
+     * @return the hash code of the percent encoded canonical form of the given {@code HttpQuery}.
+     */
+    public int canonicalHashCode(final HttpQuery query) {
+        final List<HttpQuery.QueryParameter> queryParameters = query.queryParameterList();
+        final int[] indices = sortedIndices(queryParameters);
+        int result = 0;
+        for (int i = 0; i < indices.length; i++) {
+            if (i > 0) {
+                result = 31 * result + '&';
+            }
+            final String percentEncoded = queryParameters.get(indices[i]).percentEncoded();
+            for (int j = 0; j < percentEncoded.length(); j++) {
+                result = 31 * result + percentEncoded.charAt(j);
+            }
+        }
+        return result;
+    }
+
+    private int[] sortedIndices(final List<HttpQuery.QueryParameter> queryParameters) {
+        int keptCount = 0;
+        for (final HttpQuery.QueryParameter queryParameter : queryParameters) {
+            if (!isRemoved(queryParameter.percentEncoded())) {
+                keptCount++;
+            }
+        }
+        final int[] result = new int[keptCount];
+        int sortedCount = 0;
+        for (int index = 0; index < queryParameters.size(); index++) {
+            final String percentEncoded = queryParameters.get(index).percentEncoded();
+            if (!isRemoved(percentEncoded)) {
+                final int insertionPoint = insertionPoint(queryParameters, result, sortedCount, percentEncoded);
+                System.arraycopy(result, insertionPoint, result, insertionPoint + 1, sortedCount - insertionPoint);
+                result[insertionPoint] = index;
+                sortedCount++;
+            }
+        }
+        return result;
+    }
+
+    private static int insertionPoint(final List<HttpQuery.QueryParameter> queryParameters, final int[] sortedIndices, final int sortedCount, final String percentEncoded) {
+        int low = 0;
+        int high = sortedCount;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (compare(percentEncoded, queryParameters.get(sortedIndices[middle]).percentEncoded()) < 0) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares percent encoded query parameters by name, and then by value.  Neither a percent encoded name nor a percent
+     * encoded value can contain '=', so the first '=' always separates the two, and is treated as coming before any other character.
+     */
+    private static int compare(final String first, final String second) {
+        final int length = Math.min(first.length(), second.length());
+        for (int i = 0; i < length; i++) {
+            final char firstCharacter = first.charAt(i);
+            final char secondCharacter = second.charAt(i);
+            if (firstCharacter != secondCharacter) {
+                if (firstCharacter == '=') {
+                    return -1;
+                } else if (secondCharacter == '=') {
+                    return 1;
+                } else {
+                    return firstCharacter - secondCharacter;
+                }
+            }
+        }
+        return first.length() - second.length();
+    }
+
+    private boolean isRemoved(final String percentEncoded) {
+        final int equalsIndex = percentEncoded.indexOf('=');
+        final int nameLength = equalsIndex == -1 ? percentEncoded.length() : equalsIndex;
+        int hashCode = 0;
+        for (int i = 0; i < nameLength; i++) {
+            hashCode = 31 * hashCode + percentEncoded.charAt(i);
+        }
+        int slot = spread(hashCode) & mask;
+        while (removedEncodedNames[slot] != null) {
+            final String removedEncodedName = removedEncodedNames[slot];
+            if (removedEncodedName.length() == nameLength && removedEncodedName.regionMatches(0, percentEncoded, 0, nameLength)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        } else if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+
+        final QueryCanonicalizer that = (QueryCanonicalizer) object;
+        return removedNames.equals(that.removedNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return removedNames.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCanonicalizer{removedNames=" + removedNames + '}';
+    }
+}
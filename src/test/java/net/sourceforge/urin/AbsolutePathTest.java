@@ -24,7 +24,9 @@ import static net.sourceforge.urin.SegmentBuilder.aNonDotSegment;
 import static net.sourceforge.urin.SegmentBuilder.aSegment;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class AbsolutePathTest {
     @Test
@@ -146,4 +148,81 @@ class AbsolutePathTest {
 
     }
 
+    @Test
+    void childIsEqualToPathWithSegmentAppended() {
+        final Segment<String> segmentOne = aNonDotSegment();
+        final Segment<String> segmentTwo = aNonDotSegment();
+        assertThat(path(segmentOne).child(segmentTwo), equalTo(path(segmentOne, segmentTwo)));
+        assertThat(path(segmentOne).child(segmentTwo).hashCode(), equalTo(path(segmentOne, segmentTwo).hashCode()));
+    }
+
+    @Test
+    void childOfDotSegmentHasTrailingEmptySegment() {
+        final Segment<String> segment = aNonDotSegment();
+        assertThat(path(segment).child(Segment.dot()), equalTo(path(segment, Segment.empty())));
+    }
+
+    @Test
+    void childOfDotDotSegmentIsParentWithTrailingEmptySegment() {
+        final Segment<String> segmentOne = aNonDotSegment();
+        assertThat(path(segmentOne, aNonDotSegment()).child(Segment.dotDot()), equalTo(path(segmentOne, Segment.empty())));
+    }
+
+    @Test
+    void childOfRootPathWithDotDotSegmentIsRootPath() {
+        assertThat(Path.<String>path().child(Segment.dotDot()), equalTo(path()));
+    }
+
+    @Test
+    void rejectsNullChild() {
+        assertThrows(NullPointerException.class, () -> anAbsolutePath().child(null));
+    }
+
+    @Test
+    void parentOfChildIsOriginalPath() {
+        final AbsolutePath<String> path = path(aNonDotSegment(), aNonDotSegment());
+        assertThat(path.child(aNonDotSegment()).parent(), sameInstance(path));
+    }
+
+    @Test
+    void parentRemovesLastSegment() {
+        final Segment<String> segmentOne = aNonDotSegment();
+        assertThat(path(segmentOne, aNonDotSegment()).parent(), equalTo(path(segmentOne)));
+    }
+
+    @Test
+    void parentOfPathWithLeadingEmptySegmentIsRootPath() {
+        assertThat(path(Segment.empty(), aNonDotSegment()).parent(), equalTo(path()));
+    }
+
+    @Test
+    void rootPathDoesNotHaveParent() {
+        assertThat(path().hasParent(), equalTo(false));
+        assertThrows(UnsupportedOperationException.class, () -> path().parent());
+    }
+
+    @Test
+    void nonRootPathHasParent() {
+        assertThat(path(aNonDotSegment()).hasParent(), equalTo(true));
+    }
+
+    @Test
+    void ancestorsAreNearestFirstEndingWithRoot() {
+        final Segment<String> segmentOne = aNonDotSegment();
+        final Segment<String> segmentTwo = aNonDotSegment();
+        assertThat(path(segmentOne, segmentTwo, aNonDotSegment()).ancestors(), contains(path(segmentOne, segmentTwo), path(segmentOne), Path.<String>path()));
+    }
+
+    @Test
+    void rootPathHasNoAncestors() {
+        assertThat(path().ancestors().iterator().hasNext(), equalTo(false));
+    }
+
+    @Test
+    void replacingLastSegmentSharesPrecedingSegments() {
+        final AbsolutePath<String> parent = path(aNonDotSegment(), aNonDotSegment());
+        final Segment<String> replacement = aNonDotSegment();
+        assertThat(parent.child(aNonDotSegment()).replaceLastSegmentWith(asList(replacement)), equalTo(parent.child(replacement)));
+    }
+
 }
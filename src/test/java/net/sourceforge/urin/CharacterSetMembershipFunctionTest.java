@@ -16,6 +16,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static net.sourceforge.urin.MoreRandomStringUtils.aString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -50,4 +52,14 @@ class CharacterSetMembershipFunctionTest {
     void anEmptyStringIsAlwaysAMember() {
         assertTrue(testCharacterSetMembershipFunction("").areMembers(""));
     }
+
+    @Test
+    void flattenedCharacterSetHasTheSameMembersAndDescription() {
+        final CharacterSetMembershipFunction characterSetMembershipFunction = testCharacterSetMembershipFunction("a%~\u00e9\u4e2d");
+        final CharacterSetMembershipFunction flattened = characterSetMembershipFunction.flattened();
+        for (char character = 0; character < 0x5000; character++) {
+            assertThat(flattened.isMember(character), equalTo(characterSetMembershipFunction.isMember(character)));
+        }
+        assertThat(flattened.describe(), equalTo(characterSetMembershipFunction.describe()));
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+class FingerprintTest {
+
+    @Test
+    void asStringIsZeroPaddedLowerCaseHexadecimal() {
+        assertThat(new Fingerprint(0xaL, 0xabcdef0123456789L).asString(), equalTo("000000000000000aabcdef0123456789"));
+    }
+
+    @Test
+    void fingerprintsWithTheSameBitsAreEqual() {
+        assertThat(new Fingerprint(1L, 2L), equalTo(new Fingerprint(1L, 2L)));
+        assertThat(new Fingerprint(1L, 2L).hashCode(), equalTo(new Fingerprint(1L, 2L).hashCode()));
+    }
+
+    @Test
+    void fingerprintsWithDifferentBitsAreNotEqual() {
+        assertThat(new Fingerprint(1L, 2L), not(equalTo(new Fingerprint(2L, 1L))));
+    }
+
+    @Test
+    void toStringFormatIsCorrect() {
+        assertThat(new Fingerprint(0L, 1L).toString(), equalTo("Fingerprint{value='00000000000000000000000000000001'}"));
+    }
+}
@@ -19,6 +19,7 @@ import static net.sourceforge.urin.FragmentBuilder.aFragment;
 import static net.sourceforge.urin.MoreRandomStringUtils.aString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class FragmentTest {
 
@@ -43,4 +44,22 @@ class FragmentTest {
         final String value = aString();
         assertThat(fragment(value).value(), equalTo(value));
     }
+
+    @Test
+    void encodedFragmentIsRenderedAsGiven() throws Exception {
+        assertThat(Fragment.encodedFragment("a%41%2Fb").asString(), equalTo("a%41%2Fb"));
+    }
+
+    @Test
+    void encodedFragmentIsEqualToFragmentOfDecodedValue() throws Exception {
+        assertThat(Fragment.encodedFragment(".%23.%5B.%5D.%20."), equalTo(fragment(".#.[.]. .")));
+        assertThat(Fragment.encodedFragment(".%23.%5B.%5D.%20.").value(), equalTo(".#.[.]. ."));
+    }
+
+    @Test
+    void rejectsInvalidEncodedFragment() {
+        assertThrows(ParseException.class, () -> Fragment.encodedFragment("a#b"));
+        assertThrows(ParseException.class, () -> Fragment.encodedFragment("a%zz"));
+    }
+
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.sourceforge.urin.Fragment.STRING_FRAGMENT_MAKING_DECODER;
+import static net.sourceforge.urin.InterningPool.interningPool;
+import static net.sourceforge.urin.Query.STRING_QUERY_MAKING_DECODER;
+import static net.sourceforge.urin.Scheme.scheme;
+import static net.sourceforge.urin.Segment.STRING_SEGMENT_MAKING_DECODER;
+import static net.sourceforge.urin.scheme.http.HttpQuery.httpQueryMakingDecoder;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InterningPoolTest {
+
+    @Test
+    void returnsTheSameInstanceForTheSameEncodedCharacters() throws Exception {
+        final InterningPool<String> interningPool = interningPool(16);
+        final AtomicInteger makeCount = new AtomicInteger();
+        final Maker<String> maker = encoded -> {
+            makeCount.incrementAndGet();
+            return new String(encoded.toCharArray());
+        };
+        final String first = interningPool.intern("a/foo/b", 2, 5, maker);
+        final String second = interningPool.intern("x/foo", 2, 5, maker);
+        assertThat(first, equalTo("foo"));
+        assertThat(second, sameInstance(first));
+        assertThat(makeCount.get(), equalTo(1));
+        assertThat(interningPool.intern("fop", 0, 3, maker), equalTo("fop"));
+        assertThat(makeCount.get(), equalTo(2));
+    }
+
+    @Test
+    void countsHitsAndMisses() throws Exception {
+        final InterningPool<String> interningPool = interningPool(16);
+        assertThat(interningPool.hitRate(), equalTo(0.0));
+        interningPool.intern("foo", 0, 3, String::new);
+        interningPool.intern("foo", 0, 3, String::new);
+        interningPool.intern("foo", 0, 3, String::new);
+        interningPool.intern("bar", 0, 3, String::new);
+        assertThat(interningPool.hitCount(), equalTo(2L));
+        assertThat(interningPool.missCount(), equalTo(2L));
+        assertThat(interningPool.hitRate(), equalTo(0.5));
+        assertThat(interningPool.estimatedBytesSaved(), greaterThan(0L));
+    }
+
+    @Test
+    void holdsNoMoreThanItsCapacity() throws Exception {
+        final InterningPool<String> interningPool = interningPool(1);
+        final String foo = interningPool.intern("foo", 0, 3, String::new);
+        interningPool.intern("bar", 0, 3, String::new);
+        assertThat(interningPool.intern("foo", 0, 3, String::new), not(sameInstance(foo)));
+        assertThat(interningPool.hitCount(), equalTo(0L));
+    }
+
+    @Test
+    void internsUsingATransformer() throws Exception {
+        final InterningPool<String> interningPool = interningPool(16);
+        final Transformer<String, String> transformer = new Transformer<String, String>() {
+            @Override
+            public String encode(final String value) {
+                return value;
+            }
+
+            @Override
+            public String decode(final String encoded) {
+                return encoded.toUpperCase();
+            }
+        };
+        assertThat(interningPool.intern("foo", 0, 3, transformer), equalTo("FOO"));
+        assertThat(interningPool.intern("foo", 0, 3, transformer), sameInstance(interningPool.intern("foo", 0, 3, transformer)));
+    }
+
+    @Test
+    void sharesSegmentsParsedByAnInterningScheme() throws Exception {
+        final InterningPool<Segment<String>> segmentPool = interningPool(64);
+        final Scheme<String, Query<String>, Fragment<String>> scheme = new Scheme.GenericScheme<>("foo", STRING_SEGMENT_MAKING_DECODER.interning(segmentPool), STRING_QUERY_MAKING_DECODER, STRING_FRAGMENT_MAKING_DECODER);
+        final Urin<String, Query<String>, Fragment<String>> first = scheme.parseUrin("foo://example.com/a%20b/c");
+        final Urin<String, Query<String>, Fragment<String>> second = scheme.parseUrin("foo://example.com/a%20b/c");
+        assertThat(first, equalTo(scheme("foo").parseUrin("foo://example.com/a%20b/c")));
+        assertThat(second.path().segments().get(0), sameInstance(first.path().segments().get(0)));
+        assertThat(second.path().segments().get(1), sameInstance(first.path().segments().get(1)));
+        assertThat(segmentPool.hitCount(), equalTo(2L));
+    }
+
+    @Test
+    void sharesQueryParameterNamesParsedByAnInterningScheme() throws Exception {
+        final InterningPool<String> namePool = interningPool(64);
+        final Scheme<String, HttpQuery, Fragment<String>> scheme = new Scheme.GenericScheme<>("http", STRING_SEGMENT_MAKING_DECODER, httpQueryMakingDecoder(namePool), STRING_FRAGMENT_MAKING_DECODER);
+        final HttpQuery first = scheme.parseUrin("http://example.com/?na%20me=a&other").query();
+        final HttpQuery second = scheme.parseUrin("http://example.com/?na%20me=b").query();
+        assertThat(first.iterator().next().name(), equalTo("na me"));
+        assertThat(second.iterator().next().name(), sameInstance(first.iterator().next().name()));
+        assertThat(second.iterator().next().value(), equalTo("b"));
+        assertThat(namePool.hitCount(), equalTo(1L));
+    }
+
+    @Test
+    void rejectsInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> interningPool(0));
+        assertThrows(IllegalArgumentException.class, () -> interningPool(-1));
+        assertThrows(IllegalArgumentException.class, () -> interningPool((1 << 30) + 1));
+    }
+
+    @Test
+    void rejectsNull() {
+        assertThrows(NullPointerException.class, () -> STRING_SEGMENT_MAKING_DECODER.interning(null));
+        assertThrows(NullPointerException.class, () -> httpQueryMakingDecoder(null));
+    }
+
+    @Test
+    void hasToString() throws Exception {
+        final InterningPool<String> interningPool = interningPool(3);
+        interningPool.intern("foo", 0, 3, String::new);
+        interningPool.intern("foo", 0, 3, String::new);
+        assertThat(interningPool.toString(), equalTo("InterningPool{capacity=4, hitCount=1, missCount=1, estimatedBytesSaved=67}"));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static net.sourceforge.urin.Path.path;
+import static net.sourceforge.urin.Path.rootlessPath;
+import static net.sourceforge.urin.PathRouter.pathRouter;
+import static net.sourceforge.urin.PathRouter.route;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PathRouterTest {
+    @Test
+    void matchesLiteralRoute() {
+        final PathRouter<String> pathRouter = pathRouter(route("/users", "users"), route("/orders", "orders"));
+        assertThat(pathRouter.match(path("users")).map(PathRouter.Match::value), equalTo(Optional.of("users")));
+        assertThat(pathRouter.match(path("orders")).map(PathRouter.Match::value), equalTo(Optional.of("orders")));
+        assertThat(pathRouter.match(path("products")), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void matchesRootRoute() {
+        final PathRouter<String> pathRouter = pathRouter(route("/", "root"));
+        assertThat(pathRouter.match(path()).map(PathRouter.Match::value), equalTo(Optional.of("root")));
+        assertThat(pathRouter.match(Path.<String>rootlessPath()).map(PathRouter.Match::value), equalTo(Optional.of("root")));
+        assertThat(pathRouter.matchEncoded("/").map(PathRouter.Match::value), equalTo(Optional.of("root")));
+        assertThat(pathRouter.matchEncoded("").map(PathRouter.Match::value), equalTo(Optional.of("root")));
+    }
+
+    @Test
+    void doesNotMatchNonEmptyRootlessPath() {
+        assertThat(pathRouter(route("/users", "users")).match(rootlessPath("users")), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void capturesVariables() {
+        final PathRouter.Match<String> match = pathRouter(route("/users/{userId}/orders/{orderId}", "order")).match(path("users", "1234", "orders", "56")).orElseThrow(AssertionError::new);
+        assertThat(match.value(), equalTo("order"));
+        assertThat(match.variable("userId"), equalTo("1234"));
+        assertThat(match.variable("orderId"), equalTo("56"));
+        final Map<String, String> expectedVariables = new LinkedHashMap<>();
+        expectedVariables.put("userId", "1234");
+        expectedVariables.put("orderId", "56");
+        assertThat(match.variables(), equalTo(expectedVariables));
+    }
+
+    @Test
+    void rejectsRequestForUnknownVariable() {
+        final PathRouter.Match<String> match = pathRouter(route("/users/{userId}", "user")).match(path("users", "1234")).orElseThrow(AssertionError::new);
+        assertThrows(IllegalArgumentException.class, () -> match.variable("orderId"));
+    }
+
+    @Test
+    void literalTakesPrecedenceOverVariableWhichTakesPrecedenceOverCatchAll() {
+        final PathRouter<String> pathRouter = pathRouter(route("/users/{path*}", "catch-all"), route("/users/{userId}", "variable"), route("/users/me", "literal"));
+        assertThat(pathRouter.match(path("users", "me")).map(PathRouter.Match::value), equalTo(Optional.of("literal")));
+        assertThat(pathRouter.match(path("users", "1234")).map(PathRouter.Match::value), equalTo(Optional.of("variable")));
+        assertThat(pathRouter.match(path("users", "1234", "orders")).map(PathRouter.Match::value), equalTo(Optional.of("catch-all")));
+    }
+
+    @Test
+    void backtracksWhenLiteralBranchDoesNotMatch() {
+        final PathRouter<String> pathRouter = pathRouter(route("/users/me/settings", "settings"), route("/users/{userId}/orders", "orders"));
+        final PathRouter.Match<String> match = pathRouter.match(path("users", "me", "orders")).orElseThrow(AssertionError::new);
+        assertThat(match.value(), equalTo("orders"));
+        assertThat(match.variable("userId"), equalTo("me"));
+    }
+
+    @Test
+    void catchAllCapturesEncodedRemainder() {
+        final PathRouter<String> pathRouter = pathRouter(route("/files/{path*}", "files"));
+        assertThat(pathRouter.match(path("files", "a b", "c/d")).map(match -> match.variable("path")), equalTo(Optional.of("a%20b/c%2Fd")));
+        assertThat(pathRouter.matchEncoded("/files/a%20b/c%2Fd").map(match -> match.variable("path")), equalTo(Optional.of("a%20b/c%2Fd")));
+        assertThat(pathRouter.match(path("files")), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void matchesDecodedValuesOfSegments() {
+        final PathRouter<String> pathRouter = pathRouter(route("/caf%C3%A9/{name}", "café"));
+        final PathRouter.Match<String> match = pathRouter.match(path("café", "a/b")).orElseThrow(AssertionError::new);
+        assertThat(match.value(), equalTo("café"));
+        assertThat(match.variable("name"), equalTo("a/b"));
+    }
+
+    @Test
+    void matchesEncodedSegmentsWithoutDecoding() {
+        final PathRouter<String> pathRouter = pathRouter(route("/caf%C3%A9/{name}", "café"));
+        final PathRouter.Match<String> match = pathRouter.matchEncoded("/caf%C3%A9/a%2Fb").orElseThrow(AssertionError::new);
+        assertThat(match.value(), equalTo("café"));
+        assertThat(match.variable("name"), equalTo("a%2Fb"));
+        assertThat(pathRouter.matchEncoded("caf%C3%A9/a"), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void matchesTrailingEmptySegment() {
+        final PathRouter<String> pathRouter = pathRouter(route("/users/", "trailing"), route("/users", "plain"));
+        assertThat(pathRouter.match(path("users", "")).map(PathRouter.Match::value), equalTo(Optional.of("trailing")));
+        assertThat(pathRouter.matchEncoded("/users/").map(PathRouter.Match::value), equalTo(Optional.of("trailing")));
+        assertThat(pathRouter.matchEncoded("/users").map(PathRouter.Match::value), equalTo(Optional.of("plain")));
+    }
+
+    @Test
+    void matchesManyLiteralSiblings() {
+        final PathRouter<Integer> pathRouter = pathRouter(route("/a", 0), route("/b", 1), route("/c", 2), route("/d", 3), route("/e", 4), route("/f", 5), route("/g", 6), route("/h", 7));
+        for (int i = 0; i < 8; i++) {
+            final String name = String.valueOf((char) ('a' + i));
+            assertThat(pathRouter.match(path(name)).map(PathRouter.Match::value), equalTo(Optional.of(i)));
+            assertThat(pathRouter.matchEncoded("/" + name).map(PathRouter.Match::value), equalTo(Optional.of(i)));
+        }
+    }
+
+    @Test
+    void rejectsInvalidTemplates() {
+        assertThrows(IllegalArgumentException.class, () -> route("users", "value"));
+        assertThrows(IllegalArgumentException.class, () -> route("", "value"));
+        assertThrows(IllegalArgumentException.class, () -> route("/{}", "value"));
+        assertThrows(IllegalArgumentException.class, () -> route("/{a-b}", "value"));
+        assertThrows(IllegalArgumentException.class, () -> route("/{a}/{a}", "value"));
+        assertThrows(IllegalArgumentException.class, () -> route("/{a*}/b", "value"));
+        assertThrows(IllegalArgumentException.class, () -> route("/../b", "value"));
+        assertThrows(IllegalArgumentException.class, () -> route("/%zz", "value"));
+    }
+
+    @Test
+    void rejectsRoutesMatchingTheSamePaths() {
+        assertThrows(IllegalArgumentException.class, () -> pathRouter(route("/users/{a}", "first"), route("/users/{b}", "second")));
+    }
+
+    @Test
+    void rejectsNullArguments() {
+        assertThrows(NullPointerException.class, () -> route(null, "value"));
+        assertThrows(NullPointerException.class, () -> route("/", null));
+    }
+
+    @Test
+    void pathRoutersWithTheSameRoutesAreEqual() {
+        assertThat(pathRouter(route("/a/{b}", "value")), equalTo(pathRouter(route("/a/{b}", "value"))));
+        assertThat(pathRouter(route("/a/{b}", "value")).hashCode(), equalTo(pathRouter(route("/a/{b}", "value")).hashCode()));
+    }
+
+    @Test
+    void pathRouterToStringIsCorrect() {
+        assertThat(pathRouter(route("/a/{b}", "value")).toString(), equalTo("PathRouter{routes=[Route{template='/a/{b}', value=value}]}"));
+    }
+}
@@ -16,6 +16,7 @@ import static net.sourceforge.urin.CharacterSets.QUERY_AND_FRAGMENT_CHARACTERS;
 import static net.sourceforge.urin.Query.STRING_QUERY_MAKING_DECODER;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class QueryTest {
 
@@ -39,4 +40,27 @@ class QueryTest {
         assertThat(Query.parseQuery(".%23.%5B.%5D.%20.", STRING_QUERY_MAKING_DECODER), equalTo(Query.query(".#.[.]. .")));
     }
 
+    @Test
+    void encodedQueryIsRenderedAsGiven() throws Exception {
+        assertThat(Query.encodedQuery("a%41%2Fb").asString(), equalTo("a%41%2Fb"));
+    }
+
+    @Test
+    void encodedQueryDecodesValue() throws Exception {
+        assertThat(Query.encodedQuery(".%23.%5B.%5D.%20.").value(), equalTo(".#.[.]. ."));
+    }
+
+    @Test
+    void encodedQueryIsEqualToQueryOfDecodedValue() throws Exception {
+        assertThat(Query.encodedQuery("a%41"), equalTo(Query.query("aA")));
+        assertThat(Query.encodedQuery("a%41").hashCode(), equalTo(Query.query("aA").hashCode()));
+    }
+
+    @Test
+    void rejectsInvalidEncodedQuery() {
+        assertThrows(ParseException.class, () -> Query.encodedQuery("a#b"));
+        assertThrows(ParseException.class, () -> Query.encodedQuery("a%4"));
+        assertThrows(ParseException.class, () -> Query.encodedQuery("a%zz"));
+    }
+
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static net.sourceforge.urin.ResolvedBase.resolvedBase;
+import static net.sourceforge.urin.Scheme.scheme;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResolvedBaseTest {
+
+    private static final List<String> RFC_3986_REFERENCES = asList(
+            "g:h", "g", "./g", "g/", "/g", "//g", "?y", "g?y", "#s", "g#s", "g?y#s", ";x", "g;x", "g;x?y#s", "", ".", "./", "..", "../", "../g", "../..", "../../", "../../g",
+            "../../../g", "../../../../g", "/./g", "/../g", "g.", ".g", "g..", "..g", "./../g", "./g/.", "g/./h", "g/../h", "g;x=1/./y", "g;x=1/../y", "g?y/./x", "g?y/../x", "g#s/./x", "g#s/../x"
+    );
+
+    @Test
+    void resolvesStringsTheSameAsUrinResolve() throws Exception {
+        final Urin<String, HttpQuery, Fragment<String>> base = HTTP.parseUrin("http://a/b/c/d;p?q");
+        final ResolvedBase<String, HttpQuery, Fragment<String>> resolvedBase = resolvedBase(HTTP, base);
+        for (final String reference : RFC_3986_REFERENCES) {
+            assertThat(reference, resolvedBase.resolve(reference), equalTo(base.resolve(HTTP.parseUrinReference(reference))));
+        }
+    }
+
+    @Test
+    void resolvesUrinReferencesTheSameAsUrinResolve() throws Exception {
+        final Urin<String, HttpQuery, Fragment<String>> base = HTTP.parseUrin("http://a/b/c/d;p?q#f");
+        final ResolvedBase<String, HttpQuery, Fragment<String>> resolvedBase = resolvedBase(HTTP, base);
+        for (final String reference : RFC_3986_REFERENCES) {
+            final UrinReference<String, HttpQuery, Fragment<String>> urinReference = HTTP.parseUrinReference(reference);
+            assertThat(reference, resolvedBase.resolve(urinReference), equalTo(base.resolve(urinReference)));
+        }
+    }
+
+    @Test
+    void resolvesAgainstBaseWithoutAuthorityTheSameAsUrinResolve() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("foo");
+        final Urin<String, Query<String>, Fragment<String>> base = scheme.parseUrin("foo:/b/c/d;p?q");
+        final ResolvedBase<String, Query<String>, Fragment<String>> resolvedBase = resolvedBase(scheme, base);
+        for (final String reference : RFC_3986_REFERENCES) {
+            assertThat(reference, resolvedBase.resolve(reference), equalTo(base.resolve(scheme.parseUrinReference(reference))));
+        }
+    }
+
+    @Test
+    void resolvesRelativePathsAgainstMergePrefix() throws Exception {
+        final ResolvedBase<String, HttpQuery, Fragment<String>> resolvedBase = resolvedBase(HTTP, HTTP.parseUrin("http://a/b/c/d;p?q"));
+        assertThat(resolvedBase.resolve("../g?y#s").asString(), equalTo("http://a/b/g?y#s"));
+        assertThat(resolvedBase.resolve("g%20h").asString(), equalTo("http://a/b/c/g%20h"));
+    }
+
+    @Test
+    void resolveAllResolvesEachStringInOrder() throws Exception {
+        final Urin<String, HttpQuery, Fragment<String>> base = HTTP.parseUrin("http://a/b/c/d;p?q");
+        final List<Urin<String, HttpQuery, Fragment<String>>> expected = new ArrayList<>();
+        for (final String reference : RFC_3986_REFERENCES) {
+            expected.add(base.resolve(HTTP.parseUrinReference(reference)));
+        }
+        assertThat(resolvedBase(HTTP, base).resolveAll(RFC_3986_REFERENCES), equalTo(expected));
+    }
+
+    @Test
+    void rejectsInvalidReference() throws Exception {
+        final ResolvedBase<String, HttpQuery, Fragment<String>> resolvedBase = resolvedBase(HTTP, HTTP.parseUrin("http://a/b/c/d;p?q"));
+        assertThrows(ParseException.class, () -> resolvedBase.resolve("g%zz"));
+        assertThrows(ParseException.class, () -> resolvedBase.resolve("g?%zz"));
+        assertThrows(ParseException.class, () -> resolvedBase.resolve("g#%zz"));
+        assertThrows(ParseException.class, () -> resolvedBase.resolveAll(asList("g", "g%zz")));
+    }
+
+    @Test
+    void rejectsNullArguments() throws Exception {
+        assertThrows(NullPointerException.class, () -> resolvedBase(null, HTTP.parseUrin("http://a/b")));
+        assertThrows(NullPointerException.class, () -> resolvedBase(HTTP, null));
+    }
+
+    @Test
+    void resolvedBasesWithTheSameSchemeAndBaseAreEqual() throws Exception {
+        assertThat(resolvedBase(HTTP, HTTP.parseUrin("http://a/b")), equalTo(resolvedBase(HTTP, HTTP.parseUrin("http://a/b"))));
+        assertThat(resolvedBase(HTTP, HTTP.parseUrin("http://a/b")).hashCode(), equalTo(resolvedBase(HTTP, HTTP.parseUrin("http://a/b")).hashCode()));
+    }
+
+    @Test
+    void resolvedBaseToStringIsCorrect() throws Exception {
+        assertThat(resolvedBase(HTTP, HTTP.parseUrin("http://a/b")).toString(), equalTo("ResolvedBase{scheme=" + HTTP + ", base=http://a/b}"));
+    }
+}
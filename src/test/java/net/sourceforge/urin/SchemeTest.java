@@ -20,8 +20,10 @@ import static net.sourceforge.urin.CharacterSets.DIGIT;
 import static net.sourceforge.urin.HostBuilder.aHost;
 import static net.sourceforge.urin.PortBuilder.aPort;
 import static net.sourceforge.urin.PortBuilder.aPortDifferentTo;
+import static net.sourceforge.urin.RelativeReferenceBuilder.anUnpollutedRelativeReference;
 import static net.sourceforge.urin.Scheme.scheme;
 import static net.sourceforge.urin.SchemeBuilder.*;
+import static net.sourceforge.urin.UrinBuilder.anUnpollutedUrin;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -246,4 +248,82 @@ class SchemeTest {
         assertThat(scheme(schemeName, aPort()).removeDefaultPort(), equalTo(scheme(schemeName)));
     }
 
+    @Test
+    void equivalentUriReferencesAreEquivalent() {
+        assertThat(Scheme.equivalent("HTTP://Example.COM/a", "http://example.com/a"), equalTo(true));
+        assertThat(Scheme.equivalent("http://example.com/%7efoo%2a", "http://example.com/~foo%2A"), equalTo(true));
+        assertThat(Scheme.equivalent("http://example.com:80/a", "http://example.com/a"), equalTo(true));
+        assertThat(Scheme.equivalent("https://example.com:443", "https://example.com:/"), equalTo(true));
+        assertThat(Scheme.equivalent("http://example.com:080/", "http://example.com/"), equalTo(true));
+        assertThat(Scheme.equivalent("foo://example.com:08080/", "foo://example.com:8080/"), equalTo(true));
+        assertThat(Scheme.equivalent("http://example.com/a/./b/../c", "http://example.com/a/c"), equalTo(true));
+        assertThat(Scheme.equivalent("http://example.com/a/..", "http://example.com"), equalTo(true));
+        assertThat(Scheme.equivalent("foo://user@[::1]:8080?q#f", "FOO://user@[::1]:8080/?q#f"), equalTo(true));
+        assertThat(Scheme.equivalent("../a/b?%41#%62", "../a/b?A#b"), equalTo(true));
+        assertThat(Scheme.equivalent("http://example.com/\u0169?\ud83d\ude00", "http://example.com/%C5%A9?%f0%9f%98%80"), equalTo(true));
+    }
+
+    @Test
+    void differentUriReferencesAreNotEquivalent() {
+        assertThat(Scheme.equivalent("http://example.com/A", "http://example.com/a"), equalTo(false));
+        assertThat(Scheme.equivalent("http://example.com/%2F", "http://example.com//"), equalTo(false));
+        assertThat(Scheme.equivalent("http://example.com:8080/", "http://example.com/"), equalTo(false));
+        assertThat(Scheme.equivalent("ftp://example.com:80/", "ftp://example.com/"), equalTo(false));
+        assertThat(Scheme.equivalent("http://User@example.com/", "http://user@example.com/"), equalTo(false));
+        assertThat(Scheme.equivalent("http://example.com/?", "http://example.com/"), equalTo(false));
+        assertThat(Scheme.equivalent("http://example.com/#", "http://example.com/"), equalTo(false));
+        assertThat(Scheme.equivalent("foo:", "foo:/"), equalTo(false));
+        assertThat(Scheme.equivalent("a/../b", "b"), equalTo(false));
+        assertThat(Scheme.equivalent("//example.com/a", "http://example.com/a"), equalTo(false));
+        assertThat(Scheme.equivalent("http://example.com/\u0169", "http://example.com/i"), equalTo(false));
+        assertThat(Scheme.equivalent("http://example.com/\u0169", "http://example.com/%69"), equalTo(false));
+    }
+
+    @Test
+    void equivalentIsConsistentWithIsEquivalentToOfParsedUriReferences() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("http", Port.port(80));
+        final String[] uriReferences = {
+                "http://example.com", "http://example.com/", "HTTP://EXAMPLE.com:80/", "http://example.com:8080/", "http://a@example.com/",
+                "http://example.com/a/./b", "http://example.com/a/b/", "http://example.com/a/c/../b", "http://example.com/%61/b",
+                "http://example.com/a/b?%7E#x", "http://example.com/a/b?~#x", "/a/b", "/a/./b", "//example.com/a/b", "a/b",
+                "http://example.com:/", "http://example.com:080/", "http://example.com:08080/", "//example.com:/a/b"
+        };
+        for (final String first : uriReferences) {
+            for (final String second : uriReferences) {
+                assertThat(first + " " + second, Scheme.equivalent(first, second), equalTo(scheme.parseUrinReference(first).isEquivalentTo(scheme.parseUrinReference(second))));
+            }
+        }
+    }
+
+    @Test
+    void percentEncodedDotSegmentsAreNotDotSegments() {
+        assertThat(Scheme.equivalent("http://example.com/a/%2E%2E/b", "http://example.com/b"), equalTo(false));
+        assertThat(Scheme.equivalent("http://example.com/a/%2E%2E/b", "http://example.com/a/.%2e/b"), equalTo(true));
+        assertThat(Scheme.equivalent("a/%2E/b", "a/./b"), equalTo(false));
+        assertThat(new Canonicaliser().canonicalise("http://example.com/a/%2e%2E/b/%2E").toString(), equalTo("http://example.com/a/%2E%2E/b/%2E"));
+        assertThat(new Canonicaliser().canonicalise("http://example.com/a/%2E./../b").toString(), equalTo("http://example.com/a/b"));
+    }
+
+    @Test
+    void canonicalFormIsCanonicalAndEquivalentToItsSource() throws Exception {
+        final Canonicaliser canonicaliser = new Canonicaliser();
+        for (int i = 0; i < 2000; i++) {
+            final UrinReference<String, Query<String>, Fragment<String>> urinReference = i % 2 == 0 ? anUnpollutedUrin() : anUnpollutedRelativeReference();
+            final String uriReference = urinReference.asString();
+            final String canonicalForm = canonicaliser.canonicalise(uriReference).toString();
+            assertThat(uriReference, canonicaliser.canonicalise(canonicalForm).toString(), equalTo(canonicalForm));
+            assertThat(uriReference, Scheme.equivalent(uriReference, canonicalForm), equalTo(true));
+            assertThat(uriReference, canonicaliser.canonicalise(urinReference).toString(), equalTo(canonicalForm));
+            final StringBuilder streamedCanonicalForm = new StringBuilder();
+            CanonicalCharacters.appendCanonicalTo(urinReference, AsciiOutput.stringBuilderOutput(streamedCanonicalForm));
+            assertThat(uriReference, streamedCanonicalForm.toString(), equalTo(canonicalForm));
+        }
+    }
+
+    @Test
+    void equivalentRejectsNullArguments() {
+        assertThrows(NullPointerException.class, () -> Scheme.equivalent(null, "a"));
+        assertThrows(NullPointerException.class, () -> Scheme.equivalent("a", null));
+    }
+
 }
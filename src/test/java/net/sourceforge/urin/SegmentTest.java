@@ -12,6 +12,9 @@ package net.sourceforge.urin;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Locale;
+import java.util.UUID;
+
 import static net.sourceforge.urin.CharacterSets.P_CHARS;
 import static net.sourceforge.urin.MoreRandomStringUtils.aString;
 import static net.sourceforge.urin.Segment.*;
@@ -135,4 +138,84 @@ class SegmentTest {
         final String value = aString();
         assertThat(segment(value).value(), equalTo(value));
     }
+
+    @Test
+    void longSegmentAsStringIsDecimalDigits() {
+        assertThat(longSegment(1234567890123L).asString(), equalTo("1234567890123"));
+        assertThat(longSegment(-42).asString(), equalTo("-42"));
+        assertThat(longSegment(Long.MIN_VALUE).asString(), equalTo("-9223372036854775808"));
+    }
+
+    @Test
+    void parsesLongSegment() throws Exception {
+        assertThat(parse("1234567890123", LONG_SEGMENT_MAKING_DECODER), equalTo(longSegment(1234567890123L)));
+        assertThat(parse("-9223372036854775808", LONG_SEGMENT_MAKING_DECODER).value(), equalTo(Long.MIN_VALUE));
+        assertThat(parse("9223372036854775807", LONG_SEGMENT_MAKING_DECODER).value(), equalTo(Long.MAX_VALUE));
+    }
+
+    @Test
+    void rejectsInvalidLongSegment() {
+        assertThrows(ParseException.class, () -> parse("%31", LONG_SEGMENT_MAKING_DECODER));
+        assertThrows(ParseException.class, () -> parse("+1", LONG_SEGMENT_MAKING_DECODER));
+        assertThrows(ParseException.class, () -> parse("-", LONG_SEGMENT_MAKING_DECODER));
+        assertThrows(ParseException.class, () -> parse("12a", LONG_SEGMENT_MAKING_DECODER));
+        assertThrows(ParseException.class, () -> parse("9223372036854775808", LONG_SEGMENT_MAKING_DECODER));
+        assertThrows(ParseException.class, () -> parse("-9223372036854775809", LONG_SEGMENT_MAKING_DECODER));
+        assertThrows(ParseException.class, () -> parse("99999999999999999999", LONG_SEGMENT_MAKING_DECODER));
+    }
+
+    @Test
+    void uuidSegmentAsStringIsStandardForm() {
+        final UUID uuid = UUID.randomUUID();
+        assertThat(uuidSegment(uuid).asString(), equalTo(uuid.toString()));
+    }
+
+    @Test
+    void parsesUuidSegment() throws Exception {
+        final UUID uuid = UUID.randomUUID();
+        assertThat(parse(uuid.toString(), UUID_SEGMENT_MAKING_DECODER), equalTo(uuidSegment(uuid)));
+        assertThat(parse(uuid.toString().toUpperCase(Locale.ROOT), UUID_SEGMENT_MAKING_DECODER), equalTo(uuidSegment(uuid)));
+    }
+
+    @Test
+    void rejectsInvalidUuidSegment() {
+        assertThrows(ParseException.class, () -> parse("123e4567-e89b-12d3-a456-42661417400", UUID_SEGMENT_MAKING_DECODER));
+        assertThrows(ParseException.class, () -> parse("123e4567-e89b-12d3-a456-42661417400g", UUID_SEGMENT_MAKING_DECODER));
+        assertThrows(ParseException.class, () -> parse("123e4567-e89b-12d3-a456x426614174000", UUID_SEGMENT_MAKING_DECODER));
+        assertThrows(ParseException.class, () -> parse("%31%32%33e4567-e89b-12d3-a456-426614174000", UUID_SEGMENT_MAKING_DECODER));
+    }
+
+    @Test
+    void schemeWithLongSegmentsParsesPath() throws Exception {
+        final Scheme<Long, Query<String>, Fragment<String>> scheme = new Scheme.GenericScheme<>("ids", LONG_SEGMENT_MAKING_DECODER, Query.STRING_QUERY_MAKING_DECODER, Fragment.STRING_FRAGMENT_MAKING_DECODER);
+        final Urin<Long, Query<String>, Fragment<String>> urin = scheme.parseUrin("ids:/12/-3");
+        assertThat(urin.path(), equalTo(Path.path(longSegment(12), longSegment(-3))));
+        assertThat(urin.asString(), equalTo("ids:/12/-3"));
+    }
+
+    @Test
+    void encodedSegmentIsRenderedAsGiven() throws Exception {
+        assertThat(encodedSegment("a%41%3Ab").asString(), equalTo("a%41%3Ab"));
+    }
+
+    @Test
+    void encodedSegmentIsEqualToSegmentOfDecodedValue() throws Exception {
+        assertThat(encodedSegment(".%23.%5B.%5D.%20."), equalTo(segment(".#.[.]. .")));
+        assertThat(encodedSegment(".%23.%5B.%5D.%20.").value(), equalTo(".#.[.]. ."));
+        assertThat(encodedSegment("%2E"), equalTo(segment(".")));
+    }
+
+    @Test
+    void encodedSegmentOfDotsAndEmptyStringAreSpecialSegments() throws Exception {
+        assertThat(encodedSegment("."), equalTo(dot()));
+        assertThat(encodedSegment(".."), equalTo(dotDot()));
+        assertThat(encodedSegment(""), equalTo(empty()));
+    }
+
+    @Test
+    void rejectsInvalidEncodedSegment() {
+        assertThrows(ParseException.class, () -> encodedSegment("a/b"));
+        assertThrows(ParseException.class, () -> encodedSegment("a%zz"));
+    }
+
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static net.sourceforge.urin.RelativeReferenceBuilder.anUnpollutedRelativeReference;
+import static net.sourceforge.urin.Scheme.scheme;
+import static net.sourceforge.urin.SortedUrinDictionary.readSortedUrinDictionary;
+import static net.sourceforge.urin.SortedUrinDictionary.sortedUrinDictionary;
+import static net.sourceforge.urin.UrinBuilder.anUnpollutedUrin;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SortedUrinDictionaryTest {
+
+    private static SortedUrinDictionary<String, HttpQuery, Fragment<String>> httpDictionary(final String... uriReferences) throws ParseException {
+        final List<UrinReference<String, HttpQuery, Fragment<String>>> urinReferences = new ArrayList<>();
+        for (final String uriReference : uriReferences) {
+            urinReferences.add(HTTP.parseUrinReference(uriReference));
+        }
+        return sortedUrinDictionary(HTTP, urinReferences);
+    }
+
+    private static List<UrinReference<String, Query<String>, Fragment<String>>> sortedRandomUrinReferences(final int count) {
+        final TreeMap<String, UrinReference<String, Query<String>, Fragment<String>>> byCanonicalForm = new TreeMap<>();
+        for (int i = 0; i < count; i++) {
+            final UrinReference<String, Query<String>, Fragment<String>> urinReference = i % 2 == 0 ? anUnpollutedUrin() : anUnpollutedRelativeReference();
+            byCanonicalForm.put(new Canonicaliser().canonicalise(urinReference).toString(), urinReference);
+        }
+        return new ArrayList<>(byCanonicalForm.values());
+    }
+
+    @Test
+    void containsTheUrinReferencesItWasMadeFrom() {
+        final List<UrinReference<String, Query<String>, Fragment<String>>> urinReferences = sortedRandomUrinReferences(500);
+        final SortedUrinDictionary<String, Query<String>, Fragment<String>> sortedUrinDictionary = sortedUrinDictionary(scheme("foo"), urinReferences);
+        assertThat(sortedUrinDictionary.size(), equalTo(urinReferences.size()));
+        for (int i = 0; i < urinReferences.size(); i++) {
+            final UrinReference<String, Query<String>, Fragment<String>> urinReference = urinReferences.get(i);
+            assertThat(urinReference.asString(), sortedUrinDictionary.contains(urinReference), equalTo(true));
+            assertThat(urinReference.asString(), sortedUrinDictionary.contains(urinReference.asString()), equalTo(true));
+            assertThat(urinReference.asString(), sortedUrinDictionary.rank(urinReference), equalTo(i));
+            assertThat(urinReference.asString(), Scheme.equivalent(sortedUrinDictionary.select(i).asString(), urinReference.asString()), equalTo(true));
+        }
+    }
+
+    @Test
+    void iteratesInCanonicalOrder() {
+        final List<UrinReference<String, Query<String>, Fragment<String>>> urinReferences = sortedRandomUrinReferences(100);
+        final List<String> iterated = new ArrayList<>();
+        for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : sortedUrinDictionary(scheme("foo"), urinReferences)) {
+            iterated.add(new Canonicaliser().canonicalise(urinReference).toString());
+        }
+        final List<String> expected = new ArrayList<>();
+        for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : urinReferences) {
+            expected.add(new Canonicaliser().canonicalise(urinReference).toString());
+        }
+        assertThat(iterated, equalTo(expected));
+    }
+
+    @Test
+    void looksUpEquivalentUriReferences() throws Exception {
+        final SortedUrinDictionary<String, HttpQuery, Fragment<String>> sortedUrinDictionary = httpDictionary("http://example.com/a/b", "http://example.com/c");
+        assertThat(sortedUrinDictionary.contains("HTTP://Example.com:80/a/./b"), equalTo(true));
+        assertThat(sortedUrinDictionary.contains("http://example.com/%61/b"), equalTo(true));
+        assertThat(sortedUrinDictionary.contains(HTTP.parseUrinReference("http://example.com/a/c/../b")), equalTo(true));
+        assertThat(sortedUrinDictionary.contains("http://example.com/a"), equalTo(false));
+        assertThat(sortedUrinDictionary.contains("http://example.com/\u0161/b"), equalTo(false));
+        assertThat(sortedUrinDictionary.contains("http://example.com/d"), equalTo(false));
+    }
+
+    @Test
+    void rankCountsUriReferencesBeforeOnesThatAreAbsent() throws Exception {
+        final SortedUrinDictionary<String, HttpQuery, Fragment<String>> sortedUrinDictionary = httpDictionary("http://example.com/b", "http://example.com/d");
+        assertThat(sortedUrinDictionary.rank("http://example.com/a"), equalTo(0));
+        assertThat(sortedUrinDictionary.rank("http://example.com/c"), equalTo(1));
+        assertThat(sortedUrinDictionary.rank("http://example.com/e"), equalTo(2));
+    }
+
+    @Test
+    void collapsesConsecutiveEquivalentUriReferences() throws Exception {
+        final SortedUrinDictionary<String, HttpQuery, Fragment<String>> sortedUrinDictionary = httpDictionary("http://example.com/a", "HTTP://EXAMPLE.COM/a", "http://example.com/b");
+        assertThat(sortedUrinDictionary.size(), equalTo(2));
+        assertThat(sortedUrinDictionary.select(1), equalTo(HTTP.parseUrinReference("http://example.com/b")));
+    }
+
+    @Test
+    void rejectsUriReferencesOutOfOrder() {
+        assertThrows(IllegalArgumentException.class, () -> httpDictionary("http://example.com/b", "http://example.com/a"));
+    }
+
+    @Test
+    void iteratesOverUriReferencesWithAPrefix() throws Exception {
+        final List<String> uriReferences = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            uriReferences.add(String.format("https://example.com/%s/%02d", i % 3 == 0 ? "docs" : "blog", i));
+        }
+        uriReferences.add("https://example.com/docs");
+        uriReferences.add("https://example.com/docsx");
+        uriReferences.sort(Comparator.naturalOrder());
+        final SortedUrinDictionary<String, HttpQuery, Fragment<String>> sortedUrinDictionary = httpDictionary(uriReferences.toArray(new String[0]));
+        final List<UrinReference<String, HttpQuery, Fragment<String>>> expected = new ArrayList<>();
+        for (int i = 0; i < 40; i += 3) {
+            expected.add(HTTP.parseUrinReference(String.format("https://example.com/docs/%02d", i)));
+        }
+        assertThat(sortedUrinDictionary.withPrefix("HTTPS://example.com/docs/"), contains(expected.toArray()));
+        assertThat(sortedUrinDictionary.withPrefix("https://example.com/news/"), emptyIterable());
+    }
+
+    @Test
+    void selectRejectsOrdinalsOutOfRange() throws Exception {
+        final SortedUrinDictionary<String, HttpQuery, Fragment<String>> sortedUrinDictionary = httpDictionary("http://example.com/a");
+        assertThrows(IndexOutOfBoundsException.class, () -> sortedUrinDictionary.select(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> sortedUrinDictionary.select(1));
+    }
+
+    @Test
+    void emptyDictionaryContainsNothing() {
+        final SortedUrinDictionary<String, HttpQuery, Fragment<String>> sortedUrinDictionary = sortedUrinDictionary(HTTP, emptyList());
+        assertThat(sortedUrinDictionary.size(), equalTo(0));
+        assertThat(sortedUrinDictionary.contains("http://example.com/"), equalTo(false));
+        assertThat(sortedUrinDictionary.rank("http://example.com/"), equalTo(0));
+        assertThat(sortedUrinDictionary, emptyIterable());
+    }
+
+    @Test
+    void roundTripsThroughAStream() throws Exception {
+        final List<UrinReference<String, Query<String>, Fragment<String>>> urinReferences = sortedRandomUrinReferences(100);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        sortedUrinDictionary(scheme("foo"), urinReferences).writeTo(outputStream);
+        final SortedUrinDictionary<String, Query<String>, Fragment<String>> sortedUrinDictionary = readSortedUrinDictionary(scheme("foo"), new ByteArrayInputStream(outputStream.toByteArray()));
+        assertThat(sortedUrinDictionary.size(), equalTo(urinReferences.size()));
+        for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : urinReferences) {
+            assertThat(urinReference.asString(), sortedUrinDictionary.contains(urinReference), equalTo(true));
+        }
+    }
+
+    @Test
+    void readingAnUnsupportedVersionThrowsIOException() {
+        assertThrows(IOException.class, () -> readSortedUrinDictionary(HTTP, new ByteArrayInputStream(new byte[]{0, 0, 0, 99})));
+    }
+
+    @Test
+    void readingCorruptDataThrowsIOExceptionOrGivesAUsableDictionary() throws Exception {
+        final List<String> uriReferences = new ArrayList<>();
+        for (int i = 10; i < 50; i++) {
+            uriReferences.add("http://example.com/" + i);
+        }
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        httpDictionary(uriReferences.toArray(new String[0])).writeTo(outputStream);
+        final byte[] bytes = outputStream.toByteArray();
+        for (int i = 0; i < bytes.length; i++) {
+            for (final int mask : new int[]{0x01, 0x40, 0x80}) {
+                final byte[] corruptBytes = bytes.clone();
+                corruptBytes[i] ^= mask;
+                final SortedUrinDictionary<String, HttpQuery, Fragment<String>> sortedUrinDictionary;
+                try {
+                    sortedUrinDictionary = readSortedUrinDictionary(HTTP, new ByteArrayInputStream(corruptBytes));
+                } catch (final IOException e) {
+                    continue;
+                }
+                for (int ordinal = 0; ordinal < sortedUrinDictionary.size(); ordinal++) {
+                    try {
+                        sortedUrinDictionary.select(ordinal);
+                    } catch (final IllegalStateException e) {
+                        // the corrupt byte is in a URI reference, which is no longer valid
+                    }
+                }
+                for (final String uriReference : uriReferences) {
+                    sortedUrinDictionary.contains(uriReference);
+                }
+            }
+        }
+    }
+
+    @Test
+    void readingTruncatedDataThrowsIOException() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        httpDictionary("http://example.com/a", "http://example.com/b").writeTo(outputStream);
+        final byte[] bytes = outputStream.toByteArray();
+        for (int length = 0; length < bytes.length; length++) {
+            final byte[] truncatedBytes = Arrays.copyOf(bytes, length);
+            assertThrows(IOException.class, () -> readSortedUrinDictionary(HTTP, new ByteArrayInputStream(truncatedBytes)));
+        }
+    }
+
+    @Test
+    void rejectsNullArguments() {
+        assertThrows(NullPointerException.class, () -> sortedUrinDictionary(null, emptyList()));
+        assertThrows(NullPointerException.class, () -> sortedUrinDictionary(HTTP, asList((UrinReference<String, HttpQuery, Fragment<String>>) null)));
+        assertThrows(NullPointerException.class, () -> httpDictionary().contains((CharSequence) null));
+        assertThrows(NullPointerException.class, () -> httpDictionary().withPrefix(null));
+    }
+
+    @Test
+    void toStringFormatIsCorrect() throws Exception {
+        assertThat(httpDictionary("http://example.com/").toString(), equalTo("SortedUrinDictionary{scheme=" + HTTP + ", size=1}"));
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static net.sourceforge.urin.Authority.authority;
+import static net.sourceforge.urin.Host.registeredName;
+import static net.sourceforge.urin.Path.path;
+import static net.sourceforge.urin.UriTemplate.uriTemplate;
+import static net.sourceforge.urin.scheme.http.Https.HTTPS;
+import static net.sourceforge.urin.scheme.http.Https.https;
+import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameter;
+import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameters;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UriTemplateTest {
+
+    private static final Map<String, Object> RFC_6570_VARIABLES = rfc6570Variables();
+
+    private static Map<String, Object> rfc6570Variables() {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("count", asList("one", "two", "three"));
+        variables.put("dom", asList("example", "com"));
+        variables.put("dub", "me/too");
+        variables.put("hello", "Hello World!");
+        variables.put("half", "50%");
+        variables.put("var", "value");
+        variables.put("who", "fred");
+        variables.put("base", "http://example.com/home/");
+        variables.put("path", "/foo/bar");
+        variables.put("list", asList("red", "green", "blue"));
+        final Map<String, String> keys = new LinkedHashMap<>();
+        keys.put("semi", ";");
+        keys.put("dot", ".");
+        keys.put("comma", ",");
+        variables.put("keys", keys);
+        variables.put("v", "6");
+        variables.put("x", "1024");
+        variables.put("y", "768");
+        variables.put("empty", "");
+        variables.put("empty_keys", emptyMap());
+        variables.put("empty_list", emptyList());
+        variables.put("undef", null);
+        return variables;
+    }
+
+    private static String expand(final String template) {
+        return uriTemplate(template).expand(RFC_6570_VARIABLES);
+    }
+
+    @Test
+    void expandsSimpleStringExpansions() {
+        assertThat(expand("{var}"), equalTo("value"));
+        assertThat(expand("{hello}"), equalTo("Hello%20World%21"));
+        assertThat(expand("{half}"), equalTo("50%25"));
+        assertThat(expand("O{empty}X"), equalTo("OX"));
+        assertThat(expand("O{undef}X"), equalTo("OX"));
+        assertThat(expand("{x,y}"), equalTo("1024,768"));
+        assertThat(expand("{x,hello,y}"), equalTo("1024,Hello%20World%21,768"));
+        assertThat(expand("?{x,empty}"), equalTo("?1024,"));
+        assertThat(expand("?{x,undef}"), equalTo("?1024"));
+        assertThat(expand("?{undef,y}"), equalTo("?768"));
+        assertThat(expand("{var:3}"), equalTo("val"));
+        assertThat(expand("{var:30}"), equalTo("value"));
+        assertThat(expand("{list}"), equalTo("red,green,blue"));
+        assertThat(expand("{list*}"), equalTo("red,green,blue"));
+        assertThat(expand("{keys}"), equalTo("semi,%3B,dot,.,comma,%2C"));
+        assertThat(expand("{keys*}"), equalTo("semi=%3B,dot=.,comma=%2C"));
+    }
+
+    @Test
+    void expandsReservedExpansions() {
+        assertThat(expand("{+var}"), equalTo("value"));
+        assertThat(expand("{+hello}"), equalTo("Hello%20World!"));
+        assertThat(expand("{+half}"), equalTo("50%25"));
+        assertThat(expand("{base}index"), equalTo("http%3A%2F%2Fexample.com%2Fhome%2Findex"));
+        assertThat(expand("{+base}index"), equalTo("http://example.com/home/index"));
+        assertThat(expand("O{+empty}X"), equalTo("OX"));
+        assertThat(expand("{+path}/here"), equalTo("/foo/bar/here"));
+        assertThat(expand("here?ref={+path}"), equalTo("here?ref=/foo/bar"));
+        assertThat(expand("up{+path}{var}/here"), equalTo("up/foo/barvalue/here"));
+        assertThat(expand("{+x,hello,y}"), equalTo("1024,Hello%20World!,768"));
+        assertThat(expand("{+path:6}/here"), equalTo("/foo/b/here"));
+        assertThat(expand("{+list}"), equalTo("red,green,blue"));
+        assertThat(expand("{+keys}"), equalTo("semi,;,dot,.,comma,,"));
+        assertThat(expand("{+keys*}"), equalTo("semi=;,dot=.,comma=,"));
+    }
+
+    @Test
+    void reservedExpansionPreservesPercentEncodedOctets() {
+        assertThat(uriTemplate("{+var}").expand(Collections.singletonMap("var", "a%20b%2")), equalTo("a%20b%252"));
+    }
+
+    @Test
+    void expandsFragmentExpansions() {
+        assertThat(expand("{#var}"), equalTo("#value"));
+        assertThat(expand("{#hello}"), equalTo("#Hello%20World!"));
+        assertThat(expand("{#half}"), equalTo("#50%25"));
+        assertThat(expand("foo{#empty}"), equalTo("foo#"));
+        assertThat(expand("foo{#undef}"), equalTo("foo"));
+        assertThat(expand("{#x,hello,y}"), equalTo("#1024,Hello%20World!,768"));
+        assertThat(expand("{#path,x}/here"), equalTo("#/foo/bar,1024/here"));
+        assertThat(expand("{#path:6}/here"), equalTo("#/foo/b/here"));
+        assertThat(expand("{#list*}"), equalTo("#red,green,blue"));
+        assertThat(expand("{#keys}"), equalTo("#semi,;,dot,.,comma,,"));
+        assertThat(expand("{#keys*}"), equalTo("#semi=;,dot=.,comma=,"));
+    }
+
+    @Test
+    void expandsLabelExpansions() {
+        assertThat(expand("{.who}"), equalTo(".fred"));
+        assertThat(expand("{.who,who}"), equalTo(".fred.fred"));
+        assertThat(expand("{.half,who}"), equalTo(".50%25.fred"));
+        assertThat(expand("www{.dom*}"), equalTo("www.example.com"));
+        assertThat(expand("X{.var}"), equalTo("X.value"));
+        assertThat(expand("X{.empty}"), equalTo("X."));
+        assertThat(expand("X{.undef}"), equalTo("X"));
+        assertThat(expand("X{.var:3}"), equalTo("X.val"));
+        assertThat(expand("X{.list}"), equalTo("X.red,green,blue"));
+        assertThat(expand("X{.list*}"), equalTo("X.red.green.blue"));
+        assertThat(expand("X{.keys}"), equalTo("X.semi,%3B,dot,.,comma,%2C"));
+        assertThat(expand("X{.keys*}"), equalTo("X.semi=%3B.dot=..comma=%2C"));
+        assertThat(expand("X{.empty_keys}"), equalTo("X"));
+        assertThat(expand("X{.empty_keys*}"), equalTo("X"));
+    }
+
+    @Test
+    void expandsPathSegmentExpansions() {
+        assertThat(expand("{/who}"), equalTo("/fred"));
+        assertThat(expand("{/who,who}"), equalTo("/fred/fred"));
+        assertThat(expand("{/half,who}"), equalTo("/50%25/fred"));
+        assertThat(expand("{/who,dub}"), equalTo("/fred/me%2Ftoo"));
+        assertThat(expand("{/var}"), equalTo("/value"));
+        assertThat(expand("{/var,empty}"), equalTo("/value/"));
+        assertThat(expand("{/var,undef}"), equalTo("/value"));
+        assertThat(expand("{/var,x}/here"), equalTo("/value/1024/here"));
+        assertThat(expand("{/var:1,var}"), equalTo("/v/value"));
+        assertThat(expand("{/list}"), equalTo("/red,green,blue"));
+        assertThat(expand("{/list*}"), equalTo("/red/green/blue"));
+        assertThat(expand("{/list*,path:4}"), equalTo("/red/green/blue/%2Ffoo"));
+        assertThat(expand("{/keys}"), equalTo("/semi,%3B,dot,.,comma,%2C"));
+        assertThat(expand("{/keys*}"), equalTo("/semi=%3B/dot=./comma=%2C"));
+    }
+
+    @Test
+    void expandsPathParameterExpansions() {
+        assertThat(expand("{;who}"), equalTo(";who=fred"));
+        assertThat(expand("{;half}"), equalTo(";half=50%25"));
+        assertThat(expand("{;empty}"), equalTo(";empty"));
+        assertThat(expand("{;v,empty,who}"), equalTo(";v=6;empty;who=fred"));
+        assertThat(expand("{;v,bar,who}"), equalTo(";v=6;who=fred"));
+        assertThat(expand("{;x,y}"), equalTo(";x=1024;y=768"));
+        assertThat(expand("{;x,y,empty}"), equalTo(";x=1024;y=768;empty"));
+        assertThat(expand("{;x,y,undef}"), equalTo(";x=1024;y=768"));
+        assertThat(expand("{;hello:5}"), equalTo(";hello=Hello"));
+        assertThat(expand("{;list}"), equalTo(";list=red,green,blue"));
+        assertThat(expand("{;list*}"), equalTo(";list=red;list=green;list=blue"));
+        assertThat(expand("{;keys}"), equalTo(";keys=semi,%3B,dot,.,comma,%2C"));
+        assertThat(expand("{;keys*}"), equalTo(";semi=%3B;dot=.;comma=%2C"));
+    }
+
+    @Test
+    void expandsQueryExpansions() {
+        assertThat(expand("{?who}"), equalTo("?who=fred"));
+        assertThat(expand("{?half}"), equalTo("?half=50%25"));
+        assertThat(expand("{?x,y}"), equalTo("?x=1024&y=768"));
+        assertThat(expand("{?x,y,empty}"), equalTo("?x=1024&y=768&empty="));
+        assertThat(expand("{?x,y,undef}"), equalTo("?x=1024&y=768"));
+        assertThat(expand("{?var:3}"), equalTo("?var=val"));
+        assertThat(expand("{?list}"), equalTo("?list=red,green,blue"));
+        assertThat(expand("{?list*}"), equalTo("?list=red&list=green&list=blue"));
+        assertThat(expand("{?keys}"), equalTo("?keys=semi,%3B,dot,.,comma,%2C"));
+        assertThat(expand("{?keys*}"), equalTo("?semi=%3B&dot=.&comma=%2C"));
+        assertThat(expand("{?empty_list}"), equalTo(""));
+    }
+
+    @Test
+    void expandsQueryContinuationExpansions() {
+        assertThat(expand("{&who}"), equalTo("&who=fred"));
+        assertThat(expand("{&half}"), equalTo("&half=50%25"));
+        assertThat(expand("?fixed=yes{&x}"), equalTo("?fixed=yes&x=1024"));
+        assertThat(expand("{&x,y,empty}"), equalTo("&x=1024&y=768&empty="));
+        assertThat(expand("{&var:3}"), equalTo("&var=val"));
+        assertThat(expand("{&list}"), equalTo("&list=red,green,blue"));
+        assertThat(expand("{&list*}"), equalTo("&list=red&list=green&list=blue"));
+        assertThat(expand("{&keys}"), equalTo("&keys=semi,%3B,dot,.,comma,%2C"));
+        assertThat(expand("{&keys*}"), equalTo("&semi=%3B&dot=.&comma=%2C"));
+    }
+
+    @Test
+    void prefixCountsCharactersRatherThanCodeUnits() {
+        assertThat(uriTemplate("{var:2}").expand(Collections.singletonMap("var", "😀😁😂")), equalTo("%F0%9F%98%80%F0%9F%98%81"));
+    }
+
+    @Test
+    void encodesNonAsciiLiterals() {
+        assertThat(uriTemplate("/café/%20{var}").expand(Collections.singletonMap("var", "x")), equalTo("/caf%C3%A9/%20x"));
+    }
+
+    @Test
+    void rejectsInvalidTemplates() {
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("{var"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("{}"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("{+}"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("{var,}"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("{=var}"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("{var:0}"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("{var:10000}"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("{var*x}"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("{va-r}"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("{.var.}"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("a b"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("a}b"));
+        assertThrows(IllegalArgumentException.class, () -> uriTemplate("a%2"));
+        assertThrows(NullPointerException.class, () -> uriTemplate(null));
+    }
+
+    @Test
+    void expandsToTypedUrin() throws Exception {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("host", "example.com");
+        variables.put("path", asList("search", "all"));
+        variables.put("q", "a b&c");
+        variables.put("lang", "en");
+        final Urin<String, HttpQuery, Fragment<String>> urin = uriTemplate("https://{host}{/path*}{?q,lang,page}").expandToUrin(HTTPS, variables);
+        assertThat(urin, equalTo(https(authority(registeredName("example.com")), path("search", "all"), queryParameters(queryParameter("q", "a b&c"), queryParameter("lang", "en")))));
+    }
+
+    @Test
+    void expandToAppendsToGivenStringBuilder() {
+        final StringBuilder result = new StringBuilder("prefix:");
+        assertThat(uriTemplate("{var}").expandTo(Collections.singletonMap("var", "value"), result).toString(), equalTo("prefix:value"));
+    }
+
+    @Test
+    void uriTemplatesWithTheSameTemplateAreEqual() {
+        assertThat(uriTemplate("{?x,y}"), equalTo(uriTemplate("{?x,y}")));
+        assertThat(uriTemplate("{?x,y}").hashCode(), equalTo(uriTemplate("{?x,y}").hashCode()));
+    }
+
+    @Test
+    void uriTemplateToStringIsCorrect() {
+        assertThat(uriTemplate("{?x,y}").toString(), equalTo("UriTemplate{template='{?x,y}'}"));
+    }
+}
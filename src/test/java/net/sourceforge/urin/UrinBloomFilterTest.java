@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.sourceforge.urin.RelativeReferenceBuilder.anUnpollutedRelativeReference;
+import static net.sourceforge.urin.UrinBloomFilter.readUrinBloomFilter;
+import static net.sourceforge.urin.UrinBloomFilter.urinBloomFilter;
+import static net.sourceforge.urin.UrinBuilder.anUnpollutedUrin;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UrinBloomFilterTest {
+
+    private static List<UrinReference<String, Query<String>, Fragment<String>>> urinReferences(final int count) {
+        final List<UrinReference<String, Query<String>, Fragment<String>>> urinReferences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            urinReferences.add(i % 2 == 0 ? anUnpollutedUrin() : anUnpollutedRelativeReference());
+        }
+        return urinReferences;
+    }
+
+    @Test
+    void mightContainUriReferencesEquivalentToThoseAdded() throws Exception {
+        final UrinBloomFilter urinBloomFilter = urinBloomFilter(100, 0.01);
+        assertThat(urinBloomFilter.put("HTTP://Example.com:80/a/./%7e"), equalTo(true));
+        assertThat(urinBloomFilter.put(HTTP.parseUrinReference("http://example.com/a/~")), equalTo(false));
+        assertThat(urinBloomFilter.mightContain("http://example.com/a/%7E"), equalTo(true));
+        assertThat(urinBloomFilter.mightContain(HTTP.parseUrinReference("http://example.com:80/a/b/../~")), equalTo(true));
+        assertThat(urinBloomFilter.put("http://example.com/\u0169"), equalTo(true));
+        assertThat(urinBloomFilter.mightContain(HTTP.parseUrinReference("http://example.com/%C5%A9")), equalTo(true));
+    }
+
+    @Test
+    void urinReferencesAndTheirStringRepresentationsSetTheSameBits() {
+        for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : urinReferences(500)) {
+            final UrinBloomFilter urinBloomFilter = urinBloomFilter(10, 0.001);
+            urinBloomFilter.put(urinReference);
+            assertThat(urinReference.asString(), urinBloomFilter.put(urinReference.asString()), equalTo(false));
+            assertThat(urinReference.asString(), urinBloomFilter.mightContain(urinReference.asString()), equalTo(true));
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsNearTheRequestedProbability() {
+        final UrinBloomFilter urinBloomFilter = urinBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            urinBloomFilter.put("http://example.com/added/" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (urinBloomFilter.mightContain("http://example.com/absent/" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives, lessThan(300));
+    }
+
+    @Test
+    void roundTripsThroughAStream() throws Exception {
+        final List<UrinReference<String, Query<String>, Fragment<String>>> urinReferences = urinReferences(100);
+        final UrinBloomFilter urinBloomFilter = urinBloomFilter(100, 0.01);
+        for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : urinReferences) {
+            urinBloomFilter.put(urinReference);
+        }
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        urinBloomFilter.writeTo(outputStream);
+        final UrinBloomFilter readUrinBloomFilter = readUrinBloomFilter(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertThat(readUrinBloomFilter.toString(), equalTo(urinBloomFilter.toString()));
+        for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : urinReferences) {
+            assertThat(urinReference.asString(), readUrinBloomFilter.mightContain(urinReference), equalTo(true));
+        }
+    }
+
+    @Test
+    void readingAnUnsupportedVersionThrowsIOException() {
+        assertThrows(IOException.class, () -> readUrinBloomFilter(new ByteArrayInputStream(new byte[]{0, 0, 0, 99})));
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> urinBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> urinBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> urinBloomFilter(100, 1));
+        assertThrows(IllegalArgumentException.class, () -> urinBloomFilter(Long.MAX_VALUE, 0.01));
+    }
+
+    @Test
+    void rejectsNullArguments() {
+        assertThrows(NullPointerException.class, () -> urinBloomFilter(10, 0.01).put((CharSequence) null));
+        assertThrows(NullPointerException.class, () -> urinBloomFilter(10, 0.01).mightContain((UrinReference<?, ?, ?>) null));
+    }
+
+    @Test
+    void toStringFormatIsCorrect() {
+        assertThat(urinBloomFilter(64, 0.5).toString(), equalTo("UrinBloomFilter{bitCount=128, hashFunctionCount=1}"));
+    }
+}
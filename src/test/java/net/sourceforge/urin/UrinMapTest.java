@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static net.sourceforge.urin.UrinMap.offHeapUrinMap;
+import static net.sourceforge.urin.UrinMap.urinMap;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UrinMapTest {
+
+    @Test
+    void getsValuesPutWithEquivalentKeys() throws Exception {
+        final UrinMap<String, HttpQuery, Fragment<String>, Integer> urinMap = urinMap(HTTP);
+        assertThat(urinMap.put("HTTP://Example.com:80/a/./b", 1), nullValue());
+        assertThat(urinMap.put(HTTP.parseUrinReference("http://example.com/c"), 2), nullValue());
+        assertThat(urinMap.get("http://example.com/%61/b"), equalTo(1));
+        assertThat(urinMap.get(HTTP.parseUrinReference("http://example.com/a/b")), equalTo(1));
+        assertThat(urinMap.get("http://example.com/c"), equalTo(2));
+        assertThat(urinMap.get("http://example.com/d"), nullValue());
+        assertThat(urinMap.containsKey("http://example.com/c"), equalTo(true));
+        assertThat(urinMap.containsKey(HTTP.parseUrinReference("http://example.com/d")), equalTo(false));
+    }
+
+    @Test
+    void puttingAnEquivalentKeyReplacesTheValue() throws Exception {
+        final UrinMap<String, HttpQuery, Fragment<String>, Integer> urinMap = offHeapUrinMap(HTTP);
+        urinMap.put("http://example.com/a", 1);
+        assertThat(urinMap.put(HTTP.parseUrinReference("http://EXAMPLE.com/a"), 2), equalTo(1));
+        assertThat(urinMap.get("http://example.com/a"), equalTo(2));
+        assertThat(urinMap.size(), equalTo(1));
+    }
+
+    @Test
+    void holdsManyEntries() {
+        final UrinMap<String, HttpQuery, Fragment<String>, Integer> urinMap = urinMap(HTTP);
+        for (int i = 0; i < 10000; i++) {
+            urinMap.put("http://example.com/" + i, i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertThat(urinMap.get("http://example.com/" + i), equalTo(i));
+        }
+        assertThat(urinMap.size(), equalTo(10000));
+    }
+
+    @Test
+    void forEachGivesEntriesInTheOrderTheyWereAdded() throws Exception {
+        final UrinMap<String, HttpQuery, Fragment<String>, Integer> urinMap = urinMap(HTTP);
+        urinMap.put("http://example.com/b", 1);
+        urinMap.put("http://example.com/a", 2);
+        final List<UrinReference<String, HttpQuery, Fragment<String>>> keys = new ArrayList<>();
+        final List<Integer> values = new ArrayList<>();
+        urinMap.forEach((key, value) -> {
+            keys.add(key);
+            values.add(value);
+        });
+        assertThat(keys, contains(HTTP.parseUrinReference("http://example.com/b"), HTTP.parseUrinReference("http://example.com/a")));
+        assertThat(values, contains(1, 2));
+    }
+
+    @Test
+    void forEachGivesKeysThatAreContainedAndEquivalentToThoseAdded() throws Exception {
+        final UrinMap<String, HttpQuery, Fragment<String>, String> urinMap = urinMap(HTTP);
+        for (final String uriReference : asList("http://example.com/a/%2E%2E/b", "http://example.com/%2E", "/a/%2e/b", "http://example.com/a/../b")) {
+            urinMap.put(uriReference, uriReference);
+        }
+        assertThat(urinMap.size(), equalTo(4));
+        urinMap.forEach((key, value) -> {
+            assertThat(value, urinMap.get(key), equalTo(value));
+            try {
+                assertThat(value, key.isEquivalentTo(HTTP.parseUrinReference(value)), equalTo(true));
+            } catch (final ParseException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    @Test
+    void rejectsNullArguments() {
+        assertThrows(NullPointerException.class, () -> urinMap(null));
+        assertThrows(NullPointerException.class, () -> urinMap(HTTP).put((CharSequence) null, 1));
+        assertThrows(NullPointerException.class, () -> urinMap(HTTP).put("http://example.com/", null));
+        assertThrows(NullPointerException.class, () -> urinMap(HTTP).get((CharSequence) null));
+    }
+
+    @Test
+    void toStringFormatIsCorrect() {
+        assertThat(urinMap(HTTP).toString(), equalTo("UrinMap{scheme=" + HTTP + ", size=0}"));
+    }
+}
@@ -10,19 +10,34 @@
 
 package net.sourceforge.urin;
 
+import net.sourceforge.urin.scheme.http.HttpQuery;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
 import java.net.URI;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Arrays.asList;
 import static net.sourceforge.urin.FragmentBuilder.aFragment;
+import static net.sourceforge.urin.Path.path;
+import static net.sourceforge.urin.Path.rootlessPath;
 import static net.sourceforge.urin.PathBuilder.aPath;
 import static net.sourceforge.urin.PathBuilder.anAbsolutePath;
 import static net.sourceforge.urin.QueryBuilder.aQuery;
 import static net.sourceforge.urin.RelativeReferenceBuilder.anUnpollutedRelativeReference;
+import static net.sourceforge.urin.Scheme.scheme;
 import static net.sourceforge.urin.SchemeBuilder.aScheme;
+import static net.sourceforge.urin.UrinBuilder.aUrin;
 import static net.sourceforge.urin.UrinBuilder.anUnpollutedUrin;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class UrinReferenceTest {
@@ -79,4 +94,197 @@ class UrinReferenceTest {
         final UrinReference<String, Query<String>, Fragment<String>> urinReference = aScheme().parseUrinReference("");
         assertThat(urinReference.asString(), equalTo(""));
     }
+
+    @Test
+    void encodedLengthIsTheLengthOfTheStringRepresentation() {
+        for (int i = 0; i < 100; i++) {
+            final Urin<String, Query<String>, Fragment<String>> urin = aUrin();
+            assertThat(urin.asString(), urin.encodedLength(), equalTo(urin.asString().length()));
+            final RelativeReference<String, Query<String>, Fragment<String>> relativeReference = anUnpollutedRelativeReference();
+            assertThat(relativeReference.asString(), relativeReference.encodedLength(), equalTo(relativeReference.asString().length()));
+        }
+    }
+
+    @Test
+    void encodedLengthIncludesDotSegmentPrefixes() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = aScheme();
+        assertThat(scheme.relativeReference(rootlessPath("a:b", "c")).encodedLength(), equalTo("./a:b/c".length()));
+        assertThat(scheme.urin(path("", "a")).encodedLength(), equalTo(scheme.urin(path("", "a")).asString().length()));
+        assertThat(scheme.relativeReference(rootlessPath()).encodedLength(), equalTo(0));
+    }
+
+    @Test
+    void writesUsAsciiBytesToByteBuffer() {
+        final Urin<String, Query<String>, Fragment<String>> urin = aUrin();
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(urin.encodedLength() + 2);
+        byteBuffer.put((byte) 'x');
+        urin.writeTo(byteBuffer);
+        assertThat(byteBuffer.position(), equalTo(urin.encodedLength() + 1));
+        assertThat(new String(byteBuffer.array(), 1, urin.encodedLength(), US_ASCII), equalTo(urin.asString()));
+    }
+
+    @Test
+    void writingToByteBufferWithTooFewBytesRemainingWritesNothing() {
+        final Urin<String, Query<String>, Fragment<String>> urin = aUrin();
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(urin.encodedLength() - 1);
+        assertThrows(BufferOverflowException.class, () -> urin.writeTo(byteBuffer));
+        assertThat(byteBuffer.position(), equalTo(0));
+    }
+
+    @Test
+    void writesUsAsciiBytesToByteArray() {
+        final RelativeReference<String, Query<String>, Fragment<String>> relativeReference = anUnpollutedRelativeReference();
+        final byte[] bytes = new byte[relativeReference.encodedLength() + 3];
+        assertThat(relativeReference.writeTo(bytes, 3), equalTo(relativeReference.encodedLength()));
+        assertThat(new String(bytes, 3, relativeReference.encodedLength(), US_ASCII), equalTo(relativeReference.asString()));
+    }
+
+    @Test
+    void writingToByteArrayWithTooFewBytesRemainingThrowsIndexOutOfBoundsException() {
+        final Urin<String, Query<String>, Fragment<String>> urin = aUrin();
+        assertThrows(IndexOutOfBoundsException.class, () -> urin.writeTo(new byte[urin.encodedLength()], 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> urin.writeTo(new byte[urin.encodedLength()], -1));
+    }
+
+    @Test
+    void asUriReturnsTheSameUriEachTime() throws Exception {
+        final UrinReference<String, Query<String>, Fragment<String>> urin = aScheme().parseUrinReference("http://some.where/some/thing");
+        assertThat(urin.asUri(), sameInstance(urin.asUri()));
+    }
+
+    @Test
+    void parsingAUriGivesTheSameResultAsParsingItsString() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("foo");
+        for (final String uriReference : asList("foo://u@h:1/a/%41?b#c", "foo:///a", "foo:/a/./b", "foo://h", "foo://h?", "foo://h#", "foo:a:b", "//h/a?b#c", "a/b?c", "?", "#", "", "foo://h/%C3%A9", "foo://h/\u00e9?\u00e9#\u00e9")) {
+            final URI uri = new URI(uriReference);
+            assertThat(uriReference, scheme.parseUrinReference(uri), equalTo(scheme.parseUrinReference(uri.toASCIIString())));
+            if (uri.getScheme() == null) {
+                assertThat(uriReference, scheme.parseRelativeReference(uri), equalTo(scheme.parseRelativeReference(uri.toASCIIString())));
+            } else {
+                assertThat(uriReference, scheme.parseUrin(uri), equalTo(scheme.parseUrin(uri.toASCIIString())));
+            }
+        }
+    }
+
+    @Test
+    void urinReferencesWithEquivalentComponentsAreEquivalent() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("http", Port.port(80));
+        assertThat(scheme.parseUrinReference("HTTP://Example.COM:80/a/./%62?%7e#f").isEquivalentTo(scheme.parseUrinReference("http://example.com/a/b?~#f")), equalTo(true));
+        assertThat(scheme.parseUrinReference("http://example.com").isEquivalentTo(scheme.parseUrinReference("http://example.com/")), equalTo(true));
+        assertThat(scheme.parseUrinReference("/a/../b").isEquivalentTo(scheme.parseUrinReference("/b")), equalTo(true));
+    }
+
+    @Test
+    void urinReferencesWithDifferentComponentsAreNotEquivalent() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("http", Port.port(80));
+        assertThat(scheme.parseUrinReference("http://example.com/a").isEquivalentTo(scheme.parseUrinReference("http://example.com/A")), equalTo(false));
+        assertThat(scheme.parseUrinReference("http://example.com:8080/").isEquivalentTo(scheme.parseUrinReference("http://example.com/")), equalTo(false));
+        assertThat(scheme.parseUrinReference("http://example.com/?").isEquivalentTo(scheme.parseUrinReference("http://example.com/")), equalTo(false));
+        assertThat(scheme.parseUrinReference("http://example.com/#").isEquivalentTo(scheme.parseUrinReference("http://example.com/")), equalTo(false));
+        assertThat(scheme.parseUrinReference("//example.com/").isEquivalentTo(scheme.parseUrinReference("http://example.com/")), equalTo(false));
+        assertThat(scheme.parseUrinReference("/").isEquivalentTo(scheme.parseUrinReference("")), equalTo(false));
+    }
+
+    @Test
+    void isEquivalentToAgreesWithCanonicalOrderAndFingerprints() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("http");
+        final List<UrinReference<String, Query<String>, Fragment<String>>> urinReferences = new ArrayList<>();
+        for (final String uriReference : asList(
+                "a:.", "a:", "a:./b", "a:b", "http://h:80/", "http://h/", "http://h:/", "http://h", "http://H/a/./%62", "http://h/a/b",
+                "http://h/a/%2E%2E/b", "http://h/b", "http://h/a/../b", "/.//a", "//a", "a/..", "", "?q", "#f")) {
+            urinReferences.add(scheme.parseUrinReference(uriReference));
+        }
+        for (int i = 0; i < 50; i++) {
+            urinReferences.add(i % 2 == 0 ? anUnpollutedUrin() : anUnpollutedRelativeReference());
+        }
+        for (final UrinReference<String, Query<String>, Fragment<String>> first : urinReferences) {
+            for (final UrinReference<String, Query<String>, Fragment<String>> second : urinReferences) {
+                final boolean equivalent = first.isEquivalentTo(second);
+                assertThat(first + " " + second, equivalent, equalTo(Scheme.equivalent(first.asString(), second.asString())));
+                assertThat(first + " " + second, equivalent, equalTo(UrinReference.canonicalOrder().compare(first, second) == 0));
+                if (equivalent) {
+                    assertThat(first + " " + second, first.fingerprint64(), equalTo(second.fingerprint64()));
+                    assertThat(first + " " + second, first.fingerprint128(), equalTo(second.fingerprint128()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void isEquivalentToRejectsNull() {
+        assertThrows(NullPointerException.class, () -> anUnpollutedUrin().isEquivalentTo(null));
+    }
+
+    @Test
+    void canonicalOrderAgreesWithComparingCanonicalForms() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("http");
+        final List<UrinReference<String, Query<String>, Fragment<String>>> urinReferences = new ArrayList<>();
+        for (final String uriReference : asList(
+                "http://example.com", "http://example.com/", "HTTP://EXAMPLE.com:80/", "http://example.com:8080/", "http://a@example.com/",
+                "http://[v1A.B]/", "http://example.com/a/b?%7E#x", "http://example.com/a/b?c", "http://example.com/a/b#c", "http://example.com/a/%2F",
+                "http:/.//a", "http:a", "http:", "/.//a", "/a/b", "//example.com/a", "//example.com:80", "./a:b", "../a", "a/b", "", "?q", "#f")) {
+            urinReferences.add(scheme.parseUrinReference(uriReference));
+        }
+        for (int i = 0; i < 50; i++) {
+            urinReferences.add(i % 2 == 0 ? anUnpollutedUrin() : anUnpollutedRelativeReference());
+        }
+        for (final UrinReference<String, Query<String>, Fragment<String>> first : urinReferences) {
+            for (final UrinReference<String, Query<String>, Fragment<String>> second : urinReferences) {
+                final String firstCanonicalForm = new Canonicaliser().canonicalise(first).toString();
+                final String secondCanonicalForm = new Canonicaliser().canonicalise(second).toString();
+                assertThat(first + " " + second, Integer.signum(UrinReference.canonicalOrder().compare(first, second)), equalTo(Integer.signum(firstCanonicalForm.compareTo(secondCanonicalForm))));
+            }
+        }
+    }
+
+    @Test
+    void canonicalOrderRejectsNull() {
+        assertThrows(NullPointerException.class, () -> UrinReference.canonicalOrder().compare(anUnpollutedUrin(), null));
+    }
+
+    @Test
+    void fingerprintsAreFnv1aHashesOfTheCanonicalForm() throws Exception {
+        final UrinReference<String, Query<String>, Fragment<String>> urinReference = aScheme().parseUrinReference("a");
+        assertThat(urinReference.fingerprint64(), equalTo(0xaf63dc4c8601ec8cL));
+        assertThat(urinReference.fingerprint128().asString(), equalTo("d228cb696f1a8caf78912b704e4a8964"));
+    }
+
+    @Test
+    void fingerprintsAreCalculatedOverTheUsAsciiEncodingOfTheCanonicalForm() {
+        final Urin<String, Query<String>, Fragment<String>> urin = anUnpollutedUrin();
+        final BigInteger prime = BigInteger.ONE.shiftLeft(88).add(BigInteger.valueOf(0x13b));
+        final BigInteger modulus = BigInteger.ONE.shiftLeft(128);
+        BigInteger expected = new BigInteger("6c62272e07bb014262b821756295c58d", 16);
+        final StringBuilder canonicalForm = new StringBuilder();
+        UriEquivalence.appendCanonicalTo(urin.asString(), AsciiOutput.stringBuilderOutput(canonicalForm));
+        for (final byte character : canonicalForm.toString().getBytes(US_ASCII)) {
+            expected = expected.xor(BigInteger.valueOf(character & 0xff)).multiply(prime).mod(modulus);
+        }
+        assertThat(new BigInteger(1, ByteBuffer.allocate(16).putLong(urin.fingerprint128().mostSignificantBits()).putLong(urin.fingerprint128().leastSignificantBits()).array()), equalTo(expected));
+    }
+
+    @Test
+    void fingerprintsAreTheSameEachTime() {
+        final Urin<String, Query<String>, Fragment<String>> urin = anUnpollutedUrin();
+        assertThat(urin.fingerprint64(), equalTo(urin.fingerprint64()));
+        assertThat(urin.fingerprint128(), sameInstance(urin.fingerprint128()));
+    }
+
+    @Test
+    void equalUrinReferencesHaveEqualFingerprints() throws Exception {
+        final Urin<String, Query<String>, Fragment<String>> urin = anUnpollutedUrin();
+        final UrinReference<String, Query<String>, Fragment<String>> parsedUrin = urin.scheme().parseUrinReference(urin.asString());
+        assertThat(parsedUrin.fingerprint64(), equalTo(urin.fingerprint64()));
+        assertThat(parsedUrin.fingerprint128(), equalTo(urin.fingerprint128()));
+    }
+
+    @Test
+    void equivalentUrinReferencesHaveEqualFingerprints() throws Exception {
+        final UrinReference<String, HttpQuery, Fragment<String>> withoutPath = HTTP.parseUrinReference("http://example.com");
+        final UrinReference<String, HttpQuery, Fragment<String>> withRootPath = HTTP.parseUrinReference("HTTP://example.com/");
+        assertThat(withoutPath.fingerprint64(), equalTo(withRootPath.fingerprint64()));
+        assertThat(withoutPath.fingerprint128(), equalTo(withRootPath.fingerprint128()));
+        assertThat(withoutPath.fingerprint64(), not(equalTo(HTTP.parseUrinReference("http://example.com/a").fingerprint64())));
+    }
+
 }
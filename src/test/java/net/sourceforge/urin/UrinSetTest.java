@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static java.util.Arrays.asList;
+import static net.sourceforge.urin.RelativeReferenceBuilder.anUnpollutedRelativeReference;
+import static net.sourceforge.urin.Scheme.scheme;
+import static net.sourceforge.urin.UrinBuilder.anUnpollutedUrin;
+import static net.sourceforge.urin.UrinSet.offHeapUrinSet;
+import static net.sourceforge.urin.UrinSet.urinSet;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UrinSetTest {
+
+    private static final List<String> URI_REFERENCES = asList(
+            "http://example.com", "http://example.com/", "HTTP://EXAMPLE.com:80/", "http://example.com:8080/", "http://a@example.com/",
+            "http://example.com/a/./b", "http://example.com/a/b/", "http://example.com/a/c/../b", "http://example.com/%61/b", "http://example.com/%2F",
+            "http://example.com/a/b?%7E#x", "http://example.com/a/b?~#x", "http://example.com/a/b?%7e", "/a/b", "/a/./b", "//example.com/a/b", "a/b", "./a/b", "",
+            "http:/.//a/", "http:/./.././/a/", "http://a/", "http:/a/", "http:.//a/", "http:/", "/.//a/", "//a/"
+    );
+
+    @Test
+    void containsUriReferencesEquivalentToThoseAdded() {
+        for (final String added : URI_REFERENCES) {
+            final UrinSet<String, HttpQuery, Fragment<String>> urinSet = urinSet(HTTP);
+            urinSet.add(added);
+            for (final String candidate : URI_REFERENCES) {
+                assertThat(added + " " + candidate, urinSet.contains(candidate), equalTo(Scheme.equivalent(added, candidate)));
+            }
+        }
+    }
+
+    @Test
+    void addingAnEquivalentUriReferenceDoesNotChangeTheSet() throws Exception {
+        final UrinSet<String, HttpQuery, Fragment<String>> urinSet = urinSet(HTTP);
+        assertThat(urinSet.add("HTTP://Example.com:80/a/./b"), equalTo(true));
+        assertThat(urinSet.add(HTTP.parseUrinReference("http://example.com/a/b")), equalTo(false));
+        assertThat(urinSet.add("http://example.com/%61/b"), equalTo(false));
+        assertThat(urinSet.size(), equalTo(1));
+    }
+
+    @Test
+    void containsUrinReferencesThatWereAdded() {
+        final UrinSet<String, Query<String>, Fragment<String>> urinSet = urinSet(scheme("foo"));
+        final List<UrinReference<String, Query<String>, Fragment<String>>> urinReferences = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            urinReferences.add(i % 2 == 0 ? anUnpollutedUrin() : anUnpollutedRelativeReference());
+        }
+        for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : urinReferences) {
+            urinSet.add(urinReference);
+        }
+        for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : urinReferences) {
+            assertThat(urinReference.asString(), urinSet.contains(urinReference), equalTo(true));
+            assertThat(urinReference.asString(), urinSet.contains(urinReference.asString()), equalTo(true));
+        }
+    }
+
+    @Test
+    void iteratesOverUrinReferencesInTheOrderTheyWereAdded() throws Exception {
+        final UrinSet<String, HttpQuery, Fragment<String>> urinSet = offHeapUrinSet(HTTP);
+        urinSet.add("http://example.com/b");
+        urinSet.add(HTTP.parseUrinReference("/a?c=d"));
+        urinSet.add("http://example.com/%62");
+        final Iterator<UrinReference<String, HttpQuery, Fragment<String>>> iterator = urinSet.iterator();
+        assertThat(iterator.next(), equalTo(HTTP.parseUrinReference("http://example.com/b")));
+        assertThat(iterator.next(), equalTo(HTTP.parseUrinReference("/a?c=d")));
+        assertThat(iterator.hasNext(), equalTo(false));
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void iteratesOverUrinReferencesThatAreContainedAndEquivalentToThoseAdded() throws Exception {
+        final UrinSet<String, Query<String>, Fragment<String>> urinSet = urinSet(scheme("foo"));
+        final List<UrinReference<String, Query<String>, Fragment<String>>> added = new ArrayList<>();
+        for (final String uriReference : asList("http://example.com/a/%2E%2E/b", "http://example.com/a/.%2e/b", "/%2E", "a/%2E/b")) {
+            added.add(scheme("foo").parseUrinReference(uriReference));
+        }
+        for (int i = 0; i < 1000; i++) {
+            added.add(i % 2 == 0 ? anUnpollutedUrin() : anUnpollutedRelativeReference());
+        }
+        final List<UrinReference<String, Query<String>, Fragment<String>>> distinct = new ArrayList<>();
+        for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : added) {
+            if (urinSet.add(urinReference)) {
+                distinct.add(urinReference);
+            }
+        }
+        final Iterator<UrinReference<String, Query<String>, Fragment<String>>> iterator = urinSet.iterator();
+        for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : distinct) {
+            final UrinReference<String, Query<String>, Fragment<String>> element = iterator.next();
+            assertThat(urinReference.asString(), urinSet.contains(element), equalTo(true));
+            assertThat(urinReference.asString() + " " + element.asString(), element.isEquivalentTo(urinReference), equalTo(true));
+        }
+        assertThat(iterator.hasNext(), equalTo(false));
+    }
+
+    @Test
+    void keepsTheDotSegmentThatStopsAPathBeingReadAsAnAuthority() throws Exception {
+        final UrinSet<String, HttpQuery, Fragment<String>> urinSet = urinSet(HTTP);
+        urinSet.add("http:/.//a/");
+        urinSet.add(HTTP.parseUrinReference("/.//b/"));
+        assertThat(urinSet.contains("http://a/"), equalTo(false));
+        assertThat(urinSet.contains("//b/"), equalTo(false));
+        final Iterator<UrinReference<String, HttpQuery, Fragment<String>>> iterator = urinSet.iterator();
+        assertThat(iterator.next(), equalTo(HTTP.parseUrinReference("http:/.//a/")));
+        assertThat(iterator.next(), equalTo(HTTP.parseUrinReference("/.//b/")));
+    }
+
+    @Test
+    void treatsCharactersOutsideUsAsciiAsTheirPercentEncodedUtf8Octets() throws Exception {
+        final UrinSet<String, HttpQuery, Fragment<String>> urinSet = urinSet(HTTP);
+        urinSet.add("http://example.com/i");
+        assertThat(urinSet.contains("http://example.com/\u0169"), equalTo(false));
+        urinSet.add("http://example.com/\u0169");
+        assertThat(urinSet.contains(HTTP.parseUrinReference("http://example.com/%C5%A9")), equalTo(true));
+        assertThat(urinSet.size(), equalTo(2));
+    }
+
+    @Test
+    void iteratingOverAnInvalidUriReferenceThrowsIllegalStateException() {
+        final UrinSet<String, HttpQuery, Fragment<String>> urinSet = urinSet(HTTP);
+        urinSet.add("http://example.com/%zz");
+        assertThrows(IllegalStateException.class, () -> urinSet.iterator().next());
+    }
+
+    @Test
+    void holdsUriReferencesLongerThanAChunk() {
+        final UrinSet<String, HttpQuery, Fragment<String>> urinSet = urinSet(HTTP);
+        final StringBuilder longPath = new StringBuilder("http://example.com/");
+        while (longPath.length() < 3 << 20) {
+            longPath.append("segment/");
+        }
+        urinSet.add("http://example.com/a");
+        urinSet.add(longPath);
+        urinSet.add("http://example.com/b");
+        assertThat(urinSet.contains(longPath), equalTo(true));
+        assertThat(urinSet.contains("http://example.com/a"), equalTo(true));
+        assertThat(urinSet.contains("http://example.com/b"), equalTo(true));
+        assertThat(urinSet.size(), equalTo(3));
+    }
+
+    @Test
+    void rejectsNullArguments() {
+        assertThrows(NullPointerException.class, () -> urinSet(null));
+        assertThrows(NullPointerException.class, () -> urinSet(HTTP).add((CharSequence) null));
+        assertThrows(NullPointerException.class, () -> urinSet(HTTP).contains((CharSequence) null));
+    }
+
+    @Test
+    void toStringFormatIsCorrect() {
+        final UrinSet<String, HttpQuery, Fragment<String>> urinSet = urinSet(HTTP);
+        urinSet.add("http://example.com/");
+        assertThat(urinSet.toString(), equalTo("UrinSet{scheme=" + HTTP + ", size=1}"));
+    }
+}
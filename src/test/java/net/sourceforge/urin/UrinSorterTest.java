@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Arrays.asList;
+import static net.sourceforge.urin.RelativeReferenceBuilder.anUnpollutedRelativeReference;
+import static net.sourceforge.urin.Scheme.scheme;
+import static net.sourceforge.urin.UrinBuilder.anUnpollutedUrin;
+import static net.sourceforge.urin.UrinSorter.urinSorter;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UrinSorterTest {
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    private String sort(final UrinSorter<?, ?, ?> urinSorter, final String input) throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        urinSorter.sort(new ByteArrayInputStream(input.getBytes(US_ASCII)), output);
+        return output.toString("US-ASCII");
+    }
+
+    @Test
+    void sortsAndRemovesEquivalentUriReferences() throws Exception {
+        assertThat(
+                sort(urinSorter(HTTP, directory), "http://example.com/b\nHTTP://Example.com:80/%7Ea\n\nhttp://example.com/~a\nhttp://example.com/a/../b\n/c\n"),
+                equalTo("/c\nhttp://example.com/b\nhttp://example.com/~a\n")
+        );
+    }
+
+    @Test
+    void keepsTheDotSegmentThatStopsAPathBeingReadAsAnAuthority() throws Exception {
+        assertThat(sort(urinSorter(HTTP, directory), "http:/.//a/\nhttp:/a/..//a/\n"), equalTo("http:/.//a/\n"));
+    }
+
+    @Test
+    void keepsSegmentsThatArePercentEncodedDotSegments() throws Exception {
+        assertThat(
+                sort(urinSorter(HTTP, directory), "http://example.com/a/%2E%2E/b\nhttp://example.com/a/.%2e/b\nhttp://example.com/b\n"),
+                equalTo("http://example.com/a/%2E%2E/b\nhttp://example.com/b\n")
+        );
+    }
+
+    @Test
+    void sortsUriReferencesThatSpillToManyRuns() throws Exception {
+        final List<String> uriReferences = new ArrayList<>();
+        final TreeSet<String> expected = new TreeSet<>();
+        for (int i = 0; i < 3000; i++) {
+            final UrinReference<String, Query<String>, Fragment<String>> urinReference = i % 2 == 0 ? anUnpollutedUrin() : anUnpollutedRelativeReference();
+            if (!urinReference.asString().isEmpty()) {
+                uriReferences.add(urinReference.asString());
+                uriReferences.add(urinReference.asString());
+                expected.add(new Canonicaliser().canonicalise(urinReference).toString());
+            }
+        }
+        final StringBuilder input = new StringBuilder();
+        for (final String uriReference : uriReferences) {
+            input.append(uriReference).append('\n');
+        }
+        assertThat(sort(urinSorter(scheme("foo"), directory, 2000), input.toString()), equalTo(String.join("\n", expected) + "\n"));
+        assertThat(directory.toFile().list(), emptyArray());
+    }
+
+    @Test
+    void sortsFiles() throws Exception {
+        final java.nio.file.Path input = directory.resolve("input.txt");
+        final java.nio.file.Path output = directory.resolve("output.txt");
+        Files.write(input, asList("http://example.com/b", "http://example.com/a", "http://EXAMPLE.com/b"), US_ASCII);
+        assertThat(urinSorter(HTTP, directory, 1).sort(input, output), equalTo(2L));
+        assertThat(Files.readAllLines(output, US_ASCII), equalTo(asList("http://example.com/a", "http://example.com/b")));
+        assertThat(directory.toFile().list((final File dir, final String name) -> name.endsWith(".run")), emptyArray());
+    }
+
+    @Test
+    void invalidUriReferenceThrowsParseExceptionAndDeletesRuns() {
+        assertThrows(ParseException.class, () -> sort(urinSorter(HTTP, directory, 1), "http://example.com/a\nhttp://example.com/b\nhttp://[\n"));
+        assertThat(directory.toFile().list(), emptyArray());
+    }
+
+    @Test
+    void rejectsNullArguments() {
+        assertThrows(NullPointerException.class, () -> urinSorter(null, directory));
+        assertThrows(NullPointerException.class, () -> urinSorter(HTTP, null));
+    }
+
+    @Test
+    void rejectsNonPositiveMemoryBudget() {
+        assertThrows(IllegalArgumentException.class, () -> urinSorter(HTTP, directory, 0));
+        assertThrows(IllegalArgumentException.class, () -> urinSorter(HTTP, directory, -1));
+    }
+
+    @Test
+    void toStringFormatIsCorrect() {
+        assertThat(urinSorter(HTTP, directory).toString(), equalTo("UrinSorter{scheme=" + HTTP + ", temporaryDirectory=" + directory + ", memoryBudget=134217728}"));
+    }
+}
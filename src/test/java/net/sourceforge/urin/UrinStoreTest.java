@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin;
+
+import net.sourceforge.urin.scheme.http.HttpQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.sourceforge.urin.RelativeReferenceBuilder.anUnpollutedRelativeReference;
+import static net.sourceforge.urin.Scheme.scheme;
+import static net.sourceforge.urin.UrinBuilder.anUnpollutedUrin;
+import static net.sourceforge.urin.UrinStore.urinStore;
+import static net.sourceforge.urin.scheme.http.Http.HTTP;
+import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameter;
+import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameters;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UrinStoreTest {
+
+    private static final long REGION_SIZE = 64;
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    @Test
+    void getsAppendedUrinReferencesById() throws Exception {
+        try (UrinStore<String, HttpQuery, Fragment<String>> urinStore = urinStore(HTTP, directory, REGION_SIZE)) {
+            final long firstId = urinStore.append(HTTP.parseUrinReference("http://example.com/a?b=c"));
+            final long secondId = urinStore.append(HTTP.parseUrinReference("/d#e"));
+            assertThat(firstId, equalTo(0L));
+            assertThat(secondId, equalTo(1L));
+            assertThat(urinStore.get(firstId).asString(), equalTo("http://example.com/a?b=c"));
+            assertThat(urinStore.get(firstId).query(), equalTo(queryParameters(queryParameter("b", "c"))));
+            assertThat(urinStore.get(secondId).path(), equalTo(Path.path("d")));
+            assertThat(urinStore.get(secondId).fragment(), equalTo(HTTP.parseFragment("e")));
+            assertThat(urinStore.size(), equalTo(2L));
+        }
+    }
+
+    @Test
+    void urinReferencesSpanManyRegions() throws Exception {
+        final List<UrinReference<String, Query<String>, Fragment<String>>> urinReferences = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final UrinReference<String, Query<String>, Fragment<String>> urinReference = i % 2 == 0 ? anUnpollutedUrin() : anUnpollutedRelativeReference();
+            if (urinReference.encodedLength() <= REGION_SIZE) {
+                urinReferences.add(urinReference);
+            }
+        }
+        try (UrinStore<String, Query<String>, Fragment<String>> urinStore = urinStore(scheme("foo"), directory, REGION_SIZE)) {
+            for (final UrinReference<String, Query<String>, Fragment<String>> urinReference : urinReferences) {
+                urinStore.append(urinReference);
+            }
+            for (int i = 0; i < urinReferences.size(); i++) {
+                assertThat(urinStore.get(i).asString(), equalTo(urinReferences.get(i).asString()));
+            }
+        }
+    }
+
+    @Test
+    void reopenedStoreContainsPreviouslyAppendedUrinReferences() throws Exception {
+        try (UrinStore<String, HttpQuery, Fragment<String>> urinStore = urinStore(HTTP, directory, REGION_SIZE)) {
+            urinStore.append(HTTP.parseUrinReference("http://example.com/a"));
+            urinStore.append(HTTP.parseUrinReference("http://example.com/b"));
+        }
+        try (UrinStore<String, HttpQuery, Fragment<String>> urinStore = urinStore(HTTP, directory, REGION_SIZE)) {
+            assertThat(urinStore.size(), equalTo(2L));
+            assertThat(urinStore.append(HTTP.parseUrinReference("http://example.com/c")), equalTo(2L));
+            assertThat(urinStore.get(0).asString(), equalTo("http://example.com/a"));
+            assertThat(urinStore.get(1).asString(), equalTo("http://example.com/b"));
+            assertThat(urinStore.get(2).asString(), equalTo("http://example.com/c"));
+        }
+    }
+
+    @Test
+    void viewsBehaveLikeTheUrinReferencesTheyView() throws Exception {
+        try (UrinStore<String, HttpQuery, Fragment<String>> urinStore = urinStore(HTTP, directory, REGION_SIZE)) {
+            final Urin<String, HttpQuery, Fragment<String>> base = HTTP.parseUrin("http://a/b/c/d;p?q");
+            final UrinReference<String, HttpQuery, Fragment<String>> reference = HTTP.parseUrinReference("../g?y#s");
+            final UrinReference<String, HttpQuery, Fragment<String>> view = urinStore.get(urinStore.append(reference));
+            assertThat(base.resolve(view), equalTo(base.resolve(reference)));
+            assertThat(view.isEquivalentTo(reference), equalTo(true));
+            assertThat(reference.isEquivalentTo(view), equalTo(true));
+            assertThat(view, equalTo(urinStore.get(0)));
+            assertThat(view, equalTo(reference));
+            assertThat(reference, equalTo(view));
+            assertThat(view.hashCode(), equalTo(reference.hashCode()));
+            assertThat(view.fingerprint64(), equalTo(reference.fingerprint64()));
+        }
+    }
+
+    @Test
+    void viewsAreEqualToTheUrisTheyView() throws Exception {
+        try (UrinStore<String, HttpQuery, Fragment<String>> urinStore = urinStore(HTTP, directory, REGION_SIZE)) {
+            final Urin<String, HttpQuery, Fragment<String>> urin = HTTP.parseUrin("http://example.com/a?b=c#d");
+            final UrinReference<String, HttpQuery, Fragment<String>> view = urinStore.get(urinStore.append(urin));
+            assertThat(view.equals(urin), equalTo(true));
+            assertThat(urin.equals(view), equalTo(true));
+            assertThat(view.equals(HTTP.parseUrin("http://example.com/a?b=c")), equalTo(false));
+        }
+    }
+
+    @Test
+    void filesGrowAsTheyAreUsedAndAreTruncatedOnClose() throws Exception {
+        final Urin<String, HttpQuery, Fragment<String>> urin = HTTP.parseUrin("http://example.com/a");
+        try (UrinStore<String, HttpQuery, Fragment<String>> urinStore = urinStore(HTTP, directory)) {
+            urinStore.append(urin);
+            assertThat(Files.size(directory.resolve("urins.log")), lessThan(1L << 20));
+            assertThat(Files.size(directory.resolve("urins.index")), lessThan(1L << 20));
+        }
+        assertThat(Files.size(directory.resolve("urins.log")), equalTo((long) urin.encodedLength()));
+        assertThat(Files.size(directory.resolve("urins.index")), equalTo(16L));
+    }
+
+    @Test
+    void viewsRemainValidWhenTheLastRegionIsRemapped() throws Exception {
+        try (UrinStore<String, HttpQuery, Fragment<String>> urinStore = urinStore(HTTP, directory, 1L << 20)) {
+            final UrinReference<String, HttpQuery, Fragment<String>> first = urinStore.get(urinStore.append(HTTP.parseUrin("http://example.com/first")));
+            for (int i = 0; i < 10000; i++) {
+                urinStore.append(HTTP.parseUrin("http://example.com/" + i));
+            }
+            assertThat(first.asString(), equalTo("http://example.com/first"));
+            assertThat(urinStore.get(10000).asString(), equalTo("http://example.com/9999"));
+        }
+        try (UrinStore<String, HttpQuery, Fragment<String>> urinStore = urinStore(HTTP, directory, 1L << 20)) {
+            assertThat(urinStore.get(5000).asString(), equalTo("http://example.com/4999"));
+        }
+    }
+
+    @Test
+    void rejectsUrinReferencesLongerThanARegion() throws Exception {
+        try (UrinStore<String, HttpQuery, Fragment<String>> urinStore = urinStore(HTTP, directory, REGION_SIZE)) {
+            assertThrows(IllegalArgumentException.class, () -> urinStore.append(HTTP.parseUrinReference("http://example.com/" + "a".repeat((int) REGION_SIZE))));
+        }
+    }
+
+    @Test
+    void rejectsIdsNotInTheStore() throws Exception {
+        try (UrinStore<String, HttpQuery, Fragment<String>> urinStore = urinStore(HTTP, directory, REGION_SIZE)) {
+            urinStore.append(HTTP.parseUrinReference("http://example.com/"));
+            assertThrows(IndexOutOfBoundsException.class, () -> urinStore.get(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> urinStore.get(1));
+        }
+    }
+
+    @Test
+    void rejectsNullArguments() {
+        assertThrows(NullPointerException.class, () -> urinStore(null, directory));
+        assertThrows(NullPointerException.class, () -> urinStore(HTTP, null));
+    }
+}
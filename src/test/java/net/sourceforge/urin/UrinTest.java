@@ -12,6 +12,10 @@ package net.sourceforge.urin;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static net.sourceforge.urin.Authority.authority;
 import static net.sourceforge.urin.AuthorityBuilder.anAuthority;
 import static net.sourceforge.urin.FragmentBuilder.aFragment;
@@ -1423,4 +1427,145 @@ class UrinTest {
         final Host host = aHost();
         assertThat(scheme(schemeName, port).urin(authority(host, port)), equalTo(scheme(schemeName).urin(authority(host))));
     }
+
+    @Test
+    void relativizeRoundTripsRfc3986ReferenceResolutionExamples() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("http");
+        final Urin<String, Query<String>, Fragment<String>> base = scheme.parseUrin("http://a/b/c/d;p?q");
+        for (final String reference : new String[]{"g:h", "g", "./g", "g/", "/g", "//g", "?y", "g?y", "#s", "g#s", "g?y#s", ";x", "g;x", "g;x?y#s", "", ".", "./", "..", "../", "../g", "../..", "../../", "../../g", "g.", ".g", "g..", "..g", "g;x=1/../y", "g?y/../x", "g#s/../x"}) {
+            final Urin<String, Query<String>, Fragment<String>> target = base.resolve(scheme.parseUrinReference(reference));
+            if (!target.asString().startsWith("g:")) {
+                assertThat(reference, base.resolve(base.relativize(target)), equalTo(target));
+            }
+        }
+    }
+
+    @Test
+    void relativizeReturnsShortestRelativeReference() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("http");
+        final Urin<String, Query<String>, Fragment<String>> base = scheme.parseUrin("http://a/b/c/d;p?q");
+        assertThat(base.relativize(scheme.parseUrin("http://a/b/c/d;p?q")).asString(), equalTo(""));
+        assertThat(base.relativize(scheme.parseUrin("http://a/b/c/d;p?q#s")).asString(), equalTo("#s"));
+        assertThat(base.relativize(scheme.parseUrin("http://a/b/c/d;p?y")).asString(), equalTo("?y"));
+        assertThat(base.relativize(scheme.parseUrin("http://a/b/c/d;p")).asString(), equalTo("d;p"));
+        assertThat(base.relativize(scheme.parseUrin("http://a/b/c/g")).asString(), equalTo("g"));
+        assertThat(base.relativize(scheme.parseUrin("http://a/b/c/")).asString(), equalTo("./"));
+        assertThat(base.relativize(scheme.parseUrin("http://a/b/g?y")).asString(), equalTo("../g?y"));
+        assertThat(base.relativize(scheme.parseUrin("http://a/g")).asString(), equalTo("/g"));
+        assertThat(base.relativize(scheme.parseUrin("http://a/b/c/g:h")).asString(), equalTo("./g:h"));
+        assertThat(base.relativize(scheme.parseUrin("http://g/h")).asString(), equalTo("//g/h"));
+        assertThat(base.relativize(scheme.parseUrin("http://a/?y")).asString(), equalTo("/?y"));
+    }
+
+    @Test
+    void relativizesToRootPath() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("http");
+        final Urin<String, Query<String>, Fragment<String>> base = scheme.parseUrin("http://a/b/c");
+        assertThat(base.relativize(scheme.parseUrin("http://a/")).asString(), equalTo("/"));
+        assertThat(base.relativize(scheme.parseUrin("http://a/#f")).asString(), equalTo("/#f"));
+    }
+
+    @Test
+    void relativizesToRootPathWithoutAuthority() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("foo");
+        final Urin<String, Query<String>, Fragment<String>> base = scheme.parseUrin("foo:/x/y/");
+        assertThat(base.relativize(scheme.parseUrin("foo:/")).asString(), equalTo("/"));
+        assertThat(base.resolve(base.relativize(scheme.parseUrin("foo:/#f"))), equalTo(scheme.parseUrin("foo:/#f")));
+    }
+
+    @Test
+    void relativizeRejectsUrinWithDifferentScheme() throws Exception {
+        final Urin<String, Query<String>, Fragment<String>> base = scheme("http").parseUrin("http://a/b/c/d;p?q");
+        assertThrows(IllegalArgumentException.class, () -> base.relativize(scheme("https").parseUrin("https://a/b/c/d;p?q")));
+    }
+
+    @Test
+    void relativizeRejectsUrinThatCannotBeReachedByRelativeReference() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("foo");
+        final Urin<String, Query<String>, Fragment<String>> base = scheme.parseUrin("foo://a/b");
+        assertThrows(IllegalArgumentException.class, () -> base.relativize(scheme.parseUrin("foo:b")));
+    }
+
+    @Test
+    void resolvesRelativePathAgainstBaseWithoutAuthority() throws Exception {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = scheme("foo");
+        assertThat(scheme.parseUrin("foo:/b/c").resolve(scheme.parseRelativeReference("g")), equalTo(scheme.parseUrin("foo:/b/g")));
+        assertThat(scheme.parseUrin("foo:/b/c?q").resolve(scheme.parseRelativeReference("g")), equalTo(scheme.parseUrin("foo:/b/g")));
+    }
+
+    @Test
+    void aUrinWithoutAQueryWithANewQueryIsCorrect() {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = aScheme();
+        final Authority authority = anAuthority();
+        final Path<String> path = aPath();
+        final AbsolutePath<String> absolutePath = anAbsolutePath();
+        final Fragment<String> fragment = aFragment();
+        final Query<String> newQuery = aQuery();
+        assertThat(scheme.urin().withQuery(newQuery), equalTo(scheme.urin(newQuery)));
+        assertThat(scheme.urin(path).withQuery(newQuery), equalTo(scheme.urin(path, newQuery)));
+        assertThat(scheme.urin(authority).withQuery(newQuery), equalTo(scheme.urin(authority, newQuery)));
+        assertThat(scheme.urin(authority, absolutePath).withQuery(newQuery), equalTo(scheme.urin(authority, absolutePath, newQuery)));
+        assertThat(scheme.urin(fragment).withQuery(newQuery), equalTo(scheme.urin(newQuery, fragment)));
+        assertThat(scheme.urin(path, fragment).withQuery(newQuery), equalTo(scheme.urin(path, newQuery, fragment)));
+        assertThat(scheme.urin(authority, fragment).withQuery(newQuery), equalTo(scheme.urin(authority, newQuery, fragment)));
+        assertThat(scheme.urin(authority, absolutePath, fragment).withQuery(newQuery), equalTo(scheme.urin(authority, absolutePath, newQuery, fragment)));
+    }
+
+    @Test
+    void aUrinWithAQueryReplacedWithANewQueryIsCorrect() {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = aScheme();
+        final Authority authority = anAuthority();
+        final Path<String> path = aPath();
+        final AbsolutePath<String> absolutePath = anAbsolutePath();
+        final Query<String> query = aQuery();
+        final Fragment<String> fragment = aFragment();
+        final Query<String> newQuery = aQuery();
+        assertThat(scheme.urin(path, query).withQuery(newQuery), equalTo(scheme.urin(path, newQuery)));
+        assertThat(scheme.urin(authority, absolutePath, query).withQuery(newQuery), equalTo(scheme.urin(authority, absolutePath, newQuery)));
+        assertThat(scheme.urin(path, query, fragment).withQuery(newQuery), equalTo(scheme.urin(path, newQuery, fragment)));
+        assertThat(scheme.urin(authority, absolutePath, query, fragment).withQuery(newQuery), equalTo(scheme.urin(authority, absolutePath, newQuery, fragment)));
+    }
+
+    @Test
+    void rejectsNullInWithQuery() {
+        assertThrows(NullPointerException.class, () -> aUrin().withQuery(null));
+    }
+
+    @Test
+    void aUrinWithoutQueryIsCorrect() {
+        final Scheme<String, Query<String>, Fragment<String>> scheme = aScheme();
+        final Authority authority = anAuthority();
+        final Path<String> path = aPath();
+        final AbsolutePath<String> absolutePath = anAbsolutePath();
+        final Query<String> query = aQuery();
+        final Fragment<String> fragment = aFragment();
+        assertThat(scheme.urin(path, query).withoutQuery(), equalTo(scheme.urin(path)));
+        assertThat(scheme.urin(authority, absolutePath, query).withoutQuery(), equalTo(scheme.urin(authority, absolutePath)));
+        assertThat(scheme.urin(path, query, fragment).withoutQuery(), equalTo(scheme.urin(path, fragment)));
+        assertThat(scheme.urin(authority, absolutePath, query, fragment).withoutQuery(), equalTo(scheme.urin(authority, absolutePath, fragment)));
+        assertThat(scheme.urin(path).withoutQuery(), equalTo(scheme.urin(path)));
+        assertThat(scheme.urin(authority, absolutePath, fragment).withoutQuery(), equalTo(scheme.urin(authority, absolutePath, fragment)));
+    }
+
+    @Test
+    void writesPathAndQueryToByteBuffer() throws Exception {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(64);
+        scheme("http").parseUrin("http://a/b/c?d=e#f").writePathAndQueryTo(byteBuffer);
+        assertThat(new String(byteBuffer.array(), 0, byteBuffer.position(), US_ASCII), equalTo("/b/c?d=e"));
+    }
+
+    @Test
+    void writesSlashForEmptyPathWhenWritingPathAndQuery() throws Exception {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(64);
+        scheme("http").parseUrin("http://a?d").writePathAndQueryTo(byteBuffer);
+        assertThat(new String(byteBuffer.array(), 0, byteBuffer.position(), US_ASCII), equalTo("/?d"));
+    }
+
+    @Test
+    void writingPathAndQueryToByteBufferWithTooFewBytesRemainingWritesNothing() throws Exception {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(7);
+        assertThrows(BufferOverflowException.class, () -> scheme("http").parseUrin("http://a/b/c?d=e").writePathAndQueryTo(byteBuffer));
+        assertThat(byteBuffer.position(), equalTo(0));
+    }
+
 }
@@ -10,15 +10,29 @@
 
 package net.sourceforge.urin.scheme.http;
 
+import net.sourceforge.urin.Fragment;
+import net.sourceforge.urin.ParseException;
+import net.sourceforge.urin.Urin;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static net.sourceforge.urin.Authority.authority;
+import static net.sourceforge.urin.Host.registeredName;
 import static net.sourceforge.urin.MoreRandomStringUtils.aString;
 import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameter;
 import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameters;
 import static net.sourceforge.urin.scheme.http.QueryParameterBuilder.*;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -164,4 +178,173 @@ class HttpQueryTest {
     void queryParametersWithSingleValuelessQueryParameterNamedEmptyStringIsEqualToEmptyQueryParametersBecauseTheUriRepresentationOfBothIsIdentical() {
         assertThat(queryParameters(queryParameter("")), equalTo(queryParameters()));
     }
+
+    @Test
+    void containsFindsQueryParametersWithAndWithoutValues() {
+        final HttpQuery query = queryParameters(queryParameter("a", "1"), queryParameter("b"));
+        assertThat(query.contains("a"), equalTo(true));
+        assertThat(query.contains("b"), equalTo(true));
+        assertThat(query.contains("c"), equalTo(false));
+    }
+
+    @Test
+    void getReturnsFirstValueForName() {
+        final HttpQuery query = queryParameters(queryParameter("a"), queryParameter("b", "1"), queryParameter("a", "2"), queryParameter("a", "3"));
+        assertThat(query.get("a"), equalTo(Optional.of("2")));
+        assertThat(query.get("b"), equalTo(Optional.of("1")));
+        assertThat(query.get("c"), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void getAllReturnsAllValuesForNameInOrder() {
+        final HttpQuery query = queryParameters(queryParameter("a", "3"), queryParameter("b", "1"), queryParameter("a", "2"), queryParameter("a", "3"), queryParameter("c"));
+        assertThat(query.getAll("a"), contains("3", "2", "3"));
+        assertThat(query.getAll("c"), equalTo(emptyList()));
+        assertThat(query.getAll("d"), equalTo(emptyList()));
+    }
+
+    @Test
+    void asMapIsInOrderOfFirstAppearanceAndLeavesIterationUnchanged() {
+        final HttpQuery query = queryParameters(queryParameter("b", "1"), queryParameter("a"), queryParameter("b", "2"));
+        final Map<String, List<String>> expected = new LinkedHashMap<>();
+        expected.put("b", asList("1", "2"));
+        expected.put("a", emptyList());
+        assertThat(query.asMap(), equalTo(expected));
+        assertThat(query.asMap().keySet(), contains("b", "a"));
+        assertThat(query, contains(queryParameter("b", "1"), queryParameter("a"), queryParameter("b", "2")));
+    }
+
+    @Test
+    void asMapIsUnmodifiable() {
+        final HttpQuery query = queryParameters(queryParameter("a", "1"));
+        assertThrows(UnsupportedOperationException.class, () -> query.asMap().put("b", emptyList()));
+        assertThrows(UnsupportedOperationException.class, () -> query.getAll("a").add("2"));
+    }
+
+    @Test
+    void lookupWorksOnParsedQuery() throws Exception {
+        final HttpQuery query = Http.parseHttpUrin("http://example.com/?utm_source=a+b&x=1;utm_source=c").query();
+        assertThat(query.get("utm_source"), equalTo(Optional.of("a b")));
+        assertThat(query.getAll("utm_source"), contains("a b", "c"));
+    }
+
+    @Test
+    void withParameterAddsQueryParameterToTheEnd() {
+        final HttpQuery query = queryParameters(queryParameter("a", "1"), queryParameter("b"));
+        assertThat(query.withParameter(queryParameter("c d", "e&f")), equalTo(queryParameters(queryParameter("a", "1"), queryParameter("b"), queryParameter("c d", "e&f"))));
+        assertThat(Http.http(authority(registeredName("a"))).withQuery(query.withParameter(queryParameter("c d", "e&f"))).asString(), equalTo("http://a/?a=1&b&c+d=e%26f"));
+        assertThat(query, equalTo(queryParameters(queryParameter("a", "1"), queryParameter("b"))));
+    }
+
+    @Test
+    void withReplacedParameterReplacesFirstQueryParameterWithTheSameNameAndRemovesTheRest() {
+        final HttpQuery query = queryParameters(queryParameter("a", "1"), queryParameter("b", "2"), queryParameter("a"), queryParameter("c", "3"));
+        assertThat(query.withReplacedParameter(queryParameter("a", "4")), equalTo(queryParameters(queryParameter("a", "4"), queryParameter("b", "2"), queryParameter("c", "3"))));
+        assertThat(query.withReplacedParameter(queryParameter("d", "5")), equalTo(queryParameters(queryParameter("a", "1"), queryParameter("b", "2"), queryParameter("a"), queryParameter("c", "3"), queryParameter("d", "5"))));
+    }
+
+    @Test
+    void withoutParameterRemovesAllQueryParametersWithTheName() {
+        final HttpQuery query = queryParameters(queryParameter("utm_source", "x"), queryParameter("id", "1"), queryParameter("utm_source"));
+        assertThat(query.withoutParameter("utm_source"), equalTo(queryParameters(queryParameter("id", "1"))));
+        assertThat(query.withoutParameter("missing"), sameInstance(query));
+    }
+
+    @Test
+    void withoutParametersRemovesAllMatchingQueryParameters() throws Exception {
+        final Urin<String, HttpQuery, Fragment<String>> urin = Http.parseHttpUrin("http://example.com/?utm_source=a&id=1;utm_medium=b&q=c+d");
+        final HttpQuery query = urin.query();
+        assertThat(urin.withQuery(query.withoutParameters(queryParameter -> queryParameter.name().startsWith("utm_"))).asString(), equalTo("http://example.com/?id=1&q=c+d"));
+        assertThat(query.withoutParameters(queryParameter -> true), equalTo(queryParameters()));
+    }
+
+    @Test
+    void rejectsNullInWithers() {
+        final HttpQuery query = queryParameters(queryParameter("a", "1"));
+        assertThrows(NullPointerException.class, () -> query.withParameter(null));
+        assertThrows(NullPointerException.class, () -> query.withReplacedParameter(null));
+        assertThrows(NullPointerException.class, () -> query.withoutParameter(null));
+        assertThrows(NullPointerException.class, () -> query.withoutParameters(null));
+    }
+
+    @Test
+    void urinWithQueryUsesNewQuery() throws Exception {
+        final Urin<String, HttpQuery, Fragment<String>> urin = Http.parseHttpUrin("http://example.com/a%20b?utm_source=x&id=1#f");
+        assertThat(urin.withQuery(urin.query().withoutParameter("utm_source").withParameter(queryParameter("sig", "abc"))).asString(), equalTo("http://example.com/a%20b?id=1&sig=abc#f"));
+    }
+
+    @Test
+    void parsedQueryParameterExposesEncodedNameAndValue() throws Exception {
+        final HttpQuery query = Http.parseHttpUrin("http://example.com/?a%20b=c+d%26e&f").query();
+        final List<HttpQuery.QueryParameter> queryParameters = new ArrayList<>();
+        query.forEach(queryParameters::add);
+        assertThat(queryParameters.get(0).encodedName(), equalTo("a%20b"));
+        assertThat(queryParameters.get(0).encodedValue(), equalTo("c+d%26e"));
+        assertThat(queryParameters.get(0).name(), equalTo("a b"));
+        assertThat(queryParameters.get(0).value(), equalTo("c d&e"));
+        assertThat(queryParameters.get(1).encodedName(), equalTo("f"));
+        assertThrows(UnsupportedOperationException.class, () -> queryParameters.get(1).encodedValue());
+    }
+
+    @Test
+    void constructedQueryParameterExposesEncodedNameAndValue() {
+        assertThat(queryParameter("a b", "c&d=e").encodedName(), equalTo("a+b"));
+        assertThat(queryParameter("a b", "c&d=e").encodedValue(), equalTo("c%26d%3De"));
+        assertThrows(UnsupportedOperationException.class, () -> queryParameter("a").encodedValue());
+    }
+
+    @Test
+    void parsedQueryParametersAreEqualToConstructedQueryParameters() throws Exception {
+        final HttpQuery query = Http.parseHttpUrin("http://example.com/?a%20b=c+d;e").query();
+        assertThat(query, equalTo(queryParameters(queryParameter("a b", "c d"), queryParameter("e"))));
+        assertThat(query.hashCode(), equalTo(queryParameters(queryParameter("a b", "c d"), queryParameter("e")).hashCode()));
+        assertThat(queryParameters(queryParameter("a b", "c d"), queryParameter("e")), equalTo(query));
+    }
+
+    @Test
+    void parsedQueryIsRenderedInNormalForm() throws Exception {
+        assertThat(Http.parseHttpUrin("http://example.com/?&b=%41;c").asString(), equalTo("http://example.com/?&b=A&c"));
+    }
+
+    @Test
+    void parsingRejectsInvalidPercentEncodingInAnyQueryParameter() {
+        assertThrows(ParseException.class, () -> Http.parseHttpUrin("http://example.com/?a=1&b=%zz"));
+        assertThrows(ParseException.class, () -> Http.parseHttpUrin("http://example.com/?a=1&b=%C3"));
+    }
+
+    @Test
+    void getLongParsesFirstValueForName() throws Exception {
+        final HttpQuery query = Http.parseHttpUrin("http://example.com/?id&id=-123&id=456&other=x").query();
+        assertThat(query.getLong("id"), equalTo(OptionalLong.of(-123)));
+        assertThat(query.getLong("missing"), equalTo(OptionalLong.empty()));
+        assertThat(queryParameters(queryParameter("id", "789")).getLong("id"), equalTo(OptionalLong.of(789)));
+    }
+
+    @Test
+    void getLongRejectsInvalidLong() throws Exception {
+        assertThrows(ParseException.class, () -> Http.parseHttpUrin("http://example.com/?id=%31").query().getLong("id"));
+        assertThrows(ParseException.class, () -> Http.parseHttpUrin("http://example.com/?id=1+2").query().getLong("id"));
+        assertThrows(ParseException.class, () -> queryParameters(queryParameter("id", "x")).getLong("id"));
+    }
+
+    @Test
+    void encodedQueryParametersAreRenderedAsGiven() throws Exception {
+        assertThat(Http.http(authority(registeredName("a"))).withQuery(HttpQuery.encodedQueryParameters("a=b%20c&d=%41")).asString(), equalTo("http://a/?a=b%20c&d=%41"));
+    }
+
+    @Test
+    void encodedQueryParametersAreEqualToQueryParametersOfDecodedValues() throws Exception {
+        final HttpQuery encodedQueryParameters = HttpQuery.encodedQueryParameters("a=b%20c&d=%41&e");
+        assertThat(encodedQueryParameters, equalTo(queryParameters(queryParameter("a", "b c"), queryParameter("d", "A"), queryParameter("e"))));
+        assertThat(encodedQueryParameters.hashCode(), equalTo(queryParameters(queryParameter("a", "b c"), queryParameter("d", "A"), queryParameter("e")).hashCode()));
+        assertThat(encodedQueryParameters.get("d"), equalTo(Optional.of("A")));
+    }
+
+    @Test
+    void rejectsInvalidEncodedQueryParameters() {
+        assertThrows(ParseException.class, () -> HttpQuery.encodedQueryParameters("a=b#c"));
+        assertThrows(ParseException.class, () -> HttpQuery.encodedQueryParameters("a=%zz"));
+        assertThrows(ParseException.class, () -> HttpQuery.encodedQueryParameters("a=b=c"));
+    }
+
 }
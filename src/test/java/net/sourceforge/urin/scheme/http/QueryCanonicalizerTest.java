@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 Mark Slater
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package net.sourceforge.urin.scheme.http;
+
+import net.sourceforge.urin.Fragment;
+import net.sourceforge.urin.Urin;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static net.sourceforge.urin.scheme.http.Http.parseHttpUrin;
+import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameter;
+import static net.sourceforge.urin.scheme.http.HttpQuery.queryParameters;
+import static net.sourceforge.urin.scheme.http.QueryCanonicalizer.queryCanonicalizer;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryCanonicalizerTest {
+
+    @Test
+    void sortsQueryParametersByNameThenValue() {
+        final HttpQuery query = queryParameters(queryParameter("b", "2"), queryParameter("a-", "1"), queryParameter("a", "2"), queryParameter("a", "10"), queryParameter("a"), queryParameter("b", "1"));
+        assertThat(queryCanonicalizer().canonicalize(query), contains(queryParameter("a"), queryParameter("a", "10"), queryParameter("a", "2"), queryParameter("a-", "1"), queryParameter("b", "1"), queryParameter("b", "2")));
+    }
+
+    @Test
+    void removesQueryParametersWithGivenNames() {
+        final HttpQuery query = queryParameters(queryParameter("utm_source", "x"), queryParameter("id", "1"), queryParameter("utm medium"), queryParameter("q", "a b"));
+        assertThat(queryCanonicalizer("utm_source", "utm medium").canonicalize(query), contains(queryParameter("id", "1"), queryParameter("q", "a b")));
+    }
+
+    @Test
+    void removesParsedQueryParametersWhateverTheirEncoding() throws Exception {
+        final HttpQuery query = parseHttpUrin("http://example.com/?utm%5Fsource=x&utm+medium&id=1").query();
+        assertThat(queryCanonicalizer("utm_source", "utm medium").canonicalize(query), contains(queryParameter("id", "1")));
+    }
+
+    @Test
+    void canonicalizesUrinQueryAndDropsEmptyQuery() throws Exception {
+        final QueryCanonicalizer queryCanonicalizer = queryCanonicalizer("utm_source");
+        assertThat(queryCanonicalizer.canonicalize(parseHttpUrin("http://example.com/a?z=1&utm_source=x&b=%41#f")).asString(), equalTo("http://example.com/a?b=A&z=1#f"));
+        assertThat(queryCanonicalizer.canonicalize(parseHttpUrin("http://example.com/a?utm_source=x#f")).asString(), equalTo("http://example.com/a#f"));
+        final Urin<String, HttpQuery, Fragment<String>> urinWithoutQuery = parseHttpUrin("http://example.com/a");
+        assertThat(queryCanonicalizer.canonicalize(urinWithoutQuery), sameInstance(urinWithoutQuery));
+    }
+
+    @Test
+    void canonicalizeToAppendsTheSameAsCanonicalize() throws Exception {
+        final QueryCanonicalizer queryCanonicalizer = queryCanonicalizer("utm_source");
+        final Urin<String, HttpQuery, Fragment<String>> urin = parseHttpUrin("http://example.com/?z=1&utm_source=x&b=c+d;a");
+        final StringBuilder stringBuilder = new StringBuilder("prefix?");
+        queryCanonicalizer.canonicalizeTo(urin.query(), stringBuilder);
+        assertThat(stringBuilder.toString(), equalTo("prefix?a&b=c+d&z=1"));
+        assertThat(queryCanonicalizer.canonicalize(urin).asString(), equalTo("http://example.com/?a&b=c+d&z=1"));
+    }
+
+    @Test
+    void canonicalHashCodeIsHashCodeOfCanonicalForm() throws Exception {
+        final QueryCanonicalizer queryCanonicalizer = queryCanonicalizer("utm_source");
+        for (final String uri : asList("http://example.com/?z=1&utm_source=x&b=c+d;a", "http://example.com/?", "http://example.com/?&&a", "http://example.com/?utm_source")) {
+            final HttpQuery query = parseHttpUrin(uri).query();
+            final StringBuilder stringBuilder = new StringBuilder();
+            queryCanonicalizer.canonicalizeTo(query, stringBuilder);
+            assertThat(uri, queryCanonicalizer.canonicalHashCode(query), equalTo(stringBuilder.toString().hashCode()));
+        }
+    }
+
+    @Test
+    void queriesThatDifferOnlyInOrderHaveTheSameCanonicalForm() throws Exception {
+        final QueryCanonicalizer queryCanonicalizer = queryCanonicalizer();
+        assertThat(queryCanonicalizer.canonicalize(parseHttpUrin("http://example.com/?b=2&a=1").query()), equalTo(queryCanonicalizer.canonicalize(parseHttpUrin("http://example.com/?a=1;b=2").query())));
+    }
+
+    @Test
+    void rejectsNullRemovedName() {
+        assertThrows(NullPointerException.class, () -> queryCanonicalizer("a", null));
+    }
+
+    @Test
+    void queryCanonicalizersWithTheSameRemovedNamesAreEqual() {
+        assertThat(queryCanonicalizer("a", "b"), equalTo(queryCanonicalizer(asList("a", "b"))));
+        assertThat(queryCanonicalizer("a", "b").hashCode(), equalTo(queryCanonicalizer(asList("a", "b")).hashCode()));
+        assertThat(queryCanonicalizer("a"), not(equalTo(queryCanonicalizer("b"))));
+    }
+
+    @Test
+    void queryCanonicalizerToStringIsCorrect() {
+        assertThat(queryCanonicalizer("a", "b").toString(), equalTo("QueryCanonicalizer{removedNames=[a, b]}"));
+    }
+}